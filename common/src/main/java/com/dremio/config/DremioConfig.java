@@ -80,6 +80,7 @@ public class DremioConfig extends NestedConfig {
   public static final String CACHE_DB_QUOTA = "services.executor.cache.pctquota.db";
   public static final String CACHE_FS_QUOTA_LIST = "services.executor.cache.pctquota.fs";
   public static final String CACHE_FS_ENSURE_FREE_SPACE_LIST = "services.executor.cache.ensurefreespace.fs";
+  public static final String CACHE_BLOCK_ENABLED = "services.executor.cache.block.enabled";
 
   public static final String JOBS_ENABLED_BOOL = "services.jobs.enabled";
   public static final String NO_OP_CLUSTER_COORDINATOR_ENABLED = "debug.noop.cluster" +
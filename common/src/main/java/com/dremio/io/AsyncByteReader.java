@@ -45,6 +45,25 @@ public interface AsyncByteReader extends AutoCloseable {
    */
   CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len);
 
+  /**
+   * Read several ranges of the underlying data. Implementations may serve nearby ranges with a single read,
+   * see {@link RangeReadPlanner}.
+   * @param ranges The ranges to read, each with its own destination.
+   * @return A CompletableFuture that will be informed when all the ranges are read.
+   */
+  default CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+    if (ranges.size() == 1) {
+      final ReadRange range = ranges.get(0);
+      return readFully(range.getOffset(), range.getDst(), range.getDstOffset(), range.getLength());
+    }
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[ranges.size()];
+    for (int i = 0; i < futures.length; i++) {
+      final ReadRange range = ranges.get(i);
+      futures[i] = readFully(range.getOffset(), range.getDst(), range.getDstOffset(), range.getLength());
+    }
+    return CompletableFuture.allOf(futures);
+  }
+
   /**
    * Checks if the version of the file being read has changed. Note that
    * this should create a singleton instance of the Future to checkVersion. This API
@@ -125,6 +144,43 @@ public interface AsyncByteReader extends AutoCloseable {
     public void setValue(double newValue) { value = newValue;}
   }
 
+  /**
+   * A range of the underlying data to read, and where to read it to.
+   */
+  final class ReadRange {
+    private final long offset;
+    private final ByteBuf dst;
+    private final int dstOffset;
+    private final int len;
+
+    public ReadRange(long offset, ByteBuf dst, int dstOffset, int len) {
+      this.offset = offset;
+      this.dst = dst;
+      this.dstOffset = dstOffset;
+      this.len = len;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public ByteBuf getDst() {
+      return dst;
+    }
+
+    public int getDstOffset() {
+      return dstOffset;
+    }
+
+    public int getLength() {
+      return len;
+    }
+
+    public long getEnd() {
+      return offset + len;
+    }
+  }
+
   /**
    * Interface to exchange all properties associated with the file or object for which the async reader
    * is required.  The full path, version, and file type should completely qualify this file or object
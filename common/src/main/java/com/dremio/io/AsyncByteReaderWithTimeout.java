@@ -74,6 +74,20 @@ public class AsyncByteReaderWithTimeout extends ReusableAsyncByteReader {
     return future;
   }
 
+  @Override
+  public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+    CompletableFuture<Void> future = within(inner.readFully(ranges), timeoutInMillis);
+    future = future.whenComplete((result, throwable) -> {
+      if (ErrorHelper.findWrappedCause(throwable, AsyncTimeoutException.class) != null) {
+        // same as above, for each of the buffers being read into
+        for (ReadRange range : ranges) {
+          range.getDst().retain();
+        }
+      }
+    });
+    return future;
+  }
+
   /**
    * if the future cannot complete within 'millis', fail with TimeoutException.
    */
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dremio.io.AsyncByteReader.ReadRange;
+import com.dremio.io.AsyncByteReader.ReaderStat;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Plans the requests used to read ranges of a file from a store where each request pays a high first byte latency,
+ * such as an object store.
+ *
+ * Ranges separated by at most {@code maxGap} bytes are read with a single request, as long as the request stays
+ * under {@code maxRequestSize} bytes, and are then copied out of its response. The response is held in a buffer
+ * from the allocator of the first destination, so that it is accounted like the destinations themselves. Ranges
+ * larger than {@code maxRequestSize} are split into parts read in parallel.
+ *
+ * An instance keeps the statistics of the requests it planned, and is meant to be used by a single reader.
+ */
+public final class RangeReadPlanner {
+  /**
+   * Configuration property for the largest gap between two ranges read with a single request.
+   */
+  public static final String MAX_GAP_BYTES = "dremio.async.read.coalesce.max_gap_bytes";
+  /**
+   * Configuration property for the largest amount of bytes read by a single request.
+   */
+  public static final String MAX_REQUEST_BYTES = "dremio.async.read.max_request_bytes";
+
+  public static final long DEFAULT_MAX_GAP_BYTES = 512 * 1024;
+  public static final long DEFAULT_MAX_REQUEST_BYTES = 8 * 1024 * 1024;
+
+  /**
+   * Reads a single range of the underlying data, without any planning.
+   */
+  @FunctionalInterface
+  public interface RangeReader {
+    CompletableFuture<Void> read(long offset, ByteBuf dst, int dstOffset, int len);
+  }
+
+  private final long maxGap;
+  private final int maxRequestSize;
+
+  private final AtomicLong rangeCount = new AtomicLong();
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong requestsSaved = new AtomicLong();
+  private final AtomicLong partCount = new AtomicLong();
+  private final AtomicLong bytesOverRead = new AtomicLong();
+
+  public RangeReadPlanner(long maxGap, long maxRequestSize) {
+    Preconditions.checkArgument(maxGap >= 0, "max gap must be positive");
+    Preconditions.checkArgument(maxRequestSize > 0 && maxRequestSize <= Integer.MAX_VALUE,
+      "max request size must be between 1 and %s", Integer.MAX_VALUE);
+    this.maxGap = maxGap;
+    this.maxRequestSize = (int) maxRequestSize;
+  }
+
+  public static RangeReadPlanner defaultPlanner() {
+    return new RangeReadPlanner(DEFAULT_MAX_GAP_BYTES, DEFAULT_MAX_REQUEST_BYTES);
+  }
+
+  /**
+   * Reads a single range, splitting it into parts if it is too large for one request.
+   */
+  public CompletableFuture<Void> read(long offset, ByteBuf dst, int dstOffset, int len, RangeReader reader) {
+    rangeCount.incrementAndGet();
+    if (len <= maxRequestSize) {
+      requestCount.incrementAndGet();
+      return reader.read(offset, dst, dstOffset, len);
+    }
+    return execute(split(new ReadRange(offset, dst, dstOffset, len)), reader);
+  }
+
+  /**
+   * Reads several ranges, merging the nearby ones and splitting the large ones.
+   */
+  public CompletableFuture<Void> read(List<ReadRange> ranges, RangeReader reader) {
+    if (ranges.isEmpty()) {
+      return AsyncByteReader.completedFuture;
+    }
+    rangeCount.addAndGet(ranges.size());
+    return execute(plan(ranges), reader);
+  }
+
+  @VisibleForTesting
+  List<Request> plan(List<ReadRange> ranges) {
+    final List<ReadRange> sorted = new ArrayList<>(ranges.size());
+    for (ReadRange range : ranges) {
+      if (range.getLength() > 0) {
+        sorted.add(range);
+      }
+    }
+    sorted.sort(Comparator.comparingLong(ReadRange::getOffset));
+
+    final List<Request> requests = new ArrayList<>();
+    List<ReadRange> group = new ArrayList<>();
+    long start = 0;
+    long end = 0;
+    long covered = 0;
+    for (ReadRange range : sorted) {
+      if (!group.isEmpty()
+        && range.getOffset() - end <= maxGap
+        && Math.max(end, range.getEnd()) - start <= maxRequestSize) {
+        covered += Math.max(0, range.getEnd() - Math.max(range.getOffset(), end));
+        end = Math.max(end, range.getEnd());
+        group.add(range);
+        continue;
+      }
+      addRequests(requests, group, start, end, covered);
+      group = new ArrayList<>();
+      group.add(range);
+      start = range.getOffset();
+      end = range.getEnd();
+      covered = range.getLength();
+    }
+    addRequests(requests, group, start, end, covered);
+    return requests;
+  }
+
+  private void addRequests(List<Request> requests, List<ReadRange> group, long start, long end, long covered) {
+    if (group.isEmpty()) {
+      return;
+    }
+    if (group.size() == 1) {
+      final ReadRange range = group.get(0);
+      if (range.getLength() > maxRequestSize) {
+        requests.addAll(split(range));
+      } else {
+        requestCount.incrementAndGet();
+        requests.add(new Request(range.getOffset(), range.getLength(), group));
+      }
+      return;
+    }
+
+    requestCount.incrementAndGet();
+    requestsSaved.addAndGet(group.size() - 1);
+    bytesOverRead.addAndGet(end - start - covered);
+    requests.add(new Request(start, (int) (end - start), group));
+  }
+
+  /**
+   * Splits a range into parts, each read straight into its own slice of the destination buffer.
+   */
+  private List<Request> split(ReadRange range) {
+    final List<Request> parts = new ArrayList<>();
+    for (int position = 0; position < range.getLength(); position += maxRequestSize) {
+      final int length = Math.min(maxRequestSize, range.getLength() - position);
+      final long offset = range.getOffset() + position;
+      // slices keep their own indices, as some readers write through the buffer writer index
+      final ByteBuf slice = range.getDst().slice(range.getDstOffset() + position, length);
+      parts.add(new Request(offset, length, Collections.singletonList(new ReadRange(offset, slice, 0, length))));
+    }
+    requestCount.addAndGet(parts.size());
+    partCount.addAndGet(parts.size());
+    return parts;
+  }
+
+  private static CompletableFuture<Void> execute(List<Request> requests, RangeReader reader) {
+    if (requests.size() == 1) {
+      return execute(requests.get(0), reader);
+    }
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[requests.size()];
+    for (int i = 0; i < futures.length; i++) {
+      futures[i] = execute(requests.get(i), reader);
+    }
+    return CompletableFuture.allOf(futures);
+  }
+
+  private static CompletableFuture<Void> execute(Request request, RangeReader reader) {
+    if (request.isDirect()) {
+      final ReadRange range = request.ranges.get(0);
+      return reader.read(range.getOffset(), range.getDst(), range.getDstOffset(), range.getLength());
+    }
+
+    final ByteBuf buf = request.ranges.get(0).getDst().alloc().directBuffer(request.length, request.length);
+    final CompletableFuture<Void> future;
+    try {
+      future = reader.read(request.offset, buf, 0, request.length);
+    } catch (RuntimeException | Error e) {
+      buf.release();
+      throw e;
+    }
+    // the buffer is released once the read is done, even if the caller stopped waiting for it
+    return future
+      .thenRun(() -> {
+        for (ReadRange range : request.ranges) {
+          range.getDst().setBytes(range.getDstOffset(), buf, (int) (range.getOffset() - request.offset),
+            range.getLength());
+        }
+      })
+      .whenComplete((v, t) -> buf.release());
+  }
+
+  /**
+   * @return statistics on the requests planned so far
+   */
+  public List<ReaderStat> getStats() {
+    return ImmutableList.of(
+      new ReaderStat("rangesRead", rangeCount.get()),
+      new ReaderStat("rangeRequests", requestCount.get()),
+      new ReaderStat("rangeRequestsSaved", requestsSaved.get()),
+      new ReaderStat("rangePartRequests", partCount.get()),
+      new ReaderStat("rangeBytesOverRead", bytesOverRead.get()));
+  }
+
+  /**
+   * A single request, serving one or more ranges.
+   */
+  @VisibleForTesting
+  static final class Request {
+    private final long offset;
+    private final int length;
+    private final List<ReadRange> ranges;
+
+    private Request(long offset, int length, List<ReadRange> ranges) {
+      this.offset = offset;
+      this.length = length;
+      this.ranges = ranges;
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    int getLength() {
+      return length;
+    }
+
+    List<ReadRange> getRanges() {
+      return ranges;
+    }
+
+    /**
+     * @return true if the request reads a single range straight into its destination
+     */
+    boolean isDirect() {
+      return ranges.size() == 1;
+    }
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.io.AsyncByteReader.ReadRange;
+import com.dremio.io.AsyncByteReader.ReaderStat;
+import com.dremio.test.AllocatorRule;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tests for {@link RangeReadPlanner}
+ */
+public class RangeReadPlannerTest {
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private static final byte[] DATA = new byte[1000];
+  static {
+    for (int i = 0; i < DATA.length; i++) {
+      DATA[i] = (byte) i;
+    }
+  }
+
+  /**
+   * Reads from {@link #DATA}, recording the requests.
+   */
+  private static final class RecordingReader implements RangeReadPlanner.RangeReader {
+    private final List<long[]> requests = new ArrayList<>();
+
+    @Override
+    public CompletableFuture<Void> read(long offset, ByteBuf dst, int dstOffset, int len) {
+      synchronized (requests) {
+        requests.add(new long[] {offset, len});
+      }
+      dst.setBytes(dstOffset, DATA, (int) offset, len);
+      return AsyncByteReader.completedFuture;
+    }
+  }
+
+  private static void assertContent(ByteBuf buf, int bufOffset, long offset, int len) {
+    for (int i = 0; i < len; i++) {
+      assertEquals(DATA[(int) offset + i], buf.getByte(bufOffset + i));
+    }
+  }
+
+  private static double getStat(RangeReadPlanner planner, String name) {
+    for (ReaderStat stat : planner.getStats()) {
+      if (stat.getName().equals(name)) {
+        return stat.getValue();
+      }
+    }
+    throw new AssertionError("missing stat " + name);
+  }
+
+  @Test
+  public void testMergeNearbyRanges() {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 100);
+    final ByteBuf dst = Unpooled.buffer(60);
+    // out of order, with a gap of 5 and an overlap
+    final List<ReadRange> ranges = Arrays.asList(
+      new ReadRange(125, dst, 20, 20),
+      new ReadRange(100, dst, 0, 20),
+      new ReadRange(140, dst, 40, 20));
+
+    final RecordingReader reader = new RecordingReader();
+    planner.read(ranges, reader).join();
+
+    assertEquals(1, reader.requests.size());
+    assertEquals(100, reader.requests.get(0)[0]);
+    assertEquals(60, reader.requests.get(0)[1]);
+    for (ReadRange range : ranges) {
+      assertContent(dst, range.getDstOffset(), range.getOffset(), range.getLength());
+    }
+    assertEquals(2, getStat(planner, "rangeRequestsSaved"), 0);
+    assertEquals(5, getStat(planner, "rangeBytesOverRead"), 0);
+  }
+
+  @Test
+  public void testDistantRangesNotMerged() {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 100);
+    final ByteBuf dst = Unpooled.buffer(40);
+    final List<ReadRange> ranges = Arrays.asList(
+      new ReadRange(0, dst, 0, 20),
+      new ReadRange(31, dst, 20, 20));
+
+    final RecordingReader reader = new RecordingReader();
+    planner.read(ranges, reader).join();
+
+    assertEquals(2, reader.requests.size());
+    assertContent(dst, 0, 0, 20);
+    assertContent(dst, 20, 31, 20);
+    assertEquals(0, getStat(planner, "rangeRequestsSaved"), 0);
+  }
+
+  @Test
+  public void testMergedRequestSizeLimit() {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 50);
+    final ByteBuf dst = Unpooled.buffer(90);
+    final List<ReadRange> ranges = Arrays.asList(
+      new ReadRange(0, dst, 0, 30),
+      new ReadRange(30, dst, 30, 30),
+      new ReadRange(60, dst, 60, 30));
+
+    final RecordingReader reader = new RecordingReader();
+    assertEquals(3, planner.plan(ranges).size());
+    planner.read(ranges, reader).join();
+    assertContent(dst, 0, 0, 90);
+  }
+
+  @Test
+  public void testSplitLargeRange() {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 100);
+    final ByteBuf dst = Unpooled.buffer(260);
+
+    final RecordingReader reader = new RecordingReader();
+    planner.read(500, dst, 10, 250, reader).join();
+
+    assertEquals(3, reader.requests.size());
+    for (long[] request : reader.requests) {
+      assertTrue(request[1] <= 100);
+    }
+    assertContent(dst, 10, 500, 250);
+    assertEquals(3, getStat(planner, "rangePartRequests"), 0);
+  }
+
+  @Test
+  public void testSmallRangeReadDirectly() {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 100);
+    final ByteBuf dst = Unpooled.buffer(50);
+
+    final RecordingReader reader = new RecordingReader();
+    planner.read(7, dst, 0, 50, reader).join();
+
+    assertEquals(1, reader.requests.size());
+    assertContent(dst, 0, 7, 50);
+    assertEquals(1, getStat(planner, "rangeRequests"), 0);
+  }
+
+  @Test
+  public void testMergedBufferFromDestinationAllocator() throws Exception {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 100);
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-range-read-planner", 0, Long.MAX_VALUE)) {
+      final ByteBuf dst = NettyArrowBuf.unwrapBuffer(allocator.buffer(40));
+      final List<ReadRange> ranges = Arrays.asList(
+        new ReadRange(100, dst, 0, 20),
+        new ReadRange(125, dst, 20, 20));
+
+      final List<Long> allocated = new ArrayList<>();
+      planner.read(ranges, (offset, buf, dstOffset, len) -> {
+        allocated.add(allocator.getAllocatedMemory());
+        buf.setBytes(dstOffset, DATA, (int) offset, len);
+        return AsyncByteReader.completedFuture;
+      }).join();
+
+      // the merged request is accounted by the allocator of the destination while in flight
+      assertEquals(1, allocated.size());
+      assertTrue(allocated.get(0) >= 40 + 45);
+      assertContent(dst, 0, 100, 20);
+      assertContent(dst, 20, 125, 20);
+
+      dst.release();
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testMergedBufferReleasedOnFailure() throws Exception {
+    final RangeReadPlanner planner = new RangeReadPlanner(10, 100);
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-range-read-planner", 0, Long.MAX_VALUE)) {
+      final ByteBuf dst = NettyArrowBuf.unwrapBuffer(allocator.buffer(40));
+      final List<ReadRange> ranges = Arrays.asList(
+        new ReadRange(100, dst, 0, 20),
+        new ReadRange(125, dst, 20, 20));
+
+      // failed read
+      final IOException failure = new IOException("read failed");
+      final CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(failure);
+      try {
+        planner.read(ranges, (offset, buf, dstOffset, len) -> failed).join();
+        fail("read should have failed");
+      } catch (CompletionException e) {
+        assertSame(failure, e.getCause());
+      }
+
+      // reader throwing before returning a future
+      final IllegalStateException thrown = new IllegalStateException("reader failed");
+      try {
+        planner.read(ranges, (offset, buf, dstOffset, len) -> {
+          throw thrown;
+        });
+        fail("read should have failed");
+      } catch (IllegalStateException e) {
+        assertSame(thrown, e);
+      }
+
+      dst.release();
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+}
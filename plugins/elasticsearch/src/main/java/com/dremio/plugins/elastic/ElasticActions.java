@@ -282,6 +282,26 @@ public class ElasticActions {
     }
   }
 
+  /**
+   * Document counts of each shard copy of the given indices.
+   */
+  public static class ShardStats extends ElasticAction {
+    private List<String> indexes = new ArrayList<>();
+
+    public ShardStats addIndex(String index) {
+      indexes.add(index);
+      return this;
+    }
+
+    public Result getResult(WebTarget target) {
+      try {
+        return new JsonResult(target.path(Joiner.on(",").join(indexes)).path("_stats/docs").queryParam("level", "shards").request().header(CONTENT_TYPE, APPLICATION_JSON).buildGet().invoke(byte[].class));
+      } catch (WebApplicationException e) {
+        return new FailureResult(e.getResponse().getStatus(), e.getMessage());
+      }
+    }
+  }
+
   public static class CountResult extends Result {
     private long count;
 
@@ -17,21 +17,30 @@ package com.dremio.plugins.elastic;
 
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.dremio.connector.metadata.DatasetSplit;
 import com.dremio.connector.metadata.DatasetSplitAffinity;
 import com.dremio.connector.metadata.PartitionChunk;
 import com.dremio.connector.metadata.PartitionChunkListing;
 import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
+import com.dremio.exec.ExecConstants;
+import com.dremio.options.OptionManager;
 import com.dremio.plugins.elastic.ElasticActions.Count;
 import com.dremio.plugins.elastic.ElasticActions.CountResult;
 import com.dremio.plugins.elastic.ElasticActions.NodesInfo;
 import com.dremio.plugins.elastic.ElasticActions.Result;
 import com.dremio.plugins.elastic.ElasticActions.SearchShards;
+import com.dremio.plugins.elastic.ElasticActions.ShardStats;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonArray;
@@ -43,10 +52,12 @@ import com.google.gson.JsonObject;
  * Representation of PartitionChunkListing for the elastic plugin.
  *
  * Contains methods to build a list of partition chunks if it doesn't
- * already exist.
+ * already exist. Each shard is read by a split, or by several splits each reading a slice of a sliced scroll when
+ * the shard holds more than store.elastic.slice_doc_count documents.
  *
  */
 class ElasticPartitionChunkListing implements PartitionChunkListing {
+  private static final Logger logger = LoggerFactory.getLogger(ElasticPartitionChunkListing.class);
   private static final Joiner RESOURCE_JOINER = Joiner.on('/');
 
   private static final double SPLIT_DEFAULT_SIZE = 100000;
@@ -104,6 +115,8 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
 
     JsonArray shards = result.getAsJsonObject().getAsJsonArray("shards");
 
+    final Map<String, Map<Integer, Long>> shardDocCounts = getShardDocCounts();
+
     Set<String> indexes = new HashSet<>();
 
     for (JsonElement e : shards) {
@@ -127,18 +140,26 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
 
       indexes.add(onlyIndex);
 
-      final ElasticSplitXattr splitAttributes = ElasticSplitXattr.newBuilder()
-        .setResource(RESOURCE_JOINER.join(onlyIndex, typeName))
-        .setShard(onlyShard)
-        .build();
-
       List<DatasetSplitAffinity> affinity = new ArrayList<>();
       for (String host : hosts) {
         affinity.add(DatasetSplitAffinity.of(host, SPLIT_DEFAULT_SIZE));
       }
 
-      partitionChunks.add(PartitionChunk.of(
-        DatasetSplit.of(affinity, (long) SPLIT_DEFAULT_SIZE, 0, os -> splitAttributes.writeTo(os))));
+      final Map<Integer, Long> indexDocCounts = shardDocCounts.get(onlyIndex);
+      final Long docCount = indexDocCounts == null ? null : indexDocCounts.get(onlyShard);
+      final int sliceCount = getSliceCount(docCount);
+      for (int slice = 0; slice < sliceCount; slice++) {
+        final ElasticSplitXattr.Builder splitAttributesBuilder = ElasticSplitXattr.newBuilder()
+          .setResource(RESOURCE_JOINER.join(onlyIndex, typeName))
+          .setShard(onlyShard);
+        if (sliceCount > 1) {
+          splitAttributesBuilder.setSliceId(slice).setSliceMax(sliceCount);
+        }
+        final ElasticSplitXattr splitAttributes = splitAttributesBuilder.build();
+
+        partitionChunks.add(PartitionChunk.of(
+          DatasetSplit.of(affinity, (long) SPLIT_DEFAULT_SIZE, 0, os -> splitAttributes.writeTo(os))));
+      }
 
       partitionChunkList = partitionChunks;
     }
@@ -155,4 +176,63 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
 
     return partitionChunks.iterator();
   }
+
+  /**
+   * Returns the number of slices to read a shard with, based on the number of documents in its primary copy.
+   */
+  private int getSliceCount(Long docCount) {
+    final OptionManager options = datasetHandle.getContext().getOptionManager();
+    final long sliceDocCount = options.getOption(ExecConstants.ELASTIC_SLICE_DOC_COUNT);
+    if (docCount == null || sliceDocCount == 0) {
+      return 1;
+    }
+    final long slices = (docCount + sliceDocCount - 1) / sliceDocCount;
+    return (int) Math.max(1, Math.min(slices, options.getOption(ExecConstants.ELASTIC_MAX_SLICES_PER_SHARD)));
+  }
+
+  /**
+   * Returns the number of documents of each shard by index, or an empty map if the shards should not be sliced
+   * or their statistics are not available.
+   */
+  private Map<String, Map<Integer, Long>> getShardDocCounts() {
+    final Map<String, Map<Integer, Long>> docCounts = new HashMap<>();
+    final ElasticVersionBehaviorProvider versionBehaviorProvider =
+      new ElasticVersionBehaviorProvider(datasetHandle.getConnection().getESVersionInCluster());
+    // sliced scrolls are available from Elasticsearch 5.0
+    if (!versionBehaviorProvider.isEs5Version()
+      || datasetHandle.getContext().getOptionManager().getOption(ExecConstants.ELASTIC_SLICE_DOC_COUNT) == 0) {
+      return docCounts;
+    }
+
+    final Result statsResult = datasetHandle.getConnection().executeAndHandleResponseCode(
+      new ShardStats().addIndex(indexOrAlias), false, "");
+    if (!statsResult.success()) {
+      logger.debug("Cannot get shards statistics for [{}.{}], shards will not be sliced: {}", indexOrAlias, typeName,
+        statsResult.getErrorMessage());
+      return docCounts;
+    }
+
+    final JsonObject indices = statsResult.getAsJsonObject().getAsJsonObject("indices");
+    if (indices == null) {
+      return docCounts;
+    }
+    for (Entry<String, JsonElement> index : indices.entrySet()) {
+      final JsonObject shards = index.getValue().getAsJsonObject().getAsJsonObject("shards");
+      if (shards == null) {
+        continue;
+      }
+      final Map<Integer, Long> indexDocCounts = new HashMap<>();
+      for (Entry<String, JsonElement> shard : shards.entrySet()) {
+        for (JsonElement copy : shard.getValue().getAsJsonArray()) {
+          final JsonObject routing = copy.getAsJsonObject().getAsJsonObject("routing");
+          final JsonObject docs = copy.getAsJsonObject().getAsJsonObject("docs");
+          if (routing != null && docs != null && routing.get("primary").getAsBoolean()) {
+            indexDocCounts.put(Integer.parseInt(shard.getKey()), docs.get("count").getAsLong());
+          }
+        }
+      }
+      docCounts.put(index.getKey(), indexDocCounts);
+    }
+    return docCounts;
+  }
 }
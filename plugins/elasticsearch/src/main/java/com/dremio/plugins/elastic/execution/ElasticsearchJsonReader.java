@@ -179,7 +179,13 @@ public class ElasticsearchJsonReader extends BaseJsonProcessor {
         }
       } else {
         t = seekForward(ElasticsearchConstants.SOURCE);
-        readState = writeToVector(structWriter, t);
+        if (t == null) {
+          // no _source is returned when only metadata fields are projected
+          structWriter.end();
+          return ReadState.WRITE_SUCCEED;
+        } else {
+          readState = writeToVector(structWriter, t);
+        }
       }
 
       t = parser.nextToken();
@@ -17,8 +17,11 @@ package com.dremio.plugins.elastic.execution;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -45,6 +48,7 @@ import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.SplitAndPartitionInfo;
 import com.dremio.exec.store.easy.json.JsonProcessor;
 import com.dremio.exec.store.easy.json.reader.BaseJsonProcessor;
+import com.dremio.exec.util.ColumnUtils;
 import com.dremio.exec.vector.complex.fn.JsonWriter;
 import com.dremio.plugins.elastic.ElasticActions.DeleteScroll;
 import com.dremio.plugins.elastic.ElasticActions.Search;
@@ -60,9 +64,15 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.scan.OutputMutator;
 import com.fasterxml.jackson.core.JsonGenerationException;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 /**
@@ -76,6 +86,8 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
   public static final String MATCH_ALL_REQUEST = String.format("{\"query\": %s }", MATCH_ALL_QUERY);
   private static final int STREAM_COUNT_BREAK_MULTIPLIER = 3;
   private static final String TIMED_OUT = "\"timed_out\": true";
+  private static final Set<String> META_FIELDS = ImmutableSet.of(
+    ElasticsearchConstants.ID, ElasticsearchConstants.UID, ElasticsearchConstants.TYPE, ElasticsearchConstants.INDEX);
 
   enum State {INIT, READ, DEPLETED, CLOSED};
 
@@ -190,7 +202,8 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
 
     final Search<byte[]> search;
     final String newQuery;
-    newQuery = elasticVersionBehaviorProvider.processElasticSearchQuery(query);
+    newQuery = prepareSearchBody(elasticVersionBehaviorProvider.processElasticSearchQuery(query), splitAttributes,
+        getSourceIncludes(getColumns(), readDefinition, usingElasticProjection));
     search = new SearchBytes()
       .setQuery(newQuery)
       .setResource(resource)
@@ -238,6 +251,8 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
         .message("Failure when initiating Elastic query.")
         .addContext("Resource", resource)
         .addContext("Shard", splitAttributes == null ? "all" : splitAttributes.getShard())
+        .addContext("Slice", splitAttributes == null || splitAttributes.getSliceMax() <= 1
+          ? "none" : splitAttributes.getSliceId() + "/" + splitAttributes.getSliceMax())
         .addContext("Query", query)
         .build(logger);
     }
@@ -245,6 +260,66 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     state = State.READ;
   }
 
+  /**
+   * Adds to the search the slice of the shard read by the split, if any, and restricts the returned source to the
+   * projected fields when the query does not already do it.
+   */
+  @VisibleForTesting
+  static String prepareSearchBody(String searchBody, ElasticSplitXattr splitAttributes, Set<String> includes) {
+    final boolean sliced = splitAttributes != null && splitAttributes.getSliceMax() > 1;
+    if (!sliced && includes == null) {
+      return searchBody;
+    }
+
+    final JsonObject body = new JsonParser().parse(searchBody).getAsJsonObject();
+    if (sliced) {
+      final JsonObject slice = new JsonObject();
+      slice.addProperty("id", splitAttributes.getSliceId());
+      slice.addProperty("max", splitAttributes.getSliceMax());
+      body.add("slice", slice);
+    }
+    if (includes != null && !body.has(ElasticsearchConstants.SOURCE)) {
+      if (includes.isEmpty()) {
+        body.add(ElasticsearchConstants.SOURCE, new JsonPrimitive(false));
+      } else {
+        final JsonArray fields = new JsonArray();
+        for (String include : includes) {
+          fields.add(new JsonPrimitive(include));
+        }
+        body.add(ElasticsearchConstants.SOURCE, fields);
+      }
+    }
+    return body.toString();
+  }
+
+  /**
+   * Returns the top level fields of the source read by the query, or null if the whole source should be returned.
+   */
+  @VisibleForTesting
+  static Set<String> getSourceIncludes(Collection<SchemaPath> columns, FieldReadDefinition readDefinition,
+                                       boolean usingElasticProjection) {
+    if (usingElasticProjection || readDefinition == null || columns.isEmpty() || ColumnUtils.isStarQuery(columns)) {
+      return null;
+    }
+
+    final Set<String> includes = new TreeSet<>();
+    for (SchemaPath column : columns) {
+      final String name = column.getRootSegment().getPath();
+      if (META_FIELDS.contains(name)) {
+        continue;
+      }
+      final FieldReadDefinition definition = readDefinition.getChild(name);
+      if (definition == null || name.contains("*")) {
+        // let the reader handle the fields it doesn't know
+        return null;
+      }
+      if (!definition.isHidden()) {
+        includes.add(name);
+      }
+    }
+    return includes;
+  }
+
   private byte[] getNextPage() throws IOException {
     try {
       if (stats != null) {
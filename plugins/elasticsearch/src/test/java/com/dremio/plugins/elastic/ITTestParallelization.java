@@ -16,14 +16,38 @@
 package com.dremio.plugins.elastic;
 
 import static com.dremio.plugins.elastic.ElasticsearchType.TEXT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 
 import com.dremio.common.util.TestTools;
+import com.dremio.connector.metadata.DatasetHandle;
+import com.dremio.connector.metadata.DatasetSplit;
+import com.dremio.connector.metadata.EntityPath;
+import com.dremio.connector.metadata.PartitionChunk;
+import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.proto.UserBitShared.QueryType;
+import com.dremio.plugins.elastic.ElasticActions.ShardStats;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 
 public class ITTestParallelization extends ElasticBaseTestQuery {
 
@@ -60,4 +84,142 @@ public class ITTestParallelization extends ElasticBaseTestQuery {
 
     testPhysicalPlan(sql, "UnionExchange");
   }
+
+  @Test
+  public void testSlicedShards() throws Exception {
+    assumeSlicedScrollSupported();
+
+    elastic.schema(3, 0, schema);
+    loadWithRetry(schema, table, getValues(30));
+
+    final long sliceDocCount = 4;
+    final long maxSlicesPerShard = 3;
+    setSliceOptions(sliceDocCount, maxSlicesPerShard);
+    try {
+      final Map<Integer, Long> shardDocCounts = getShardDocCounts();
+      final Map<Integer, List<ElasticSplitXattr>> splits = getSplitsByShard();
+      assertEquals(shardDocCounts.keySet(), splits.keySet());
+
+      for (Entry<Integer, List<ElasticSplitXattr>> shard : splits.entrySet()) {
+        final long docCount = shardDocCounts.get(shard.getKey());
+        final long expectedSlices = Math.max(1,
+          Math.min((docCount + sliceDocCount - 1) / sliceDocCount, maxSlicesPerShard));
+        final List<ElasticSplitXattr> shardSplits = shard.getValue();
+        assertEquals("Unexpected number of splits for shard " + shard.getKey() + " with " + docCount + " documents",
+          expectedSlices, shardSplits.size());
+
+        if (expectedSlices == 1) {
+          assertFalse(shardSplits.get(0).hasSliceMax());
+        } else {
+          final TreeSet<Integer> sliceIds = new TreeSet<>();
+          for (ElasticSplitXattr split : shardSplits) {
+            assertEquals(expectedSlices, split.getSliceMax());
+            sliceIds.add(split.getSliceId());
+          }
+          assertEquals(0, (int) sliceIds.first());
+          assertEquals(expectedSlices - 1, (long) sliceIds.last());
+          assertEquals(expectedSlices, sliceIds.size());
+        }
+      }
+
+      final String sql = String.format("select * from elasticsearch.%s.%s", schema, table);
+      assertEquals(30, getRecordCount(testRunAndReturn(QueryType.SQL, sql)));
+    } finally {
+      resetSliceOptions();
+    }
+  }
+
+  @Test
+  public void testShardAtThresholdNotSliced() throws Exception {
+    assumeSlicedScrollSupported();
+
+    elastic.schema(1, 0, schema);
+    loadWithRetry(schema, table, getValues(5));
+
+    setSliceOptions(5, 32);
+    try {
+      final Map<Integer, List<ElasticSplitXattr>> splits = getSplitsByShard();
+      assertEquals(1, splits.size());
+      final List<ElasticSplitXattr> shardSplits = splits.values().iterator().next();
+      assertEquals(1, shardSplits.size());
+      assertFalse(shardSplits.get(0).hasSliceId());
+      assertFalse(shardSplits.get(0).hasSliceMax());
+
+      final String sql = String.format("select * from elasticsearch.%s.%s", schema, table);
+      assertEquals(5, getRecordCount(testRunAndReturn(QueryType.SQL, sql)));
+    } finally {
+      resetSliceOptions();
+    }
+  }
+
+  @Test
+  public void testMetadataOnlyProjection() throws Exception {
+    elastic.schema(2, 0, schema);
+    loadWithRetry(schema, table, getValues(11));
+
+    final String sql = String.format("select _index from elasticsearch.%s.%s", schema, table);
+    assertEquals(11, getRecordCount(testRunAndReturn(QueryType.SQL, sql)));
+  }
+
+  private void assumeSlicedScrollSupported() {
+    Assume.assumeTrue(new ElasticVersionBehaviorProvider(elastic.getMinVersionInCluster()).isEs5Version());
+  }
+
+  private void setSliceOptions(long sliceDocCount, long maxSlicesPerShard) throws Exception {
+    // set before the dataset is first queried, as the splits are computed with its metadata
+    test(String.format("ALTER SYSTEM SET \"%s\" = %d", ExecConstants.ELASTIC_SLICE_DOC_COUNT.getOptionName(), sliceDocCount));
+    test(String.format("ALTER SYSTEM SET \"%s\" = %d", ExecConstants.ELASTIC_MAX_SLICES_PER_SHARD.getOptionName(), maxSlicesPerShard));
+  }
+
+  private void resetSliceOptions() throws Exception {
+    test(String.format("ALTER SYSTEM RESET \"%s\"", ExecConstants.ELASTIC_SLICE_DOC_COUNT.getOptionName()));
+    test(String.format("ALTER SYSTEM RESET \"%s\"", ExecConstants.ELASTIC_MAX_SLICES_PER_SHARD.getOptionName()));
+  }
+
+  private static ElasticsearchCluster.ColumnData[] getValues(int count) {
+    final Object[][] values = new Object[count][];
+    for (int i = 0; i < count; i++) {
+      values[i] = new Object[]{"value" + i};
+    }
+    return new ElasticsearchCluster.ColumnData[]{
+      new ElasticsearchCluster.ColumnData("column", TEXT, values)
+    };
+  }
+
+  private Map<Integer, Long> getShardDocCounts() {
+    final JsonObject stats = getConnection().executeAndHandleResponseCode(new ShardStats().addIndex(schema), true, "")
+      .getAsJsonObject();
+    final JsonObject shards = stats.getAsJsonObject("indices").getAsJsonObject(schema).getAsJsonObject("shards");
+    final Map<Integer, Long> docCounts = new HashMap<>();
+    for (Entry<String, JsonElement> shard : shards.entrySet()) {
+      for (JsonElement copy : shard.getValue().getAsJsonArray()) {
+        if (copy.getAsJsonObject().getAsJsonObject("routing").get("primary").getAsBoolean()) {
+          docCounts.put(Integer.parseInt(shard.getKey()),
+            copy.getAsJsonObject().getAsJsonObject("docs").get("count").getAsLong());
+        }
+      }
+    }
+    return docCounts;
+  }
+
+  private Map<Integer, List<ElasticSplitXattr>> getSplitsByShard() throws Exception {
+    final ElasticsearchStoragePlugin plugin = getSabotContext().getCatalogService().getSource("elasticsearch");
+    final DatasetHandle handle = plugin.getDatasetHandle(new EntityPath(ImmutableList.of("elasticsearch", schema, table)))
+      .orElse(null);
+    assertNotNull(handle);
+
+    final Map<Integer, List<ElasticSplitXattr>> splits = new HashMap<>();
+    final Iterator<? extends PartitionChunk> chunks = plugin.listPartitionChunks(handle).iterator();
+    while (chunks.hasNext()) {
+      final Iterator<? extends DatasetSplit> chunkSplits = chunks.next().getSplits().iterator();
+      while (chunkSplits.hasNext()) {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        chunkSplits.next().getExtraInfo().writeTo(os);
+        final ElasticSplitXattr split = ElasticSplitXattr.parseFrom(os.toByteArray());
+        assertTrue(split.hasShard());
+        splits.computeIfAbsent(split.getShard(), k -> new ArrayList<>()).add(split);
+      }
+    }
+    return splits;
+  }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
+import com.dremio.plugins.elastic.ElasticsearchConstants;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests for the search body built by {@link ElasticsearchRecordReader}.
+ */
+public class TestElasticsearchRecordReader {
+
+  private static final String QUERY = "{\"query\":{\"match_all\":{}}}";
+
+  private FieldReadDefinition readDefinition;
+
+  @Before
+  public void setup() {
+    final FieldReadDefinition visible = mock(FieldReadDefinition.class);
+    final FieldReadDefinition hidden = mock(FieldReadDefinition.class);
+    when(hidden.isHidden()).thenReturn(true);
+
+    readDefinition = mock(FieldReadDefinition.class);
+    when(readDefinition.getChild("name")).thenReturn(visible);
+    when(readDefinition.getChild("age")).thenReturn(visible);
+    when(readDefinition.getChild("person")).thenReturn(visible);
+    when(readDefinition.getChild("unknown_field")).thenReturn(hidden);
+  }
+
+  @Test
+  public void testTopLevelIncludes() {
+    final Set<String> includes = ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath("name"), SchemaPath.getSimplePath("age")), readDefinition, false);
+    assertEquals(ImmutableSet.of("age", "name"), includes);
+
+    final JsonObject body = parse(ElasticsearchRecordReader.prepareSearchBody(QUERY, null, includes));
+    assertEquals("[\"age\",\"name\"]", body.get(ElasticsearchConstants.SOURCE).toString());
+    assertTrue(body.has("query"));
+    assertFalse(body.has("slice"));
+  }
+
+  @Test
+  public void testNestedIncludes() {
+    final Set<String> includes = ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(
+        SchemaPath.getCompoundPath("person", "address", "city"),
+        SchemaPath.getCompoundPath("person", "first_name"),
+        SchemaPath.getSimplePath(ElasticsearchConstants.ID)),
+      readDefinition, false);
+    assertEquals(ImmutableSet.of("person"), includes);
+
+    final JsonObject body = parse(ElasticsearchRecordReader.prepareSearchBody(QUERY, null, includes));
+    assertEquals("[\"person\"]", body.get(ElasticsearchConstants.SOURCE).toString());
+  }
+
+  @Test
+  public void testMetadataOnlyIncludes() {
+    final Set<String> includes = ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath(ElasticsearchConstants.INDEX),
+        SchemaPath.getSimplePath(ElasticsearchConstants.TYPE)),
+      readDefinition, false);
+    assertTrue(includes.isEmpty());
+
+    final JsonObject body = parse(ElasticsearchRecordReader.prepareSearchBody(QUERY, null, includes));
+    assertFalse(body.get(ElasticsearchConstants.SOURCE).getAsBoolean());
+  }
+
+  @Test
+  public void testHiddenFieldsAreNotIncluded() {
+    final Set<String> includes = ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath("name"), SchemaPath.getSimplePath("unknown_field")),
+      readDefinition, false);
+    assertEquals(ImmutableSet.of("name"), includes);
+  }
+
+  @Test
+  public void testWholeSourceWhenIncludesUnknown() {
+    // star query
+    assertNull(ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath("*")), readDefinition, false));
+    // field missing from the read definition
+    assertNull(ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath("name"), SchemaPath.getSimplePath("missing")), readDefinition, false));
+    // projection pushed down to elasticsearch
+    assertNull(ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath("name")), readDefinition, true));
+    // no read definition
+    assertNull(ElasticsearchRecordReader.getSourceIncludes(
+      ImmutableList.of(SchemaPath.getSimplePath("name")), null, false));
+
+    // the search body is left untouched
+    assertSame(QUERY, ElasticsearchRecordReader.prepareSearchBody(QUERY, null, null));
+  }
+
+  @Test
+  public void testExistingSourceIsKept() {
+    final String query = "{\"query\":{\"match_all\":{}},\"_source\":[\"age\"]}";
+    final JsonObject body = parse(ElasticsearchRecordReader.prepareSearchBody(query, null, ImmutableSet.of("name")));
+    assertEquals("[\"age\"]", body.get(ElasticsearchConstants.SOURCE).toString());
+  }
+
+  @Test
+  public void testSlice() {
+    final ElasticSplitXattr split = ElasticSplitXattr.newBuilder()
+      .setResource("index/type")
+      .setSliceId(2)
+      .setSliceMax(4)
+      .build();
+    final JsonObject body = parse(ElasticsearchRecordReader.prepareSearchBody(QUERY, split, null));
+    assertEquals(2, body.getAsJsonObject("slice").get("id").getAsInt());
+    assertEquals(4, body.getAsJsonObject("slice").get("max").getAsInt());
+    assertFalse(body.has(ElasticsearchConstants.SOURCE));
+
+    // a single slice is not a sliced scroll
+    final ElasticSplitXattr unsliced = ElasticSplitXattr.newBuilder()
+      .setResource("index/type")
+      .build();
+    assertSame(QUERY, ElasticsearchRecordReader.prepareSearchBody(QUERY, unsliced, null));
+  }
+
+  private static JsonObject parse(String body) {
+    return new JsonParser().parse(body).getAsJsonObject();
+  }
+}
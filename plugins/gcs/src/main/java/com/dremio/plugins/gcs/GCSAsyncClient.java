@@ -24,6 +24,7 @@ import org.asynchttpclient.AsyncHttpClient;
 
 import com.dremio.http.AsyncHttpClientProvider;
 import com.dremio.io.AsyncByteReader;
+import com.dremio.io.RangeReadPlanner;
 import com.google.auth.oauth2.GoogleCredentials;
 
 /**
@@ -41,8 +42,8 @@ class GCSAsyncClient implements Closeable {
     asyncHttpClient = AsyncHttpClientProvider.getInstance();
   }
 
-  public AsyncByteReader newByteReader(Path path, String version) {
-    return new GCSAsyncFileReader(asyncHttpClient, path, version, credentials);
+  public AsyncByteReader newByteReader(Path path, String version, RangeReadPlanner planner) {
+    return new GCSAsyncFileReader(asyncHttpClient, path, version, credentials, planner);
   }
 
   @Override
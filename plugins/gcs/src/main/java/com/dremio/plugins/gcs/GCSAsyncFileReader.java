@@ -36,6 +36,7 @@ import org.asynchttpclient.uri.Uri;
 
 import com.dremio.exec.hadoop.DremioHadoopUtils;
 import com.dremio.io.ExponentialBackoff;
+import com.dremio.io.RangeReadPlanner;
 import com.dremio.io.ReusableAsyncByteReader;
 import com.dremio.plugins.async.utils.AsyncReadWithRetry;
 import com.dremio.plugins.async.utils.MetricsLogger;
@@ -45,7 +46,7 @@ import com.google.common.base.Function;
 import io.netty.buffer.ByteBuf;
 
 /**
- * Reads file content from GCS asynchronously.
+ * Reads file content from GCS asynchronously, planning the range requests with a {@link RangeReadPlanner}.
  */
 class GCSAsyncFileReader extends ReusableAsyncByteReader {
   private static final int BASE_MILLIS_TO_WAIT = 250; // set to the average latency of an async read
@@ -58,6 +59,7 @@ class GCSAsyncFileReader extends ReusableAsyncByteReader {
   private final String httpVersion;
   private final Path path;
   private final String threadName;
+  private final RangeReadPlanner planner;
   private final AsyncReadWithRetry asyncReaderWithRetry = new AsyncReadWithRetry();
   private final ExponentialBackoff backoff = new ExponentialBackoff() {
     @Override public int getBaseMillis() { return BASE_MILLIS_TO_WAIT; }
@@ -68,7 +70,8 @@ class GCSAsyncFileReader extends ReusableAsyncByteReader {
       AsyncHttpClient asyncClient,
       Path fsPath,
       String cachedVersion,
-      GoogleCredentials credentials) {
+      GoogleCredentials credentials,
+      RangeReadPlanner planner) {
     this.credentials = credentials;
     this.asyncHttpClient = asyncClient;
     this.blob = DremioHadoopUtils.pathWithoutContainer(fsPath).toString();
@@ -76,6 +79,7 @@ class GCSAsyncFileReader extends ReusableAsyncByteReader {
     this.httpVersion = convertToHttpDateTime(cachedVersion);
     this.path = fsPath;
     this.threadName = Thread.currentThread().getName();
+    this.planner = planner;
   }
 
   // Utility method to convert string representation of a datetime Long value into a HTTP 1.1
@@ -107,6 +111,20 @@ class GCSAsyncFileReader extends ReusableAsyncByteReader {
 
   @Override
   public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+    return planner.read(offset, dst, dstOffset, len, this::read);
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+    return planner.read(ranges, this::read);
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    return planner.getStats();
+  }
+
+  private CompletableFuture<Void> read(long offset, ByteBuf dst, int dstOffset, int len) {
     MetricsLogger metrics = new MetricsLogger();
     java.util.function.Function<Void, Request> requestBuilderFunction = getRequestBuilderFunction(offset, len);
 
@@ -39,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.catalog.conf.ConnectionSchema;
 import com.dremio.exec.catalog.conf.Property;
+import com.dremio.exec.hadoop.DremioHadoopUtils;
 import com.dremio.exec.hadoop.MayProvideAsyncStream;
 import com.dremio.exec.store.dfs.DremioFileSystemCache;
 import com.dremio.io.AsyncByteReader;
@@ -293,7 +294,7 @@ public class GoogleBucketFileSystem extends ContainerFileSystem implements MayPr
 
   @Override
   public AsyncByteReader getAsyncByteReader(Path path, String version, Map<String, String> options) throws IOException {
-    return client.newByteReader(path, version);
+    return client.newByteReader(path, version, DremioHadoopUtils.newRangeReadPlanner(getConf()));
   }
 
   @Override
@@ -20,6 +20,7 @@ import static com.amazonaws.services.s3.internal.Constants.REQUESTER_PAYS;
 import java.io.FileNotFoundException;
 import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
@@ -31,6 +32,7 @@ import org.reactivestreams.Subscription;
 
 import com.amazonaws.services.s3.internal.Constants;
 import com.dremio.common.exceptions.UserException;
+import com.dremio.io.RangeReadPlanner;
 import com.dremio.io.ReusableAsyncByteReader;
 import com.google.common.base.Stopwatch;
 
@@ -45,7 +47,8 @@ import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 /**
- * A ByteReader that uses AWS's asynchronous S3 client to read byte ranges. No read ahead is done.
+ * A ByteReader that uses AWS's asynchronous S3 client to read byte ranges. Nearby ranges requested together are
+ * read with a single GET and large ranges are read with parallel GETs, see {@link RangeReadPlanner}.
  */
 class S3AsyncByteReader extends ReusableAsyncByteReader {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(S3AsyncByteReader.class);
@@ -60,10 +63,11 @@ class S3AsyncByteReader extends ReusableAsyncByteReader {
   private static final int MAX_RETRIES = 10;
   private final boolean ssecEnabled;
   private final String ssecKey;
+  private final RangeReadPlanner planner;
 
   public S3AsyncByteReader(S3AsyncClient client, String bucket, String path,
                            String version, boolean requesterPays,
-                           boolean ssecUsed, String sseCustomerKey) {
+                           boolean ssecUsed, String sseCustomerKey, RangeReadPlanner planner) {
     super();
     this.client = client;
     this.bucket = bucket;
@@ -74,6 +78,7 @@ class S3AsyncByteReader extends ReusableAsyncByteReader {
     this.threadName = Thread.currentThread().getName();
     this.ssecEnabled = ssecUsed;
     this.ssecKey = sseCustomerKey;
+    this.planner = planner;
   }
 
   @Override
@@ -82,6 +87,22 @@ class S3AsyncByteReader extends ReusableAsyncByteReader {
       throw new IllegalArgumentException("Empty reads not allowed.");
     }
     logger.debug("[{}] Submitted request to queue for bucket {}, path {} for {}", threadName, bucket, path, range(offset, len));
+    return planner.read(offset, dst, dstOffset, len, this::asyncRead);
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+    logger.debug("[{}] Submitted request to queue for bucket {}, path {} for {} ranges", threadName, bucket, path,
+      ranges.size());
+    return planner.read(ranges, this::asyncRead);
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    return planner.getStats();
+  }
+
+  private CompletableFuture<Void> asyncRead(long offset, ByteBuf dst, int dstOffset, int len) {
     return asyncReadWithRetry(offset, dst, dstOffset, len, 1);
   }
 
@@ -343,7 +343,7 @@ public class S3FileSystem extends ContainerFileSystem implements MayProvideAsync
               version, isRequesterPays(), ssecUsed, sseCustomerKey);
     }
     return new S3AsyncByteReader(getAsyncClient(bucket), bucket, pathStr,
-            version, isRequesterPays(), ssecUsed, sseCustomerKey);
+            version, isRequesterPays(), ssecUsed, sseCustomerKey, DremioHadoopUtils.newRangeReadPlanner(getConf()));
   }
 
   private CloseableRef<S3Client> getSyncClient(String bucket) throws IOException {
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.rpc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Measures the request/response round trip through {@link RequestIdMap} of 32 concurrent senders sharing one
+ * connection, as fabric data acks do. Each operation registers a request and completes it.
+ *
+ * Lives in the rpc package as {@link RequestIdMap} is package private. Run it with
+ * {@code java -jar sabot/benchmarks/target/benchmarks.jar RequestIdMapBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class RequestIdMapBenchmark {
+  private static final RpcOutcomeListener<String> LISTENER = new RpcOutcomeListener<String>() {
+    @Override
+    public void failed(RpcException ex) {
+    }
+
+    @Override
+    public void success(String value, ByteBuf buffer) {
+    }
+
+    @Override
+    public void interrupted(InterruptedException e) {
+    }
+  };
+
+  private RequestIdMap map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = new RequestIdMap("benchmark");
+  }
+
+  @Benchmark
+  public int roundTrip() {
+    final int id = map.createNewRpcListener(LISTENER, String.class, null).getCoordinationId();
+    map.getAndRemoveRpcOutcome(0, id, String.class).set("ack", null);
+    return id;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the sabot operator benchmarks with the GC profiler enabled, so that every result carries
+ * {@code gc.alloc.rate.norm} (bytes allocated per record, since the benchmarks declare one
+ * operation per record) next to the throughput score. Results are written as JSON so that
+ * runs can be diffed.
+ *
+ * <pre>
+ *   java -jar sabot/benchmarks/target/benchmarks.jar                    # plain JMH entry point
+ *   java -cp sabot/benchmarks/target/benchmarks.jar \
+ *     com.dremio.sabot.benchmarks.BenchmarkRunner HashTable -p cardinality=100000
+ * </pre>
+ *
+ * Any regular JMH command line option is accepted; benchmark includes and the result file
+ * default to the whole package and {@code sabot-benchmarks.json} only when not given.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    final CommandLineOptions commandLine = new CommandLineOptions(args);
+    final ChainedOptionsBuilder builder = new OptionsBuilder()
+      .parent(commandLine)
+      .addProfiler(GCProfiler.class);
+    if (commandLine.getIncludes().isEmpty()) {
+      builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+    }
+    if (!commandLine.getResult().hasValue()) {
+      builder.resultFormat(ResultFormatType.JSON).result("sabot-benchmarks.json");
+    }
+    final Options options = builder.build();
+    new Runner(options).run();
+  }
+}
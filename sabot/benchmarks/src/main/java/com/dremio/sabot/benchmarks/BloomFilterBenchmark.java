@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.util.BloomFilter;
+
+/**
+ * Measures {@link BloomFilter#put} and {@link BloomFilter#mightContain} with 16 byte keys, as produced
+ * by runtime filters, for both the classic and the blocked layout. Filter sizes span in-cache to out-of-cache.
+ * Scores are per key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BloomFilterBenchmark.BATCH_SIZE)
+public class BloomFilterBenchmark {
+  static final int BATCH_SIZE = 4096;
+  private static final int KEY_WIDTH = 16;
+
+  @Param({"65536", "1048576", "16777216"})
+  private long filterSizeBytes;
+
+  /**
+   * Number of distinct keys inserted before probing.
+   */
+  @Param({"10000", "1000000"})
+  private int cardinality;
+
+  @Param({"false", "true"})
+  private boolean blocked;
+
+  private BufferAllocator allocator;
+  private BloomFilter bloomFilter;
+  private ArrowBuf keys;
+  private ArrowBuf key;
+  private ArrowBuf bitmap;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    bloomFilter = new BloomFilter(allocator, "bench", filterSizeBytes, blocked);
+    bloomFilter.setup();
+    key = allocator.buffer(KEY_WIDTH);
+    bitmap = allocator.buffer((BATCH_SIZE + 7) / 8);
+
+    // half of the probed keys are members, half are not.
+    final Random random = new Random(0);
+    keys = allocator.buffer((long) BATCH_SIZE * KEY_WIDTH);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final long value = (i % 2 == 0) ? random.nextInt(cardinality) : cardinality + random.nextInt(cardinality);
+      keys.setLong((long) i * KEY_WIDTH, value);
+      keys.setLong((long) i * KEY_WIDTH + 8, ~value);
+    }
+    for (long i = 0; i < cardinality; i++) {
+      key.setLong(0, i);
+      key.setLong(8, ~i);
+      bloomFilter.put(key, KEY_WIDTH);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(key, keys, bitmap, bloomFilter);
+    allocator.close();
+  }
+
+  @Benchmark
+  public boolean put() {
+    boolean changed = false;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      key.setBytes(0, keys, (long) i * KEY_WIDTH, KEY_WIDTH);
+      changed |= bloomFilter.put(key, KEY_WIDTH);
+    }
+    return changed;
+  }
+
+  @Benchmark
+  public int mightContain() {
+    int hits = 0;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      key.setBytes(0, keys, (long) i * KEY_WIDTH, KEY_WIDTH);
+      if (bloomFilter.mightContain(key, KEY_WIDTH)) {
+        hits++;
+      }
+    }
+    return hits;
+  }
+
+  @Benchmark
+  public int mightContainBatch() {
+    return bloomFilter.mightContain(keys, KEY_WIDTH, BATCH_SIZE, bitmap);
+  }
+}
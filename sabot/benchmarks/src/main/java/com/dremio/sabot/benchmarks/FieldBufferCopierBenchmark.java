@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.sabot.op.copier.FieldBufferCopier;
+
+/**
+ * Measures {@link FieldBufferCopier} copying through a two byte selection vector, as done by
+ * filter/copier and the partition sender. Scores are per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(FieldBufferCopierBenchmark.BATCH_SIZE)
+public class FieldBufferCopierBenchmark {
+  static final int BATCH_SIZE = 4096;
+
+  @Param({"1", "8"})
+  private int fixedKeys;
+
+  @Param({"0", "16", "128"})
+  private int varKeyWidth;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  /**
+   * Fraction of input records selected by the selection vector.
+   */
+  @Param({"1.0", "0.5", "0.05"})
+  private double selectivity;
+
+  private BufferAllocator allocator;
+  private List<FieldVector> inputs;
+  private List<FieldVector> outputs;
+  private List<FieldBufferCopier> copiers;
+  private SelectionVector2 sv2;
+  private int selected;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    inputs = SyntheticBatches.createKeyVectors(allocator, "in", fixedKeys, varKeyWidth);
+    SyntheticBatches.populateKeys(inputs, BATCH_SIZE, BATCH_SIZE, varKeyWidth, nullDensity);
+    outputs = new ArrayList<>(inputs.size());
+    for (FieldVector input : inputs) {
+      outputs.add(input.getField().createVector(allocator));
+    }
+    copiers = FieldBufferCopier.getCopiers(inputs, outputs);
+
+    final Random random = new Random(0);
+    sv2 = new SelectionVector2(allocator);
+    sv2.allocateNew(BATCH_SIZE);
+    selected = 0;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      if (random.nextDouble() < selectivity) {
+        sv2.setIndex(selected++, i);
+      }
+    }
+    sv2.setRecordCount(selected);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(sv2);
+    AutoCloseables.close(inputs, outputs);
+    allocator.close();
+  }
+
+  @Benchmark
+  public int copy() {
+    for (FieldBufferCopier copier : copiers) {
+      copier.allocate(selected);
+      copier.copy(sv2.memoryAddress(), selected);
+    }
+    return selected;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.HTORDINAL_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.KEYINDEX_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.PARTITIONINDEX_HTORDINAL_WIDTH;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.aggregate.vectorized.Accumulator;
+import com.dremio.sabot.op.aggregate.vectorized.AccumulatorSet;
+import com.dremio.sabot.op.aggregate.vectorized.CountColumnAccumulator;
+import com.dremio.sabot.op.aggregate.vectorized.MaxAccumulators;
+import com.dremio.sabot.op.aggregate.vectorized.MinAccumulators;
+import com.dremio.sabot.op.aggregate.vectorized.SumAccumulators;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Measures the per-record cost of the {@link com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator}
+ * accumulators. The partition/ordinal buffer is prepared the same way the operator does after
+ * inserting into the hash table, so only the accumulation loop is measured. Scores are per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(HashAggAccumulatorBenchmark.BATCH_SIZE)
+public class HashAggAccumulatorBenchmark {
+  static final int BATCH_SIZE = 4096;
+  private static final int MAX_VALUES_PER_BATCH = 4096;
+  private static final int BITS_IN_CHUNK = Integer.numberOfTrailingZeros(MAX_VALUES_PER_BATCH);
+  private static final int CHUNK_OFFSET_MASK = MAX_VALUES_PER_BATCH - 1;
+  private static final int JOINT_ALLOCATION_MIN = 4 * 1024;
+  private static final int JOINT_ALLOCATION_MAX = 64 * 1024;
+
+  /**
+   * Number of distinct groups, i.e. the range of hash table ordinals that records are spread over.
+   */
+  @Param({"16", "4096", "1000000"})
+  private int cardinality;
+
+  @Param({"0", "0.1", "0.5"})
+  private double nullDensity;
+
+  @Param({"SUM", "MIN", "MAX", "COUNT"})
+  private String aggregate;
+
+  private BufferAllocator allocator;
+  private BigIntVector input;
+  private BigIntVector output;
+  private AccumulatorSet accumulators;
+  private Accumulator accumulator;
+  private ArrowBuf offsets;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    input = new BigIntVector("measure", allocator);
+    SyntheticBatches.populateMeasure(input, BATCH_SIZE, nullDensity);
+    output = new BigIntVector("measure-" + aggregate, allocator);
+    accumulator = newAccumulator();
+    accumulators = new AccumulatorSet(JOINT_ALLOCATION_MIN, JOINT_ALLOCATION_MAX, allocator, accumulator);
+    final int batches = (cardinality + MAX_VALUES_PER_BATCH - 1) / MAX_VALUES_PER_BATCH;
+    for (int i = 0; i < batches; i++) {
+      accumulators.addBatch();
+    }
+
+    final Random random = new Random(0);
+    offsets = allocator.buffer(BATCH_SIZE * PARTITIONINDEX_HTORDINAL_WIDTH);
+    final long addr = offsets.memoryAddress();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final long entry = addr + i * PARTITIONINDEX_HTORDINAL_WIDTH;
+      PlatformDependent.putInt(entry + HTORDINAL_OFFSET, random.nextInt(cardinality));
+      PlatformDependent.putInt(entry + KEYINDEX_OFFSET, i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(offsets, accumulators, input, output);
+    allocator.close();
+  }
+
+  @Benchmark
+  public Accumulator accumulate() {
+    accumulator.accumulate(offsets.memoryAddress(), BATCH_SIZE, BITS_IN_CHUNK, CHUNK_OFFSET_MASK);
+    return accumulator;
+  }
+
+  private Accumulator newAccumulator() {
+    switch (aggregate) {
+      case "SUM":
+        return new SumAccumulators.BigIntSumAccumulator(input, output, output, MAX_VALUES_PER_BATCH, allocator);
+      case "MIN":
+        return new MinAccumulators.BigIntMinAccumulator(input, output, output, MAX_VALUES_PER_BATCH, allocator);
+      case "MAX":
+        return new MaxAccumulators.BigIntMaxAccumulator(input, output, output, MAX_VALUES_PER_BATCH, allocator);
+      case "COUNT":
+        return new CountColumnAccumulator(input, output, output, MAX_VALUES_PER_BATCH, allocator);
+      default:
+        throw new IllegalArgumentException("Unknown aggregate " + aggregate);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.SimpleBigIntVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.common.ht2.BlockChunk;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.HashComputation;
+import com.dremio.sabot.op.common.ht2.LBlockHashTable;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import com.koloboke.collect.hash.HashConfig;
+
+/**
+ * Measures {@link LBlockHashTable#add} (insert-heavy, as in hash agg build) and
+ * {@link LBlockHashTable#find} (probe-heavy, as in hash join probe) on pre-pivoted keys.
+ * Scores are per record.
+ *
+ * The {@code cardinality} distinct keys are pivoted once per trial. {@code find} probes a table holding all
+ * of them with a batch of keys drawn from them (rows with null keys miss). {@code add} inserts them batch
+ * after batch into a table emptied at every iteration, and starts over once they are all in, as a hash agg
+ * build with {@code cardinality} groups does. Only the probe or insert loop is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(HashTableBenchmark.BATCH_SIZE)
+public class HashTableBenchmark {
+  static final int BATCH_SIZE = 4096;
+
+  @Param({"1000", "100000", "1000000"})
+  private int cardinality;
+
+  @Param({"1", "4"})
+  private int fixedKeys;
+
+  @Param({"0", "16"})
+  private int varKeyWidth;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  private BufferAllocator allocator;
+  private List<FieldVector> keys;
+  private PivotDef pivot;
+  private PivotedBatch probe;
+  private final List<PivotedBatch> distinct = new ArrayList<>();
+  private LBlockHashTable table;
+  private LBlockHashTable insertTable;
+  private int nextBatch;
+
+  /**
+   * A batch of pivoted keys, and their hash values
+   */
+  private static final class PivotedBatch implements AutoCloseable {
+    private final FixedBlockVector fixed;
+    private final VariableBlockVector variable;
+    private final SimpleBigIntVector hashValues;
+
+    private PivotedBatch(BufferAllocator allocator, PivotDef pivot) {
+      fixed = new FixedBlockVector(allocator, pivot.getBlockWidth());
+      variable = new VariableBlockVector(allocator, pivot.getVariableCount());
+      Pivots.pivot(pivot, BATCH_SIZE, fixed, variable);
+
+      hashValues = new SimpleBigIntVector("hashvalues", allocator);
+      hashValues.allocateNew(BATCH_SIZE);
+      HashComputation.computeHash(new BlockChunk(fixed.getMemoryAddress(), variable.getMemoryAddress(),
+        pivot.getVariableCount() == 0, pivot.getBlockWidth(), BATCH_SIZE, hashValues.getBufferAddress(), 0));
+    }
+
+    private int insertInto(LBlockHashTable target) {
+      final long fixedAddr = fixed.getMemoryAddress();
+      final long varAddr = variable.getMemoryAddress();
+      int last = 0;
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        last = target.add(fixedAddr, varAddr, i, (int) hashValues.get(i));
+      }
+      return last;
+    }
+
+    @Override
+    public void close() throws Exception {
+      AutoCloseables.close(hashValues, fixed, variable);
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    keys = SyntheticBatches.createKeyVectors(allocator, "key", fixedKeys, varKeyWidth);
+    pivot = PivotBuilder.getBlockDefinition(SyntheticBatches.selfPairs(keys));
+
+    table = newTable();
+    for (int first = 0; first < cardinality; first += BATCH_SIZE) {
+      // full batches, the last one wraps around to the first keys
+      SyntheticBatches.populateSequentialKeys(keys, BATCH_SIZE, first, cardinality, varKeyWidth);
+      final PivotedBatch batch = new PivotedBatch(allocator, pivot);
+      distinct.add(batch);
+      batch.insertInto(table);
+    }
+
+    SyntheticBatches.populateKeys(keys, BATCH_SIZE, cardinality, varKeyWidth, nullDensity);
+    probe = new PivotedBatch(allocator, pivot);
+  }
+
+  @Setup(Level.Iteration)
+  public void setupIteration() throws Exception {
+    AutoCloseables.close(insertTable);
+    insertTable = newTable();
+    nextBatch = 0;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(insertTable, table, probe);
+    AutoCloseables.close(distinct);
+    AutoCloseables.close(keys);
+    allocator.close();
+  }
+
+  @Benchmark
+  public void add(Blackhole bh) {
+    bh.consume(distinct.get(nextBatch).insertInto(insertTable));
+    nextBatch = (nextBatch + 1) % distinct.size();
+  }
+
+  @Benchmark
+  public void find(Blackhole bh) {
+    final long fixedAddr = probe.fixed.getMemoryAddress();
+    final long varAddr = probe.variable.getMemoryAddress();
+    int matched = 0;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      if (table.find(fixedAddr, varAddr, i, (int) probe.hashValues.get(i)) != -1) {
+        matched++;
+      }
+    }
+    bh.consume(matched);
+  }
+
+  private LBlockHashTable newTable() {
+    return new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, BATCH_SIZE, 15, true, BATCH_SIZE);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.complex.writer.BaseWriter.ComplexWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.physical.base.GroupScan;
+import com.dremio.exec.record.VectorAccessibleComplexWriter;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.store.easy.json.JsonProcessor.ReadState;
+import com.dremio.exec.vector.complex.fn.JsonReader;
+import com.dremio.sabot.exec.context.BufferManagerImpl;
+
+/**
+ * Measures {@link JsonReader} on wide records (300 top level fields, some of them nested) when projecting all the
+ * fields versus only a few of them. Scores are records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(JsonReaderBenchmark.BATCH_SIZE)
+public class JsonReaderBenchmark {
+  static final int BATCH_SIZE = 4096;
+  private static final int FIELD_COUNT = 300;
+
+  /**
+   * Number of projected top level fields, 0 meaning all of them.
+   */
+  @Param({"0", "5"})
+  private int projectedFields;
+
+  private BufferAllocator allocator;
+  private BufferManagerImpl bufferManager;
+  private VectorContainer container;
+  private ComplexWriter writer;
+  private JsonReader reader;
+  private byte[] data;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    bufferManager = new BufferManagerImpl(allocator);
+    container = new VectorContainer(allocator);
+    writer = VectorAccessibleComplexWriter.getWriter("json", container);
+
+    final List<SchemaPath> columns;
+    if (projectedFields == 0) {
+      columns = GroupScan.ALL_COLUMNS;
+    } else {
+      columns = new ArrayList<>();
+      for (int i = 0; i < projectedFields; i++) {
+        columns.add(SchemaPath.getSimplePath(fieldName(i * (FIELD_COUNT / projectedFields))));
+      }
+    }
+    reader = new JsonReader(bufferManager.getManagedBuffer(), columns, Integer.MAX_VALUE, Integer.MAX_VALUE,
+      false, false, false);
+    data = createRecords().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String fieldName(int i) {
+    return "field_" + i;
+  }
+
+  private static String createRecords() {
+    final StringBuilder sb = new StringBuilder();
+    for (int r = 0; r < BATCH_SIZE; r++) {
+      sb.append('{');
+      for (int i = 0; i < FIELD_COUNT; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        sb.append('"').append(fieldName(i)).append("\":");
+        switch (i % 5) {
+        case 0:
+          sb.append(r * 31L + i);
+          break;
+        case 1:
+          sb.append(r / 7.0 + i);
+          break;
+        case 2:
+          sb.append("\"value ").append(r % 100).append('_').append(i).append('"');
+          break;
+        case 3:
+          sb.append(r % 2 == 0);
+          break;
+        default:
+          sb.append("{\"id\":").append(r).append(",\"tags\":[\"a\",\"b\",\"c\"],\"name\":\"nested ")
+            .append(i).append("\"}");
+          break;
+        }
+      }
+      sb.append("}\n");
+    }
+    return sb.toString();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    writer.clear();
+    AutoCloseables.close(container, bufferManager, allocator);
+  }
+
+  @Benchmark
+  public int read() throws Exception {
+    reader.setSource(data);
+    writer.allocate();
+    writer.reset();
+    int count = 0;
+    while (count < BATCH_SIZE) {
+      writer.setPosition(count);
+      if (reader.write(writer) == ReadState.END_OF_STREAM) {
+        break;
+      }
+      count++;
+    }
+    writer.setValueCount(count);
+    return count;
+  }
+}
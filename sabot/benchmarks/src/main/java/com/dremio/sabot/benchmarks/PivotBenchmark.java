@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.Unpivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+
+/**
+ * Measures {@link Pivots#pivot} and {@link Unpivots#unpivot} for a single batch. Scores are per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PivotBenchmark.BATCH_SIZE)
+public class PivotBenchmark {
+  static final int BATCH_SIZE = 4096;
+
+  @Param({"1000", "1000000"})
+  private int cardinality;
+
+  @Param({"1", "4", "16"})
+  private int fixedKeys;
+
+  @Param({"0", "16", "64"})
+  private int varKeyWidth;
+
+  @Param({"0", "0.1", "0.5"})
+  private double nullDensity;
+
+  private BufferAllocator allocator;
+  private List<FieldVector> keys;
+  private VectorContainer outgoing;
+  private PivotDef pivot;
+  private FixedBlockVector fixed;
+  private VariableBlockVector variable;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    keys = SyntheticBatches.createKeyVectors(allocator, "key", fixedKeys, varKeyWidth);
+    SyntheticBatches.populateKeys(keys, BATCH_SIZE, cardinality, varKeyWidth, nullDensity);
+    outgoing = new VectorContainer(allocator);
+    pivot = PivotBuilder.getBlockDefinition(SyntheticBatches.outputPairs(allocator, keys, outgoing));
+    fixed = new FixedBlockVector(allocator, pivot.getBlockWidth());
+    variable = new VariableBlockVector(allocator, pivot.getVariableCount());
+    // size the blocks once, so that the benchmark does not measure the first expansion.
+    Pivots.pivot(pivot, BATCH_SIZE, fixed, variable);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(fixed, variable, outgoing);
+    AutoCloseables.close(keys);
+    allocator.close();
+  }
+
+  @Benchmark
+  public long pivot() {
+    Pivots.pivot(pivot, BATCH_SIZE, fixed, variable);
+    return fixed.getMemoryAddress();
+  }
+
+  @Benchmark
+  public int unpivot() {
+    Unpivots.unpivot(pivot, fixed, variable, 0, BATCH_SIZE);
+    return outgoing.setAllCount(BATCH_SIZE);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.ExpandableHyperContainer;
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.selection.SelectionVector4;
+import com.dremio.sabot.exec.context.FunctionContext;
+import com.dremio.sabot.op.sort.external.QuickSorterTemplate;
+
+/**
+ * Measures {@link QuickSorterTemplate} sorting a hyper batch on a single BIGINT key. The comparator is
+ * a hand-written equivalent of what code generation produces for {@code ORDER BY key NULLS LAST}.
+ * Each invocation sorts {@code batches * 4096} records; divide the score accordingly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuickSorterBenchmark {
+  private static final int BATCH_SIZE = 4096;
+
+  @Param({"1000", "1000000"})
+  private int cardinality;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  @Param({"16", "64"})
+  private int batches;
+
+  private BufferAllocator allocator;
+  private BigIntSorter sorter;
+  private SimpleIntVector sortBuffer;
+
+  @Setup(Level.Trial)
+  public void setupTrial() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @Setup(Level.Invocation)
+  public void setupInvocation() throws Exception {
+    sortBuffer = new SimpleIntVector("sort-buffer", allocator);
+    sortBuffer.allocateNew(BATCH_SIZE * batches);
+
+    sorter = new BigIntSorter();
+    BatchSchema schema = null;
+    for (int i = 0; i < batches; i++) {
+      try (VectorContainer container = new VectorContainer(allocator)) {
+        final List<FieldVector> keys = SyntheticBatches.createKeyVectors(allocator, "key", 1, 0);
+        SyntheticBatches.populateKeys(keys, BATCH_SIZE, cardinality, 0, nullDensity);
+        for (FieldVector key : keys) {
+          container.add(key);
+        }
+        container.setAllCount(BATCH_SIZE);
+        container.buildSchema();
+        if (schema == null) {
+          schema = container.getSchema();
+          sorter.init(null, new ExpandableHyperContainer(allocator, schema));
+          sorter.setDataBuffer(sortBuffer);
+        }
+        sorter.add(new RecordBatchData(container, allocator));
+      }
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDownInvocation() throws Exception {
+    AutoCloseables.close(sorter, sortBuffer);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownTrial() {
+    allocator.close();
+  }
+
+  @Benchmark
+  public int sort() {
+    try (SelectionVector4 sv4 = sorter.getFinalSort(allocator, BATCH_SIZE)) {
+      return sv4.getTotalCount();
+    }
+  }
+
+  /**
+   * Stand-in for the generated sorter, comparing the first column of the hyper batch.
+   */
+  public static class BigIntSorter extends QuickSorterTemplate {
+    private BigIntVector[] vectors;
+
+    @Override
+    public void doSetup(FunctionContext context, VectorAccessible incoming, VectorAccessible outgoing) {
+      vectors = incoming.getValueAccessorById(BigIntVector.class, 0).getValueVectors();
+    }
+
+    @Override
+    public int doEval(int leftIndex, int rightIndex) {
+      final BigIntVector left = vectors[leftIndex >>> 16];
+      final BigIntVector right = vectors[rightIndex >>> 16];
+      final int leftOffset = leftIndex & 65535;
+      final int rightOffset = rightIndex & 65535;
+      final boolean leftNull = left.isNull(leftOffset);
+      final boolean rightNull = right.isNull(rightOffset);
+      if (leftNull || rightNull) {
+        return leftNull == rightNull ? 0 : (leftNull ? 1 : -1);
+      }
+      return Long.compare(left.get(leftOffset), right.get(rightOffset));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntToLongFunction;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.op.common.ht2.FieldVectorPair;
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates synthetic Arrow batches for the operator benchmarks.
+ *
+ * A batch is made of {@code fixedKeys} BIGINT columns followed by an optional VARCHAR column whose
+ * values are {@code varKeyWidth} bytes wide. Key values are drawn from {@code cardinality} distinct
+ * tuples, and each cell is null with probability {@code nullDensity}. Generation is seeded so that
+ * every fork of a benchmark sees the same data.
+ */
+public final class SyntheticBatches {
+  private static final long SEED = 0xD2E310L;
+
+  private SyntheticBatches() {
+  }
+
+  /**
+   * Create (but not populate) the key vectors for the given shape.
+   */
+  public static List<FieldVector> createKeyVectors(BufferAllocator allocator, String prefix, int fixedKeys, int varKeyWidth) {
+    Preconditions.checkArgument(fixedKeys > 0 || varKeyWidth > 0, "At least one key column is required");
+    final List<FieldVector> vectors = new ArrayList<>();
+    for (int i = 0; i < fixedKeys; i++) {
+      vectors.add(new BigIntVector(prefix + "_fixed" + i, allocator));
+    }
+    if (varKeyWidth > 0) {
+      vectors.add(new VarCharVector(prefix + "_var", allocator));
+    }
+    return vectors;
+  }
+
+  /**
+   * Fill the key vectors (as returned by {@link #createKeyVectors}) with {@code records} rows.
+   */
+  public static void populateKeys(List<FieldVector> vectors, int records, int cardinality, int varKeyWidth,
+                                  double nullDensity) {
+    Preconditions.checkArgument(cardinality > 0, "Cardinality must be positive");
+    final Random random = new Random(SEED);
+    populate(vectors, records, varKeyWidth, nullDensity, random, row -> random.nextInt(cardinality));
+  }
+
+  /**
+   * Fill the key vectors (as returned by {@link #createKeyVectors}) with {@code records} non null rows going
+   * through the {@code cardinality} key tuples {@link #populateKeys} draws from in order, starting at
+   * {@code firstKey}, so that the rows are distinct as long as {@code records} doesn't exceed the cardinality.
+   */
+  public static void populateSequentialKeys(List<FieldVector> vectors, int records, long firstKey, int cardinality,
+                                            int varKeyWidth) {
+    Preconditions.checkArgument(cardinality > 0, "Cardinality must be positive");
+    populate(vectors, records, varKeyWidth, 0, null, row -> (firstKey + row) % cardinality);
+  }
+
+  private static void populate(List<FieldVector> vectors, int records, int varKeyWidth, double nullDensity,
+                               Random random, IntToLongFunction keys) {
+    final byte[] varValue = new byte[Math.max(varKeyWidth, 1)];
+    for (FieldVector vector : vectors) {
+      vector.setInitialCapacity(records);
+      vector.allocateNew();
+    }
+
+    for (int row = 0; row < records; row++) {
+      final long key = keys.applyAsLong(row);
+      for (int col = 0; col < vectors.size(); col++) {
+        final FieldVector vector = vectors.get(col);
+        if (nullDensity > 0 && random.nextDouble() < nullDensity) {
+          continue;
+        }
+        if (vector instanceof BigIntVector) {
+          // mix the column index in so that columns are correlated but not identical
+          ((BigIntVector) vector).set(row, key * 31 + col);
+        } else {
+          fillVarValue(varValue, varKeyWidth, key);
+          ((VarCharVector) vector).setSafe(row, varValue, 0, varKeyWidth);
+        }
+      }
+    }
+
+    for (FieldVector vector : vectors) {
+      vector.setValueCount(records);
+    }
+  }
+
+  /**
+   * Fill a BIGINT vector with uniformly random measure values.
+   */
+  public static void populateMeasure(BigIntVector vector, int records, double nullDensity) {
+    final Random random = new Random(SEED + 1);
+    vector.allocateNew(records);
+    for (int row = 0; row < records; row++) {
+      if (nullDensity > 0 && random.nextDouble() < nullDensity) {
+        continue;
+      }
+      vector.set(row, random.nextInt(1_000_000));
+    }
+    vector.setValueCount(records);
+  }
+
+  /**
+   * Pair every incoming vector with itself, the shape expected by the pivot builder when
+   * the benchmark does not care about unpivoting.
+   */
+  public static List<FieldVectorPair> selfPairs(List<FieldVector> vectors) {
+    final List<FieldVectorPair> pairs = new ArrayList<>(vectors.size());
+    for (FieldVector vector : vectors) {
+      pairs.add(new FieldVectorPair(vector, vector));
+    }
+    return pairs;
+  }
+
+  /**
+   * Pair incoming vectors with freshly created outgoing vectors of the same type.
+   */
+  public static List<FieldVectorPair> outputPairs(BufferAllocator allocator, List<FieldVector> vectors,
+                                                  VectorContainer outgoing) {
+    final List<FieldVectorPair> pairs = new ArrayList<>(vectors.size());
+    for (FieldVector vector : vectors) {
+      final FieldVector out = vector.getField().createVector(allocator);
+      outgoing.add(out);
+      pairs.add(new FieldVectorPair(vector, out));
+    }
+    return pairs;
+  }
+
+  private static void fillVarValue(byte[] target, int width, long key) {
+    final byte[] digits = Long.toString(key).getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < width; i++) {
+      // right align the key digits and pad on the left so values stay distinct per key.
+      final int digitIndex = digits.length - width + i;
+      target[i] = digitIndex >= 0 ? digits[digitIndex] : (byte) 'k';
+    }
+  }
+}
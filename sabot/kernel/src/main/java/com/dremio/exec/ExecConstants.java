@@ -36,6 +36,7 @@ import com.dremio.options.TypeValidators.RangeLongValidator;
 import com.dremio.options.TypeValidators.StringValidator;
 import com.dremio.sabot.op.common.hashtable.HashTable;
 import com.dremio.service.spill.DefaultSpillServiceOptions;
+import com.dremio.service.spill.SpillCompressionCodec;
 
 @Options
 public interface ExecConstants {
@@ -162,6 +163,10 @@ public interface ExecConstants {
   BooleanValidator ENABLE_VECTORIZED_COPIER = new BooleanValidator("exec.operator.copier.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_COMPLEX_COPIER = new BooleanValidator("exec.operator.copier.complex.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_PARTITIONER = new BooleanValidator("exec.operator.partitioner.vectorize", true);
+  // vectorized partitioners with at least that many receivers group each pass by receiver before copying, and size
+  // their outgoing batches in bytes rather than rows. 0 disables it
+  RangeLongValidator PARTITIONER_PARTITIONED_COPY_MIN_RECEIVERS = new RangeLongValidator("exec.operator.partitioner.partitioned_copy.min_receivers", 0, Integer.MAX_VALUE, 256);
+  RangeLongValidator PARTITIONER_PARTITIONED_COPY_BATCH_BYTES = new RangeLongValidator("exec.operator.partitioner.partitioned_copy.batch_bytes", 1024, 64 * 1024 * 1024, 256 * 1024);
   BooleanValidator DEBUG_HASHJOIN_INSERTION = new BooleanValidator("exec.operator.join.debug-insertion", false);
 
   String OUTPUT_FORMAT_OPTION = "store.format";
@@ -181,6 +186,9 @@ public interface ExecConstants {
   LongValidator ORC_SPLIT_SIZE_VALIDATOR = new LongValidator(ORC_SPLIT_SIZE, 256*1024*1024);
   String AVRO_SPLIT_SIZE = "exec.avro.split-size";
   LongValidator AVRO_SPLIT_SIZE_VALIDATOR = new LongValidator(AVRO_SPLIT_SIZE, 256*1024*1024);
+  // max size of the splits of block splittable text and json files. File system blocks larger than this are split further.
+  String EASY_SPLIT_SIZE = "exec.easy.split-size";
+  PositiveLongValidator EASY_SPLIT_SIZE_VALIDATOR = new PositiveLongValidator(EASY_SPLIT_SIZE, Long.MAX_VALUE, 256*1024*1024);
   String PARQUET_PAGE_SIZE = "store.parquet.page-size";
   LongValidator PARQUET_PAGE_SIZE_VALIDATOR = new LongValidator(PARQUET_PAGE_SIZE, 100000);
   String PARQUET_DICT_PAGE_SIZE = "store.parquet.dictionary.page-size";
@@ -191,6 +199,8 @@ public interface ExecConstants {
 
   String PARQUET_MAX_FOOTER_LEN = "store.parquet.max_footer_length";
   LongValidator PARQUET_MAX_FOOTER_LEN_VALIDATOR = new LongValidator(PARQUET_MAX_FOOTER_LEN, 16*1024*1024);
+  // executor wide budget for cached serialized parquet footers, 0 disables the cache
+  LongValidator PARQUET_FOOTER_CACHE_MAX_SIZE_BYTES = new RangeLongValidator("store.parquet.footer_cache.max_size_bytes", 0, Long.MAX_VALUE, 128*1024*1024L);
 
   String PARQUET_MEMORY_THRESHOLD = "store.parquet.memory_threshold";
   LongValidator PARQUET_MEMORY_THRESHOLD_VALIDATOR = new LongValidator(PARQUET_MEMORY_THRESHOLD, 512*1024*1024);
@@ -232,6 +242,8 @@ public interface ExecConstants {
   BooleanValidator JSON_READER_ALL_TEXT_MODE_VALIDATOR = new BooleanValidator(JSON_ALL_TEXT_MODE, false);
   BooleanValidator JSON_EXTENDED_TYPES = new BooleanValidator("store.json.extended_types", false);
   BooleanValidator JSON_WRITER_UGLIFY = new BooleanValidator("store.json.writer.uglify", false);
+  // json files hold one record per line, and can be read in parallel in block splits
+  BooleanValidator JSON_SPLIT_NEWLINE_DELIMITED = new BooleanValidator("store.json.split_newline_delimited", false);
 
   DoubleValidator TEXT_ESTIMATED_ROW_SIZE = new RangeDoubleValidator(
       "store.text.estimated_row_size_bytes", 1, Long.MAX_VALUE, 10.0);
@@ -275,6 +287,11 @@ public interface ExecConstants {
   String ELASTIC_ACTION_RETRIES = "store.elastic.action_retries";
   LongValidator ELASTIC_ACTION_RETRIES_VALIDATOR = new LongValidator(ELASTIC_ACTION_RETRIES, 0);
 
+  // number of documents per sliced scroll split of an Elasticsearch shard, 0 to read each shard with a single scroll
+  LongValidator ELASTIC_SLICE_DOC_COUNT = new RangeLongValidator("store.elastic.slice_doc_count", 0, Long.MAX_VALUE, 1_000_000);
+  // Elasticsearch limits the number of slices of a scroll to index.max_slices_per_scroll, 1024 by default
+  LongValidator ELASTIC_MAX_SLICES_PER_SHARD = new RangeLongValidator("store.elastic.max_slices_per_shard", 1, 1024, 32);
+
   BooleanValidator ENABLE_UNION_TYPE = new BooleanValidator("exec.enable_union_type", true);
 
   BooleanValidator ACCELERATION_VERBOSE_LOGGING = new BooleanValidator("accelerator.system.verbose.logging", true);
@@ -368,6 +385,20 @@ public interface ExecConstants {
   String FRAGMENT_CODEC_KEY = "planner.fragment.codec";
   EnumValidator<FragmentCodec> FRAGMENT_CODEC = new EnumValidator<>(FRAGMENT_CODEC_KEY, FragmentCodec.class, FragmentCodec.SNAPPY);
 
+  /**
+   * Record batches sent by a fragment to the same executor are held back and sent in a single message until they
+   * add up to this many bytes, or the fragment blocks. 0 sends each batch in its own message.
+   */
+  RangeLongValidator DATA_BATCH_COALESCE_BYTES = new RangeLongValidator("exec.rpc.data_batch_coalesce_bytes", 0,
+    64 * 1024 * 1024, 128 * 1024);
+
+  /**
+   * Longest time in milliseconds record batches are held back while their fragment keeps running. Held batches are
+   * always sent as soon as the fragment blocks or finishes.
+   */
+  RangeLongValidator DATA_BATCH_COALESCE_MAX_DELAY_MS = new RangeLongValidator(
+    "exec.rpc.data_batch_coalesce_max_delay_ms", 0, 60_000, 10);
+
   String ENABLE_VERBOSE_ERRORS_KEY = "exec.errors.verbose";
   OptionValidator ENABLE_VERBOSE_ERRORS = new BooleanValidator(ENABLE_VERBOSE_ERRORS_KEY, false);
 
@@ -377,6 +408,10 @@ public interface ExecConstants {
   String BOOTSTRAP_STORAGE_PLUGINS_FILE = "bootstrap-storage-plugins.json";
   String MAX_LOADING_CACHE_SIZE_CONFIG = "dremio.exec.compile.cache_max_size";
   String MAX_SPLIT_CACHE_SIZE_CONFIG = "dremio.exec.compile.split_cache_max_size";
+  // disk store of compiled generated classes, survives restarts
+  String COMPILE_DISK_CACHE_ENABLED_CONFIG = "dremio.exec.compile.disk_cache.enabled";
+  String COMPILE_DISK_CACHE_PATH_CONFIG = "dremio.exec.compile.disk_cache.path";
+  String COMPILE_DISK_CACHE_MAX_ENTRIES_CONFIG = "dremio.exec.compile.disk_cache.max_entries";
 
 
   String ENABLE_WINDOW_FUNCTIONS = "window.enable";
@@ -419,6 +454,8 @@ public interface ExecConstants {
   DoubleValidator PARQUET_FULL_FILE_READ_COLUMN_RATIO = new RangeDoubleValidator("store.parquet.full_file_read.column_ratio", 0.0, 1.0, 0.25);
   BooleanValidator PARQUET_CACHED_ENTITY_SET_FILE_SIZE = new BooleanValidator("store.parquet.set_file_length",true);
   BooleanValidator PARQUET_COLUMN_ORDERING = new BooleanValidator("store.parquet.column_ordering", false);
+  // read the selected column chunks of a row group together, when the file system supports async reads
+  BooleanValidator PARQUET_PREFETCH_COLUMN_CHUNKS = new BooleanValidator("store.parquet.prefetch_column_chunks", false);
 
   BooleanValidator HIVE_COMPLEXTYPES_ENABLED = new BooleanValidator("store.hive.parquet.support_complex_types", true);
   String PARQUET_LIST_ITEMS_KEY = "store.parquet.list_items.threshold";
@@ -448,6 +485,8 @@ public interface ExecConstants {
   PositiveLongValidator SORT_MAX_WRITE_BATCH = new PositiveLongValidator("exec.operator.sort.external.spill_batch_records", Character.MAX_VALUE, Character.MAX_VALUE);
   BooleanValidator EXTERNAL_SORT_ARROW_ENCODING = new BooleanValidator("exec.operator.sort.external.arrow_encoding", true);
   BooleanValidator EXTERNAL_SORT_DIRECT_WRITE = new BooleanValidator("exec.operator.sort.external.direct_write", true);
+  // number of batches of each spilled run read in the background while merging, 0 to read them on demand
+  RangeLongValidator EXTERNAL_SORT_READ_AHEAD_BATCHES = new RangeLongValidator("exec.operator.sort.external.read_ahead_batches", 0, 16, 1);
   BooleanValidator EXTERNAL_SORT_VECTOR_COPIER = new BooleanValidator("exec.operator.sort.external.vector_copier", true);
   DoubleValidator EXTERNAL_SORT_SPILL_ALLOCATION_DENSITY = new RangeDoubleValidator("exec.operator.sort.external.spill.allocation_density", 0.0, Double.MAX_VALUE, 0.01);
 
@@ -515,6 +554,10 @@ public interface ExecConstants {
   // warning threshold for spilling
   PositiveLongValidator SPILL_IO_WARN_MAX_RUNTIME_MS = new PositiveLongValidator("dremio.spill.warn_max_runtime", Long.MAX_VALUE, 3000);
 
+  // codec used to compress spill files of the operators that spill through SpillManager (sort, hash agg)
+  EnumValidator<SpillCompressionCodec> SPILL_COMPRESSION_CODEC = new EnumValidator<>("dremio.spill.compression.codec", SpillCompressionCodec.class, SpillCompressionCodec.LZ4);
+  RangeLongValidator SPILL_COMPRESSION_ZSTD_LEVEL = new RangeLongValidator("dremio.spill.compression.zstd_level", 1, 22, 3);
+
   // warning threshold for long IO time
   LongValidator STORE_IO_TIME_WARN_THRESH_MILLIS = new LongValidator("store.io_time_warn_thresh_millis", 10000);
 
@@ -31,10 +31,22 @@ import com.google.common.base.Preconditions;
 public class ClassTransformer {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ClassTransformer.class);
 
+  // name of the generated class in the generic source, see CodeGenerator
+  private static final String GENERIC_CLASS_NAME = "GenericGenerated";
+
   private final OptionManager optionManager;
+  private final CompiledClassStore compiledClassStore;
 
   public ClassTransformer(final OptionManager optionManager) {
+    this(optionManager, null);
+  }
+
+  /**
+   * @param compiledClassStore disk store of compiled classes, null to always compile
+   */
+  public ClassTransformer(final OptionManager optionManager, final CompiledClassStore compiledClassStore) {
     this.optionManager = optionManager;
+    this.compiledClassStore = compiledClassStore;
   }
 
   public static class ClassSet {
@@ -181,7 +193,25 @@ public class ClassTransformer {
     try {
       final long t1 = System.nanoTime();
       final ClassSet set = new ClassSet(null, templateDefinition.getTemplateClassName(), materializedClassName);
-      final ClassBytes[] implementationClasses = classLoader.getClassByteCode(set.generated, entireClass);
+
+      String className = set.generated.dot;
+      ClassBytes[] implementationClasses = null;
+      String storeKey = null;
+      if (compiledClassStore != null) {
+        // the unique class name is the only difference between two generations of the same code
+        final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        storeKey = compiledClassStore.getKey(templateDefinition.getTemplateClassName(),
+          entireClass.replace(simpleName, GENERIC_CLASS_NAME));
+        final CompiledClassStore.Entry entry = compiledClassStore.get(storeKey);
+        if (entry != null) {
+          className = entry.getClassName();
+          implementationClasses = entry.getClasses();
+        }
+      }
+      final boolean compiled = implementationClasses == null;
+      if (compiled) {
+        implementationClasses = classLoader.getClassByteCode(set.generated, entireClass);
+      }
 
       long totalBytecodeSize = 0;
       for (ClassBytes clazz : implementationClasses) {
@@ -189,10 +219,14 @@ public class ClassTransformer {
         classLoader.injectByteCode(clazz.getName(), clazz.getBytes());
       }
 
-      Class<?> c = classLoader.findClass(set.generated.dot);
+      Class<?> c = classLoader.findClass(className);
       if (templateDefinition.getExternalInterface().isAssignableFrom(c)) {
+        if (compiled && storeKey != null) {
+          compiledClassStore.put(storeKey, className, implementationClasses);
+        }
         if (logger.isDebugEnabled()) {
-          logger.debug("Done compiling (bytecode size={}, time:{} millis).", DremioStringUtils.readable(totalBytecodeSize), (System.nanoTime() - t1) / 1000000);
+          logger.debug("Done {} (bytecode size={}, time:{} millis).", compiled ? "compiling" : "loading stored classes",
+            DremioStringUtils.readable(totalBytecodeSize), (System.nanoTime() - t1) / 1000000);
         }
         return c;
       }
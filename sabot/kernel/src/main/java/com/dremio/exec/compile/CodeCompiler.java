@@ -16,12 +16,14 @@
 package com.dremio.exec.compile;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 
 import com.dremio.common.config.SabotConfig;
+import com.dremio.common.util.DremioVersionInfo;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.exception.ClassTransformationException;
 import com.dremio.exec.expr.ClassGenerator;
@@ -44,7 +46,7 @@ public class CodeCompiler {
   private final LoadingCache<ExpressionEvalInfosHolder, GeneratedClassEntryWithFunctionErrorContextSizeInfo> expressionsToCompiledClazzCache;
 
   public CodeCompiler(final SabotConfig config, final OptionManager optionManager) {
-    transformer = new ClassTransformer(optionManager);
+    transformer = new ClassTransformer(optionManager, newCompiledClassStore(config));
     selector = new ClassCompilerSelector(config, optionManager);
     final int cacheMaxSize = config.getInt(ExecConstants.MAX_LOADING_CACHE_SIZE_CONFIG);
     generatedCodeToCompiledClazzCache = CacheBuilder.newBuilder()
@@ -57,6 +59,25 @@ public class CodeCompiler {
       .build(new ExpressionsToCompiledClazzCacheLoader());
   }
 
+  /**
+   * @return the disk store of compiled classes if enabled and usable, null otherwise
+   */
+  private static CompiledClassStore newCompiledClassStore(final SabotConfig config) {
+    if (!config.getBoolean(ExecConstants.COMPILE_DISK_CACHE_ENABLED_CONFIG)) {
+      return null;
+    }
+    final String path = config.getString(ExecConstants.COMPILE_DISK_CACHE_PATH_CONFIG);
+    try {
+      // generated code inlines the functions it uses, so only the templates and the compilers may change the classes
+      // compiled from a given source: classes compiled by another version are never reused
+      return new CompiledClassStore(Paths.get(path), DremioVersionInfo.getVersion(),
+        config.getInt(ExecConstants.COMPILE_DISK_CACHE_MAX_ENTRIES_CONFIG));
+    } catch (IOException e) {
+      logger.warn("Unable to use {} to store compiled classes, they will only be cached in memory.", path, e);
+      return null;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   public <T> T getImplementationClass(final CodeGenerator<?> cg) {
     return (T) getImplementationClass(cg, 1).get(0);
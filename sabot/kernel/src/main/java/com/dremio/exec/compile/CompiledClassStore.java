@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+
+/**
+ * Disk-backed store of compiled generated classes, so that an executor doesn't have to compile again the same
+ * generated code after a restart. Sits behind the in-memory caches of {@link CodeCompiler}: entries are only read
+ * when the in-memory caches miss.
+ *
+ * Entries are keyed by a hash of the generic generated source (the source before the generated class got its
+ * unique name), the template it extends and a fingerprint of the build, so that classes compiled by a different
+ * version are never picked up. Each entry remembers the name the class was compiled with, which may differ from
+ * the name the current code generator picked: the class is loaded under its original name.
+ *
+ * The store holds at most maxEntries entries, the least recently used ones are deleted when it grows past that.
+ */
+public class CompiledClassStore {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CompiledClassStore.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String SUFFIX = ".classes";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final Path directory;
+  private final String fingerprint;
+  private final int maxEntries;
+  private final AtomicInteger numEntries;
+
+  /**
+   * A compiled class and its inner classes
+   */
+  public static final class Entry {
+    private final String className;
+    private final ClassBytes[] classes;
+
+    Entry(String className, ClassBytes[] classes) {
+      this.className = className;
+      this.classes = classes;
+    }
+
+    /**
+     * @return name the class was compiled with
+     */
+    public String getClassName() {
+      return className;
+    }
+
+    public ClassBytes[] getClasses() {
+      return classes;
+    }
+  }
+
+  public CompiledClassStore(Path directory, String fingerprint, int maxEntries) throws IOException {
+    Preconditions.checkArgument(maxEntries > 0, "maxEntries must be positive, was %s", maxEntries);
+    this.directory = Files.createDirectories(directory);
+    this.fingerprint = fingerprint;
+    this.maxEntries = maxEntries;
+    this.numEntries = new AtomicInteger(listEntries().size());
+  }
+
+  /**
+   * @param templateClassName template the generated class extends
+   * @param genericSource generated source, before the generated class got its unique name
+   * @return key of the corresponding entry
+   */
+  public String getKey(String templateClassName, String genericSource) {
+    return Hashing.sha256().newHasher()
+      .putString(fingerprint, UTF_8)
+      .putByte((byte) 0)
+      .putString(templateClassName, UTF_8)
+      .putByte((byte) 0)
+      .putString(genericSource, UTF_8)
+      .hash()
+      .toString();
+  }
+
+  /**
+   * @return the entry stored under the given key, null if there is none or it can't be read
+   */
+  public Entry get(String key) {
+    final Path path = getPath(key);
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unexpected format version");
+      }
+      final String className = in.readUTF();
+      final ClassBytes[] classes = new ClassBytes[in.readInt()];
+      for (int i = 0; i < classes.length; i++) {
+        final String name = in.readUTF();
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        classes[i] = new ClassBytes(name, bytes);
+      }
+      // keeps track of the last use, for eviction
+      Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+      return new Entry(className, classes);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.warn("Unable to read compiled classes from {}, deleting it.", path, e);
+      delete(path);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the given classes under the given key. Failures are logged and otherwise ignored, the classes will just
+   * have to be compiled again.
+   */
+  public void put(String key, String className, ClassBytes[] classes) {
+    final Path path = getPath(key);
+    // written to a temporary file first, so that readers never see a partial entry
+    final Path temp = directory.resolve(key + "." + UUID.randomUUID() + TEMP_SUFFIX);
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(className);
+        out.writeInt(classes.length);
+        for (ClassBytes clazz : classes) {
+          out.writeUTF(clazz.getName());
+          out.writeInt(clazz.getBytes().length);
+          out.write(clazz.getBytes());
+        }
+      }
+      final boolean existed = Files.exists(path);
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (!existed && numEntries.incrementAndGet() > maxEntries) {
+        evict();
+      }
+    } catch (IOException e) {
+      logger.warn("Unable to store compiled classes to {}.", path, e);
+      delete(temp);
+    }
+  }
+
+  /**
+   * Deletes the least recently used entries, down to 90% of maxEntries so that eviction doesn't run on every put.
+   */
+  private synchronized void evict() throws IOException {
+    final List<Path> entries = listEntries();
+    final int target = maxEntries - maxEntries / 10;
+    if (entries.size() <= target) {
+      numEntries.set(entries.size());
+      return;
+    }
+    entries.sort(Comparator.comparingLong(CompiledClassStore::getLastModified));
+    final int toDelete = entries.size() - target;
+    for (int i = 0; i < toDelete; i++) {
+      delete(entries.get(i));
+    }
+    numEntries.set(target);
+  }
+
+  private List<Path> listEntries() throws IOException {
+    final List<Path> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path path : stream) {
+        entries.add(path);
+      }
+    }
+    return entries;
+  }
+
+  private static long getLastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      logger.debug("Unable to delete {}.", path, e);
+    }
+  }
+
+  private Path getPath(String key) {
+    return directory.resolve(key + SUFFIX);
+  }
+
+  @VisibleForTesting
+  int getNumEntries() {
+    return numEntries.get();
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.iceberg.hadoop.Util;
 
+import com.dremio.io.RangeReadPlanner;
 import com.google.common.base.Joiner;
 
 /**
@@ -61,4 +62,16 @@ public class DremioHadoopUtils {
     List<String> pathComponents = Arrays.asList(removeLeadingSlash(Path.getPathWithoutSchemeAndAuthority(path).toString()).split(Path.SEPARATOR));
     return new Path("/" + Joiner.on(Path.SEPARATOR).join(pathComponents.subList(1, pathComponents.size())));
   }
+
+  /**
+   * Creates a planner for the range reads of an async reader, using the limits set in the configuration.
+   *
+   * @param conf file system configuration
+   * @return a new planner
+   */
+  public static RangeReadPlanner newRangeReadPlanner(Configuration conf) {
+    return new RangeReadPlanner(
+      conf.getLongBytes(RangeReadPlanner.MAX_GAP_BYTES, RangeReadPlanner.DEFAULT_MAX_GAP_BYTES),
+      conf.getLongBytes(RangeReadPlanner.MAX_REQUEST_BYTES, RangeReadPlanner.DEFAULT_MAX_REQUEST_BYTES));
+  }
 }
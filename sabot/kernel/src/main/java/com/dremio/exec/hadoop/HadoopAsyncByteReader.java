@@ -18,6 +18,7 @@ package com.dremio.exec.hadoop;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
@@ -26,6 +27,7 @@ import java.util.concurrent.Executors;
 import com.dremio.common.concurrent.NamedThreadFactory;
 import com.dremio.io.AsyncByteReader;
 import com.dremio.io.FSInputStream;
+import com.dremio.io.RangeReadPlanner;
 import com.dremio.io.ReusableAsyncByteReader;
 import com.dremio.io.file.FileAttributes;
 import com.dremio.io.file.Path;
@@ -33,7 +35,7 @@ import com.dremio.io.file.Path;
 import io.netty.buffer.ByteBuf;
 
 /**
- * Async wrapper over the hadoop sync APIs.
+ * Async wrapper over the hadoop sync APIs. Ranges are read as planned by a {@link RangeReadPlanner}.
  */
 public class HadoopAsyncByteReader extends ReusableAsyncByteReader {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HadoopAsyncByteReader.class);
@@ -43,17 +45,38 @@ public class HadoopAsyncByteReader extends ReusableAsyncByteReader {
   private final FSInputStream inputStream;
   private final String threadName;
   private final HadoopFileSystem hadoopFileSystem;
+  private final RangeReadPlanner planner;
   private volatile CompletableFuture<Void> versionFuture = null;
 
   public HadoopAsyncByteReader(HadoopFileSystem hadoopFileSystem, final Path path, final FSInputStream inputStream) {
+    this(hadoopFileSystem, path, inputStream, RangeReadPlanner.defaultPlanner());
+  }
+
+  public HadoopAsyncByteReader(HadoopFileSystem hadoopFileSystem, final Path path, final FSInputStream inputStream,
+                               RangeReadPlanner planner) {
     this.path = path;
     this.inputStream = inputStream;
     this.hadoopFileSystem = hadoopFileSystem;
+    this.planner = planner;
     this.threadName = Thread.currentThread().getName();
   }
 
   @Override
   public CompletableFuture<Void> readFully(long offset, ByteBuf dstBuf, int dstOffset, int len) {
+    return planner.read(offset, dstBuf, dstOffset, len, this::read);
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+    return planner.read(ranges, this::read);
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    return planner.getStats();
+  }
+
+  private CompletableFuture<Void> read(long offset, ByteBuf dstBuf, int dstOffset, int len) {
 
     return CompletableFuture.runAsync(() -> {
       try {
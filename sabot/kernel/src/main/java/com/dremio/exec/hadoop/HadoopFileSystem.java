@@ -609,7 +609,8 @@ public class HadoopFileSystem
       }
       logger.debug("Opening new inputstream for {} ", path);
       FSInputStream inputStream = newFSDataInputStreamWrapper(fileKey.getPath(), is, operatorStats, false);
-      return new HadoopAsyncByteReader(this, fileKey.getPath(), inputStream);
+      return new HadoopAsyncByteReader(this, fileKey.getPath(), inputStream,
+        DremioHadoopUtils.newRangeReadPlanner(underlyingFs.getConf()));
     }
   }
 
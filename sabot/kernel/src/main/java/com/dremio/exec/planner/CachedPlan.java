@@ -21,22 +21,31 @@ import com.dremio.exec.planner.physical.Prel;
 
 public class CachedPlan {
   private final String queryText;
+  private final String normalizedQuery;
   private final Prel prel;
   private final int estimatedSize;   //estimated size in byte
   private AtomicInteger useCount;
   private final long creationTime;
   private CachedAccelDetails accelDetails;
 
-  private CachedPlan(String query, Prel prel, String textPlan, int useCount, int estimatedSize) {
+  private CachedPlan(String query, String normalizedQuery, Prel prel, String textPlan, int useCount, int estimatedSize) {
     this.queryText = query;
+    this.normalizedQuery = normalizedQuery;
     this.prel = prel;
     this.useCount = new AtomicInteger(useCount);
     this.estimatedSize = estimatedSize;
     this.creationTime = System.currentTimeMillis();
   }
 
-  public static CachedPlan createCachedPlan(String query, Prel prel, String textPlan, int estimatedSize) {
-    return new CachedPlan(query, prel, textPlan, 0, estimatedSize);
+  /**
+   * @param normalizedQuery the text the plan was cached under, see {@link PlanCache#normalizeQuery}
+   */
+  public static CachedPlan createCachedPlan(String query, String normalizedQuery, Prel prel, String textPlan, int estimatedSize) {
+    return new CachedPlan(query, normalizedQuery, prel, textPlan, 0, estimatedSize);
+  }
+
+  public String getNormalizedQuery() {
+    return normalizedQuery;
   }
 
   public Prel getPrel() {
@@ -15,8 +15,9 @@
  */
 package com.dremio.exec.planner;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.dremio.exec.catalog.Catalog;
 import com.dremio.exec.catalog.DremioTable;
@@ -24,20 +25,31 @@ import com.dremio.exec.planner.logical.ViewTable;
 import com.dremio.exec.store.NamespaceTable;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.google.common.cache.Cache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hashing;
 
 public class PlanCache {
+  // separates the parts of the normalized query, cannot appear in sql text produced by the unparser
+  private static final char KEY_SEPARATOR = '\0';
 
   private final Cache<Long, CachedPlan> cachePlans;
-  private static Multimap<String, Long> datasetMap;
+  // dataset id -> cache ids, and the inverse so that dropping a cache entry only touches its own datasets
+  private final SetMultimap<String, Long> datasetMap = HashMultimap.create();
+  private final SetMultimap<Long, String> cacheIdToDatasets = HashMultimap.create();
 
-  public PlanCache(Cache<Long, CachedPlan> cachePlans, Multimap<String, Long> map) {
+  public PlanCache(Cache<Long, CachedPlan> cachePlans) {
     this.cachePlans = cachePlans;
-    this.datasetMap = map;
   }
 
   public Multimap<String, Long> getDatasetMap() {
-    return datasetMap;
+    synchronized (datasetMap) {
+      return Multimaps.unmodifiableMultimap(HashMultimap.create(datasetMap));
+    }
   }
 
   public Cache<Long, CachedPlan> getCachePlans() {
@@ -47,44 +59,77 @@ public class PlanCache {
   public void addCacheToDatasetMap(String datasetId, Long cacheId) {
     synchronized (datasetMap) {
       datasetMap.put(datasetId, cacheId);
+      cacheIdToDatasets.put(cacheId, datasetId);
     }
   }
 
+  /**
+   * Builds the text that identifies a cached plan: the unparsed query along with everything else the plan depends on.
+   */
+  public static String normalizeQuery(String sql, String workLoadType, String defaultSchema) {
+    return sql + KEY_SEPARATOR + workLoadType + KEY_SEPARATOR + defaultSchema;
+  }
+
+  public static long generateCacheKey(String normalizedQuery) {
+    return Hashing.murmur3_128().hashString(normalizedQuery, StandardCharsets.UTF_8).asLong();
+  }
+
   public static long generateCacheKey(String sql, String workLoadType, String defaultSchema) {
-    return sql.concat(workLoadType).concat(defaultSchema).hashCode();
+    return generateCacheKey(normalizeQuery(sql, workLoadType, defaultSchema));
   }
 
-  public CachedPlan getIfPresentAndValid(Catalog catalog, long cacheId) {
+  /**
+   * Returns the cached plan for the given key if it was built for the same normalized query and none of the
+   * requested datasets have changed since.
+   */
+  public CachedPlan getIfPresentAndValid(Catalog catalog, long cacheId, String normalizedQuery) {
     if (cachePlans == null) {
       return null;
     }
     CachedPlan cachedPlan = cachePlans.getIfPresent(cacheId);
-    if (cachedPlan != null) {
-      Iterable<DremioTable> datasets = catalog.getAllRequestedTables();
-      for (DremioTable dataset : datasets) {
-        if (dataset instanceof NamespaceTable || dataset instanceof ViewTable) {
-          DatasetConfig config = dataset.getDatasetConfig();
-          if (config.getLastModified() > cachedPlan.getCreationTime()) {
-            // for this case, we can only invalidate this cach entry, other cache entries may still be valid
-            cachePlans.invalidate(cacheId);
-            return null;
-          }
+    if (cachedPlan == null) {
+      return null;
+    }
+    if (!normalizedQuery.equals(cachedPlan.getNormalizedQuery())) {
+      // hash collision, leave the entry alone. The caller replaces it once it has planned its own query.
+      return null;
+    }
+    Iterable<DremioTable> datasets = catalog.getAllRequestedTables();
+    for (DremioTable dataset : datasets) {
+      if (dataset instanceof NamespaceTable || dataset instanceof ViewTable) {
+        DatasetConfig config = dataset.getDatasetConfig();
+        if (config.getLastModified() > cachedPlan.getCreationTime()) {
+          // for this case, we can only invalidate this cach entry, other cache entries may still be valid
+          cachePlans.invalidate(cacheId);
+          return null;
         }
       }
     }
-    return cachePlans.getIfPresent(cacheId);
+    return cachedPlan;
   }
 
   public void invalidateCacheOnDataset(String datasetId) {
-    List<Long> affectedCaches = datasetMap.get(datasetId).stream().collect(Collectors.toList());
-    for(Long cacheId: affectedCaches) {
-      cachePlans.invalidate(cacheId);
+    final List<Long> affectedCaches;
+    synchronized (datasetMap) {
+      affectedCaches = new ArrayList<>(datasetMap.get(datasetId));
     }
+    // removal notifications clean up the dataset map, so invalidate outside of the lock
+    cachePlans.invalidateAll(affectedCaches);
   }
 
-  public static void clearDatasetMapOnCacheGC(Long cacheId) {
+  /**
+   * Removal listener of the plan cache, drops the dataset mappings of a removed plan.
+   */
+  public void onCachedPlanRemoval(RemovalNotification<Long, CachedPlan> notification) {
+    if (notification.getCause() == RemovalCause.REPLACED) {
+      // the key is still cached, with a new plan whose datasets were registered before it was put
+      return;
+    }
+    final Long cacheId = notification.getKey();
     synchronized (datasetMap) {
-      datasetMap.entries().removeIf(datasetMapEntry -> datasetMapEntry.getValue().equals(cacheId));
+      for (String datasetId : cacheIdToDatasets.removeAll(cacheId)) {
+        datasetMap.remove(datasetId, cacheId);
+      }
     }
   }
 }
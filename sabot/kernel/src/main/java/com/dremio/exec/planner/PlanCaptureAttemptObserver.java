@@ -311,6 +311,16 @@ public class PlanCaptureAttemptObserver extends AbstractAttemptObserver {
     numPlanCacheUses = count;
   }
 
+  @Override
+  public void planMaterializationCandidates(int considered, int pruned, long millisTaken) {
+    planPhases.add(PlanPhaseProfile.newBuilder()
+      .setPhaseName(PlannerPhase.PLAN_MATERIALIZATION_CANDIDATES)
+      .setDurationMillis(millisTaken)
+      .setPlan(String.format("%d materializations considered, %d pruned as they read none of the query datasets",
+        considered, pruned))
+      .build());
+  }
+
   public int getNumPlanCacheUses() {
     return numPlanCacheUses;
   }
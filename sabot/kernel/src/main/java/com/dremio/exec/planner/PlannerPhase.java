@@ -908,6 +908,7 @@ public enum PlannerPhase {
   public static final String PLAN_CACHE_USED = "Plan Cache Used";
   public static final String PLAN_CONVERTED_TO_REL = "Convert To Rel";
   public static final String PLAN_FIND_MATERIALIZATIONS = "Find Materializations";
+  public static final String PLAN_MATERIALIZATION_CANDIDATES = "Materialization Candidates";
   public static final String PLAN_NORMALIZED = "Normalization";
   public static final String PLAN_REL_TRANSFORM = "Substitution";
   public static final String PLAN_FINAL_PHYSICAL = "Final Physical Transformation";
@@ -15,6 +15,10 @@
  */
 package com.dremio.exec.planner.acceleration;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 import org.apache.calcite.plan.CopyWithCluster;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.rel.RelNode;
@@ -25,6 +29,7 @@ import org.apache.calcite.sql.type.SqlTypeName;
 import org.apache.calcite.util.NlsString;
 
 import com.dremio.exec.planner.RoutingShuttle;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils;
 import com.dremio.exec.planner.sql.SqlConverter;
 import com.dremio.exec.store.CatalogService;
 import com.google.common.base.Preconditions;
@@ -35,6 +40,7 @@ import com.google.common.base.Preconditions;
 public class CachedMaterializationDescriptor extends MaterializationDescriptor {
 
   private final DremioMaterialization materialization;
+  private final Optional<Set<List<String>>> datasets;
 
   public CachedMaterializationDescriptor(MaterializationDescriptor descriptor, DremioMaterialization materialization, CatalogService catalogService) {
     super(descriptor.getLayoutInfo(),
@@ -52,6 +58,7 @@ public class CachedMaterializationDescriptor extends MaterializationDescriptor {
           materialization.getStripVersion(),
           catalogService);
     this.materialization = Preconditions.checkNotNull(materialization, "materialization is required");
+    this.datasets = SubstitutionUtils.findDatasets(materialization.getQueryRel());
   }
 
   @Override
@@ -93,4 +100,11 @@ public class CachedMaterializationDescriptor extends MaterializationDescriptor {
   public DremioMaterialization getMaterialization() {
     return materialization;
   }
+
+  /**
+   * @return paths of the tables and views the materialization depends on, or an empty optional if they are unknown
+   */
+  public Optional<Set<List<String>>> getDatasets() {
+    return datasets;
+  }
 }
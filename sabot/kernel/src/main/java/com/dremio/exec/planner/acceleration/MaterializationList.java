@@ -19,10 +19,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.apache.calcite.plan.RelOptMaterialization;
+import org.apache.calcite.rel.RelNode;
 
 import com.dremio.exec.planner.acceleration.substitution.MaterializationProvider;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils;
+import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.planner.sql.SqlConverter;
 import com.dremio.exec.server.MaterializationDescriptorProvider;
 import com.dremio.sabot.rpc.user.UserSession;
@@ -30,6 +35,7 @@ import com.dremio.service.namespace.NamespaceKey;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
@@ -45,6 +51,8 @@ public class MaterializationList implements MaterializationProvider {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MaterializationList.class);
 
   private final Map<TablePath, MaterializationDescriptor> mapping = Maps.newHashMap();
+  // expanded materializations by materialization id, so each descriptor is expanded once per query
+  private final Map<String, DremioMaterialization> expanded = Maps.newLinkedHashMap();
   private final Supplier<List<DremioMaterialization>> factory = Suppliers.memoize(new Supplier<List<DremioMaterialization>>() {
     @Override
     public List<DremioMaterialization> get() {
@@ -74,6 +82,43 @@ public class MaterializationList implements MaterializationProvider {
     return factory.get();
   }
 
+  /**
+   * Returns the materializations that may be used to accelerate the given query.
+   *
+   * Only the materializations depending on the tables and views read by the query are expanded, the number of
+   * materializations considered and pruned is reported to the query observer.
+   */
+  @Override
+  public List<DremioMaterialization> getApplicableMaterializations(RelNode query) {
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final Set<List<String>> datasets = SubstitutionUtils.findTables(query);
+    datasets.addAll(SubstitutionUtils.findExpansionNodes(query));
+
+    final List<MaterializationDescriptor> descriptors = provider.get();
+    final Predicate<MaterializationDescriptor> filter = provider.getCandidateFilter(datasets);
+    final List<MaterializationDescriptor> candidates = Lists.newArrayList();
+    for (MaterializationDescriptor descriptor : descriptors) {
+      if (filter.test(descriptor)) {
+        candidates.add(descriptor);
+      }
+    }
+    final List<DremioMaterialization> materializations = expand(candidates);
+
+    final AttemptObserver observer = converter.getObserver();
+    if (observer != null) {
+      observer.planMaterializationCandidates(candidates.size(), descriptors.size() - candidates.size(),
+        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+    return materializations;
+  }
+
+  /**
+   * Returns the materializations expanded so far, the only ones the plan may have been accelerated with.
+   */
+  public List<DremioMaterialization> getExpandedMaterializations() {
+    return ImmutableList.copyOf(expanded.values());
+  }
+
   @Override
   public java.util.Optional<DremioMaterialization> getDefaultRawMaterialization(NamespaceKey path, List<String> vdsFields) {
     return getDefaultRawMaterialization(provider, path, vdsFields);
@@ -96,11 +141,15 @@ public class MaterializationList implements MaterializationProvider {
    */
   @VisibleForTesting
   protected List<DremioMaterialization> build(final MaterializationDescriptorProvider provider) {
+    return expand(provider.get());
+  }
+
+  private List<DremioMaterialization> expand(final List<MaterializationDescriptor> descriptors) {
     final Set<String> exclusions = Sets.newHashSet(session.getSubstitutionSettings().getExclusions());
     final Set<String> inclusions = Sets.newHashSet(session.getSubstitutionSettings().getInclusions());
     final boolean hasInclusions = !inclusions.isEmpty();
     final List<DremioMaterialization> materializations = Lists.newArrayList();
-    for (final MaterializationDescriptor descriptor : provider.get()) {
+    for (final MaterializationDescriptor descriptor : descriptors) {
 
       if(
           (hasInclusions && !inclusions.contains(descriptor.getLayoutId()))
@@ -111,9 +160,16 @@ public class MaterializationList implements MaterializationProvider {
       }
 
       try {
-        final DremioMaterialization materialization = descriptor.getMaterializationFor(converter);
+        final String materializationId = descriptor.getMaterializationId();
+        DremioMaterialization materialization = materializationId == null ? null : expanded.get(materializationId);
         if (materialization == null) {
-          continue;
+          materialization = descriptor.getMaterializationFor(converter);
+          if (materialization == null) {
+            continue;
+          }
+          if (materializationId != null) {
+            expanded.put(materializationId, materialization);
+          }
         }
 
         mapping.put(TablePath.of(descriptor.getPath()), descriptor);
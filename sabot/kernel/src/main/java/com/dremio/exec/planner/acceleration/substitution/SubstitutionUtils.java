@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -91,6 +92,20 @@ public final class SubstitutionUtils {
     return usedTables;
   }
 
+  /**
+   * Returns the paths of the tables and views used by the given plan.
+   *
+   * @return the dataset paths, or an empty optional if the plan reads external queries, which have no path
+   */
+  public static Optional<Set<List<String>>> findDatasets(final RelNode node) {
+    if (!findExternalQueries(node).isEmpty()) {
+      return Optional.empty();
+    }
+    final Set<List<String>> datasets = findTables(node);
+    datasets.addAll(findExpansionNodes(node));
+    return Optional.of(datasets);
+  }
+
   public static int hash(RelNode rel) {
     Hasher hasher = new Hasher();
     PrintWriter pw = new PrintWriter(hasher, false);
@@ -185,6 +185,12 @@ public interface AttemptObserver {
    */
   void planFindMaterializations(long millisTaken);
 
+  /**
+   * Report the number of materializations considered for substitution and pruned before expansion
+   * because they do not depend on any dataset read by the query
+   */
+  default void planMaterializationCandidates(int considered, int pruned, long millisTaken) {};
+
   /**
    * Report normalization completion
    */
@@ -99,6 +99,13 @@ public class AttemptObservers implements AttemptObserver {
     }
   }
 
+  @Override
+  public void planMaterializationCandidates(int considered, int pruned, long millisTaken) {
+    for (final AttemptObserver observer : observers) {
+      observer.planMaterializationCandidates(considered, pruned, millisTaken);
+    }
+  }
+
   @Override
   public void setCachedAccelDetails(CachedPlan cachedPlan) {
     for (final AttemptObserver observer : observers) {
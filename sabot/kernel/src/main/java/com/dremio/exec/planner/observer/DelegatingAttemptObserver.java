@@ -131,6 +131,11 @@ public class DelegatingAttemptObserver implements AttemptObserver {
     observer.planFindMaterializations(millisTaken);
   }
 
+  @Override
+  public void planMaterializationCandidates(int considered, int pruned, long millisTaken) {
+    observer.planMaterializationCandidates(considered, pruned, millisTaken);
+  }
+
   @Override
   public void planNormalized(long millisTaken, List<RelNode> normalizedQueryPlans) {
     observer.planNormalized(millisTaken, normalizedQueryPlans);
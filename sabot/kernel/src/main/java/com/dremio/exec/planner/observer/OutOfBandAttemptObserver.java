@@ -178,6 +178,11 @@ public class OutOfBandAttemptObserver implements AttemptObserver {
     execute(() -> innerObserver.planCacheUsed(count));
   }
 
+  @Override
+  public void planMaterializationCandidates(final int considered, final int pruned, final long millisTaken) {
+    execute(() -> innerObserver.planMaterializationCandidates(considered, pruned, millisTaken));
+  }
+
   @Override
   public void planSerializable(final RelNode serializable) {
     execute(() -> innerObserver.planSerializable(serializable));
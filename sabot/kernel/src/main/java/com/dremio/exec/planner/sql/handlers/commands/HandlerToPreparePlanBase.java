@@ -188,6 +188,11 @@ public abstract class HandlerToPreparePlanBase<T> implements CommandRunner<T> {
       calls.add(observer -> observer.planFindMaterializations(millisTaken));
     }
 
+    @Override
+    public void planMaterializationCandidates(final int considered, final int pruned, final long millisTaken) {
+      calls.add(observer -> observer.planMaterializationCandidates(considered, pruned, millisTaken));
+    }
+
 
     @Override
     public void planNormalized(final long millisTaken, final List<RelNode> normalizedQueryPlans) {
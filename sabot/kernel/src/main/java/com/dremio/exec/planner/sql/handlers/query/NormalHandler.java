@@ -65,8 +65,9 @@ public class NormalHandler implements SqlToPlanHandler {
       final PlannerSettings plannerSettings = config.getContext().getPlannerSettings();
       final PlanCache planCache = config.getContext().getPlanCache();
       final Cache<Long, CachedPlan> cachedPlans = (planCache != null) ? planCache.getCachePlans():null;
-      final long cachedKey = planCache.generateCacheKey(sqlNode.toSqlString(CalciteSqlDialect.DEFAULT).getSql(),
+      final String normalizedQuery = PlanCache.normalizeQuery(sqlNode.toSqlString(CalciteSqlDialect.DEFAULT).getSql(),
         config.getContext().getWorkloadType().name(), config.getContext().getContextInformation().getCurrentDefaultSchema());
+      final long cachedKey = PlanCache.generateCacheKey(normalizedQuery);
       config.getObserver().setCacheKey(cachedKey);
       final ConvertedRelNode convertedRelNode = PrelTransformer.validateAndConvert(config, sqlNode);
       final RelDataType validatedRowType = convertedRelNode.getValidatedRowType();
@@ -78,7 +79,7 @@ public class NormalHandler implements SqlToPlanHandler {
         config.getContext().getExecutorService().submit(viewAccessEvaluator);
       }
       final Catalog catalog = config.getContext().getCatalog();
-      CachedPlan cachedPlan = (cachedPlans != null) ? planCache.getIfPresentAndValid(catalog, cachedKey) : null;
+      CachedPlan cachedPlan = (cachedPlans != null) ? planCache.getIfPresentAndValid(catalog, cachedKey, normalizedQuery) : null;
       Prel prel;
       boolean supportPlanCache = config.getConverter().getFunctionContext().getContextInformation().isPlanCacheable();
       if (!plannerSettings.isPlanCacheEnabled() || cachedPlan == null) {
@@ -102,7 +103,7 @@ public class NormalHandler implements SqlToPlanHandler {
             }
           }
           if (isPlanCacheable) {
-            CachedPlan newCachedPlan = CachedPlan.createCachedPlan(sql, prel, textPlan, prel.getEstimatedSize());
+            CachedPlan newCachedPlan = CachedPlan.createCachedPlan(sql, normalizedQuery, prel, textPlan, prel.getEstimatedSize());
             config.getObserver().setCachedAccelDetails(newCachedPlan);
             cachedPlans.put(cachedKey, newCachedPlan);
           }
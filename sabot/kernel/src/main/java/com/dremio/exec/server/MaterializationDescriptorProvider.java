@@ -17,6 +17,8 @@ package com.dremio.exec.server;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import com.dremio.exec.planner.acceleration.MaterializationDescriptor;
 import com.dremio.service.namespace.NamespaceKey;
@@ -33,6 +35,18 @@ public interface MaterializationDescriptorProvider {
    */
   List<MaterializationDescriptor> get();
 
+  /**
+   * Returns a filter selecting, among the materializations provided by {@link #get()}, the ones that may be used to
+   * accelerate a query reading the given datasets. The filter may select materializations that turn out not to be
+   * applicable, but never rejects an applicable one.
+   *
+   * @param datasets paths of the tables and views read by the query
+   * @return filter of the candidate materializations
+   */
+  default Predicate<MaterializationDescriptor> getCandidateFilter(Set<List<String>> datasets) {
+    return descriptor -> true;
+  }
+
   /**
    * Returns the default raw materialization that provider considers for substitution
    * for the VDS with the given path
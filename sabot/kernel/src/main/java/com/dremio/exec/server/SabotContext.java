@@ -51,6 +51,7 @@ import com.dremio.exec.planner.observer.QueryObserverFactory;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.server.options.SystemOptionManager;
 import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.cache.BlockCacheFileSystemWrapper;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
@@ -219,10 +220,13 @@ public class SabotContext implements AutoCloseable {
     this.viewCreatorFactory = viewCreatorFactory;
     this.queryPlanningAllocator = queryPlanningAllocator;
     this.spillService = spillService;
+    final FileSystemWrapper defaultFileSystemWrapper = BlockCacheFileSystemWrapper.isEnabled(dremioConfig)
+      ? new BlockCacheFileSystemWrapper(dremioConfig, endpoint)
+      : (fs, storageId, conf, operatorContext, enableAsync, isMetadataEnabled) -> fs;
     this.fileSystemWrapper = config.getInstance(
       FileSystemWrapper.FILE_SYSTEM_WRAPPER_CLASS,
       FileSystemWrapper.class,
-      (fs, storageId, conf, operatorContext, enableAsync, isMetadataEnabled) -> fs,
+      defaultFileSystemWrapper,
       dremioConfig,
       this.optionManager,
       allocator,
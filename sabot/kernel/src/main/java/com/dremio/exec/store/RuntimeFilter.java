@@ -90,7 +90,8 @@ public class RuntimeFilter implements AutoCloseable {
               "Buffer capacity is %s, expected filter size %s", msgBuf.capacity(), partitionColFilterProto.getSizeBytes());
       UserBitShared.RunTimeFilterDetailsInfoInScan.Builder runTimeFilterDetails = UserBitShared.RunTimeFilterDetailsInfoInScan.newBuilder();
       try {
-        final BloomFilter bloomFilter = BloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()));
+        final BloomFilter bloomFilter = BloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()),
+                partitionColFilterProto.getBlocked());
         nextSliceStart += partitionColFilterProto.getSizeBytes();
         checkState(bloomFilter.getNumBitsSet()==partitionColFilterProto.getValueCount(),
                 "BloomFilter value count mismatched. Expected %s, Actual %s", partitionColFilterProto.getValueCount(), bloomFilter.getNumBitsSet());
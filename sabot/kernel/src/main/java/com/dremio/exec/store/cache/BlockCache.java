@@ -0,0 +1,1015 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.concurrent.NamedThreadFactory;
+import com.dremio.common.utils.PathUtils;
+import com.dremio.exec.work.CacheManagerDatasetInfo;
+import com.dremio.exec.work.CacheManagerFilesInfo;
+import com.dremio.exec.work.CacheManagerMountPointInfo;
+import com.dremio.exec.work.CacheManagerStoragePluginInfo;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Executor local cache of fixed size blocks of remote files, stored on local disks.
+ *
+ * Blocks are spread over the mount points, each one limited to a share of its disk, and are evicted in least recently
+ * used order when a mount point or a storage plugin runs out of space. The cached blocks are indexed in memory and in
+ * a {@link BlockCacheIndex}. A block file is fully written and moved in place before being indexed, and unindexed
+ * before being deleted, so the cache is reloaded in a consistent state after a crash: index entries without a
+ * complete block file and block files without an index entry are dropped when the cache is opened.
+ */
+public class BlockCache implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(BlockCache.class);
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private static final int SUB_DIR_COUNT = 256;
+  private static final String TMP_DIR_NAME = "tmp";
+  private static final int STATS_PAGE_SIZE = 1000;
+  private static final int MAX_PENDING_WRITES = 32;
+
+  private final String hostname;
+  private final int blockSize;
+  private final List<MountPoint> mountPoints;
+  private final long totalMaxSpace;
+  private final BlockCacheIndex index;
+  private final ThreadPoolExecutor writer;
+
+  // guarded by this, least recently used blocks first
+  private final LinkedHashMap<BlockKey, CachedBlock> blocks = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, PluginUsage> plugins = new HashMap<>();
+  private final Map<DatasetKey, Integer> datasetBlockCounts = new HashMap<>();
+  private boolean closed;
+
+  private final AtomicLong nextFileId = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Settings of a mount point of the cache.
+   */
+  public static final class MountPointConf {
+    private final Path directory;
+    private final int maxSpacePct;
+    private final int ensureFreeSpacePct;
+    // in bytes, overrides maxSpacePct when set
+    private final long maxSpace;
+
+    public MountPointConf(Path directory, int maxSpacePct, int ensureFreeSpacePct) {
+      this(directory, maxSpacePct, ensureFreeSpacePct, -1);
+    }
+
+    private MountPointConf(Path directory, int maxSpacePct, int ensureFreeSpacePct, long maxSpace) {
+      this.directory = directory;
+      this.maxSpacePct = maxSpacePct;
+      this.ensureFreeSpacePct = ensureFreeSpacePct;
+      this.maxSpace = maxSpace;
+    }
+
+    /**
+     * Settings of a mount point limited to a number of bytes rather than to a share of its disk.
+     */
+    @VisibleForTesting
+    static MountPointConf withMaxSpace(Path directory, long maxSpace) {
+      return new MountPointConf(directory, 100, 0, maxSpace);
+    }
+  }
+
+  private BlockCache(String hostname, int blockSize, List<MountPoint> mountPoints, BlockCacheIndex index) {
+    this.hostname = hostname;
+    this.blockSize = blockSize;
+    this.mountPoints = mountPoints;
+    this.totalMaxSpace = mountPoints.stream().mapToLong(m -> m.maxSpace).sum();
+    this.index = index;
+    // block writes are rejected rather than queued when the disks can't keep up, see putAsync
+    this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(MAX_PENDING_WRITES), new NamedThreadFactory("block-cache-writer-"));
+  }
+
+  /**
+   * Opens the cache, reloading the blocks cached by a previous instance.
+   *
+   * @param hostname name of this executor, reported in the cache statistics
+   * @param dbDirectory directory of the block index
+   * @param mountPointConfs mount points holding the blocks
+   * @param blockSize size of the blocks
+   */
+  public static BlockCache open(String hostname, Path dbDirectory, List<MountPointConf> mountPointConfs,
+                                int blockSize) throws IOException {
+    Preconditions.checkArgument(!mountPointConfs.isEmpty(), "at least one mount point is required");
+    final List<MountPoint> mountPoints = new ArrayList<>();
+    for (MountPointConf conf : mountPointConfs) {
+      mountPoints.add(new MountPoint(mountPoints.size(), conf));
+    }
+
+    Files.createDirectories(dbDirectory);
+    final BlockCacheIndex index;
+    try {
+      index = BlockCacheIndex.open(dbDirectory.toString());
+    } catch (RocksDBException e) {
+      throw new IOException("Failure while opening block cache index at " + dbDirectory, e);
+    }
+
+    final BlockCache cache = new BlockCache(hostname, blockSize, mountPoints, index);
+    try {
+      cache.load();
+    } catch (IOException | RuntimeException e) {
+      cache.close();
+      throw e;
+    }
+    return cache;
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Limits the space used by the blocks of a storage plugin.
+   *
+   * @param plugin storage plugin name
+   * @param maxSpacePct percentage of the cache space the plugin can use
+   */
+  public synchronized void setPluginSpaceLimit(String plugin, int maxSpacePct) {
+    getPluginUsage(plugin).maxSpacePct = maxSpacePct;
+  }
+
+  /**
+   * Looks up a block, marking it as the most recently used one.
+   *
+   * @return the cached block, or null if the block is not cached.
+   */
+  CachedBlock get(BlockKey key) {
+    final CachedBlock block;
+    synchronized (this) {
+      block = blocks.get(key);
+    }
+    if (block == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    block.accessTime = System.currentTimeMillis();
+    hits.incrementAndGet();
+    return block;
+  }
+
+  /**
+   * Copies part of a cached block.
+   *
+   * @return false if the block could not be read, in which case it is dropped from the cache.
+   */
+  boolean read(CachedBlock block, long blockOffset, ByteBuf dst, int dstOffset, int len) {
+    final MountPoint mountPoint = mountPoints.get(block.mountPoint);
+    final long start = System.nanoTime();
+    try (FileChannel channel = FileChannel.open(mountPoint.blockPath(block.fileId), StandardOpenOption.READ)) {
+      final ByteBuffer buffer = dst.nioBuffer(dstOffset, len);
+      long position = blockOffset;
+      while (buffer.hasRemaining()) {
+        final int read = channel.read(buffer, position);
+        if (read < 0) {
+          throw new EOFException("Unexpected end of block file " + mountPoint.blockPath(block.fileId));
+        }
+        position += read;
+      }
+      mountPoint.readNanos.addAndGet(System.nanoTime() - start);
+      mountPoint.readCount.incrementAndGet();
+      return true;
+    } catch (IOException e) {
+      logger.warn("Failure while reading cached block of {}, dropping it", block.key.path, e);
+      invalidate(block);
+      return false;
+    }
+  }
+
+  /**
+   * Adds a block to the cache in the background. The block is silently dropped if the cache can't make room for it,
+   * or if too many blocks are already waiting to be written.
+   *
+   * @param key block key
+   * @param dataset dataset the block belongs to, may be null
+   * @param data block content, its readable bytes. Owned by the cache once passed, and released once written or dropped
+   * @return a future completed once the block is written or dropped
+   */
+  CompletableFuture<Void> putAsync(BlockKey key, List<String> dataset, ByteBuf data) {
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      writer.execute(() -> {
+        try {
+          put(key, dataset, data);
+        } finally {
+          data.release();
+          future.complete(null);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      logger.debug("Not caching block {} of {}", key.index, key.path, e);
+      data.release();
+      future.complete(null);
+    }
+    return future;
+  }
+
+  /**
+   * Adds a block to the cache.
+   *
+   * @param data block content, its readable bytes. Not released by the cache
+   */
+  @VisibleForTesting
+  void put(BlockKey key, List<String> dataset, ByteBuf data) {
+    final int length = data.readableBytes();
+    final MountPoint mountPoint = mountPoints.get(Math.floorMod(key.hashCode(), mountPoints.size()));
+    final long freeSpaceShortage = mountPoint.freeSpaceShortage(length);
+    final List<CachedBlock> evicted = new ArrayList<>();
+    final boolean reserved;
+    synchronized (this) {
+      reserved = !closed && !blocks.containsKey(key)
+        && reserve(mountPoint, getPluginUsage(key.plugin), length, freeSpaceShortage, evicted);
+    }
+    deleteBlockFiles(evicted);
+    if (!reserved) {
+      return;
+    }
+
+    final long fileId = nextFileId.getAndIncrement();
+    final Path tmpPath = mountPoint.tmpDirectory.resolve(Long.toString(fileId));
+    final Path blockPath = mountPoint.blockPath(fileId);
+    final long start = System.nanoTime();
+    try {
+      Files.createDirectories(blockPath.getParent());
+      try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+        final ByteBuffer buffer = data.nioBuffer(data.readerIndex(), length);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      Files.move(tmpPath, blockPath, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      logger.warn("Failure while writing cached block of {}", key.path, e);
+      deleteQuietly(tmpPath);
+      synchronized (this) {
+        release(mountPoint, getPluginUsage(key.plugin), length);
+      }
+      return;
+    }
+    mountPoint.writeNanos.addAndGet(System.nanoTime() - start);
+    mountPoint.writeCount.incrementAndGet();
+
+    final CachedBlock block = new CachedBlock(key, dataset == null ? null : new DatasetKey(key.plugin, dataset),
+      mountPoint.id, fileId, length, System.currentTimeMillis());
+    synchronized (this) {
+      if (!closed) {
+        try {
+          index.putBlock(key.toBytes(), block.toBytes());
+          blocks.put(key, block);
+          addDatasetBlock(block.dataset);
+          return;
+        } catch (RocksDBException e) {
+          logger.warn("Failure while indexing cached block of {}", key.path, e);
+        }
+      }
+      release(mountPoint, getPluginUsage(key.plugin), length);
+    }
+    deleteQuietly(blockPath);
+  }
+
+  /**
+   * Reserves space for a new block, evicting the least recently used blocks of the mount point and of the plugin
+   * when needed.
+   */
+  private boolean reserve(MountPoint mountPoint, PluginUsage plugin, long length, long freeSpaceShortage,
+                          List<CachedBlock> evicted) {
+    final long pluginMaxSpace = totalMaxSpace * plugin.maxSpacePct / 100;
+    if (length > mountPoint.maxSpace || length > pluginMaxSpace) {
+      return false;
+    }
+
+    final long mountPointExcess = Math.max(mountPoint.usedSpace + length - mountPoint.maxSpace, freeSpaceShortage);
+    final long pluginExcess = plugin.usedSpace + length - pluginMaxSpace;
+    if (!evict(mountPoint, mountPointExcess, plugin, pluginExcess, evicted)) {
+      return false;
+    }
+
+    mountPoint.usedSpace += length;
+    mountPoint.blockCount++;
+    plugin.usedSpace += length;
+    plugin.blockCount++;
+    return true;
+  }
+
+  /**
+   * Evicts least recently used blocks until the given amounts of bytes have been freed on the mount point and for
+   * the plugin.
+   *
+   * @return false if not enough bytes could be freed
+   */
+  private boolean evict(MountPoint mountPoint, long mountPointExcess, PluginUsage plugin, long pluginExcess,
+                        List<CachedBlock> evicted) {
+    final Iterator<CachedBlock> iterator = blocks.values().iterator();
+    long evictedBytes = 0;
+    while ((mountPointExcess > 0 || pluginExcess > 0) && iterator.hasNext()) {
+      final CachedBlock block = iterator.next();
+      final boolean onMountPoint = block.mountPoint == mountPoint.id;
+      final boolean ofPlugin = plugin != null && block.key.plugin.equals(plugin.name);
+      if ((mountPointExcess > 0 && onMountPoint) || (pluginExcess > 0 && ofPlugin)) {
+        iterator.remove();
+        unindex(block);
+        evicted.add(block);
+        evictedBytes += block.length;
+        mountPointExcess -= onMountPoint ? block.length : 0;
+        pluginExcess -= ofPlugin ? block.length : 0;
+      }
+    }
+    if (evictedBytes > 0) {
+      mountPoint.latestEvictionTimestamp = System.currentTimeMillis();
+      mountPoint.latestEvictedBytes = evictedBytes;
+    }
+    return mountPointExcess <= 0 && pluginExcess <= 0;
+  }
+
+  private void release(MountPoint mountPoint, PluginUsage plugin, long length) {
+    mountPoint.usedSpace -= length;
+    mountPoint.blockCount--;
+    plugin.usedSpace -= length;
+    plugin.blockCount--;
+  }
+
+  /**
+   * Removes a block, already removed from the in memory index, from the persistent index and the usage counters.
+   */
+  private void unindex(CachedBlock block) {
+    try {
+      index.deleteBlock(block.key.toBytes());
+    } catch (RocksDBException e) {
+      // the block file is deleted anyway, so the entry will be dropped when the cache is next opened
+      logger.warn("Failure while unindexing cached block of {}", block.key.path, e);
+    }
+    release(mountPoints.get(block.mountPoint), getPluginUsage(block.key.plugin), block.length);
+    removeDatasetBlock(block.dataset);
+  }
+
+  private void invalidate(CachedBlock block) {
+    synchronized (this) {
+      if (closed || blocks.get(block.key) != block) {
+        return;
+      }
+      blocks.remove(block.key);
+      unindex(block);
+    }
+    deleteBlockFiles(ImmutableList.of(block));
+  }
+
+  private void addDatasetBlock(DatasetKey dataset) {
+    if (dataset == null) {
+      return;
+    }
+    final int count = datasetBlockCounts.merge(dataset, 1, Integer::sum);
+    if (count == 1) {
+      try {
+        index.putDataset(dataset.toBytes());
+      } catch (RocksDBException e) {
+        logger.warn("Failure while indexing dataset {}", dataset.dataset, e);
+      }
+    }
+  }
+
+  private void removeDatasetBlock(DatasetKey dataset) {
+    if (dataset == null) {
+      return;
+    }
+    final Integer count = datasetBlockCounts.computeIfPresent(dataset, (k, v) -> v == 1 ? null : v - 1);
+    if (count == null) {
+      try {
+        index.deleteDataset(dataset.toBytes());
+      } catch (RocksDBException e) {
+        logger.warn("Failure while unindexing dataset {}", dataset.dataset, e);
+      }
+    }
+  }
+
+  private PluginUsage getPluginUsage(String plugin) {
+    return plugins.computeIfAbsent(plugin, PluginUsage::new);
+  }
+
+  private void deleteBlockFiles(List<CachedBlock> evicted) {
+    for (CachedBlock block : evicted) {
+      deleteQuietly(mountPoints.get(block.mountPoint).blockPath(block.fileId));
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      logger.debug("Failure while deleting {}", path, e);
+    }
+  }
+
+  /**
+   * Reloads the index of a previous instance, dropping the entries which don't match a complete block file and the
+   * block files which are not indexed.
+   */
+  private void load() throws IOException {
+    final List<CachedBlock> loaded = new ArrayList<>();
+    final List<byte[]> stale = new ArrayList<>();
+    try (RocksIterator iterator = index.newBlockIterator()) {
+      for (; iterator.isValid(); iterator.next()) {
+        final CachedBlock block = CachedBlock.fromBytes(iterator.key(), iterator.value());
+        if (block == null || block.mountPoint >= mountPoints.size()
+          || !hasSize(mountPoints.get(block.mountPoint).blockPath(block.fileId), block.length)) {
+          stale.add(iterator.key());
+          continue;
+        }
+        loaded.add(block);
+      }
+    }
+
+    final List<byte[]> datasets = new ArrayList<>();
+    try (RocksIterator iterator = index.newDatasetIterator()) {
+      for (; iterator.isValid(); iterator.next()) {
+        datasets.add(iterator.key());
+      }
+    }
+
+    try {
+      for (byte[] key : stale) {
+        index.deleteBlock(key);
+      }
+      // dataset entries are rebuilt from the blocks
+      for (byte[] key : datasets) {
+        index.deleteDataset(key);
+      }
+    } catch (RocksDBException e) {
+      throw new IOException("Failure while cleaning up block cache index", e);
+    }
+
+    loaded.sort(Comparator.comparingLong(b -> b.accessTime));
+    final List<Set<Long>> fileIds = new ArrayList<>();
+    for (int i = 0; i < mountPoints.size(); i++) {
+      fileIds.add(new HashSet<>());
+    }
+    long maxFileId = -1;
+    synchronized (this) {
+      for (CachedBlock block : loaded) {
+        blocks.put(block.key, block);
+        final MountPoint mountPoint = mountPoints.get(block.mountPoint);
+        mountPoint.usedSpace += block.length;
+        mountPoint.blockCount++;
+        final PluginUsage plugin = getPluginUsage(block.key.plugin);
+        plugin.usedSpace += block.length;
+        plugin.blockCount++;
+        addDatasetBlock(block.dataset);
+        fileIds.get(block.mountPoint).add(block.fileId);
+        maxFileId = Math.max(maxFileId, block.fileId);
+      }
+    }
+    nextFileId.set(maxFileId + 1);
+
+    for (MountPoint mountPoint : mountPoints) {
+      mountPoint.deleteUnindexedFiles(fileIds.get(mountPoint.id));
+    }
+
+    // mount points may have been given less space since the blocks were cached
+    final List<CachedBlock> evicted = new ArrayList<>();
+    synchronized (this) {
+      for (MountPoint mountPoint : mountPoints) {
+        evict(mountPoint, mountPoint.usedSpace - mountPoint.maxSpace, null, 0, evicted);
+      }
+    }
+    deleteBlockFiles(evicted);
+    logger.info("Loaded {} cached blocks, dropped {} stale entries", loaded.size() - evicted.size(), stale.size());
+  }
+
+  private static boolean hasSize(Path path, long size) {
+    try {
+      return Files.size(path) == size;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  public List<CacheManagerMountPointInfo> getMountPointStats() {
+    final List<CacheManagerMountPointInfo> stats = new ArrayList<>();
+    for (MountPoint mountPoint : mountPoints) {
+      final long usedSpace;
+      final long blockCount;
+      synchronized (this) {
+        usedSpace = mountPoint.usedSpace;
+        blockCount = mountPoint.blockCount;
+      }
+      final long readCount = mountPoint.readCount.get();
+      final long writeCount = mountPoint.writeCount.get();
+      stats.add(new CacheManagerMountPointInfo(hostname, mountPoint.directory.toString(), mountPoint.id,
+        mountPoint.getSubDirectoryCount(), blockCount, mountPoint.maxSpace, usedSpace,
+        readCount == 0 ? 0 : mountPoint.readNanos.get() / readCount,
+        writeCount == 0 ? 0 : mountPoint.writeNanos.get() / writeCount,
+        "ENABLED", usedSpace + blockSize > mountPoint.maxSpace ? "FULL" : "AVAILABLE",
+        mountPoint.getTotalSpace(), mountPoint.getUsableSpace(),
+        mountPoint.latestEvictionTimestamp, mountPoint.latestEvictedBytes));
+    }
+    return stats;
+  }
+
+  public synchronized List<CacheManagerStoragePluginInfo> getStoragePluginStats() {
+    final List<CacheManagerStoragePluginInfo> stats = new ArrayList<>();
+    for (PluginUsage plugin : plugins.values()) {
+      if (plugin.blockCount > 0) {
+        stats.add(new CacheManagerStoragePluginInfo(hostname, plugin.name, plugin.blockCount, plugin.usedSpace,
+          totalMaxSpace * plugin.maxSpacePct / 100));
+      }
+    }
+    return stats;
+  }
+
+  /**
+   * @return an iterator over the cached datasets, or null if the cache is closed
+   */
+  public synchronized RocksIterator getDatasetIterator() {
+    return closed ? null : index.newDatasetIterator();
+  }
+
+  /**
+   * Returns the statistics of the next page of datasets of the iterator, with the access times by which 25%, 50%,
+   * 75% and 100% of their cached bytes were last read.
+   */
+  public List<CacheManagerDatasetInfo> getDatasetStats(RocksIterator iterator) {
+    final Map<DatasetKey, List<CachedBlock>> page = new LinkedHashMap<>();
+    for (; iterator.isValid() && page.size() < STATS_PAGE_SIZE; iterator.next()) {
+      final DatasetKey dataset = DatasetKey.fromBytes(iterator.key());
+      if (dataset != null) {
+        page.put(dataset, new ArrayList<>());
+      }
+    }
+    if (page.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    synchronized (this) {
+      for (CachedBlock block : blocks.values()) {
+        final List<CachedBlock> datasetBlocks = block.dataset == null ? null : page.get(block.dataset);
+        if (datasetBlocks != null) {
+          datasetBlocks.add(block);
+        }
+      }
+    }
+
+    final List<CacheManagerDatasetInfo> stats = new ArrayList<>();
+    for (Map.Entry<DatasetKey, List<CachedBlock>> entry : page.entrySet()) {
+      final List<CachedBlock> datasetBlocks = entry.getValue();
+      if (datasetBlocks.isEmpty()) {
+        continue;
+      }
+      // most recently read first
+      datasetBlocks.sort(Comparator.comparingLong((CachedBlock b) -> b.accessTime).reversed());
+      final long totalBytes = datasetBlocks.stream().mapToLong(b -> b.length).sum();
+      final Timestamp[] percentiles = new Timestamp[4];
+      long bytes = 0;
+      int percentile = 0;
+      for (CachedBlock block : datasetBlocks) {
+        bytes += block.length;
+        while (percentile < percentiles.length && bytes * percentiles.length >= totalBytes * (percentile + 1)) {
+          percentiles[percentile++] = new Timestamp(block.accessTime);
+        }
+      }
+      stats.add(new CacheManagerDatasetInfo(hostname, PathUtils.constructFullPath(entry.getKey().dataset),
+        entry.getKey().plugin, datasetBlocks.size(), percentiles[0], percentiles[1], percentiles[2], percentiles[3]));
+    }
+    return stats;
+  }
+
+  /**
+   * @return an iterator over the cached blocks, or null if the cache is closed
+   */
+  public synchronized RocksIterator getCachedFilesIterator() {
+    return closed ? null : index.newBlockIterator();
+  }
+
+  /**
+   * Returns the next page of cached blocks of the iterator.
+   */
+  public List<CacheManagerFilesInfo> getCachedFilesStats(RocksIterator iterator) {
+    final Map<BlockKey, CachedBlock> page = new LinkedHashMap<>();
+    for (; iterator.isValid() && page.size() < STATS_PAGE_SIZE; iterator.next()) {
+      final CachedBlock block = CachedBlock.fromBytes(iterator.key(), iterator.value());
+      if (block != null) {
+        page.put(block.key, block);
+      }
+    }
+    if (page.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    // access times are only kept up to date in memory. Iterate rather than look the blocks up, as lookups change
+    // the eviction order.
+    synchronized (this) {
+      for (CachedBlock block : blocks.values()) {
+        page.replace(block.key, block);
+      }
+    }
+
+    final List<CacheManagerFilesInfo> stats = new ArrayList<>();
+    for (CachedBlock block : page.values()) {
+      stats.add(new CacheManagerFilesInfo(hostname, block.key.plugin,
+        block.dataset == null ? null : PathUtils.constructFullPath(block.dataset.dataset), block.key.path,
+        block.key.version, block.key.index * blockSize, new Timestamp(block.accessTime)));
+    }
+    return stats;
+  }
+
+  long getHitCount() {
+    return hits.get();
+  }
+
+  long getMissCount() {
+    return misses.get();
+  }
+
+  @Override
+  public void close() {
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+        logger.warn("Timed out while waiting for cached blocks to be written");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      index.close();
+    }
+  }
+
+  /**
+   * A cache directory, and the space used in it.
+   */
+  private static final class MountPoint {
+    private final int id;
+    private final Path directory;
+    private final Path tmpDirectory;
+    private final FileStore store;
+    private final long maxSpace;
+    private final long ensureFreeSpace;
+
+    // guarded by the cache
+    private long usedSpace;
+    private long blockCount;
+
+    private final AtomicLong readNanos = new AtomicLong();
+    private final AtomicLong readCount = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong writeCount = new AtomicLong();
+    private volatile long latestEvictionTimestamp;
+    private volatile long latestEvictedBytes;
+
+    private MountPoint(int id, MountPointConf conf) throws IOException {
+      this.id = id;
+      this.directory = conf.directory;
+      this.tmpDirectory = directory.resolve(TMP_DIR_NAME);
+      Files.createDirectories(tmpDirectory);
+      this.store = Files.getFileStore(directory);
+      this.maxSpace = conf.maxSpace >= 0 ? conf.maxSpace : store.getTotalSpace() * conf.maxSpacePct / 100;
+      this.ensureFreeSpace = store.getTotalSpace() * conf.ensureFreeSpacePct / 100;
+    }
+
+    private Path blockPath(long fileId) {
+      return directory.resolve(String.format("%02x", fileId % SUB_DIR_COUNT)).resolve(Long.toString(fileId));
+    }
+
+    /**
+     * @return how many bytes must be freed on the disk before writing the given amount
+     */
+    private long freeSpaceShortage(long length) {
+      try {
+        return ensureFreeSpace + length - store.getUsableSpace();
+      } catch (IOException e) {
+        logger.debug("Failure while getting usable space of {}", directory, e);
+        return 0;
+      }
+    }
+
+    private long getTotalSpace() {
+      try {
+        return store.getTotalSpace();
+      } catch (IOException e) {
+        logger.debug("Failure while getting total space of {}", directory, e);
+        return 0;
+      }
+    }
+
+    private long getUsableSpace() {
+      try {
+        return store.getUsableSpace();
+      } catch (IOException e) {
+        logger.debug("Failure while getting usable space of {}", directory, e);
+        return 0;
+      }
+    }
+
+    private long getSubDirectoryCount() {
+      long count = 0;
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, Files::isDirectory)) {
+        for (Path ignored : stream) {
+          count++;
+        }
+      } catch (IOException e) {
+        logger.debug("Failure while listing {}", directory, e);
+      }
+      return count;
+    }
+
+    private void deleteUnindexedFiles(Set<Long> indexed) throws IOException {
+      try (DirectoryStream<Path> tmpFiles = Files.newDirectoryStream(tmpDirectory)) {
+        for (Path file : tmpFiles) {
+          deleteQuietly(file);
+        }
+      }
+      try (DirectoryStream<Path> subDirectories = Files.newDirectoryStream(directory, Files::isDirectory)) {
+        for (Path subDirectory : subDirectories) {
+          if (subDirectory.equals(tmpDirectory)) {
+            continue;
+          }
+          try (DirectoryStream<Path> files = Files.newDirectoryStream(subDirectory)) {
+            for (Path file : files) {
+              if (!indexed.contains(parseFileId(file))) {
+                deleteQuietly(file);
+              }
+            }
+          } catch (NoSuchFileException e) {
+            // deleted concurrently
+          }
+        }
+      }
+    }
+
+    private static long parseFileId(Path file) {
+      try {
+        return Long.parseLong(file.getFileName().toString());
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Space used by the blocks of a storage plugin.
+   */
+  private static final class PluginUsage {
+    private final String name;
+    private long usedSpace;
+    private long blockCount;
+    private int maxSpacePct = 100;
+
+    private PluginUsage(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * Identifies a block of a version of a file read through a storage plugin.
+   */
+  static final class BlockKey {
+    private final String plugin;
+    private final String path;
+    private final String version;
+    private final long index;
+
+    BlockKey(String plugin, String path, String version, long index) {
+      this.plugin = Preconditions.checkNotNull(plugin);
+      this.path = Preconditions.checkNotNull(path);
+      this.version = Preconditions.checkNotNull(version);
+      this.index = index;
+    }
+
+    byte[] toBytes() {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        writeString(out, plugin);
+        writeString(out, path);
+        writeString(out, version);
+        out.writeLong(index);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+
+    private static BlockKey read(DataInput in) throws IOException {
+      return new BlockKey(readString(in), readString(in), readString(in), in.readLong());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final BlockKey that = (BlockKey) o;
+      return index == that.index && plugin.equals(that.plugin) && path.equals(that.path)
+        && version.equals(that.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(plugin, path, version, index);
+    }
+  }
+
+  /**
+   * Identifies a dataset of a storage plugin.
+   */
+  private static final class DatasetKey {
+    private final String plugin;
+    private final List<String> dataset;
+
+    private DatasetKey(String plugin, List<String> dataset) {
+      this.plugin = plugin;
+      this.dataset = ImmutableList.copyOf(dataset);
+    }
+
+    private byte[] toBytes() {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        writeString(out, plugin);
+        writeStrings(out, dataset);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+
+    private static DatasetKey fromBytes(byte[] bytes) {
+      try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+        return new DatasetKey(readString(in), readStrings(in));
+      } catch (IOException e) {
+        logger.debug("Invalid dataset key in block cache index", e);
+        return null;
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final DatasetKey that = (DatasetKey) o;
+      return plugin.equals(that.plugin) && dataset.equals(that.dataset);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(plugin, dataset);
+    }
+  }
+
+  /**
+   * A block stored in the cache.
+   */
+  static final class CachedBlock {
+    private final BlockKey key;
+    private final DatasetKey dataset;
+    private final int mountPoint;
+    private final long fileId;
+    private final int length;
+    private volatile long accessTime;
+
+    private CachedBlock(BlockKey key, DatasetKey dataset, int mountPoint, long fileId, int length, long accessTime) {
+      this.key = key;
+      this.dataset = dataset;
+      this.mountPoint = mountPoint;
+      this.fileId = fileId;
+      this.length = length;
+      this.accessTime = accessTime;
+    }
+
+    private byte[] toBytes() {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        out.writeInt(mountPoint);
+        out.writeLong(fileId);
+        out.writeInt(length);
+        out.writeLong(accessTime);
+        out.writeBoolean(dataset != null);
+        if (dataset != null) {
+          writeStrings(out, dataset.dataset);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+
+    private static CachedBlock fromBytes(byte[] key, byte[] value) {
+      try (DataInputStream keyIn = new DataInputStream(new ByteArrayInputStream(key));
+           DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+        final BlockKey blockKey = BlockKey.read(keyIn);
+        final int mountPoint = in.readInt();
+        final long fileId = in.readLong();
+        final int length = in.readInt();
+        final long accessTime = in.readLong();
+        final DatasetKey dataset = in.readBoolean() ? new DatasetKey(blockKey.plugin, readStrings(in)) : null;
+        return new CachedBlock(blockKey, dataset, mountPoint, fileId, length, accessTime);
+      } catch (IOException e) {
+        logger.debug("Invalid block entry in block cache index", e);
+        return null;
+      }
+    }
+  }
+
+  private static void writeString(DataOutput out, String value) throws IOException {
+    final byte[] bytes = value.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+    out.writeInt(values.size());
+    for (String value : values) {
+      writeString(out, value);
+    }
+  }
+
+  private static List<String> readStrings(DataInput in) throws IOException {
+    final int size = in.readInt();
+    final List<String> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(readString(in));
+    }
+    return values;
+  }
+}
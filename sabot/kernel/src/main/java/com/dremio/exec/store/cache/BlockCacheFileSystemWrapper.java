@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.rocksdb.RocksIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.store.dfs.AsyncStreamConf;
+import com.dremio.exec.store.dfs.CacheProperties;
+import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.exec.store.sys.CacheManagerStatsProvider;
+import com.dremio.exec.work.CacheManagerDatasetInfo;
+import com.dremio.exec.work.CacheManagerFilesInfo;
+import com.dremio.exec.work.CacheManagerMountPointInfo;
+import com.dremio.exec.work.CacheManagerStoragePluginInfo;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.AsyncByteReader.FileKey;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FilterFileSystem;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * File system wrapper caching the async reads of the sources which request it in an executor wide
+ * {@link BlockCache}, and providing the cache statistics to the sys."cache_manager_*" tables.
+ *
+ * The cache is opened on first use, using the mount points and quotas of services.executor.cache.
+ */
+public class BlockCacheFileSystemWrapper implements FileSystemWrapper, CacheManagerStatsProvider {
+  private static final Logger logger = LoggerFactory.getLogger(BlockCacheFileSystemWrapper.class);
+  private static final String DB_DIR_NAME = "block-cache-index";
+  private static final String BLOCKS_DIR_NAME = "block-cache";
+
+  private final DremioConfig config;
+  private final NodeEndpoint endpoint;
+
+  private volatile BlockCache cache;
+  private volatile boolean failed;
+
+  public BlockCacheFileSystemWrapper(DremioConfig config, NodeEndpoint endpoint) {
+    this.config = config;
+    this.endpoint = endpoint;
+  }
+
+  /**
+   * @return true if this node should cache the reads of the sources
+   */
+  public static boolean isEnabled(DremioConfig config) {
+    return config != null
+      && config.getBoolean(DremioConfig.ENABLE_EXECUTOR_BOOL)
+      && config.getBoolean(DremioConfig.CACHE_BLOCK_ENABLED);
+  }
+
+  @Override
+  public FileSystem wrap(FileSystem fs, String storageId, AsyncStreamConf conf, OperatorContext context,
+                         boolean enableAsync, boolean isMetadataRefresh) throws IOException {
+    if (!enableAsync || isMetadataRefresh || context == null || conf == null || !fs.supportsAsync()) {
+      return fs;
+    }
+
+    final CacheProperties cacheProperties = conf.getCacheProperties();
+    if (!cacheProperties.isCachingEnabled(context.getOptions())) {
+      return fs;
+    }
+
+    final BlockCache blockCache = getCache();
+    if (blockCache == null) {
+      return fs;
+    }
+    blockCache.setPluginSpaceLimit(storageId, cacheProperties.cacheMaxSpaceLimitPct());
+    return new CachingFileSystem(fs, blockCache, storageId);
+  }
+
+  private BlockCache getCache() {
+    if (cache != null || failed) {
+      return cache;
+    }
+
+    synchronized (this) {
+      if (cache == null && !failed) {
+        try {
+          final Path dbDirectory = getBaseDirectory(config.getString(DremioConfig.CACHE_DB_PATH)).resolve(DB_DIR_NAME);
+          cache = BlockCache.open(endpoint.getAddress(), dbDirectory, getMountPoints(), BlockCache.DEFAULT_BLOCK_SIZE);
+        } catch (IOException | RuntimeException e) {
+          logger.warn("Failure while opening the block cache, reads will not be cached", e);
+          failed = true;
+        }
+      }
+      return cache;
+    }
+  }
+
+  private List<BlockCache.MountPointConf> getMountPoints() {
+    final List<String> paths = config.getStringList(DremioConfig.CACHE_FS_PATH_LIST);
+    final List<Integer> quotas = config.getIntList(DremioConfig.CACHE_FS_QUOTA_LIST);
+    final List<Integer> ensureFreeSpace = config.getIntList(DremioConfig.CACHE_FS_ENSURE_FREE_SPACE_LIST);
+    final List<BlockCache.MountPointConf> mountPoints = new ArrayList<>();
+    for (int i = 0; i < paths.size(); i++) {
+      mountPoints.add(new BlockCache.MountPointConf(getBaseDirectory(paths.get(i)).resolve(BLOCKS_DIR_NAME),
+        get(quotas, i), get(ensureFreeSpace, i)));
+    }
+    return mountPoints;
+  }
+
+  /**
+   * Returns the value for the given mount point, the last value applying to the remaining mount points.
+   */
+  private static int get(List<Integer> values, int i) {
+    return values.get(Math.min(i, values.size() - 1));
+  }
+
+  private Path getBaseDirectory(String directory) {
+    final Path baseDir = Paths.get(directory);
+    // several executors may run on the same host with yarn
+    if (config.getBoolean(DremioConfig.YARN_ENABLED_BOOL)) {
+      return baseDir.resolve(Integer.toString(endpoint.getFabricPort()));
+    }
+    return baseDir;
+  }
+
+  @Override
+  public List<CacheManagerMountPointInfo> getMountPointStats() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? ImmutableList.of() : blockCache.getMountPointStats();
+  }
+
+  @Override
+  public List<CacheManagerStoragePluginInfo> getStoragePluginStats() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? ImmutableList.of() : blockCache.getStoragePluginStats();
+  }
+
+  @Override
+  public RocksIterator getDatasetIterator() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? null : blockCache.getDatasetIterator();
+  }
+
+  @Override
+  public List<CacheManagerDatasetInfo> getDatasetStats(RocksIterator dsIterator) {
+    final BlockCache blockCache = cache;
+    return blockCache == null || dsIterator == null ? ImmutableList.of() : blockCache.getDatasetStats(dsIterator);
+  }
+
+  @Override
+  public RocksIterator getCachedFilesIterator() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? null : blockCache.getCachedFilesIterator();
+  }
+
+  @Override
+  public List<CacheManagerFilesInfo> getCachedFilesStats(RocksIterator fileIterator) {
+    final BlockCache blockCache = cache;
+    return blockCache == null || fileIterator == null
+      ? ImmutableList.of() : blockCache.getCachedFilesStats(fileIterator);
+  }
+
+  @Override
+  public synchronized void close() {
+    // don't reopen the cache once closed
+    failed = true;
+    if (cache != null) {
+      cache.close();
+      cache = null;
+    }
+  }
+
+  /**
+   * File system returning caching async readers for the versioned files.
+   */
+  private static final class CachingFileSystem extends FilterFileSystem {
+    private final FileSystem fs;
+    private final BlockCache cache;
+    private final String plugin;
+
+    private CachingFileSystem(FileSystem fs, BlockCache cache, String plugin) {
+      super(fs);
+      this.fs = fs;
+      this.cache = cache;
+      this.plugin = plugin;
+    }
+
+    @Override
+    public AsyncByteReader getAsyncByteReader(FileKey fileKey, Map<String, String> options) throws IOException {
+      final AsyncByteReader reader = super.getAsyncByteReader(fileKey, options);
+      // without a version, changes to the file could not be told apart
+      if (Strings.isNullOrEmpty(fileKey.getVersion()) || "0".equals(fileKey.getVersion())) {
+        return reader;
+      }
+      return new CachingAsyncByteReader(reader, cache, fs, plugin, fileKey);
+    }
+  }
+}
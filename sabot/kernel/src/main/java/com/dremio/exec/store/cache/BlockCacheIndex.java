@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+
+/**
+ * Persistent index of the blocks held by a {@link BlockCache}, and of the datasets they belong to.
+ *
+ * Writes go through the RocksDB write ahead log, so the index survives a process crash.
+ */
+class BlockCacheIndex implements AutoCloseable {
+  private static final byte[] BLOCKS = "blocks".getBytes(UTF_8);
+  private static final byte[] DATASETS = "datasets".getBytes(UTF_8);
+  private static final byte[] EMPTY = new byte[0];
+
+  private final DBOptions dbOptions;
+  private final ColumnFamilyOptions cfOptions;
+  private final RocksDB db;
+  private final List<ColumnFamilyHandle> handles;
+
+  private BlockCacheIndex(DBOptions dbOptions, ColumnFamilyOptions cfOptions, RocksDB db,
+                          List<ColumnFamilyHandle> handles) {
+    this.dbOptions = dbOptions;
+    this.cfOptions = cfOptions;
+    this.db = db;
+    this.handles = handles;
+  }
+
+  static BlockCacheIndex open(String dbDirectory) throws RocksDBException {
+    final DBOptions dbOptions = new DBOptions()
+      .setCreateIfMissing(true)
+      .setCreateMissingColumnFamilies(true);
+    final ColumnFamilyOptions cfOptions = new ColumnFamilyOptions().optimizeForSmallDb();
+    final List<ColumnFamilyDescriptor> descriptors = Arrays.asList(
+      new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY),
+      new ColumnFamilyDescriptor(BLOCKS, cfOptions),
+      new ColumnFamilyDescriptor(DATASETS, cfOptions));
+    final List<ColumnFamilyHandle> handles = new ArrayList<>(descriptors.size());
+    try {
+      final RocksDB db = RocksDB.open(dbOptions, dbDirectory, descriptors, handles);
+      return new BlockCacheIndex(dbOptions, cfOptions, db, handles);
+    } catch (RocksDBException e) {
+      cfOptions.close();
+      dbOptions.close();
+      throw e;
+    }
+  }
+
+  void putBlock(byte[] key, byte[] value) throws RocksDBException {
+    db.put(handles.get(1), key, value);
+  }
+
+  void deleteBlock(byte[] key) throws RocksDBException {
+    db.delete(handles.get(1), key);
+  }
+
+  void putDataset(byte[] key) throws RocksDBException {
+    db.put(handles.get(2), key, EMPTY);
+  }
+
+  void deleteDataset(byte[] key) throws RocksDBException {
+    db.delete(handles.get(2), key);
+  }
+
+  /**
+   * @return an iterator over the blocks, positioned on the first one. Must be closed by the caller.
+   */
+  RocksIterator newBlockIterator() {
+    final RocksIterator iterator = db.newIterator(handles.get(1));
+    iterator.seekToFirst();
+    return iterator;
+  }
+
+  /**
+   * @return an iterator over the datasets, positioned on the first one. Must be closed by the caller.
+   */
+  RocksIterator newDatasetIterator() {
+    final RocksIterator iterator = db.newIterator(handles.get(2));
+    iterator.seekToFirst();
+    return iterator;
+  }
+
+  @Override
+  public void close() {
+    for (ColumnFamilyHandle handle : handles) {
+      handle.close();
+    }
+    db.close();
+    cfOptions.close();
+    dbOptions.close();
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import com.dremio.exec.store.cache.BlockCache.BlockKey;
+import com.dremio.exec.store.cache.BlockCache.CachedBlock;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.ReusableAsyncByteReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads a version of a file through a {@link BlockCache}. Reads are split along the cache blocks: cached blocks are
+ * read from local disk, and missing blocks are read whole through the wrapped reader and then added to the cache.
+ * Missing blocks are staged in buffers of the destination's allocator, released once the blocks are written, before
+ * the reads complete.
+ */
+class CachingAsyncByteReader extends ReusableAsyncByteReader {
+  private final AsyncByteReader delegate;
+  private final BlockCache cache;
+  private final FileSystem fs;
+  private final String plugin;
+  private final Path path;
+  private final String version;
+  private final List<String> dataset;
+
+  private volatile long fileLength = -1;
+
+  CachingAsyncByteReader(AsyncByteReader delegate, BlockCache cache, FileSystem fs, String plugin, FileKey fileKey) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.fs = fs;
+    this.plugin = plugin;
+    this.path = fileKey.getPath();
+    this.version = fileKey.getVersion();
+    this.dataset = fileKey.getDatasetKey();
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+    if (len == 0) {
+      return completedFuture;
+    }
+
+    final int blockSize = cache.getBlockSize();
+    final long firstBlock = offset / blockSize;
+    final long lastBlock = (offset + len - 1) / blockSize;
+    if (firstBlock == lastBlock) {
+      return readBlock(firstBlock, offset, dst, dstOffset, len);
+    }
+
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (long block = firstBlock; block <= lastBlock; block++) {
+      final long readStart = Math.max(offset, block * blockSize);
+      final long readEnd = Math.min(offset + len, (block + 1) * blockSize);
+      futures.add(readBlock(block, readStart, dst, dstOffset + (int) (readStart - offset),
+        (int) (readEnd - readStart)));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  }
+
+  /**
+   * Serves the parts of the ranges found in the cache, and reads all the missing blocks with a single call to the
+   * wrapped reader, so that it can still merge nearby reads.
+   */
+  @Override
+  public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+    final int blockSize = cache.getBlockSize();
+    final Map<Long, List<ReadRange>> missingBlocks = new TreeMap<>();
+    final List<ReadRange> uncacheable = new ArrayList<>();
+    for (ReadRange range : ranges) {
+      if (range.getLength() == 0) {
+        continue;
+      }
+      final long firstBlock = range.getOffset() / blockSize;
+      final long lastBlock = (range.getEnd() - 1) / blockSize;
+      for (long block = firstBlock; block <= lastBlock; block++) {
+        final long blockStart = block * blockSize;
+        final long readStart = Math.max(range.getOffset(), blockStart);
+        final long readEnd = Math.min(range.getEnd(), blockStart + blockSize);
+        final ReadRange part = new ReadRange(readStart, range.getDst(),
+          range.getDstOffset() + (int) (readStart - range.getOffset()), (int) (readEnd - readStart));
+
+        final CachedBlock cached = cache.get(new BlockKey(plugin, path.toString(), version, block));
+        if (cached != null
+          && cache.read(cached, readStart - blockStart, part.getDst(), part.getDstOffset(), part.getLength())) {
+          continue;
+        }
+        if (getBlockLength(block) < readEnd - blockStart) {
+          // the file is shorter than the read, let the wrapped reader report it
+          uncacheable.add(part);
+          continue;
+        }
+        missingBlocks.computeIfAbsent(block, k -> new ArrayList<>()).add(part);
+      }
+    }
+
+    if (missingBlocks.isEmpty() && uncacheable.isEmpty()) {
+      return completedFuture;
+    }
+
+    final List<ReadRange> reads = new ArrayList<>(uncacheable);
+    final Map<Long, ByteBuf> blockData = new HashMap<>();
+    try {
+      for (Map.Entry<Long, List<ReadRange>> block : missingBlocks.entrySet()) {
+        final ByteBuf data = newBlockBuffer(block.getValue().get(0).getDst(), block.getKey());
+        blockData.put(block.getKey(), data);
+        reads.add(new ReadRange(block.getKey() * blockSize, data, 0, data.writerIndex()));
+      }
+    } catch (RuntimeException e) {
+      blockData.values().forEach(ByteBuf::release);
+      throw e;
+    }
+
+    return delegate.readFully(reads)
+      .thenCompose(v -> {
+        final List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (Map.Entry<Long, List<ReadRange>> block : missingBlocks.entrySet()) {
+          final long blockStart = block.getKey() * blockSize;
+          final ByteBuf data = blockData.get(block.getKey());
+          for (ReadRange part : block.getValue()) {
+            part.getDst().setBytes(part.getDstOffset(), data, (int) (part.getOffset() - blockStart), part.getLength());
+          }
+          writes.add(cache.putAsync(new BlockKey(plugin, path.toString(), version, block.getKey()), dataset,
+            data.retain()));
+        }
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+      })
+      .whenComplete((v, e) -> blockData.values().forEach(ByteBuf::release));
+  }
+
+  /**
+   * @return a buffer for a whole block, allocated like the destination of the read
+   */
+  private ByteBuf newBlockBuffer(ByteBuf dst, long block) {
+    final int blockLength = (int) getBlockLength(block);
+    final ByteBuf data = dst.alloc().directBuffer(blockLength, blockLength);
+    data.writerIndex(blockLength);
+    return data;
+  }
+
+  /**
+   * @return the length of the block in the file, or -1 if it is unknown
+   */
+  private long getBlockLength(long block) {
+    try {
+      return Math.min(cache.getBlockSize(), getFileLength() - block * cache.getBlockSize());
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Reads a range within a single block.
+   */
+  private CompletableFuture<Void> readBlock(long block, long offset, ByteBuf dst, int dstOffset, int len) {
+    final long blockStart = block * cache.getBlockSize();
+    final BlockKey key = new BlockKey(plugin, path.toString(), version, block);
+    final CachedBlock cached = cache.get(key);
+    if (cached != null && cache.read(cached, offset - blockStart, dst, dstOffset, len)) {
+      return completedFuture;
+    }
+
+    final long blockLength = getBlockLength(block);
+    if (blockLength < offset - blockStart + len) {
+      // the file is shorter than the read, let the wrapped reader report it
+      return delegate.readFully(offset, dst, dstOffset, len);
+    }
+
+    final ByteBuf data = newBlockBuffer(dst, block);
+    return delegate.readFully(blockStart, data, 0, data.writerIndex())
+      .thenCompose(v -> {
+        dst.setBytes(dstOffset, data, (int) (offset - blockStart), len);
+        return cache.putAsync(key, dataset, data.retain());
+      })
+      .whenComplete((v, e) -> data.release());
+  }
+
+  private long getFileLength() throws IOException {
+    if (fileLength < 0) {
+      fileLength = fs.getFileAttributes(path).size();
+    }
+    return fileLength;
+  }
+
+  @Override
+  public CompletableFuture<Void> checkVersion(String version) {
+    return delegate.checkVersion(version);
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    return delegate.getStats();
+  }
+
+  @Override
+  protected void onClose() throws Exception {
+    delegate.close();
+  }
+}
@@ -67,10 +67,19 @@ public class BlockMapBuilder {
   }
 
   public List<CompleteFileWork> generateFileWork(List<FileAttributes> files, boolean blockify) throws IOException {
+    return generateFileWork(files, blockify, Long.MAX_VALUE);
+  }
+
+  /**
+   * Generate the work for the given files. If blockify is set, uncompressed files are split on their blocks, and
+   * blocks larger than maxSplitSize are split further.
+   */
+  public List<CompleteFileWork> generateFileWork(List<FileAttributes> files, boolean blockify, long maxSplitSize) throws IOException {
+    Preconditions.checkArgument(maxSplitSize > 0, "Invalid split size %s", maxSplitSize);
 
     List<TimedRunnable<List<CompleteFileWork>>> readers = Lists.newArrayList();
     for(FileAttributes status : files){
-      readers.add(new BlockMapReader(status, blockify));
+      readers.add(new BlockMapReader(status, blockify, maxSplitSize));
     }
     List<List<CompleteFileWork>> work = TimedRunnable.run("Get block maps", logger, readers, 16);
     List<CompleteFileWork> singleList = Lists.newArrayList();
@@ -91,11 +100,13 @@ public class BlockMapBuilder {
     // for json, it is set as false
     // because each row in a json file cannot be determined as a record or not simply by that row alone
     final boolean blockify;
+    final long maxSplitSize;
 
-    public BlockMapReader(FileAttributes attributes, boolean blockify) {
+    public BlockMapReader(FileAttributes attributes, boolean blockify, long maxSplitSize) {
       super();
       this.attributes = attributes;
       this.blockify = blockify;
+      this.maxSplitSize = maxSplitSize;
     }
 
 
@@ -107,8 +118,14 @@ public class BlockMapBuilder {
         try {
           ImmutableRangeMap<Long, FileBlockLocation> rangeMap = getBlockMap(attributes);
           for (Entry<Range<Long>, FileBlockLocation> l : rangeMap.asMapOfRanges().entrySet()) {
-            work.add(new CompleteFileWork(getEndpointByteMap(new FileAttributesWork(attributes, l.getValue().getOffset(), l.getValue().getSize())),
-                    l.getValue().getOffset(), l.getValue().getSize(), attributes));
+            // file systems without real blocks (local, NAS) report a single block for the whole file,
+            // so split large blocks further to let several threads read them
+            final long blockEnd = l.getValue().getOffset() + l.getValue().getSize();
+            for (long offset = l.getValue().getOffset(); offset < blockEnd; offset += maxSplitSize) {
+              final long size = Math.min(maxSplitSize, blockEnd - offset);
+              work.add(new CompleteFileWork(getEndpointByteMap(new FileAttributesWork(attributes, offset, size)),
+                      offset, size, attributes));
+            }
           }
         } catch (IOException e) {
           logger.warn("failure while generating file work.", e);
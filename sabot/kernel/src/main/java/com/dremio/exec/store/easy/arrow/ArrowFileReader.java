@@ -70,6 +70,10 @@ public class ArrowFileReader implements AutoCloseable {
   private final BufferAllocator allocator;
   private final Path path;
 
+  // index of the non-empty batches in the footer: first record number of each batch and its position in the footer
+  private final long[] batchStarts;
+  private final int[] batchIndexes;
+
   private FSInputStream inputStream;
 
   public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
@@ -78,9 +82,37 @@ public class ArrowFileReader implements AutoCloseable {
     this.metadata = metadata;
     this.allocator = allocator;
     this.path = basePath.resolve(metadata.getPath());
+
+    final List<ArrowRecordBatchSummary> batchList = metadata.getFooter() == null ? null : metadata.getFooter().getBatchList();
+    final int numBatches = batchList == null ? 0 : batchList.size();
+    int nonEmpty = 0;
+    for (int i = 0; i < numBatches; i++) {
+      if (batchList.get(i).getRecordCount() != 0) {
+        nonEmpty++;
+      }
+    }
+
+    this.batchStarts = new long[nonEmpty];
+    this.batchIndexes = new int[nonEmpty];
+    long runningCount = 0;
+    int next = 0;
+    for (int i = 0; i < numBatches; i++) {
+      final int recordCount = batchList.get(i).getRecordCount();
+      if (recordCount == 0) {
+        continue;
+      }
+      batchStarts[next] = runningCount;
+      batchIndexes[next] = i;
+      next++;
+      runningCount += recordCount;
+    }
   }
 
   private void openFile() throws IOException {
+    if (inputStream != null) {
+      // reuse the stream opened by a previous read
+      return;
+    }
     inputStream = dfs.open(path);
 
     if (false /* disable this until a PDFS getFileStatus() issue is fixed AssertionUtil.ASSERT_ENABLED */) {
@@ -127,7 +159,7 @@ public class ArrowFileReader implements AutoCloseable {
    * @param limit number of records to read
    * @return
    */
-  public List<RecordBatchHolder> read(final long start, final long limit) throws IOException {
+  public synchronized List<RecordBatchHolder> read(final long start, final long limit) throws IOException {
     // Make sure the range is valid according to the metadata in footer
     checkArgument(start == 0 && metadata.getRecordCount() == 0|| start >= 0 && start < metadata.getRecordCount(),
         "Invalid start index (%s). Record count in file (%s)", start, metadata.getRecordCount());
@@ -141,24 +173,10 @@ public class ArrowFileReader implements AutoCloseable {
     final List<RecordBatchHolder> batches = Lists.newArrayList();
     final ArrowFileFooter footer = metadata.getFooter();
 
-    long runningCount = 0;
     long remaining = limit;
-    final int numBatches = footer.getBatchList() == null ? 0 : footer.getBatchList().size();
-    for(int batchIndex = 0; batchIndex < numBatches; batchIndex++) {
-      ArrowRecordBatchSummary batchSummary = footer.getBatchList().get(batchIndex);
-      // Skip past empty batches
-      if (batchSummary.getRecordCount() == 0) {
-        continue;
-      }
-
-      runningCount += batchSummary.getRecordCount();
-
-      // Skip batches until we reach a batch that contains the start index
-      if (start >= runningCount) {
-        // valid indices in up until the current batch are in range [0, runningCount - 1]
-        continue;
-      }
-
+    // Seek directly to the batch that contains the start index
+    for (int i = findBatch(start); i >= 0 && i < batchStarts.length; i++) {
+      final ArrowRecordBatchSummary batchSummary = footer.getBatchList().get(batchIndexes[i]);
       final long currentBatchCount = batchSummary.getRecordCount();
 
       // Seek to the place where the batch starts and read
@@ -167,7 +185,7 @@ public class ArrowFileReader implements AutoCloseable {
       final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
 
       // Find the start and end indices within the batch.
-      final int batchStart = Math.max(0, (int) (start - (runningCount - currentBatchCount)));
+      final int batchStart = (int) Math.max(0, start - batchStarts[i]);
       final int batchEnd = (int) Math.min(currentBatchCount, batchStart + remaining);
 
       final RecordBatchHolder batchHolder = newRecordBatchHolder(
@@ -192,8 +210,28 @@ public class ArrowFileReader implements AutoCloseable {
     return batches;
   }
 
+  /**
+   * Find the position in the batch index of the batch containing the given record number.
+   * @return -1 if there is no such batch
+   */
+  private int findBatch(long recordNumber) {
+    int low = 0;
+    int high = batchStarts.length - 1;
+    int found = -1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (batchStarts[mid] <= recordNumber) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return found;
+  }
+
   @Override
-  public void close() throws IOException {
+  public synchronized void close() throws IOException {
     if (inputStream != null) {
       inputStream.close();
       inputStream = null;
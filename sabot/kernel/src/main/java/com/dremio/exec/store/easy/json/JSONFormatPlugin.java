@@ -22,6 +22,7 @@ import java.util.Objects;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.logical.FormatPluginConfig;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
 import com.dremio.exec.server.SabotContext;
 import com.dremio.exec.store.EasyCoercionReader;
@@ -54,9 +55,18 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
     super(name, context, formatPluginConfig, true, false, false, IS_COMPRESSIBLE, formatPluginConfig.getExtensions(), DEFAULT_NAME, fsPlugin);
   }
 
+  /**
+   * Newline delimited json files can be split on blocks when enabled, as each line then holds a whole record.
+   */
+  @Override
+  public boolean isBlockSplittable() {
+    return getContext().getOptionManager().getOption(ExecConstants.JSON_SPLIT_NEWLINE_DELIMITED);
+  }
+
   @Override
   public RecordReader getRecordReader(OperatorContext context, FileSystem dfs, EasyDatasetSplitXAttr splitAttributes, List<SchemaPath> columns) throws ExecutionSetupException {
-    return new JSONRecordReader(context, splitAttributes.getPath(), getFsPlugin().getCompressionCodecFactory(), dfs, columns);
+    return new JSONRecordReader(context, splitAttributes.getPath(), splitAttributes.getStart(), splitAttributes.getLength(),
+      getFsPlugin().getCompressionCodecFactory(), dfs, columns);
   }
 
   @Override
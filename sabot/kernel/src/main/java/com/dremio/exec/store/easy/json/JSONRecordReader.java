@@ -52,6 +52,8 @@ public class JSONRecordReader extends AbstractRecordReader {
 
   // Data we're consuming
   private final Path fsPath;
+  private final long start;
+  private final long length;
   private final JsonNode embeddedContent;
 
   private final CompressionCodecFactory codecFactory;
@@ -79,7 +81,30 @@ public class JSONRecordReader extends AbstractRecordReader {
       final CompressionCodecFactory codecFactory,
       final FileSystem fileSystem,
       final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(context, inputPath, null, codecFactory, fileSystem, columns);
+    this(context, inputPath, 0, Long.MAX_VALUE, null, codecFactory, fileSystem, columns);
+  }
+
+  /**
+   * Create a JSON Record Reader that reads the records of a newline delimited file starting in the given range.
+   * The record crossing the start of the range is skipped, and the one crossing its end is read whole.
+   * @param context
+   * @param inputPath
+   * @param start  start of the range in the file
+   * @param length  length of the range
+   * @param codecFactory
+   * @param fileSystem
+   * @param columns  pathnames of columns/subfields to read
+   * @throws OutOfMemoryException
+   */
+  public JSONRecordReader(
+      final OperatorContext context,
+      final String inputPath,
+      final long start,
+      final long length,
+      final CompressionCodecFactory codecFactory,
+      final FileSystem fileSystem,
+      final List<SchemaPath> columns) throws OutOfMemoryException {
+    this(context, inputPath, start, length, null, codecFactory, fileSystem, columns);
   }
 
   @Override
@@ -99,11 +124,13 @@ public class JSONRecordReader extends AbstractRecordReader {
   public JSONRecordReader(final OperatorContext context, final JsonNode embeddedContent,
       final CompressionCodecFactory codecFactory, final FileSystem fileSystem, final List<SchemaPath> columns)
       throws OutOfMemoryException {
-    this(context, null, embeddedContent, codecFactory, fileSystem, columns);
+    this(context, null, 0, Long.MAX_VALUE, embeddedContent, codecFactory, fileSystem, columns);
   }
 
   private JSONRecordReader(final OperatorContext operatorContext,
                            final String inputPath,
+                           final long start,
+                           final long length,
                            final JsonNode embeddedContent,
                            final CompressionCodecFactory codecFactory,
                            final FileSystem fileSystem,
@@ -124,6 +151,8 @@ public class JSONRecordReader extends AbstractRecordReader {
       this.fsPath = null;
     }
 
+    this.start = start;
+    this.length = length;
     this.codecFactory = codecFactory;
     this.fileSystem = fileSystem;
     this.context = operatorContext;
@@ -151,7 +180,13 @@ public class JSONRecordReader extends AbstractRecordReader {
   public void setup(final OutputMutator output) throws ExecutionSetupException {
     try{
       if (fsPath != null) {
-        this.stream = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        if ((start > 0 || length != Long.MAX_VALUE) && codecFactory.getCodec(fsPath) == null) {
+          // block split of an uncompressed file
+          final long end = length > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + length;
+          this.stream = new LineBoundedInputStream(fileSystem.open(fsPath), start, end);
+        } else {
+          this.stream = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        }
       }
 
       this.writer = new VectorContainerWriter(output);
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.dremio.io.FSInputStream;
+import com.google.common.base.Preconditions;
+
+/**
+ * Input stream over the lines of a file starting in a given byte range.
+ *
+ * A line belongs to the range containing its first byte: the line crossing the start of the range is skipped
+ * (the previous range reads it), and the line crossing the end of the range is read until its end.
+ */
+class LineBoundedInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final byte NEW_LINE = '\n';
+
+  private final FSInputStream input;
+  private final long end;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int bufferPos;
+  private int bufferLength;
+
+  // position in the file of the next byte to return
+  private long pos;
+  // whether the last byte returned (or skipped) ended a line
+  private boolean atLineStart = true;
+  private boolean finished;
+  private boolean started;
+
+  LineBoundedInputStream(FSInputStream input, long start, long end) {
+    Preconditions.checkArgument(start >= 0 && start <= end, "Invalid range [%s, %s)", start, end);
+    this.input = input;
+    this.pos = start;
+    this.end = end;
+  }
+
+  /**
+   * Move to the first line starting in the range.
+   */
+  private void start() throws IOException {
+    started = true;
+    if (pos == 0) {
+      return;
+    }
+
+    // the byte before the range tells whether a line starts right at the start of the range
+    pos--;
+    input.setPosition(pos);
+    while (true) {
+      if (bufferPos == bufferLength && !fill()) {
+        finished = true;
+        return;
+      }
+      final int newLine = indexOfNewLine(bufferPos, bufferLength);
+      if (newLine >= 0) {
+        pos += newLine + 1 - bufferPos;
+        bufferPos = newLine + 1;
+        return;
+      }
+      pos += bufferLength - bufferPos;
+      bufferPos = bufferLength;
+    }
+  }
+
+  private boolean fill() throws IOException {
+    final int read = input.read(buffer, 0, buffer.length);
+    if (read <= 0) {
+      return false;
+    }
+    bufferPos = 0;
+    bufferLength = read;
+    return true;
+  }
+
+  private int indexOfNewLine(int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer[i] == NEW_LINE) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    final int read = read(b, 0, 1);
+    return read == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!started) {
+      start();
+    }
+    if (finished || (pos >= end && atLineStart)) {
+      // the next line starts in the next range
+      finished = true;
+      return -1;
+    }
+    if (bufferPos == bufferLength && !fill()) {
+      finished = true;
+      return -1;
+    }
+
+    int count = Math.min(len, bufferLength - bufferPos);
+    if (pos < end) {
+      // stop at the end of the range to check whether a line ends there
+      count = (int) Math.min(count, end - pos);
+    } else {
+      // finish the line crossing the end of the range
+      final int newLine = indexOfNewLine(bufferPos, bufferPos + count);
+      if (newLine >= 0) {
+        count = newLine + 1 - bufferPos;
+      }
+    }
+
+    System.arraycopy(buffer, bufferPos, b, off, count);
+    bufferPos += count;
+    pos += count;
+    atLineStart = b[off + count - 1] == NEW_LINE;
+    return count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
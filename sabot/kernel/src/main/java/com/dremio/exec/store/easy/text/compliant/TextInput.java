@@ -34,6 +34,7 @@ package com.dremio.exec.store.easy.text.compliant;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BoundsChecking;
@@ -54,6 +55,10 @@ import io.netty.util.internal.PlatformDependent;
 final class TextInput {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TextInput.class);
 
+  private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
 //  private static final int READ_CHARS_LIMIT = 1024*64;
   private final byte[] lineSeparator;
   private final byte normalizedLineSeparator;
@@ -350,6 +355,70 @@ final class TextInput {
     return byteChar;
   }
 
+  /**
+   * Appends to the output the run of bytes starting at the current position which doesn't contain any of the
+   * given bytes, and moves past it. The run always stops before the last byte of the loaded data, so that
+   * {@link #nextChar()} still takes care of reloading the buffer and of multi-byte line separators.
+   * @param output  output to append the bytes to
+   * @param stop1  byte ending the run
+   * @param stop2  byte ending the run
+   * @param stop3  byte ending the run
+   * @return number of bytes appended
+   */
+  public final int appendUntil(TextOutput output, byte stop1, byte stop2, byte stop3) {
+    if (length == -1 || bufferPtr >= length) {
+      return 0;
+    }
+
+    if (BoundsChecking.BOUNDS_CHECKING_ENABLED) {
+      buffer.checkBytes(bufferPtr - 1, length - 1);
+    }
+
+    final long start = bStartMinus1 + bufferPtr;
+    final int runLength = (int) (findAny(start, bStartMinus1 + length, stop1, stop2, stop3) - start);
+    if (runLength > 0) {
+      output.append(start, runLength);
+      bufferPtr += runLength;
+    }
+    return runLength;
+  }
+
+  /**
+   * Find the first byte in the given memory range which is equal to any of the given bytes. Bytes are tested
+   * 8 at a time, looking for zero bytes in the word xor'ed with each of the bytes repeated 8 times.
+   * @return address of the first matching byte, or end if there is none
+   */
+  static long findAny(long address, long end, byte b1, byte b2, byte b3) {
+    final long p1 = ONES * (b1 & 0xFF);
+    final long p2 = ONES * (b2 & 0xFF);
+    final long p3 = ONES * (b3 & 0xFF);
+
+    long pos = address;
+    for (; pos + Long.BYTES <= end; pos += Long.BYTES) {
+      long word = PlatformDependent.getLong(pos);
+      if (!LITTLE_ENDIAN) {
+        word = Long.reverseBytes(word);
+      }
+      // only the lowest flagged byte is guaranteed to be a match, which is the one we want
+      final long matches = zeroBytes(word ^ p1) | zeroBytes(word ^ p2) | zeroBytes(word ^ p3);
+      if (matches != 0) {
+        return pos + (Long.numberOfTrailingZeros(matches) >>> 3);
+      }
+    }
+
+    for (; pos < end; pos++) {
+      final byte b = PlatformDependent.getByte(pos);
+      if (b == b1 || b == b2 || b == b3) {
+        return pos;
+      }
+    }
+    return end;
+  }
+
+  private static long zeroBytes(long word) {
+    return (word - ONES) & ~word & HIGH_BITS;
+  }
+
   /**
    * Number of lines read since the start of this split.
    * @return
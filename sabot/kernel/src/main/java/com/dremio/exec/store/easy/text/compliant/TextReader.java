@@ -73,6 +73,8 @@ final class TextReader implements AutoCloseable {
   private final byte quote;
   private final byte quoteEscape;
   private final byte newLine;
+  // first byte of the input line delimiter, which may differ from the normalized new line
+  private final byte lineDelimiterStart;
 
   /**
    * The CsvParser supports all settings provided by {@link CsvParserSettings}, and requires this configuration to be
@@ -102,6 +104,7 @@ final class TextReader implements AutoCloseable {
     this.output = output;
 
     final byte[] newLineDelimiter = settings.getNewLineDelimiter();
+    this.lineDelimiterStart = newLineDelimiter[0];
     isNormalLineDelimiter = ((newLineDelimiter.length == 1) && (newLineDelimiter[0] == settings.getNormalizedNewLine())) ?
       true : false;
   }
@@ -207,9 +210,13 @@ final class TextReader implements AutoCloseable {
     final TextOutput output = this.output;
     final TextInput input = this.input;
 
+    final byte lineDelimiterStart = this.lineDelimiterStart;
+
     byte ch = this.ch;
     while (ch != delimiter && ch != newLine) {
       output.append(ch);
+      // copy the bytes up to the next possible delimiter in bulk, and let nextChar() decide what that byte is
+      input.appendUntil(output, delimiter, newLine, lineDelimiterStart);
       ch = input.nextChar();
     }
     this.ch = ch;
@@ -175,15 +175,15 @@ public class FooterReadTableFunction extends AbstractTableFunction {
         if(fileSize == 0) {
           return 0; //Ignore 0 size files
         }
+        mTime = mtimeVector.get(currentRow);
         Footer footer = null;
         try {
-          footer = footerReader(getFS(path)).getFooter(PathUtils.withoutQueryParams(path), fileSize);
+          footer = footerReader(getFS(path)).getFooter(PathUtils.withoutQueryParams(path), fileSize, mTime);
         } catch (Exception e) {
           String msg = String.format("Invalid %s footer in the dataset %s for file %s. Error - %s.", fileType, tableName, new String(pathVector.get(currentRow)), e.getMessage());
           throw UserException.validationError(e).message(msg).buildSilently();
         }
         recordCount = footer.getRowCount();
-        mTime = mtimeVector.get(currentRow);
         fileSchema = footer.getSchema();
 
         fileSchema = fileSchema.removeNullFields();
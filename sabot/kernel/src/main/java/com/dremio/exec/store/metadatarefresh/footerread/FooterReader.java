@@ -19,4 +19,12 @@ import java.io.IOException;
 
 public interface FooterReader {
   Footer getFooter(String path, long fileSize) throws IOException;
+
+  /**
+   * Same as {@link #getFooter(String, long)}, with the modification time of the file, which lets readers reuse
+   * footers read earlier for the same version of the file.
+   */
+  default Footer getFooter(String path, long fileSize, long mTime) throws IOException {
+    return getFooter(path, fileSize);
+  }
 }
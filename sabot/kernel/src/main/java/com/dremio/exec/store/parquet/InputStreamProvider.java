@@ -36,6 +36,13 @@ public interface InputStreamProvider extends AutoCloseable {
    */
   BulkInputStream getStream(ColumnChunkMetaData column) throws IOException;
 
+  /**
+   * Reads the given column chunks ahead of the {@link #getStream} calls for them. Providers may serve all the chunks
+   * with a single read; the default does nothing.
+   */
+  default void prefetch(List<ColumnChunkMetaData> columns) throws IOException {
+  }
+
   /**
    * Returns the path corresponding to this stream
    * @return
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+
+/**
+ * Executor wide cache of parquet footers, shared by all fragments reading parquet files. Entries are keyed by
+ * path, file length and modification time and bounded by the total size of the serialized footers
+ * ({@link ExecConstants#PARQUET_FOOTER_CACHE_MAX_SIZE_BYTES}).
+ *
+ * The serialized footer is cached rather than {@link ParquetMetadata}, since readers trim the parsed footer in place
+ * (see {@link MutableParquetMetadata}). Every lookup hands out a freshly parsed copy; what is saved is the remote read.
+ */
+public final class ParquetFooterCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetFooterCache.class);
+
+  private static volatile ParquetFooterCache instance;
+
+  /**
+   * Reads the serialized footer on a cache miss.
+   */
+  @FunctionalInterface
+  public interface FooterLoader {
+    byte[] load() throws IOException;
+  }
+
+  private final long maxSizeBytes;
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final Cache<FooterKey, byte[]> cache;
+
+  @VisibleForTesting
+  ParquetFooterCache(long maxSizeBytes) {
+    this.maxSizeBytes = maxSizeBytes;
+    this.cache = CacheBuilder.newBuilder()
+      .maximumWeight(maxSizeBytes)
+      .weigher((Weigher<FooterKey, byte[]>) (key, footer) -> footer.length)
+      .removalListener((RemovalListener<FooterKey, byte[]>) notification -> {
+        if (notification.wasEvicted()) {
+          evictionCount.incrementAndGet();
+        }
+      })
+      .build();
+  }
+
+  /**
+   * Returns the footer of the given file, served from the executor wide cache when possible. Files without a
+   * known length or modification time are always read through the loader and are not cached.
+   *
+   * @param context operator context, used for the cache size option and metrics. May be null, in which case the cache is bypassed.
+   */
+  public static ParquetMetadata getFooter(OperatorContext context, String path, long fileLength, long mTime,
+                                          FooterLoader loader) throws IOException {
+    final ParquetFooterCache footerCache = context == null ? null :
+      getInstance(context.getOptions().getOption(ExecConstants.PARQUET_FOOTER_CACHE_MAX_SIZE_BYTES));
+    final byte[] footerBytes;
+    if (footerCache == null || fileLength < 0 || mTime <= 0) {
+      footerBytes = loader.load();
+    } else {
+      footerBytes = footerCache.get(new FooterKey(path, fileLength, mTime), loader, context.getStats());
+    }
+    return SingletonParquetFooterCache.parseFooter(footerBytes, ParquetMetadataConverter.NO_FILTER);
+  }
+
+  /**
+   * Returns the shared instance, rebuilding it if the configured size has changed. Returns null if the cache is disabled.
+   */
+  private static ParquetFooterCache getInstance(long maxSizeBytes) {
+    if (maxSizeBytes <= 0) {
+      return null;
+    }
+    ParquetFooterCache current = instance;
+    if (current == null || current.maxSizeBytes != maxSizeBytes) {
+      synchronized (ParquetFooterCache.class) {
+        current = instance;
+        if (current == null || current.maxSizeBytes != maxSizeBytes) {
+          logger.debug("Creating parquet footer cache with a budget of {} bytes", maxSizeBytes);
+          current = new ParquetFooterCache(maxSizeBytes);
+          instance = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  @VisibleForTesting
+  byte[] get(FooterKey key, FooterLoader loader, OperatorStats stats) throws IOException {
+    byte[] footerBytes = cache.getIfPresent(key);
+    if (footerBytes != null) {
+      addStat(stats, ScanOperator.Metric.FOOTER_CACHE_HITS, 1);
+      return footerBytes;
+    }
+
+    // concurrent misses on the same file may both read the footer, which is preferable to blocking on the loader
+    footerBytes = loader.load();
+    addStat(stats, ScanOperator.Metric.FOOTER_CACHE_MISSES, 1);
+    final long evictedBefore = evictionCount.get();
+    cache.put(key, footerBytes);
+    // evictions are reported by whoever triggered them, concurrent inserts may shift a few between operators
+    addStat(stats, ScanOperator.Metric.FOOTER_CACHE_EVICTIONS, evictionCount.get() - evictedBefore);
+    return footerBytes;
+  }
+
+  @VisibleForTesting
+  long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  private static void addStat(OperatorStats stats, ScanOperator.Metric metric, long value) {
+    if (stats != null && value > 0) {
+      stats.addLongStat(metric, value);
+    }
+  }
+
+  /**
+   * Identifies a version of a file. A rewritten file gets a new modification time and/or length.
+   */
+  @VisibleForTesting
+  static final class FooterKey {
+    private final String path;
+    private final long fileLength;
+    private final long mTime;
+
+    FooterKey(String path, long fileLength, long mTime) {
+      this.path = path;
+      this.fileLength = fileLength;
+      this.mTime = mTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final FooterKey that = (FooterKey) o;
+      return fileLength == that.fileLength && mTime == that.mTime && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, fileLength, mTime);
+    }
+  }
+}
@@ -40,6 +40,7 @@ public class SingleStreamProvider implements InputStreamProvider {
   private final Path path;
   private final BufferAllocator allocator;
   private final long fileLength;
+  private final long mTime;
   private final long maxFooterLen;
   private final boolean readFullFile;
   private BulkInputStream stream;
@@ -49,9 +50,17 @@ public class SingleStreamProvider implements InputStreamProvider {
   private boolean readColumnOffsetIndices;
 
   public SingleStreamProvider(FileSystem fs, Path path, long fileLength, long maxFooterLen, boolean readFullFile, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndices) {
+    this(fs, path, fileLength, -1, maxFooterLen, readFullFile, footer, context, readColumnOffsetIndices);
+  }
+
+  /**
+   * @param mTime modification time of the file, footers of files with a known modification time are shared through {@link ParquetFooterCache}
+   */
+  public SingleStreamProvider(FileSystem fs, Path path, long fileLength, long mTime, long maxFooterLen, boolean readFullFile, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndices) {
     this.fs = fs;
     this.path = path;
     this.fileLength = fileLength;
+    this.mTime = mTime;
     this.maxFooterLen = maxFooterLen;
     this.readFullFile = readFullFile;
     this.footer = footer;
@@ -148,8 +157,8 @@ public class SingleStreamProvider implements InputStreamProvider {
   @Override
   public MutableParquetMetadata getFooter() throws IOException {
     if(footer == null) {
-      SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
-      footer = new MutableParquetMetadata(footerCache.getFooter(getStream(null), path.toString(), fileLength, fs, maxFooterLen));
+      footer = new MutableParquetMetadata(ParquetFooterCache.getFooter(context, path.toString(), fileLength, mTime,
+        () -> SingletonParquetFooterCache.readFooterBytes(getStream(null), path.toString(), fileLength, fs, maxFooterLen)));
     }
     return footer;
   }
@@ -96,6 +96,21 @@ public class SingletonParquetFooterCache {
 
   private static ParquetMetadata readFooter(BulkInputStream file, String path, long fileLength, MetadataFilter filter, FileSystem fs,
                                             long maxFooterLen) throws IOException {
+    return parseFooter(readFooterBytes(file, path, fileLength, fs, maxFooterLen), filter);
+  }
+
+  /**
+   * Parses a footer as returned by {@link #readFooterBytes}.
+   */
+  static ParquetMetadata parseFooter(byte[] footerBytes, MetadataFilter filter) throws IOException {
+    return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(new ByteArrayInputStream(footerBytes), filter);
+  }
+
+  /**
+   * Reads the serialized footer of the file, without the trailing footer length and magic bytes.
+   */
+  static byte[] readFooterBytes(BulkInputStream file, String path, long fileLength, FileSystem fs,
+                                long maxFooterLen) throws IOException {
     Preconditions.checkArgument(fileLength >= MIN_FILE_SIZE || fileLength == -1, "%s is not a Parquet file (too small)", path);
 
     if (fileLength == -1) {
@@ -129,7 +144,7 @@ public class SingletonParquetFooterCache {
       footerBytes = ArrayUtils.subarray(footerBytes, start, start + size);
     }
 
-    return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(new ByteArrayInputStream(footerBytes), filter);
+    return footerBytes;
   }
 }
 
@@ -17,18 +17,30 @@ package com.dremio.exec.store.parquet;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.io.ArrowBufFSInputStream;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.AsyncByteReader.FileKey;
+import com.dremio.io.AsyncByteReader.ReadRange;
 import com.dremio.io.FSInputStream;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.google.common.base.Preconditions;
 
+import io.netty.buffer.NettyArrowBuf;
+
 /**
  * An InputStreamProvider that opens a separate stream for each column.
  */
@@ -37,18 +49,39 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   private final FileSystem fs;
   private final Path path;
   private final long length;
+  private final long mTime;
   private MutableParquetMetadata footer;
   private final long maxFooterLen;
   private boolean readColumnOffsetIndexes;
   private final BufferAllocator allocator;
   private final OperatorContext context;
+  private final List<String> dataset;
+  private final boolean prefetchColumnChunks;
 
   private final List<BulkInputStream> streams = new ArrayList<>();
+  private final Map<ColumnPath, ArrowBuf> prefetched = new HashMap<>();
 
   public StreamPerColumnProvider(FileSystem fs, Path path, long length, long maxFooterLen, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes) {
+    this(fs, path, length, -1, maxFooterLen, footer, context, readColumnOffsetIndexes);
+  }
+
+  /**
+   * @param mTime modification time of the file, footers of files with a known modification time are shared through {@link ParquetFooterCache}
+   */
+  public StreamPerColumnProvider(FileSystem fs, Path path, long length, long mTime, long maxFooterLen, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes) {
+    this(fs, path, length, mTime, maxFooterLen, footer, context, readColumnOffsetIndexes, null, false);
+  }
+
+  /**
+   * @param dataset dataset of the file, used to key the async reads of prefetched column chunks
+   * @param prefetchColumnChunks whether {@link #prefetch} reads the column chunks ahead, when the file system supports async reads
+   */
+  public StreamPerColumnProvider(FileSystem fs, Path path, long length, long mTime, long maxFooterLen, MutableParquetMetadata footer,
+                                 OperatorContext context, boolean readColumnOffsetIndexes, List<String> dataset, boolean prefetchColumnChunks) {
     this.fs = fs;
     this.path = path;
     this.length = length;
+    this.mTime = mTime;
     this.maxFooterLen = maxFooterLen;
     this.footer = footer;
     this.readColumnOffsetIndexes = readColumnOffsetIndexes;
@@ -58,6 +91,8 @@ public class StreamPerColumnProvider implements InputStreamProvider {
       this.allocator = null;
     }
     this.context = context;
+    this.dataset = dataset;
+    this.prefetchColumnChunks = prefetchColumnChunks;
   }
 
   @Override
@@ -67,12 +102,64 @@ public class StreamPerColumnProvider implements InputStreamProvider {
 
   @Override
   public BulkInputStream getStream(ColumnChunkMetaData column) throws IOException {
-    FSInputStream is = fs.open(path);
+    final ArrowBuf buf = column == null ? null : prefetched.remove(column.getPath());
+    FSInputStream is = buf == null ? fs.open(path) : new ColumnChunkInputStream(buf, column.getStartingPos());
     BulkInputStream stream = BulkInputStream.wrap(Streams.wrap(is));
     streams.add(stream);
     return stream;
   }
 
+  /**
+   * Reads all the given column chunks with a single {@link AsyncByteReader#readFully(List)} call, so that the reader
+   * can serve nearby chunks together. Streams for these chunks are then served from memory.
+   */
+  @Override
+  public void prefetch(List<ColumnChunkMetaData> columns) throws IOException {
+    if (!prefetchColumnChunks || allocator == null || columns.isEmpty() || !fs.supportsAsync()) {
+      return;
+    }
+    for (ColumnChunkMetaData column : columns) {
+      if (column.getTotalSize() > Integer.MAX_VALUE) {
+        return;
+      }
+    }
+
+    // without a known modification time, the reads must not be cached
+    final FileKey fileKey = FileKey.of(path, mTime > 0 ? Long.toString(mTime) : "0", FileKey.FileType.PARQUET, dataset);
+    final Map<ColumnPath, ArrowBuf> buffers = new HashMap<>();
+    try (AsyncByteReader reader = fs.getAsyncByteReader(fileKey, Collections.emptyMap())) {
+      final List<ReadRange> ranges = new ArrayList<>(columns.size());
+      for (ColumnChunkMetaData column : columns) {
+        final int size = (int) column.getTotalSize();
+        final ArrowBuf buf = allocator.buffer(size);
+        buffers.put(column.getPath(), buf);
+        ranges.add(new ReadRange(column.getStartingPos(), NettyArrowBuf.unwrapBuffer(buf), 0, size));
+        buf.writerIndex(size);
+      }
+      reader.readFully(ranges).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      releaseAll(buffers);
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      releaseAll(buffers);
+      throw new IOException(e.getCause());
+    } catch (IOException | RuntimeException e) {
+      releaseAll(buffers);
+      throw e;
+    } catch (Exception e) {
+      releaseAll(buffers);
+      throw new IOException(e);
+    }
+    releaseAll(prefetched);
+    prefetched.putAll(buffers);
+  }
+
+  private static void releaseAll(Map<ColumnPath, ArrowBuf> buffers) {
+    buffers.values().forEach(ArrowBuf::close);
+    buffers.clear();
+  }
+
   @Override
   public boolean isSingleStream() {
     return false;
@@ -128,14 +215,15 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   @Override
   public MutableParquetMetadata getFooter() throws IOException {
     if(footer == null) {
-      SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
-      footer = new MutableParquetMetadata(footerCache.getFooter(getStream(null), path.toString(), length, fs, maxFooterLen));
+      footer = new MutableParquetMetadata(ParquetFooterCache.getFooter(context, path.toString(), length, mTime,
+        () -> SingletonParquetFooterCache.readFooterBytes(getStream(null), path.toString(), length, fs, maxFooterLen)));
     }
     return footer;
   }
 
   @Override
   public void close() throws IOException {
+    releaseAll(prefetched);
     try {
       AutoCloseables.close(streams);
     } catch (IOException | RuntimeException e) {
@@ -144,4 +232,26 @@ public class StreamPerColumnProvider implements InputStreamProvider {
       throw new IOException(e);
     }
   }
+
+  /**
+   * Stream over a prefetched column chunk, positioned as the file it was read from.
+   */
+  private static final class ColumnChunkInputStream extends ArrowBufFSInputStream {
+    private final long startingPos;
+
+    private ColumnChunkInputStream(ArrowBuf buf, long startingPos) {
+      super(buf);
+      this.startingPos = startingPos;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+      return startingPos + super.getPosition();
+    }
+
+    @Override
+    public void setPosition(long position) throws IOException {
+      super.setPosition(position - startingPos);
+    }
+  }
 }
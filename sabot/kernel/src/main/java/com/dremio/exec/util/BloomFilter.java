@@ -44,6 +44,11 @@ import io.netty.util.internal.PlatformDependent;
  * See "Less Hashing, Same Performance: Building a Better Bloom Filter" by Adam Kirsch and Michael
  * Mitzenmacher. The paper argues that this trick doesn't significantly deteriorate the
  * performance of a Bloom filter (yet only needs two hash functions).
+ * <p>
+ * A filter can optionally use a blocked layout, where the first hash picks a 64 byte block and all the bits for
+ * the key are set inside that block. Probing then touches a single cache line per key instead of one per hash
+ * function, at the cost of a slightly higher false positive rate for the same size. The layout is not recorded in
+ * the buffer, so the consumer has to be told about it (see {@link #prepareFrom(ArrowBuf, boolean)}).
  */
 @NotThreadSafe
 public class BloomFilter implements AutoCloseable {
@@ -51,6 +56,9 @@ public class BloomFilter implements AutoCloseable {
     private static final double FPP = 0.01;
     private static final int META_BYTES_CNT = 32; // should always be a multiple of 8
     private static final int SEED = 0;
+    private static final int BLOCK_BYTES = 64;
+    private static final int BLOCK_BITS_SHIFT = 64 - 9; // top 9 bits address one of the 512 bits in a block
+    private static final int BATCH_HASH_CHUNK = 64;
 
     private BufferAllocator allocator;
     private long sizeInBits;
@@ -59,6 +67,10 @@ public class BloomFilter implements AutoCloseable {
     private String name;
     private ArrowBuf dataBuffer;
     private long numBitsSetLoc;
+    private final boolean blocked;
+    private long numBlocks;
+    private long[] batchHash1;
+    private long[] batchHash2;
 
     /**
      * Initialise. The dataBuffer memory is used for keeping the bloomfilter bits.
@@ -69,18 +81,34 @@ public class BloomFilter implements AutoCloseable {
      * @param minSizeBytes Min size for the filter. Actual size will be the buffer capacity considering the rounding policy used by the allocator.
      */
     public BloomFilter(BufferAllocator bufferAllocator, String name, long minSizeBytes) {
+        this(bufferAllocator, name, minSizeBytes, false);
+    }
+
+    /**
+     * Initialise, choosing the bit layout.
+     *
+     * @param bufferAllocator
+     * @param name
+     * @param minSizeBytes Min size for the filter. Actual size will be the buffer capacity considering the rounding policy used by the allocator.
+     * @param blocked      If true, all bits of a key are placed in a single 64 byte block.
+     */
+    public BloomFilter(BufferAllocator bufferAllocator, String name, long minSizeBytes, boolean blocked) {
         // Enables filter to do 64 bit operations during merge.
         checkArgument(minSizeBytes % 8==0, "Data size should be multiple of 8 bytes");
         checkArgument(minSizeBytes > META_BYTES_CNT, "Invalid data size");
         checkNotNull(bufferAllocator);
 
         // Last 32 bytes are used for meta purposes. 24 bytes for name, and 8 bytes for numBitsSet.
+        checkArgument(!blocked || minSizeBytes >= BLOCK_BYTES + META_BYTES_CNT, "Data size too small for a blocked filter");
+
         this.sizeInBytes = minSizeBytes - META_BYTES_CNT;
         this.allocator = bufferAllocator;
         this.name = name;
+        this.blocked = blocked;
     }
 
-    private BloomFilter(ArrowBuf dataBuffer) {
+    private BloomFilter(ArrowBuf dataBuffer, boolean blocked) {
+        this.blocked = blocked;
         setup(dataBuffer);
 
         byte[] nameBytes = new byte[24];
@@ -125,6 +153,8 @@ public class BloomFilter implements AutoCloseable {
         this.sizeInBytes = dataSize - META_BYTES_CNT;
         this.sizeInBits = this.sizeInBytes * 8;
         this.numHashFunctions = getOptimalNumOfHashFunctions();
+        this.numBlocks = this.sizeInBytes / BLOCK_BYTES;
+        checkArgument(!blocked || numBlocks > 0, "Data size too small for a blocked filter");
         this.allocator = null;
     }
 
@@ -144,7 +174,26 @@ public class BloomFilter implements AutoCloseable {
      * @return
      */
     public static BloomFilter prepareFrom(ArrowBuf dataBuffer) {
-        return new BloomFilter(dataBuffer);
+        return prepareFrom(dataBuffer, false);
+    }
+
+    /**
+     * Deserialization helper for a filter with a known layout.
+     * IMPORTANT: BloolFilter::setup should not be called on this filter object.
+     *
+     * @param dataBuffer ArrowBuf containing bloomfilter set bits
+     * @param blocked    whether the filter was built with the blocked layout
+     * @return
+     */
+    public static BloomFilter prepareFrom(ArrowBuf dataBuffer, boolean blocked) {
+        return new BloomFilter(dataBuffer, blocked);
+    }
+
+    /**
+     * @return true if all the bits of a key are placed within a single 64 byte block.
+     */
+    public boolean isBlocked() {
+        return blocked;
     }
 
     /**
@@ -168,15 +217,7 @@ public class BloomFilter implements AutoCloseable {
      */
     public boolean mightContain(ArrowBuf bloomFilterKey, int length) {
         HashValPair hashValPair = MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED);
-        long combinedHash = hashValPair.getHash1();
-        for (int i = 0; i < numHashFunctions; i++) {
-            // Make the combined hash positive and indexable
-            if (!getBit((combinedHash & Long.MAX_VALUE) % sizeInBits)) {
-                return false;
-            }
-            combinedHash += hashValPair.getHash2();
-        }
-        return true;
+        return mightContain(hashValPair.getHash1(), hashValPair.getHash2());
     }
 
     /**
@@ -189,6 +230,9 @@ public class BloomFilter implements AutoCloseable {
      */
     public boolean put(ArrowBuf bloomFilterKey, int length) {
         HashValPair hashValPair = MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED);
+        if (blocked) {
+            return putInBlock(hashValPair.getHash1(), hashValPair.getHash2());
+        }
         boolean bitsChanged = false;
         long combinedHash = hashValPair.getHash1();
         long numBitsSet = getNumBitsSet();
@@ -207,6 +251,111 @@ public class BloomFilter implements AutoCloseable {
         return bitsChanged;
     }
 
+    /**
+     * Checks a batch of fixed width keys. The keys are laid out back to back in the keys buffer, key i starting at
+     * {@code i * keyLength}. For every key that might be present, the corresponding bit is set in outBitmap (Arrow
+     * validity layout); all other bits in the first {@code count} positions are cleared.
+     * <p>
+     * Hashes are computed for a chunk of keys before any of them is probed, so that the memory accesses of the probes
+     * are independent of each other and can overlap.
+     *
+     * @param keys      buffer holding count keys of keyLength bytes each
+     * @param keyLength width of each key
+     * @param count     number of keys
+     * @param outBitmap buffer of at least (count + 7) / 8 bytes receiving the result
+     * @return number of keys that might be present
+     */
+    public int mightContain(ArrowBuf keys, int keyLength, int count, ArrowBuf outBitmap) {
+        checkArgument(keys.capacity() >= (long) keyLength * count, "Keys buffer too small for %s keys", count);
+        checkArgument(outBitmap.capacity() >= (count + 7) / 8, "Output bitmap too small for %s keys", count);
+        if (batchHash1 == null) {
+            batchHash1 = new long[BATCH_HASH_CHUNK];
+            batchHash2 = new long[BATCH_HASH_CHUNK];
+        }
+
+        final long outAddr = outBitmap.memoryAddress();
+        PlatformDependent.setMemory(outAddr, (count + 7) / 8, (byte) 0);
+        int matches = 0;
+        for (int chunkStart = 0; chunkStart < count; chunkStart += BATCH_HASH_CHUNK) {
+            final int chunkSize = Math.min(BATCH_HASH_CHUNK, count - chunkStart);
+            for (int i = 0; i < chunkSize; i++) {
+                final long keyStart = (long) (chunkStart + i) * keyLength;
+                final HashValPair hashValPair = MurmurHash3.murmur3_128(keyStart, keyStart + keyLength, keys, SEED);
+                batchHash1[i] = hashValPair.getHash1();
+                batchHash2[i] = hashValPair.getHash2();
+            }
+
+            for (int i = 0; i < chunkSize; i++) {
+                if (mightContain(batchHash1[i], batchHash2[i])) {
+                    final int index = chunkStart + i;
+                    final long byteAddr = outAddr + (index >>> 3);
+                    PlatformDependent.putByte(byteAddr, (byte) (PlatformDependent.getByte(byteAddr) | (1 << (index & 7))));
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private boolean mightContain(long hash1, long hash2) {
+        if (blocked) {
+            return mightContainInBlock(hash1, hash2);
+        }
+        long combinedHash = hash1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            // Make the combined hash positive and indexable
+            if (!getBit((combinedHash & Long.MAX_VALUE) % sizeInBits)) {
+                return false;
+            }
+            combinedHash += hash2;
+        }
+        return true;
+    }
+
+    /**
+     * Start address of the block chosen by the first hash.
+     */
+    private long blockAddress(long hash1) {
+        return dataBuffer.memoryAddress() + ((hash1 & Long.MAX_VALUE) % numBlocks) * BLOCK_BYTES;
+    }
+
+    private boolean mightContainInBlock(long hash1, long hash2) {
+        final long blockAddr = blockAddress(hash1);
+        final long step = Long.rotateLeft(hash1, 32) | 1L; // decorrelate from the bits used for block selection
+        long combinedHash = hash2;
+        for (int i = 0; i < numHashFunctions; i++) {
+            final int bitInBlock = (int) (combinedHash >>> BLOCK_BITS_SHIFT);
+            final long word = PlatformDependent.getLong(blockAddr + ((bitInBlock >>> 6) << 3));
+            if ((word & (1L << (bitInBlock & 63))) == 0) {
+                return false;
+            }
+            combinedHash += step;
+        }
+        return true;
+    }
+
+    private boolean putInBlock(long hash1, long hash2) {
+        final long blockAddr = blockAddress(hash1);
+        final long step = Long.rotateLeft(hash1, 32) | 1L;
+        long combinedHash = hash2;
+        long numBitsSet = getNumBitsSet();
+        boolean bitsChanged = false;
+        for (int i = 0; i < numHashFunctions; i++) {
+            final int bitInBlock = (int) (combinedHash >>> BLOCK_BITS_SHIFT);
+            final long wordAddr = blockAddr + ((bitInBlock >>> 6) << 3);
+            final long word = PlatformDependent.getLong(wordAddr);
+            final long mask = 1L << (bitInBlock & 63);
+            if ((word & mask) == 0) {
+                PlatformDependent.putLong(wordAddr, word | mask);
+                bitsChanged = true;
+                numBitsSet++;
+            }
+            combinedHash += step;
+        }
+        setNumBitsSet(numBitsSet);
+        return bitsChanged;
+    }
+
     /**
      * Returns the probability that {@linkplain #mightContain(ArrowBuf, int)}  will erroneously return {@code
      * true} for an object that has not actually been put in the {@code BloomFilter}.
@@ -250,6 +399,23 @@ public class BloomFilter implements AutoCloseable {
         return optimalSize + META_BYTES_CNT;
     }
 
+    /**
+     * Returns optimal size of the filter for "n" insertions and configured FPP, for the given layout. Blocked filters
+     * are rounded up to a whole number of blocks.
+     *
+     * @param expectedInsertions - number of expected insertions
+     * @param blocked - whether the filter uses the blocked layout
+     * @return
+     */
+    public static long getOptimalSize(long expectedInsertions, boolean blocked) {
+        final long optimalSize = getOptimalSize(expectedInsertions);
+        if (!blocked) {
+            return optimalSize;
+        }
+        final long dataSize = optimalSize - META_BYTES_CNT;
+        return Math.max(1, (dataSize + BLOCK_BYTES - 1) / BLOCK_BYTES) * BLOCK_BYTES + META_BYTES_CNT;
+    }
+
     /**
      * Merges the bits from another bloomfilter into this one.
      * This operation will work only if both filters are compatible for merge.
@@ -262,6 +428,7 @@ public class BloomFilter implements AutoCloseable {
         checkArgument(this!=that, "Can't merge with the same BloomFilter object.");
         checkArgument(this.numHashFunctions==that.numHashFunctions, "Incompatible BloomFilter, different hashing technique.");
         checkArgument(this.sizeInBits==that.sizeInBits, "Incompatible BloomFilter, different sizes (%s, %s).", this.sizeInBytes, that.sizeInBytes);
+        checkArgument(this.blocked==that.blocked, "Incompatible BloomFilter, different layouts.");
 
         final long thisMemPos = this.dataBuffer.memoryAddress();
         final long thatMemPos = that.dataBuffer.memoryAddress();
@@ -338,6 +505,7 @@ public class BloomFilter implements AutoCloseable {
                 "name='" + name + '\'' +
                 ", sizeInBytes=" + sizeInBytes +
                 ", numHashFunctions=" + numHashFunctions +
+                ", blocked=" + blocked +
                 ", numBitsSet=" + getNumBitsSet() +
                 ", expectedFpp=" + getExpectedFPP() +
                 '}';
@@ -349,7 +517,7 @@ public class BloomFilter implements AutoCloseable {
             ArrowBuf pColFilterDataCopy = allocator.buffer(pColFilterData.capacity());
             rollbackCloseable.add(pColFilterDataCopy); // close on exception
             PlatformDependent.copyMemory(pColFilterData.memoryAddress(), pColFilterDataCopy.memoryAddress(), pColFilterData.capacity());
-            BloomFilter copyBloomFilter = BloomFilter.prepareFrom(pColFilterDataCopy);
+            BloomFilter copyBloomFilter = BloomFilter.prepareFrom(pColFilterDataCopy, blocked);
             rollbackCloseable.commit();
             return copyBloomFilter;
         } catch (Exception e) {
@@ -89,10 +89,8 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 import com.google.common.cache.Weigher;
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimaps;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.Empty;
@@ -226,14 +224,14 @@ public class ForemenWorkManager implements Service, SafeExit {
         new RemovalListener<Long, CachedPlan>() {
           @Override
           public void onRemoval(RemovalNotification<Long, CachedPlan> notification) {
-            PlanCache.clearDatasetMapOnCacheGC(notification.getKey());
+            planCache.onCachedPlanRemoval(notification);
           }
         }
       )
       .expireAfterAccess(dbContext.get().getDremioConfig().getLong(DremioConfig.PLAN_CACHE_TIMEOUT_MINUTES), TimeUnit.MINUTES)
       .build();
 
-    planCache = new PlanCache(cachedPlans, Multimaps.synchronizedListMultimap(ArrayListMultimap.create()));
+    planCache = new PlanCache(cachedPlans);
 
   }
 
@@ -281,6 +281,7 @@ public class FragmentExecutor {
         // we don't know how long it will take to process one work unit, we rely on the scheduler to execute
         // this fragment again if it didn't run long enough
         work.run();
+        flushTunnels();
         return;
       }
 
@@ -292,6 +293,7 @@ public class FragmentExecutor {
 
       // pump the pipeline
       taskState = pumper.run();
+      flushTunnelsAfterPump(taskState);
 
       // if we've finished all work, let's wrap up.
       if(taskState == State.DONE){
@@ -451,9 +453,36 @@ public class FragmentExecutor {
     return taskState;
   }
 
+  /**
+   * Sends the record batches held back by the exec tunnels.
+   */
+  private void flushTunnels() {
+    if (tunnelProvider != null) {
+      tunnelProvider.flush();
+    }
+  }
+
+  /**
+   * While the fragment stays runnable, record batches keep being coalesced across pumps and are only sent once held
+   * back for too long. They are all sent as soon as the fragment blocks or is done, as the receivers may be waiting
+   * for them.
+   */
+  private void flushTunnelsAfterPump(State pumpState) {
+    if (tunnelProvider == null) {
+      return;
+    }
+    if (pumpState == State.RUNNABLE) {
+      tunnelProvider.flushExpired();
+    } else {
+      tunnelProvider.flush();
+    }
+  }
+
   private void retire() {
     Preconditions.checkArgument(!retired, "Fragment executor already retired.");
 
+    flushTunnels();
+
     if(!flushable.flushMessages()) {
       // rerun retire if we have messages still pending send completion.
       logger.debug("fragment retire blocked on downstream");
@@ -288,7 +288,9 @@ public class FragmentExecutorBuilder {
             .getJobResultsClient(major.getForeman(), allocator, QueryIdHelper.getFragmentId(fragment.getHandle()), QueryIdHelper.getQueryIdentifier(fragment.getHandle())).getTunnel();
         final DeferredException exception = new DeferredException();
         final StatusHandler handler = new StatusHandler(exception);
-        final TunnelProvider tunnelProvider = new TunnelProviderImpl(flushable.getAccountor(), jobResultsTunnel, dataCreator, handler, sharedResources.getGroup(PIPELINE_RES_GRP));
+        final TunnelProvider tunnelProvider = new TunnelProviderImpl(flushable.getAccountor(), jobResultsTunnel, dataCreator, handler,
+            sharedResources.getGroup(PIPELINE_RES_GRP), fragmentOptions.getOption(ExecConstants.DATA_BATCH_COALESCE_BYTES),
+            fragmentOptions.getOption(ExecConstants.DATA_BATCH_COALESCE_MAX_DELAY_MS));
 
         final OperatorContextCreator creator = new OperatorContextCreator(
             stats,
@@ -30,6 +30,8 @@ import com.dremio.sabot.threads.sharedres.SharedResource;
 import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
 import com.dremio.sabot.threads.sharedres.SharedResourceType;
 import com.dremio.services.jobresults.common.JobResultsTunnel;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.collect.Maps;
 
 /**
@@ -44,16 +46,37 @@ class TunnelProviderImpl implements TunnelProvider {
   private final ExecConnectionCreator connectionCreator;
   private final SharedResourceGroup resourceGroup;
   private final RpcOutcomeListener<Ack> statusHandler;
+  private final long coalesceThresholdBytes;
+  private final long coalesceMaxDelayMillis;
+  private final Ticker ticker;
 
   public TunnelProviderImpl(
       SendingAccountor accountor,
       JobResultsTunnel tunnel,
       ExecConnectionCreator connectionCreator,
       RpcOutcomeListener<Ack> statusHandler,
-      SharedResourceGroup resourceGroup) {
-    super();
+      SharedResourceGroup resourceGroup,
+      long coalesceThresholdBytes,
+      long coalesceMaxDelayMillis) {
+    this(accountor, tunnel, connectionCreator, statusHandler, resourceGroup, coalesceThresholdBytes,
+      coalesceMaxDelayMillis, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  TunnelProviderImpl(
+      SendingAccountor accountor,
+      JobResultsTunnel tunnel,
+      ExecConnectionCreator connectionCreator,
+      RpcOutcomeListener<Ack> statusHandler,
+      SharedResourceGroup resourceGroup,
+      long coalesceThresholdBytes,
+      long coalesceMaxDelayMillis,
+      Ticker ticker) {
     this.accountor = accountor;
     this.statusHandler = statusHandler;
+    this.coalesceThresholdBytes = coalesceThresholdBytes;
+    this.coalesceMaxDelayMillis = coalesceMaxDelayMillis;
+    this.ticker = ticker;
     final SharedResource resource = resourceGroup.createResource("user", SharedResourceType.SEND_MSG_COORDINATOR);
     final SendingMonitor monitor = new SendingMonitor(resource, accountor);
     this.coordTunnel = new AccountingExecToCoordTunnel(tunnel, monitor, monitor.wrap(statusHandler));
@@ -72,9 +95,24 @@ class TunnelProviderImpl implements TunnelProvider {
     if (tunnel == null) {
       final SharedResource resource = resourceGroup.createResource("send-data-" + endpoint.getAddress(), SharedResourceType.SEND_MSG_DATA);
       SendingMonitor monitor = new SendingMonitor(resource, accountor);
-      tunnel = new AccountingExecTunnel(connectionCreator.getTunnel(endpoint), monitor, monitor.wrap(statusHandler));
+      tunnel = new AccountingExecTunnel(connectionCreator.getTunnel(endpoint), monitor, monitor.wrap(statusHandler),
+        coalesceThresholdBytes, coalesceMaxDelayMillis, ticker);
       tunnels.put(endpoint, tunnel);
     }
     return tunnel;
   }
+
+  @Override
+  public void flush() {
+    for (AccountingExecTunnel tunnel : tunnels.values()) {
+      tunnel.flush();
+    }
+  }
+
+  @Override
+  public void flushExpired() {
+    for (AccountingExecTunnel tunnel : tunnels.values()) {
+      tunnel.flushExpired();
+    }
+  }
 }
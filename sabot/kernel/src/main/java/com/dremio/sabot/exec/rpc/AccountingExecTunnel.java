@@ -15,6 +15,10 @@
  */
 package com.dremio.sabot.exec.rpc;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import com.dremio.exec.proto.ExecRPC.FinishedReceiver;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
 import com.dremio.exec.proto.GeneralRPCProtos.Ack;
@@ -22,40 +26,114 @@ import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.threads.SendingMonitor;
+import com.google.common.base.Ticker;
 
 /**
  * Wrapper around a {@link com.dremio.sabot.exec.rpc.ExecTunnel} that tracks the status of batches sent to
  * to other SabotNodes.
+ *
+ * When a coalescing threshold is set, record batches are held back and sent together in a single message once
+ * they reach the threshold, once the oldest of them has been held back for the maximum delay, or when
+ * {@link #flush()} is called. Held batches are always sent before any other message so that the receivers see
+ * messages in the order they were sent. Only used from the fragment thread.
  */
 public class AccountingExecTunnel {
+  static final int MAX_COALESCED_BATCHES = 64;
+
   private final ExecTunnel tunnel;
   private final SendingMonitor monitor;
   private final RpcOutcomeListener<Ack> statusHandler;
+  private final long coalesceThresholdBytes;
+  private final long maxDelayNanos;
+  private final Ticker ticker;
+
+  private final List<FragmentWritableBatch> pending = new ArrayList<>();
+  private long pendingBytes;
+  private long pendingSinceNanos;
 
   public AccountingExecTunnel(ExecTunnel tunnel, SendingMonitor monitor, RpcOutcomeListener<Ack> statusHandler) {
+    this(tunnel, monitor, statusHandler, 0, 0, Ticker.systemTicker());
+  }
+
+  /**
+   * @param coalesceThresholdBytes size at which held back record batches are sent, 0 to send each batch on its own
+   * @param maxDelayMillis longest time a record batch is held back, checked on each send and by {@link #flushExpired()}
+   * @param ticker time source for the delay
+   */
+  public AccountingExecTunnel(ExecTunnel tunnel, SendingMonitor monitor, RpcOutcomeListener<Ack> statusHandler,
+      long coalesceThresholdBytes, long maxDelayMillis, Ticker ticker) {
     this.tunnel = tunnel;
     this.monitor = monitor;
     this.statusHandler = statusHandler;
+    this.coalesceThresholdBytes = coalesceThresholdBytes;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.ticker = ticker;
   }
 
   public void sendStreamComplete(FragmentStreamComplete streamComplete) {
+    flush();
     monitor.increment();
     tunnel.sendStreamComplete(statusHandler, streamComplete);
   }
 
   public void sendRecordBatch(FragmentWritableBatch batch) {
-    monitor.increment();
-    tunnel.sendRecordBatch(statusHandler, batch);
+    if (coalesceThresholdBytes <= 0) {
+      monitor.increment();
+      tunnel.sendRecordBatch(statusHandler, batch);
+      return;
+    }
+
+    if (pending.isEmpty()) {
+      pendingSinceNanos = ticker.read();
+    }
+    pending.add(batch);
+    pendingBytes += batch.getByteCount();
+    if (pendingBytes >= coalesceThresholdBytes || pending.size() >= MAX_COALESCED_BATCHES || isExpired()) {
+      flush();
+    }
   }
 
   public void informReceiverFinished(FinishedReceiver finishedReceiver) {
+    flush();
     monitor.increment();
     tunnel.informReceiverFinished(statusHandler, finishedReceiver);
   }
 
   public void sendOOBMessage(OutOfBandMessage message) {
+    flush();
     monitor.increment();
     tunnel.sendOOBMessage(statusHandler, message);
   }
 
+  /**
+   * Send the record batches held back so far if the oldest of them has been held back for the maximum delay.
+   */
+  public void flushExpired() {
+    if (isExpired()) {
+      flush();
+    }
+  }
+
+  private boolean isExpired() {
+    return !pending.isEmpty() && ticker.read() - pendingSinceNanos >= maxDelayNanos;
+  }
+
+  /**
+   * Send the record batches held back so far, if any.
+   */
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    monitor.increment();
+    if (pending.size() == 1) {
+      tunnel.sendRecordBatch(statusHandler, pending.get(0));
+    } else {
+      tunnel.sendRecordBatches(statusHandler, new ArrayList<>(pending));
+    }
+    pending.clear();
+    pendingBytes = 0;
+  }
+
 }
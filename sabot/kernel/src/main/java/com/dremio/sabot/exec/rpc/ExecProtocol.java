@@ -28,6 +28,7 @@ import com.dremio.exec.exception.FragmentSetupException;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FinishedReceiver;
 import com.dremio.exec.proto.ExecRPC.FragmentRecordBatch;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatches;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
 import com.dremio.exec.proto.ExecRPC.OOBMessage;
 import com.dremio.exec.proto.ExecRPC.RpcType;
@@ -77,6 +78,12 @@ public class ExecProtocol implements FabricProtocol {
       return;
     }
 
+    case RpcType.REQ_RECORD_BATCHES_VALUE: {
+      final FragmentRecordBatches fragmentBatches = RpcBus.get(pBody, FragmentRecordBatches.PARSER);
+      handleFragmentRecordBatches(fragmentBatches, body, sender);
+      return;
+    }
+
     case RpcType.REQ_STREAM_COMPLETE_VALUE: {
       final FragmentStreamComplete completion = RpcBus.get(pBody, FragmentStreamComplete.PARSER);
       handleFragmentStreamCompletion(completion);
@@ -154,6 +161,60 @@ public class ExecProtocol implements FabricProtocol {
     }
   }
 
+  /**
+   * Splits coalesced batches back into individual batches sharing the message body. The sender gets a single ack,
+   * once all the batches have been consumed. A message whose body doesn't match the batch lengths is failed without
+   * handing any batch to the receivers.
+   */
+  private void handleFragmentRecordBatches(FragmentRecordBatches fragmentBatches, ByteBuf body, ResponseSender sender)
+      throws RpcException {
+    final ArrowBuf dBodyBuf = (body == null) ? null : ((NettyArrowBuf) body).arrowBuf();
+    final long actualBodyLength = dBodyBuf == null ? 0 : dBodyBuf.readableBytes();
+    long bodyLength = 0;
+    for (long length : fragmentBatches.getBodyLengthList()) {
+      bodyLength += length;
+    }
+    if (fragmentBatches.getBatchCount() != fragmentBatches.getBodyLengthCount() || bodyLength != actualBodyLength) {
+      logger.error("Received {} batches with {} body lengths of {} bytes in a body of {} bytes",
+        fragmentBatches.getBatchCount(), fragmentBatches.getBodyLengthCount(), bodyLength, actualBodyLength);
+      sender.send(FAIL);
+      return;
+    }
+
+    final AckSender ack = new AckSender(sender);
+
+    // increment so we don't get false returns.
+    ack.increment();
+
+    long offset = 0;
+    FragmentRecordBatch fragmentBatch = null;
+    try {
+      for (int i = 0; i < fragmentBatches.getBatchCount(); i++) {
+        fragmentBatch = fragmentBatches.getBatch(i);
+        final long length = fragmentBatches.getBodyLength(i);
+        final ArrowBuf batchBody = length == 0 ? null : dBodyBuf.slice(offset, length);
+        offset += length;
+
+        final IncomingDataBatch batch = new IncomingDataBatch(fragmentBatch, batchBody, ack);
+        final int targetCount = fragmentBatch.getReceivingMinorFragmentIdCount();
+        final int firstOwner = ThreadLocalRandom.current().nextInt(targetCount);
+        submit(batch, firstOwner, targetCount);
+        submit(batch, 0, firstOwner);
+      }
+
+      // decrement the extra reference we grabbed at the top.
+      ack.sendOk();
+
+    } catch (IOException | FragmentSetupException e) {
+      logger.error("Failure while getting fragment manager. {}",
+          QueryIdHelper.getQueryIdentifiers(fragmentBatch.getQueryId(), fragmentBatch.getReceivingMajorFragmentId(),
+              fragmentBatch.getReceivingMinorFragmentIdList()),
+          e);
+      ack.clear();
+      sender.send(new Response(RpcType.ACK, Acks.FAIL));
+    }
+  }
+
   private static FragmentHandle getHandle(FragmentRecordBatch batch, int index) {
     return FragmentHandle.newBuilder()
         .setQueryId(batch.getQueryId())
@@ -201,6 +262,8 @@ public class ExecProtocol implements FabricProtocol {
       return Ack.getDefaultInstance();
     case RpcType.REQ_RECORD_BATCH_VALUE:
       return FragmentRecordBatch.getDefaultInstance();
+    case RpcType.REQ_RECORD_BATCHES_VALUE:
+      return FragmentRecordBatches.getDefaultInstance();
     case RpcType.REQ_STREAM_COMPLETE_VALUE:
       return FragmentStreamComplete.getDefaultInstance();
 
@@ -215,6 +278,7 @@ public class ExecProtocol implements FabricProtocol {
         .name("DATA")
         .timeout(config.getInt(RpcConstants.BIT_RPC_TIMEOUT))
         .add(RpcType.REQ_RECORD_BATCH, FragmentRecordBatch.class, RpcType.ACK, Ack.class)
+        .add(RpcType.REQ_RECORD_BATCHES, FragmentRecordBatches.class, RpcType.ACK, Ack.class)
         .add(RpcType.REQ_STREAM_COMPLETE, FragmentStreamComplete.class, RpcType.ACK, Ack.class)
         .add(RpcType.REQ_RECEIVER_FINISHED, FinishedReceiver.class, RpcType.ACK, Ack.class)
         .add(RpcType.REQ_OOB_MESSAGE, OOBMessage.class, RpcType.ACK, Ack.class)
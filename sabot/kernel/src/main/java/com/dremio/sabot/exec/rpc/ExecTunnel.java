@@ -15,10 +15,12 @@
  */
 package com.dremio.sabot.exec.rpc;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FinishedReceiver;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatches;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
 import com.dremio.exec.proto.ExecRPC.RpcType;
 import com.dremio.exec.proto.GeneralRPCProtos.Ack;
@@ -28,6 +30,9 @@ import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.services.fabric.ProxyConnection;
 import com.dremio.services.fabric.api.FabricCommandRunner;
+import com.dremio.telemetry.api.metrics.Histogram;
+import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
 import com.google.common.base.Preconditions;
 
 import io.netty.buffer.ByteBuf;
@@ -36,6 +41,9 @@ import io.netty.buffer.NettyArrowBuf;
 public class ExecTunnel {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ExecTunnel.class);
 
+  private static final Histogram BATCHES_PER_MESSAGE =
+    Metrics.newHistogram(Metrics.join("rpc", "data", "batches_per_message"), ResetType.PERIODIC_15M);
+
   private final FabricCommandRunner manager;
 
   public ExecTunnel(FabricCommandRunner runner) {
@@ -47,9 +55,19 @@ public class ExecTunnel {
   }
 
   public void sendRecordBatch(RpcOutcomeListener<Ack> outcomeListener, FragmentWritableBatch batch) {
+    BATCHES_PER_MESSAGE.update(1);
     manager.runCommand(new SendBatchAsyncListen(outcomeListener, batch));
   }
 
+  /**
+   * Send several batches in a single message, acknowledged once all of them have been consumed by the receiver.
+   */
+  public void sendRecordBatches(RpcOutcomeListener<Ack> outcomeListener, List<FragmentWritableBatch> batches) {
+    Preconditions.checkArgument(!batches.isEmpty(), "must send at least one batch");
+    BATCHES_PER_MESSAGE.update(batches.size());
+    manager.runCommand(new SendBatchesAsyncListen(outcomeListener, batches));
+  }
+
   public void sendOOBMessage(RpcOutcomeListener<Ack> outcomeListener, OutOfBandMessage message) {
     manager.runCommand(new SendOOBMessage(outcomeListener, message));
   }
@@ -112,6 +130,49 @@ public class ExecTunnel {
     }
   }
 
+  private class SendBatchesAsyncListen extends ListeningCommand<Ack, ProxyConnection> {
+    private final FragmentRecordBatches header;
+    private final ByteBuf[] buffers;
+
+    public SendBatchesAsyncListen(RpcOutcomeListener<Ack> listener, List<FragmentWritableBatch> batches) {
+      super(listener);
+      final FragmentRecordBatches.Builder builder = FragmentRecordBatches.newBuilder();
+      int bufferCount = 0;
+      for (FragmentWritableBatch batch : batches) {
+        builder.addBatch(batch.getHeader());
+        builder.addBodyLength(batch.getByteCount());
+        bufferCount += batch.getBuffers().length;
+      }
+      this.header = builder.build();
+
+      this.buffers = new ByteBuf[bufferCount];
+      int i = 0;
+      for (FragmentWritableBatch batch : batches) {
+        for (ByteBuf buffer : batch.getBuffers()) {
+          buffers[i++] = buffer;
+        }
+      }
+    }
+
+    @Override
+    public void doRpcCall(RpcOutcomeListener<Ack> outcomeListener, ProxyConnection connection) {
+      connection.send(outcomeListener, RpcType.REQ_RECORD_BATCHES, header, Ack.class, buffers);
+    }
+
+    @Override
+    public String toString() {
+      return "SendBatches [batches=" + header.getBatchCount() + "]";
+    }
+
+    @Override
+    public void connectionFailed(FailureType type, Throwable t) {
+      for(ByteBuf buffer : buffers) {
+        buffer.release();
+      }
+      super.connectionFailed(type, t);
+    }
+  }
+
   private class SendOOBMessage extends ListeningCommand<Ack, ProxyConnection> {
     private final OutOfBandMessage message;
 
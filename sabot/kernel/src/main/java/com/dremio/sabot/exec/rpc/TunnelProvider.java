@@ -20,4 +20,14 @@ import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 public interface TunnelProvider {
   AccountingExecToCoordTunnel getCoordTunnel();
   AccountingExecTunnel getExecTunnel(final NodeEndpoint endpoint);
+
+  /**
+   * Send the record batches held back by the exec tunnels.
+   */
+  void flush();
+
+  /**
+   * Send the record batches held back by the exec tunnels for longer than the coalescing delay.
+   */
+  void flushExpired();
 }
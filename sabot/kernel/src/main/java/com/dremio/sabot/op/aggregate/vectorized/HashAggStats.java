@@ -87,6 +87,17 @@ public class HashAggStats {
     OOB_DROP_NO_VICTIM, // Number of times OOB dropped spilling notification as all allocations were minimal.
     OOB_SPILL, // Spill was done due to oob.
     OOB_DROP_ALREADY_SPILLING, // Number of times operator dropped spilling notification as it was already spilling
+
+    // spill compression related metrics
+    SPILL_IO_BYTES_WRITTEN,         /* bytes written to spill files, after compression */
+    SPILL_IO_BYTES_READ,            /* bytes read from spill files, before decompression */
+    SPILL_COMPRESSION_RATIO_PERCENT, /* size of spilled data on disk as a percentage of its uncompressed size */
+    SPILL_COMPRESSION_NANOS,        /* time spent compressing spilled data */
+    SPILL_DECOMPRESSION_NANOS,      /* time spent decompressing spilled data */
+
+    // partitioned insert related metrics
+    PARTITIONED_INSERTS,            /* number of pivoted batches inserted one partition after the other */
+    DISTINCT_RATIO_PERCENT,         /* observed new keys as a percentage of inserted records */
     ;
 
     @Override
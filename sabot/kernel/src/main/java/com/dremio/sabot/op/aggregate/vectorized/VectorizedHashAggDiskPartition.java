@@ -16,11 +16,10 @@
 
 package com.dremio.sabot.op.aggregate.vectorized;
 
-import org.apache.hadoop.fs.FSDataOutputStream;
-
 import com.dremio.common.AutoCloseables;
 import com.dremio.sabot.op.sort.external.SpillManager;
 import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
 import com.google.common.base.Preconditions;
 
 /**
@@ -74,7 +73,7 @@ public class VectorizedHashAggDiskPartition implements AutoCloseable {
   private final SpillFile spillFile;
   private final String identifier;
   private VectorizedHashAggPartition inmemoryPartitionBackPointer;
-  private FSDataOutputStream outputStream;
+  private SpillOutputStream outputStream;
 
   public void addNewSpilledBatches(final long newBatches) {
     this.numberOfBatches += newBatches;
@@ -86,7 +85,7 @@ public class VectorizedHashAggDiskPartition implements AutoCloseable {
 
   VectorizedHashAggDiskPartition(final long numberOfBatches, final SpillManager.SpillFile partitionSpillFile,
                                  final VectorizedHashAggPartition inmemoryPartitionBackPointer,
-                                 final FSDataOutputStream outputStream) {
+                                 final SpillOutputStream outputStream) {
     Preconditions.checkArgument(partitionSpillFile != null && numberOfBatches > 0, "Error: must provide valid spill info for creating a disk partition.");
     Preconditions.checkArgument(outputStream != null, "Error: need a valid output stream for writing to spill file");
     this.numberOfBatches = numberOfBatches;
@@ -106,7 +105,7 @@ public class VectorizedHashAggDiskPartition implements AutoCloseable {
     inmemoryPartitionBackPointer = null;
   }
 
-  public FSDataOutputStream getSpillStream() {
+  public SpillOutputStream getSpillStream() {
     return outputStream;
   }
 
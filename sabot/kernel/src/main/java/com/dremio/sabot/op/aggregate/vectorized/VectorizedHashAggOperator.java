@@ -333,6 +333,16 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   public static final BooleanValidator OOB_SPILL_TRIGGER_ENABLED = new BooleanValidator("exec.operator.aggregate.vectorize.oob_trigger_enabled", true);
   public static final BooleanValidator VECTORIZED_HASHAGG_ENABLE_MICRO_SPILLS = new BooleanValidator("exec.operator.aggregate.vectorize.enable_micro_spills", true);
 
+  /* When most inserted keys are new and the hash tables hold at least the given number of entries, the hash tables
+   * no longer fit in cache and inserting records in arrival order jumps randomly across all partitions. Records are
+   * then grouped by partition before being inserted, so that only one partition's hash table is hot at a time.
+   * Set the ratio above 1 to always insert in arrival order.
+   */
+  public static final DoubleValidator VECTORIZED_HASHAGG_PARTITIONED_INSERT_DISTINCT_RATIO = new RangeDoubleValidator("exec.operator.aggregate.vectorize.partitioned_insert.distinct_ratio", 0.0d, 2.0d, .5d);
+  public static final PositiveLongValidator VECTORIZED_HASHAGG_PARTITIONED_INSERT_MIN_ENTRIES = new PositiveLongValidator("exec.operator.aggregate.vectorize.partitioned_insert.min_entries", Integer.MAX_VALUE, 256 * 1024);
+  /* observed counts are halved past this many records, so the insert mode follows changes in the input */
+  private static final long DISTINCT_RATIO_WINDOW = 1 << 20;
+
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedHashAggOperator.class);
 
   private final OperatorContext context;
@@ -427,6 +437,20 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private int bitsInChunk;
   private int chunkOffsetMask;
 
+  /* partitioned insert: see VECTORIZED_HASHAGG_PARTITIONED_INSERT_DISTINCT_RATIO */
+  private final double partitionedInsertDistinctRatio;
+  private final long partitionedInsertMinEntries;
+  /* true if the records being inserted are grouped by partition */
+  private boolean partitionedInsert;
+  /* index of the records being inserted, in insertion order, and their hash, by record index */
+  private int[] insertOrder = new int[0];
+  private long[] insertHashes = new long[0];
+  private int[] partitionOffsets;
+  /* records inserted and new keys they added to the hash tables, to estimate the ratio of distinct keys */
+  private long observedRecords;
+  private long observedNewKeys;
+  private long partitionedInserts;
+
   public static final String OUT_OF_MEMORY_MSG = "Vectorized Hash Agg ran out of memory";
 
   public static final String PREALLOC_FAILURE_PARTITIONS = "Error: Failed to preallocate minimum memory in vectorized hashagg for single batch in all partitions";
@@ -481,6 +505,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     this.resumableInsertState = null;
     this.operatorStateBeforeOOB = null;
     this.forceSpillState = null;
+    this.partitionedInsertDistinctRatio = options.getOption(VECTORIZED_HASHAGG_PARTITIONED_INSERT_DISTINCT_RATIO);
+    this.partitionedInsertMinEntries = options.getOption(VECTORIZED_HASHAGG_PARTITIONED_INSERT_MIN_ENTRIES);
+    this.partitionOffsets = new int[numPartitions + 1];
     logger.debug("partitions:{}, min-hashtable-size:{}, max-hashtable-batch-size:{} variable-width-key-size:{}",
       numPartitions, minHashTableSize, maxHashTableBatchSize, estimatedVariableWidthKeySize);
   }
@@ -1018,24 +1045,36 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     final int dataWidth = fixedOnly ? blockWidth : blockWidth - LBlockHashTable.VAR_OFFSET_SIZE;
     final boolean fixedOnly = this.fixedOnly;
 
-    long keyFixedAddr = keyFixedVectorAddr + (insertStartIndex * blockWidth);
     long keyVarAddr;
     int keyVarLen;
     long partitionsUsed = partitionsUsedMask;
 
     insertWatch.start();
+    if (insertStartIndex == 0) {
+      /* a resumed insertion keeps the order it started with */
+      partitionedInsert = usePartitionedInsert();
+      if (partitionedInsert) {
+        computeInsertOrder(recordsPivoted, keyFixedVectorAddr, keyVarVectorAddr, seed);
+        partitionedInserts++;
+      }
+    }
+    final boolean partitionedInsert = this.partitionedInsert;
+    final int tableSizeBefore = getHashTableSize();
+
     insertAllRecords:
     {
-      for (int keyIndex = insertStartIndex; keyIndex < recordsPivoted; keyIndex++, keyFixedAddr += blockWidth) {
+      for (int insertIndex = insertStartIndex; insertIndex < recordsPivoted; insertIndex++) {
+        final int keyIndex = partitionedInsert ? insertOrder[insertIndex] : insertIndex;
+        final long keyFixedAddr = keyFixedVectorAddr + ((long) keyIndex * blockWidth);
         final long keyHash;
         if (fixedOnly) {
-          keyHash = LBlockHashTable.fixedKeyHashCode(keyFixedAddr, dataWidth, seed);
+          keyHash = partitionedInsert ? insertHashes[keyIndex] : LBlockHashTable.fixedKeyHashCode(keyFixedAddr, dataWidth, seed);
           keyVarAddr = -1;
           keyVarLen = 0;
         } else {
           keyVarAddr = keyVarVectorAddr + PlatformDependent.getInt(keyFixedAddr + dataWidth);
           keyVarLen = PlatformDependent.getInt(keyVarAddr);
-          keyHash = LBlockHashTable.keyHashCode(keyFixedAddr, dataWidth, keyVarAddr, keyVarLen, seed);
+          keyHash = partitionedInsert ? insertHashes[keyIndex] : LBlockHashTable.keyHashCode(keyFixedAddr, dataWidth, keyVarAddr, keyVarLen, seed);
         }
 
         /* get the partition index from higher order bits in hash */
@@ -1097,17 +1136,76 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
                * the OOM has been handled completely -- all batches of the victim partition have
                * been spilled.
                */
-              buildResumableInsertState(records, recordsPivoted, recordsConsumed, keyIndex, partitionsUsed, processingSpilledData);
+              buildResumableInsertState(records, recordsPivoted, recordsConsumed, insertIndex, partitionsUsed, processingSpilledData);
               break insertAllRecords;
             }
           }
         }
       }
+      /* spilling empties partitions, such insertions don't tell how many keys were new */
+      final int newKeys = getHashTableSize() - tableSizeBefore;
+      if (insertStartIndex == 0 && newKeys >= 0) {
+        observeInsertion(recordsPivoted, newKeys);
+      }
     }
     insertWatch.stop();
     return partitionsUsed;
   }
 
+  private boolean usePartitionedInsert() {
+    return observedRecords > 0
+      && observedNewKeys >= partitionedInsertDistinctRatio * observedRecords
+      && getHashTableSize() >= partitionedInsertMinEntries;
+  }
+
+  private void observeInsertion(final int records, final int newKeys) {
+    observedRecords += records;
+    observedNewKeys += newKeys;
+    if (observedRecords > DISTINCT_RATIO_WINDOW) {
+      observedRecords >>= 1;
+      observedNewKeys >>= 1;
+    }
+  }
+
+  /**
+   * Computes the hash of the records to insert and orders them by partition, keeping the incoming order within a
+   * partition: insertOrder[i] is the index of the i-th record to insert, and insertHashes[keyIndex] is the hash of
+   * the record at keyIndex.
+   */
+  private void computeInsertOrder(final int recordsPivoted, final long keyFixedVectorAddr,
+                                  final long keyVarVectorAddr, final long seed) {
+    if (insertOrder.length < recordsPivoted) {
+      insertOrder = new int[recordsPivoted];
+      insertHashes = new long[recordsPivoted];
+    }
+    final int[] insertOrder = this.insertOrder;
+    final long[] insertHashes = this.insertHashes;
+    final int[] partitionOffsets = this.partitionOffsets;
+    final int blockWidth = pivot.getBlockWidth();
+    final int dataWidth = fixedOnly ? blockWidth : blockWidth - LBlockHashTable.VAR_OFFSET_SIZE;
+
+    /* count the records of each partition */
+    Arrays.fill(partitionOffsets, 0);
+    long keyFixedAddr = keyFixedVectorAddr;
+    for (int keyIndex = 0; keyIndex < recordsPivoted; keyIndex++, keyFixedAddr += blockWidth) {
+      final long keyHash;
+      if (fixedOnly) {
+        keyHash = LBlockHashTable.fixedKeyHashCode(keyFixedAddr, dataWidth, seed);
+      } else {
+        final long keyVarAddr = keyVarVectorAddr + PlatformDependent.getInt(keyFixedAddr + dataWidth);
+        keyHash = LBlockHashTable.keyHashCode(keyFixedAddr, dataWidth, keyVarAddr, PlatformDependent.getInt(keyVarAddr), seed);
+      }
+      insertHashes[keyIndex] = keyHash;
+      partitionOffsets[(((int) (keyHash >> 32)) & hashPartitionMask) + 1]++;
+    }
+    for (int i = 0; i < numPartitions; i++) {
+      partitionOffsets[i + 1] += partitionOffsets[i];
+    }
+    for (int keyIndex = 0; keyIndex < recordsPivoted; keyIndex++) {
+      insertOrder[partitionOffsets[((int) (insertHashes[keyIndex] >> 32)) & hashPartitionMask]++] = keyIndex;
+    }
+  }
+
   /**
    * When operator detects (proactively) it will run out of memory or it has
    * already run of memory, we use this function to handle OOM by spilling a
@@ -1929,6 +2027,13 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     stats.setLongStat(Metric.RECURSION_DEPTH, computeRecursionDepth());
     stats.setLongStat(Metric.TOTAL_SPILLED_DATA_SIZE, partitionSpillHandler.getTotalSpilledDataSize());
     stats.setLongStat(Metric.MAX_SPILLED_DATA_SIZE, partitionSpillHandler.getMaxSpilledDataSize());
+    stats.setLongStat(Metric.SPILL_IO_BYTES_WRITTEN, partitionSpillHandler.getSpillIOBytesWritten());
+    stats.setLongStat(Metric.SPILL_IO_BYTES_READ, partitionSpillHandler.getSpillIOBytesRead());
+    stats.setLongStat(Metric.SPILL_COMPRESSION_RATIO_PERCENT, partitionSpillHandler.getSpillCompressionRatioPercent());
+    stats.setLongStat(Metric.SPILL_COMPRESSION_NANOS, partitionSpillHandler.getSpillCompressionNanos());
+    stats.setLongStat(Metric.SPILL_DECOMPRESSION_NANOS, partitionSpillHandler.getSpillDecompressionNanos());
+    stats.setLongStat(Metric.PARTITIONED_INSERTS, partitionedInserts);
+    stats.setLongStat(Metric.DISTINCT_RATIO_PERCENT, observedRecords == 0 ? 0 : observedNewKeys * 100 / observedRecords);
 
     stats.setLongStat(Metric.OOB_SENDS, oobSends);
     stats.setLongStat(Metric.OOB_RECEIVES, oobReceives);
@@ -37,6 +37,7 @@ import com.dremio.sabot.op.common.ht2.LBlockHashTable;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import com.google.common.io.ByteStreams;
 
 import io.netty.util.internal.PlatformDependent;
 
@@ -153,7 +154,8 @@ public class VectorizedHashAggPartitionSerializable extends AbstractStreamSerial
 
     /* STEP 3: read info on types of accumulators -- sum, min, max etc */
     final byte[] accumulatorTypes = partitionToLoadSpilledData.getAccumulatorTypes();
-    Preconditions.checkArgument(input.read(accumulatorTypes, 0, numAccumulators) == numAccumulators,
+    /* a compressed spill stream may return less than asked for at a block boundary */
+    Preconditions.checkArgument(ByteStreams.read(input, accumulatorTypes, 0, numAccumulators) == numAccumulators,
       "ERROR: read incorrect length of accumulator types");
 
     /* STEP 4: read metadata for accumulator vectors */
@@ -23,9 +23,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FSDataOutputStream;
-
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.exceptions.UserException;
@@ -36,6 +33,8 @@ import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.sort.external.SpillManager;
 import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillInputStream;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
 import com.dremio.service.spill.SpillService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -413,7 +412,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
     final boolean isPartitionSpilled = victimPartition.isSpilled();
     final SpillFileHandle spillFileHandle = getSpillFileHandle(victimPartition);
     final SpillFile partitionSpillFile = spillFileHandle.partitionSpillFile;
-    final FSDataOutputStream partitionSpillFileStream = spillFileHandle.partitionSpillFileStream;
+    final SpillOutputStream partitionSpillFileStream = spillFileHandle.partitionSpillFileStream;
 
     final VectorizedHashAggPartitionSerializable partitionSerializable = new VectorizedHashAggPartitionSerializable(victimPartition,
       this.operatorStats, this.warnMaxSpillTime);
@@ -456,7 +455,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
    */
   private void updatePartitionSpillState(final VectorizedHashAggPartition victimPartition,
                                          final SpillFile partitionSpillFile,
-                                         final FSDataOutputStream partitionSpillFileStream,
+                                         final SpillOutputStream partitionSpillFileStream,
                                          final long batchesSpilled) {
     final boolean isPartitionSpilled = victimPartition.isSpilled();
     VectorizedHashAggDiskPartition partitionSpillInfo = victimPartition.getSpillInfo();
@@ -483,8 +482,8 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
    */
   private static class SpillFileHandle {
     private final SpillFile partitionSpillFile;
-    private final FSDataOutputStream partitionSpillFileStream;
-    SpillFileHandle(final SpillFile partitionSpillFile, final FSDataOutputStream partitionSpillFileStream) {
+    private final SpillOutputStream partitionSpillFileStream;
+    SpillFileHandle(final SpillFile partitionSpillFile, final SpillOutputStream partitionSpillFileStream) {
       this.partitionSpillFile = partitionSpillFile;
       this.partitionSpillFileStream = partitionSpillFileStream;
     }
@@ -499,7 +498,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
     final boolean isPartitionSpilled = victimPartition.isSpilled();
     VectorizedHashAggDiskPartition partitionSpillInfo = victimPartition.getSpillInfo();
     SpillFile partitionSpillFile;
-    FSDataOutputStream partitionSpillFileStream;
+    SpillOutputStream partitionSpillFileStream;
 
     Preconditions.checkState((isPartitionSpilled && partitionSpillInfo != null) ||
                                (!isPartitionSpilled && partitionSpillInfo == null), "Error: Detected invalid spill state of hash agg partition");
@@ -508,7 +507,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
       /* get a brand new spill file as the partition is being spilled for the first time */
       partitionSpillFile = spillManager.getSpillFile(victimPartition.getIdentifier());
       try {
-        partitionSpillFileStream = partitionSpillFile.create();
+        partitionSpillFileStream = partitionSpillFile.create(true);
       } catch (Exception e) {
         final UserException.Builder builder = UserException.resourceError(e)
           .addContext("Failed to create output stream for spill file")
@@ -536,7 +535,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
   boolean spillSingleBatchFromPartition(final VectorizedHashAggPartition victimPartition) throws Exception {
     final SpillFileHandle spillFileHandle = getSpillFileHandle(victimPartition);
     final SpillFile partitionSpillFile = spillFileHandle.partitionSpillFile;
-    final FSDataOutputStream partitionSpillFileStream = spillFileHandle.partitionSpillFileStream;
+    final SpillOutputStream partitionSpillFileStream = spillFileHandle.partitionSpillFileStream;
 
     if (inProgressSpill == null) {
       inProgressSpill = new VectorizedHashAggPartitionSerializable(victimPartition, this.operatorStats,
@@ -664,6 +663,30 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
     return totalSpilledDataSize;
   }
 
+  /**
+   * Spill file bytes written and read back, compression and decompression time. Only account for the
+   * spill streams that have been closed already.
+   */
+  long getSpillIOBytesWritten() {
+    return spillManager.getIOWriteBytes();
+  }
+
+  long getSpillIOBytesRead() {
+    return spillManager.getIOReadBytes();
+  }
+
+  long getSpillCompressionRatioPercent() {
+    return spillManager.getCompressionRatioPercent();
+  }
+
+  long getSpillCompressionNanos() {
+    return spillManager.getCompressionNanos();
+  }
+
+  long getSpillDecompressionNanos() {
+    return spillManager.getDecompressionNanos();
+  }
+
   /**
    * Get the number of spilled partitions in the current iteration
    * of aggregation algorithm -- active and spilled
@@ -814,7 +837,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
       final SpillFile partitionSpillFile = partitionToSpill.getSpillFile();
       final VectorizedHashAggPartitionSerializable partitionSerializable = new VectorizedHashAggPartitionSerializable(inmemoryPartition,
         this.operatorStats, this.warnMaxSpillTime);
-      FSDataOutputStream outputStream = partitionToSpill.getSpillStream();
+      SpillOutputStream outputStream = partitionToSpill.getSpillStream();
       /* write the partition to disk */
       partitionSerializable.writeToStream(outputStream);
       /* track number of spills */
@@ -846,7 +869,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
    */
   public class SpilledPartitionIterator implements AutoCloseable {
     private final long batchCount;
-    private final FSDataInputStream inputStream;
+    private final SpillInputStream inputStream;
     private final VectorizedHashAggDiskPartition diskPartition;
     private int currentBatchIndex;
     private final OperatorStats operatorStats;
@@ -857,7 +880,7 @@ public class VectorizedHashAggPartitionSpillHandler implements AutoCloseable {
         "Error: Partition does not have any batches spilled to disk. Not allowed to create a disk iterator");
       this.batchCount = spilledPartition.getNumberOfBatches();
       final SpillFile partitionSpillFile = spilledPartition.getSpillFile();
-      this.inputStream = partitionSpillFile.open();
+      this.inputStream = partitionSpillFile.open(true);
       this.diskPartition = spilledPartition;
       this.currentBatchIndex = 0;
       this.operatorStats = stats;
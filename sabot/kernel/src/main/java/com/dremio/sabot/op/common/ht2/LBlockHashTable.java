@@ -1323,11 +1323,11 @@ public final class LBlockHashTable implements AutoCloseable {
     }
 
     // Not dropping the filter even if expected size is more than max possible size since there could be repeated keys.
-    long bloomFilterSize = sizeDynamically ? Math.min(BloomFilter.getOptimalSize(size()),
+    long bloomFilterSize = sizeDynamically ? Math.min(BloomFilter.getOptimalSize(size(), true),
             BLOOMFILTER_MAX_SIZE) : BLOOMFILTER_MAX_SIZE;
 
 
-    final BloomFilter bloomFilter = new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize);
+    final BloomFilter bloomFilter = new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize, true);
     try (RollbackCloseable closeOnError = new RollbackCloseable();
          LBlockHashTableKeyReader keyReader = getKeyReaderBuilder(fieldNames)
                  .setMaxKeySize(maxKeySize)
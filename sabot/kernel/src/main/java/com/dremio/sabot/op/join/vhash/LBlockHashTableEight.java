@@ -430,11 +430,11 @@ public final class LBlockHashTableEight implements AutoCloseable {
   }
 
   public Optional<BloomFilter> prepareBloomFilter(final boolean sizeDynamically) throws Exception {
-    final long bloomFilterSize = sizeDynamically ? Math.min(BloomFilter.getOptimalSize(size()),
+    final long bloomFilterSize = sizeDynamically ? Math.min(BloomFilter.getOptimalSize(size(), true),
             BLOOMFILTER_MAX_SIZE) : BLOOMFILTER_MAX_SIZE;
     try (ArrowBuf keyHolder = allocator.buffer(9);
          RollbackCloseable closeOnErr = new RollbackCloseable()) {
-      final BloomFilter bloomFilter = new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize); // fixed to 2MB
+      final BloomFilter bloomFilter = new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize, true); // fixed to 2MB
       closeOnErr.add(bloomFilter);
       bloomFilter.setup();
 
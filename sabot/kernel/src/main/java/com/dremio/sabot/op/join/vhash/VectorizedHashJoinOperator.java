@@ -798,7 +798,8 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
               .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
               .addAllColumns(probeTarget.getPartitionProbeTableKeys())
               .setValueCount(bloomFilter.get().getNumBitsSet())
-              .setSizeBytes(bloomFilter.get().getSizeInBytes()).build();
+              .setSizeBytes(bloomFilter.get().getSizeInBytes())
+              .setBlocked(bloomFilter.get().isBlocked()).build();
       runtimeFilterBuilder.setPartitionColumnFilter(partitionFilter);
     } else {
       // No valid bloom filter for partition pruning
@@ -909,7 +910,8 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
       if (partitionColFilterProto != null && !partitionColFilterProto.getColumnsList().isEmpty()) {
         checkArgument(msgBuf.capacity() >= partitionColFilterProto.getSizeBytes(), "Invalid filter size. " +
                 "Buffer capacity is %s, expected filter size %s", msgBuf.capacity(), partitionColFilterProto.getSizeBytes());
-        bloomFilterPiece = BloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()));
+        bloomFilterPiece = BloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()),
+                partitionColFilterProto.getBlocked());
         checkState(bloomFilterPiece.getNumBitsSet() == partitionColFilterProto.getValueCount(),
                 "Bloomfilter value count mismatched. Expected %s, Actual %s", partitionColFilterProto.getValueCount(), bloomFilterPiece.getNumBitsSet());
         nextSliceStart += partitionColFilterProto.getSizeBytes();
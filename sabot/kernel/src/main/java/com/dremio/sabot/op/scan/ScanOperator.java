@@ -169,7 +169,10 @@ public class ScanOperator implements ProducerOperator {
     NUM_METADATA_IO_READ,
     HIVE_FILE_FORMATS,// File Formats in hive sub scan represented as bitmap. Indices correspond to HiveFilFormat enum
     NUM_ZERO_SIZED_COLUMN, // Number of zero sized column
-    NUM_EXTRA_FOOTER_READS // Number of times footer is read for a split.
+    NUM_EXTRA_FOOTER_READS, // Number of times footer is read for a split.
+    FOOTER_CACHE_HITS, // Number of parquet footers served from the executor wide footer cache
+    FOOTER_CACHE_MISSES, // Number of parquet footers read from the file and added to the footer cache
+    FOOTER_CACHE_EVICTIONS // Number of footer cache entries evicted while adding footers
     ;
 
     @Override
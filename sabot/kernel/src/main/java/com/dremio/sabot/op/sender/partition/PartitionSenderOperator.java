@@ -92,7 +92,9 @@ public class PartitionSenderOperator extends BaseSender {
     PRECOPY_NS,
     FLUSH_NS,
     NUM_FLUSHES,
-    BUCKET_SIZE;
+    BUCKET_SIZE,
+    PARTITIONED_COPY,   // 1 if rows are grouped by receiver before being copied
+    NUM_BYTE_FLUSHES;   // number of batches flushed because they reached the target batch bytes
 
     @Override
     public int metricId() {
@@ -95,6 +95,16 @@ public abstract class MultiDestCopier {
    */
   public abstract void copy(long compoundAddr, int srcStart, int count);
 
+  /**
+   * copy a given number of rows from the incoming buffer to the destinations defined in the offset buffer, reading
+   * the source rows in the order given by the source index buffer instead of sequentially
+   *
+   * @param compoundAddr  compound(batchIdx, rowIdx) buffer
+   * @param srcIndexAddr  row number, in source, of each copied row
+   * @param count         num rows to copy
+   */
+  public abstract void copyIndexed(long compoundAddr, long srcIndexAddr, int count);
+
   public void updateTargets(int index, FieldVector target) {
     switch (srcBufferIdx) {
       case 0:
@@ -153,6 +163,26 @@ public abstract class MultiDestCopier {
 
       copyWatch.stop();
     }
+
+    @Override
+    public void copyIndexed(long compoundAddr, long srcIndexAddr, final int count) {
+      copyWatch.start();
+
+      final long[] dstAddrs = this.dstAddrs;
+      final long srcAddr = source.getDataBufferAddress();
+
+      final long max = compoundAddr + count * OFFSET_SIZE;
+      for (; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcIndexAddr += OFFSET_SIZE) {
+        final int compoundIdx = PlatformDependent.getInt(compoundAddr);
+        final int batchIdx = compoundIdx >>> 16;
+        final int rowIdx = compoundIdx & 65535;
+        final int srcIdx = PlatformDependent.getInt(srcIndexAddr);
+
+        PlatformDependent.putInt(dstAddrs[batchIdx] + rowIdx * SIZE, PlatformDependent.getInt(srcAddr + srcIdx * SIZE));
+      }
+
+      copyWatch.stop();
+    }
   }
 
   static class EightByteCopier extends MultiDestCopier {
@@ -192,6 +222,26 @@ public abstract class MultiDestCopier {
 
       copyWatch.stop();
     }
+
+    @Override
+    public void copyIndexed(long compoundAddr, long srcIndexAddr, final int count) {
+      copyWatch.start();
+
+      final long[] dstAddrs = this.dstAddrs;
+      final long srcAddr = source.getDataBufferAddress();
+
+      final long max = compoundAddr + count * OFFSET_SIZE;
+      for (; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcIndexAddr += OFFSET_SIZE) {
+        final int compoundIdx = PlatformDependent.getInt(compoundAddr);
+        final int batchIdx = compoundIdx >>> 16;
+        final int rowIdx = compoundIdx & 65535;
+        final int srcIdx = PlatformDependent.getInt(srcIndexAddr);
+
+        PlatformDependent.putLong(dstAddrs[batchIdx] + rowIdx * SIZE, PlatformDependent.getLong(srcAddr + ((long) srcIdx) * SIZE));
+      }
+
+      copyWatch.stop();
+    }
   }
 
   static class SixteenByteCopier extends MultiDestCopier {
@@ -232,6 +282,28 @@ public abstract class MultiDestCopier {
 
       copyWatch.stop();
     }
+
+    @Override
+    public void copyIndexed(long compoundAddr, long srcIndexAddr, final int count) {
+      copyWatch.start();
+
+      final long[] dstAddrs = this.dstAddrs;
+      final long srcBaseAddr = source.getDataBufferAddress();
+
+      final long max = compoundAddr + count * OFFSET_SIZE;
+      for (; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcIndexAddr += OFFSET_SIZE) {
+        final int compoundIdx = PlatformDependent.getInt(compoundAddr);
+        final int batchIdx = compoundIdx >>> 16;
+        final int rowIdx = compoundIdx & 65535;
+        final long srcAddr = srcBaseAddr + ((long) PlatformDependent.getInt(srcIndexAddr)) * SIZE;
+
+        final long dstAddr = dstAddrs[batchIdx] + rowIdx * SIZE;
+        PlatformDependent.putLong(dstAddr, PlatformDependent.getLong(srcAddr));
+        PlatformDependent.putLong(dstAddr + 8, PlatformDependent.getLong(srcAddr + 8));
+      }
+
+      copyWatch.stop();
+    }
   }
 
   static class VariableCopier extends MultiDestCopier {
@@ -281,28 +353,7 @@ public abstract class MultiDestCopier {
         final int nextSrcOffset = PlatformDependent.getInt(srcOffsetAddr);
         final int len = nextSrcOffset - srcOffset;
 
-        // figure out where we need to copy
-        final int compoundIdx = PlatformDependent.getInt(compoundAddr);
-        final int batchIdx = compoundIdx >>> 16;
-        final int rowIdx = compoundIdx & 65535;
-
-        // compute the offset of the destination
-        final long dstOffsetAddr = dstOffsetAddrs[batchIdx] + rowIdx * 4;
-        final int dstOffset = PlatformDependent.getInt(dstOffsetAddr);
-        long dstDataAddr = dstAddrs[batchIdx] + dstOffset;
-
-        // ensure target buffer is big enough
-        final Reallocators.Reallocator realloc = reallocs[batchIdx];
-        if(dstDataAddr + len > realloc.max()){
-          final long newDataAddr = realloc.ensure(dstOffset + len);
-          dstDataAddr = newDataAddr + dstOffset;
-          dstAddrs[batchIdx] = newDataAddr;
-        }
-
-        // copy the value from src to dst
-        com.dremio.sabot.op.common.ht2.Copier.copy(srcDataAddr + srcOffset, dstDataAddr, len);
-        PlatformDependent.putInt(dstOffsetAddr + 4, dstOffset + len);
-        // update dst offset
+        copyValue(PlatformDependent.getInt(compoundAddr), srcDataAddr + srcOffset, len);
 
         // move to the next src value
         srcOffsetAddr += 4;
@@ -311,6 +362,49 @@ public abstract class MultiDestCopier {
 
       copyWatch.stop();
     }
+
+    @Override
+    public void copyIndexed(long compoundAddr, long srcIndexAddr, int count) {
+      copyWatch.start();
+
+      final long srcDataAddr = source.getDataBufferAddress();
+      final long srcOffsetAddr = source.getOffsetBufferAddress();
+
+      final long max = compoundAddr + count * OFFSET_SIZE;
+      for (; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcIndexAddr += OFFSET_SIZE) {
+        final long offsetAddr = srcOffsetAddr + ((long) PlatformDependent.getInt(srcIndexAddr)) * 4;
+        final int srcOffset = PlatformDependent.getInt(offsetAddr);
+        final int len = PlatformDependent.getInt(offsetAddr + 4) - srcOffset;
+
+        copyValue(PlatformDependent.getInt(compoundAddr), srcDataAddr + srcOffset, len);
+      }
+
+      copyWatch.stop();
+    }
+
+    private void copyValue(final int compoundIdx, final long srcAddr, final int len) {
+      // figure out where we need to copy
+      final int batchIdx = compoundIdx >>> 16;
+      final int rowIdx = compoundIdx & 65535;
+
+      // compute the offset of the destination
+      final long dstOffsetAddr = dstOffsetAddrs[batchIdx] + rowIdx * 4;
+      final int dstOffset = PlatformDependent.getInt(dstOffsetAddr);
+      long dstDataAddr = dstAddrs[batchIdx] + dstOffset;
+
+      // ensure target buffer is big enough
+      final Reallocators.Reallocator realloc = reallocs[batchIdx];
+      if(dstDataAddr + len > realloc.max()){
+        final long newDataAddr = realloc.ensure(dstOffset + len);
+        dstDataAddr = newDataAddr + dstOffset;
+        dstAddrs[batchIdx] = newDataAddr;
+      }
+
+      // copy the value from src to dst
+      com.dremio.sabot.op.common.ht2.Copier.copy(srcAddr, dstDataAddr, len);
+      // update dst offset
+      PlatformDependent.putInt(dstOffsetAddr + 4, dstOffset + len);
+    }
   }
 
   static class BitCopier extends MultiDestCopier {
@@ -327,6 +421,17 @@ public abstract class MultiDestCopier {
       this.copyWatch = copyWatch;
     }
 
+    private long getSourceAddress() {
+      switch (bufferOrdinal) {
+        case NULL_BUFFER_ORDINAL:
+          return source.getValidityBufferAddress();
+        case VALUE_BUFFER_ORDINAL:
+          return source.getDataBufferAddress();
+        default:
+          throw new UnsupportedOperationException("unexpected buffer offset");
+      }
+    }
+
     @Override
     public void copy(long compoundAddr, int srcStart, final int count) {
       copyWatch.start();
@@ -334,17 +439,7 @@ public abstract class MultiDestCopier {
       final long[] dstAddrs = this.dstAddrs;
 
       // skip bytes, but make sure to account for the remaining bits too
-      final long srcAddr;
-      switch (bufferOrdinal) {
-        case NULL_BUFFER_ORDINAL:
-          srcAddr = source.getValidityBufferAddress();
-          break;
-        case VALUE_BUFFER_ORDINAL:
-          srcAddr = source.getDataBufferAddress();
-          break;
-        default:
-          throw new UnsupportedOperationException("unexpected buffer offset");
-      }
+      final long srcAddr = getSourceAddress();
 
       final long max = compoundAddr + count * OFFSET_SIZE;
       for(; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcStart++){
@@ -361,6 +456,29 @@ public abstract class MultiDestCopier {
       copyWatch.stop();
     }
 
+    @Override
+    public void copyIndexed(long compoundAddr, long srcIndexAddr, final int count) {
+      copyWatch.start();
+
+      final long[] dstAddrs = this.dstAddrs;
+      final long srcAddr = getSourceAddress();
+
+      final long max = compoundAddr + count * OFFSET_SIZE;
+      for(; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcIndexAddr += OFFSET_SIZE){
+        final int compoundIdx = PlatformDependent.getInt(compoundAddr);
+        final int batchIdx = compoundIdx >>> 16;
+        final int rowIdx = compoundIdx & 65535;
+        final int srcIdx = PlatformDependent.getInt(srcIndexAddr);
+
+        final int byteValue = PlatformDependent.getByte(srcAddr + (srcIdx >>> 3));
+        final int bitVal = ((byteValue >>> (srcIdx & 7)) & 1) << (rowIdx & 7);
+        final long dstAddr = dstAddrs[batchIdx] + (rowIdx >>> 3);
+        PlatformDependent.putByte(dstAddr, (byte) (PlatformDependent.getByte(dstAddr) | bitVal));
+      }
+
+      copyWatch.stop();
+    }
+
   }
 
   static class GenericCopier extends MultiDestCopier {
@@ -395,6 +513,22 @@ public abstract class MultiDestCopier {
 
       copyWatch.stop();
     }
+
+    @Override
+    public void copyIndexed(long compoundAddr, long srcIndexAddr, int count) {
+      copyWatch.start();
+
+      final long max = compoundAddr + count * OFFSET_SIZE;
+      for(; compoundAddr < max; compoundAddr +=OFFSET_SIZE, srcIndexAddr += OFFSET_SIZE) {
+        final int compoundIdx = PlatformDependent.getInt(compoundAddr);
+        final int batchIdx = compoundIdx >>> 16;
+        final int rowIdx = compoundIdx & 65535;
+
+        transfers[batchIdx].copyValueSafe(PlatformDependent.getInt(srcIndexAddr), rowIdx);
+      }
+
+      copyWatch.stop();
+    }
   }
 
   private static boolean sameClass(FieldVector source, FieldVector[] targets) {
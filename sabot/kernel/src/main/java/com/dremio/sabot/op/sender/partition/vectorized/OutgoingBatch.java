@@ -18,6 +18,8 @@ package com.dremio.sabot.op.sender.partition.vectorized;
 import java.util.List;
 
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.VarBinaryVector;
@@ -37,6 +39,8 @@ import com.dremio.sabot.op.sender.partition.PartitionSenderOperator.Metric;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
+import io.netty.util.internal.PlatformDependent;
+
 /**
  * Manages one outgoing receiver:<br>
  * Copy is done in 2 consecutive batches (A and B) so that we can delay flushing
@@ -58,6 +62,8 @@ public class OutgoingBatch extends VectorContainer {
   private final int batchIdx;
   private final int nextBatchIdx;
   private final int maxRecords;
+  /** size, in bits, of the validity and fixed width values of a row. Ignores complex vectors */
+  private final int fixedBitsPerRow;
 
   /** tracks how many rows will be copied in current pass */
   private int preCopyIdx;
@@ -79,6 +85,7 @@ public class OutgoingBatch extends VectorContainer {
 
     this.stats = stats;
 
+    int fixedBits = 0;
     for (VectorWrapper<?> v : incoming) {
       ValueVector outgoingVector = TypeHelper.getNewVector(v.getField(), allocator);
       outgoingVector.setInitialCapacity(maxRecords);
@@ -86,10 +93,17 @@ public class OutgoingBatch extends VectorContainer {
 
       if (outgoingVector instanceof VarBinaryVector) {
         varbins.add(((VarBinaryVector) outgoingVector));
+        fixedBits += 33; // offset + validity
       } else if (outgoingVector instanceof VarCharVector) {
         varchars.add(((VarCharVector) outgoingVector));
+        fixedBits += 33;
+      } else if (outgoingVector instanceof BitVector) {
+        fixedBits += 2;
+      } else if (outgoingVector instanceof BaseFixedWidthVector) {
+        fixedBits += ((BaseFixedWidthVector) outgoingVector).getTypeWidth() * 8 + 1;
       }
     }
+    this.fixedBitsPerRow = fixedBits;
   }
 
   int getNextBatchIdx() {
@@ -112,6 +126,25 @@ public class OutgoingBatch extends VectorContainer {
     return preCopyIdx == maxRecords;
   }
 
+  /**
+   * @return approximate size, in bytes, of the rows copied so far. Only valid once all rows of the current pass
+   * have been copied, as it relies on the last offset of variable width vectors
+   */
+  long getCopiedBytes() {
+    if (preCopyIdx == 0) {
+      return 0;
+    }
+    long bytes = ((long) preCopyIdx * fixedBitsPerRow) >>> 3;
+    final long lastOffset = preCopyIdx * 4L;
+    for (VarBinaryVector vector : varbins) {
+      bytes += PlatformDependent.getInt(vector.getOffsetBufferAddress() + lastOffset);
+    }
+    for (VarCharVector vector : varchars) {
+      bytes += PlatformDependent.getInt(vector.getOffsetBufferAddress() + lastOffset);
+    }
+    return bytes;
+  }
+
   /**
    * Accounts for one row copy and returns (batchIdx, rowIdx) of the copy destination
    *
@@ -32,6 +32,7 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.util.Numbers;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.ExecProtos;
@@ -40,6 +41,7 @@ import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
@@ -56,7 +58,11 @@ import io.netty.util.internal.PlatformDependent;
 
 /**
  * Implementation of hash partition sender that relies on vectorized copy of the data.<br>
- * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.
+ * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.<br>
+ * With many receivers, each receiver only gets a few rows of a pass and copying row by row spreads the writes over
+ * all outgoing batches. In that case ({@link ExecConstants#PARTITIONER_PARTITIONED_COPY_MIN_RECEIVERS}) rows are
+ * first grouped by receiver, then copied one receiver after the other, and outgoing batches are sized in bytes
+ * rather than rows so that receivers of narrow rows don't get a flood of tiny batches.
  */
 public class VectorizedPartitionSenderOperator extends BaseSender {
   @VisibleForTesting
@@ -125,6 +131,24 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
    */
   private IntVector copyIndices;
 
+  /**
+   * true if rows are grouped by receiver before being copied, and outgoing batches are flushed once they reach
+   * targetBatchBytes
+   */
+  private boolean partitionedCopy;
+  private long targetBatchBytes;
+
+  /**
+   * partitioned copy only: source row of each row that will be copied in the current pass, grouped by receiver
+   */
+  private IntVector copySourceIndices;
+  /** partitioned copy only: receiverLookup[p] = receiver of partition p */
+  private int[] receiverLookup;
+  /** partitioned copy only: receiver of each row of the current pass */
+  private int[] rowReceivers;
+  /** partitioned copy only: receiverOffsets[r] = first slot of receiver r in copySourceIndices */
+  private int[] receiverOffsets;
+
   /**
    * true if all receivers finished.
    */
@@ -163,9 +187,18 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
 
     checkSchema(incoming.getSchema());
 
+    final OptionManager options = context.getOptions();
+    final long partitionedCopyMinReceivers = options.getOption(ExecConstants.PARTITIONER_PARTITIONED_COPY_MIN_RECEIVERS);
+    partitionedCopy = partitionedCopyMinReceivers > 0 && numReceivers >= partitionedCopyMinReceivers;
+
     // how many records we can keep in memory before we are forced to flush the outgoing batch
     numRecordsBeforeFlush = config.getProps().getTargetBatchSize();
+    if (partitionedCopy) {
+      targetBatchBytes = options.getOption(ExecConstants.PARTITIONER_PARTITIONED_COPY_BATCH_BYTES);
+      numRecordsBeforeFlush = getPartitionedCopyBatchSize(incoming.getSchema(), options);
+    }
     stats.setLongStat(Metric.BUCKET_SIZE, numRecordsBeforeFlush);
+    stats.setLongStat(Metric.PARTITIONED_COPY, partitionedCopy ? 1 : 0);
 
     //
     final BufferAllocator allocator = context.getAllocator();
@@ -187,11 +220,35 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     copyIndices = new IntVector("copy-compound-indices", allocator);
     copyIndices.allocateNew(numRecordsBeforeFlush);
 
+    if (partitionedCopy) {
+      copySourceIndices = new IntVector("copy-source-indices", allocator);
+      copySourceIndices.allocateNew(numRecordsBeforeFlush);
+      receiverLookup = new int[modSize];
+      for (int p = 0; p < modSize; p++) {
+        receiverLookup[p] = p % numReceivers;
+      }
+      rowReceivers = new int[numRecordsBeforeFlush];
+      receiverOffsets = new int[numReceivers + 1];
+    }
+
     initHashVector(incoming);
 
     state = State.CAN_CONSUME;
   }
 
+  /**
+   * rows per outgoing batch when sizing batches in bytes: enough estimated rows to reach the target batch bytes,
+   * but never less than the target batch size. Batches of wider rows get flushed as soon as they reach the target
+   * batch bytes anyway.
+   */
+  private int getPartitionedCopyBatchSize(BatchSchema schema, OptionManager options) {
+    final int listSizeEstimate = (int) options.getOption(ExecConstants.BATCH_LIST_SIZE_ESTIMATE);
+    final int varFieldSizeEstimate = (int) options.getOption(ExecConstants.BATCH_VARIABLE_FIELD_SIZE_ESTIMATE);
+    final int recordSize = Math.max(1, schema.estimateRecordSize(listSizeEstimate, varFieldSizeEstimate));
+    final long records = Math.max(config.getProps().getTargetBatchSize(), targetBatchBytes / recordSize);
+    return (int) Math.min(Character.MAX_VALUE, records);
+  }
+
   private void initHashVector(VectorAccessible incoming) {
     Preconditions.checkArgument(config.getExpr() instanceof SchemaPath,
       "hash expression expected to be a SchemaPath but was : " + config.getExpr().getClass().getName());
@@ -247,13 +304,24 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
       // copy at most numRecordsBeforeFlush, this way we'll need at most 2 batches per destination
       // to allow delaying the flushing until after all rows for this pass have been copied
       int numRowsToCopy = Math.min(records - start, numRecordsBeforeFlush);
-      generateCopyIndices(start, numRowsToCopy);
+      if (partitionedCopy) {
+        generatePartitionedCopyIndices(start, numRowsToCopy);
+      } else {
+        generateCopyIndices(start, numRowsToCopy);
+      }
       preCopyWatch.stop();
 
       // copy
       final long addr = copyIndices.getDataBufferAddress();
-      for (MultiDestCopier copier : copiers) {
-        copier.copy(addr, start, numRowsToCopy);
+      if (partitionedCopy) {
+        final long srcIndexAddr = copySourceIndices.getDataBufferAddress();
+        for (MultiDestCopier copier : copiers) {
+          copier.copyIndexed(addr, srcIndexAddr, numRowsToCopy);
+        }
+      } else {
+        for (MultiDestCopier copier : copiers) {
+          copier.copy(addr, start, numRowsToCopy);
+        }
       }
 
       // flush
@@ -264,6 +332,18 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
           batch.flush();
         }
       }
+      if (partitionedCopy) {
+        // full batches were flushed above so the batches that still hold rows are the current ones of their receiver,
+        // and the other batch of the pair is free to take over
+        for (int b = 0; b < numBatches; b++) {
+          final OutgoingBatch batch = batches[b];
+          if (batch.getCopiedBytes() >= targetBatchBytes) {
+            switchToNextBatch(batch);
+            batch.flush();
+            stats.addLongStat(Metric.NUM_BYTE_FLUSHES, 1);
+          }
+        }
+      }
       flushWatch.stop();
 
       start += numRowsToCopy;
@@ -344,7 +424,6 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
 
     final int mod = modSize - 1;
     final OutgoingBatch[] modLookup = this.modLookup;
-    final OutgoingBatch[] batches = this.batches;
 
     //populate using the destination (batchIdx, rowIdx) for each incoming row
     final long max = srcAddr + numRowsToCopy*4;
@@ -356,27 +435,82 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
 
       if (batch.isFull()) {
         // if current batch is full, we will copy to a different batch from now on
-        final int nextBatchIdx = batch.getNextBatchIdx();
-        final OutgoingBatch nextBatch = batches[nextBatchIdx];
-        nextBatch.allocateNew();
-        for (MultiDestCopier copier : copiers) {
-          copier.updateTargets(nextBatchIdx, nextBatch.getFieldVector(copier.getFieldId()));
-        }
-        // Paired batches must be located at very specific places within modLookup. In particular, the batch pair
-        // repeats every #receivers (see the comment above the modLookup definition).
-        assert (batch.getBatchIdx() % numReceivers) == (nextBatchIdx % numReceivers) :
-          String.format("Batch pairs must be aligned to #receivers. Instead: curr batch: %d, next batch: %d, #receivers: %d",
-            batch.getBatchIdx(), nextBatchIdx, numReceivers);
-        for (int b = (nextBatchIdx % numReceivers); b < modSize; b += numReceivers) {
-          modLookup[b] = nextBatch;
+        switchToNextBatch(batch);
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #generateCopyIndices(int, int)} but rows are grouped by receiver, keeping their order within a
+   * receiver: copySourceIndices holds the source row of each copied row. The copiers then write each outgoing batch
+   * sequentially, one receiver after the other, instead of jumping to a different batch for every row.
+   */
+  private void generatePartitionedCopyIndices(final int start, final int numRowsToCopy) {
+    final int mod = modSize - 1;
+    final int[] receiverLookup = this.receiverLookup;
+    final int[] rowReceivers = this.rowReceivers;
+    final int[] receiverOffsets = this.receiverOffsets;
+
+    // count the rows of each receiver
+    Arrays.fill(receiverOffsets, 0);
+    long srcAddr = partitionIndices.getDataBufferAddress() + start * 4L;
+    for (int i = 0; i < numRowsToCopy; i++, srcAddr += 4) {
+      final int receiver = receiverLookup[(PlatformDependent.getInt(srcAddr) & 0x7FFFFFFF) & mod];
+      rowReceivers[i] = receiver;
+      receiverOffsets[receiver + 1]++;
+    }
+    // turn the counts into the first slot of each receiver
+    for (int r = 0; r < numReceivers; r++) {
+      receiverOffsets[r + 1] += receiverOffsets[r];
+    }
+
+    // put each row in the next slot of its receiver. Once done, receiverOffsets[r] is the end of receiver r
+    final long srcIndexAddr = copySourceIndices.getDataBufferAddress();
+    for (int i = 0; i < numRowsToCopy; i++) {
+      PlatformDependent.putInt(srcIndexAddr + receiverOffsets[rowReceivers[i]]++ * 4L, start + i);
+    }
+
+    // populate the destination (batchIdx, rowIdx) of each slot
+    final long dstAddr = copyIndices.getDataBufferAddress();
+    final OutgoingBatch[] modLookup = this.modLookup;
+    int slot = 0;
+    for (int r = 0; r < numReceivers; r++) {
+      OutgoingBatch batch = modLookup[r];
+      for (final int end = receiverOffsets[r]; slot < end; slot++) {
+        PlatformDependent.putInt(dstAddr + slot * 4L, batch.preCopyRow());
+        if (batch.isFull()) {
+          batch = switchToNextBatch(batch);
         }
       }
     }
   }
 
+  /**
+   * allocates the other batch of the pair and makes it the one receiving the next rows of the receiver
+   *
+   * @return the batch now receiving the rows
+   */
+  private OutgoingBatch switchToNextBatch(OutgoingBatch batch) {
+    final int nextBatchIdx = batch.getNextBatchIdx();
+    final OutgoingBatch nextBatch = batches[nextBatchIdx];
+    nextBatch.allocateNew();
+    for (MultiDestCopier copier : copiers) {
+      copier.updateTargets(nextBatchIdx, nextBatch.getFieldVector(copier.getFieldId()));
+    }
+    // Paired batches must be located at very specific places within modLookup. In particular, the batch pair
+    // repeats every #receivers (see the comment above the modLookup definition).
+    assert (batch.getBatchIdx() % numReceivers) == (nextBatchIdx % numReceivers) :
+      String.format("Batch pairs must be aligned to #receivers. Instead: curr batch: %d, next batch: %d, #receivers: %d",
+        batch.getBatchIdx(), nextBatchIdx, numReceivers);
+    for (int b = (nextBatchIdx % numReceivers); b < modSize; b += numReceivers) {
+      modLookup[b] = nextBatch;
+    }
+    return nextBatch;
+  }
+
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(Arrays.asList(batches), Arrays.asList(copyIndices, partitionIndices));
+    AutoCloseables.close(Arrays.asList(batches), Arrays.asList(copyIndices, copySourceIndices, partitionIndices));
   }
 
   @Override
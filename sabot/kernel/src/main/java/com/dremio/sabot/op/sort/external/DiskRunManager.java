@@ -16,11 +16,17 @@
 package com.dremio.sabot.op.sort.external;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.BufferAllocator;
@@ -123,6 +129,11 @@ public class DiskRunManager implements AutoCloseable {
   private final double allocationDensity;
   private long compressionNanos;
   private long uncompressionNanos;
+  // batches read ahead per run while merging, and the read ahead of the current copier (0 if memory was short)
+  private final int readAheadBatches;
+  private final ExecutorService readAheadExecutor;
+  private int copierReadAheadBatches;
+  private long readAheadWaitNanos;
 
 
   private final OperatorStats operatorStats;
@@ -149,7 +160,8 @@ public class DiskRunManager implements AutoCloseable {
       ExternalSortTracer tracer,
       SpillService spillService,
       OperatorStats stats,
-      ExecutionControls executionControls
+      ExecutionControls executionControls,
+      ExecutorService readAheadExecutor
       ) throws Exception {
     try (RollbackCloseable rollback = new RollbackCloseable()) {
       this.targetRecordCount = targetRecordCount;
@@ -170,6 +182,10 @@ public class DiskRunManager implements AutoCloseable {
       this.useArrowEncoding = optionManager.getOption(ExecConstants.EXTERNAL_SORT_ARROW_ENCODING);
       this.useVectorCopier = optionManager.getOption(ExecConstants.EXTERNAL_SORT_VECTOR_COPIER);
       this.allocationDensity = optionManager.getOption(ExecConstants.EXTERNAL_SORT_SPILL_ALLOCATION_DENSITY);
+      // the legacy encoding shares its decompression state between runs, it can't be read in the background
+      this.readAheadBatches = useArrowEncoding && readAheadExecutor != null
+        ? (int) optionManager.getOption(ExecConstants.EXTERNAL_SORT_READ_AHEAD_BATCHES) : 0;
+      this.readAheadExecutor = readAheadExecutor;
 
       if (compressSpilledBatch) {
         long reserve = VectorAccessibleSerializable.RAW_CHUNK_SIZE_TO_COMPRESS * 2;
@@ -695,12 +711,27 @@ public class DiskRunManager implements AutoCloseable {
       copierAllocator = null;
     }
 
+    try {
+      copierAllocator = newCopierAllocator(diskRuns, readAheadBatches);
+      copierReadAheadBatches = readAheadBatches;
+    } catch (OutOfMemoryException e) {
+      if (readAheadBatches == 0) {
+        throw e;
+      }
+      // reading ahead is not worth merging fewer runs at a time
+      logger.debug("Failed to reserve memory to read ahead {} batches per diskrun, reading them on demand", readAheadBatches);
+      copierAllocator = newCopierAllocator(diskRuns, 0);
+      copierReadAheadBatches = 0;
+    }
+  }
+
+  private BufferAllocator newCopierAllocator(List<DiskRun> diskRuns, int readAheadBatches) {
     long totalSizeNeeded = 0;
-    // for now we always read one batch from all disk runs, so we need to make sure we have enough memory reserved
-    // to allocate the largest batch per run
+    // we always hold one batch from all disk runs, plus the ones being read ahead, so we need to make sure we have
+    // enough memory reserved to allocate the largest batch per run that many times
     for(DiskRun run : diskRuns){
       long batchSize = nextPowerOfTwo(run.largestBatch);
-      totalSizeNeeded += batchSize;
+      totalSizeNeeded += batchSize * (1 + readAheadBatches);
     }
 
     // add the required space for the copy output. We use * 3 to manage against a really large vector.
@@ -708,7 +739,7 @@ public class DiskRunManager implements AutoCloseable {
 
     // because we can't know for sure how much memory will be needed for variable length vectors we don't put a limit
     // on the copy allocator. But this will still be capped by the sort allocator limit.
-    copierAllocator = this.parentAllocator.newChildAllocator("spill_copier", totalSizeNeeded, Long.MAX_VALUE);
+    return this.parentAllocator.newChildAllocator("spill_copier", totalSizeNeeded, Long.MAX_VALUE);
   }
 
   public PriorityQueueCopier createCopier() throws Exception {
@@ -835,8 +866,8 @@ public class DiskRunManager implements AutoCloseable {
      */
     private DiskRunIterator openRun(BufferAllocator copierAllocator, int batchId, ExpandableHyperContainer container) throws Exception{
       Preconditions.checkState(iterator == null);
-      final long memCapacity = nextPowerOfTwo(largestBatch);
-      iterator = new DiskRunIterator(batchCount, spillFile, container, copierAllocator, memCapacity);
+      final long memCapacity = (long) nextPowerOfTwo(largestBatch) * (1 + copierReadAheadBatches);
+      iterator = new DiskRunIterator(batchCount, spillFile, container, copierAllocator, memCapacity, copierReadAheadBatches);
 
       return iterator;
     }
@@ -859,6 +890,12 @@ public class DiskRunManager implements AutoCloseable {
     private int batchIndex = -1;
     private final int batchIndexMax;
 
+    // batches being read in the background, in file order. Each read starts once the previous one is done as
+    // they all come from the same stream.
+    private final int readAheadBatches;
+    private final ArrayDeque<CompletableFuture<VectorContainer>> readAhead = new ArrayDeque<>();
+    private int batchesRead;
+
     private int recordIndex = -1;
     private int recordIndexMax;
     private final VectorContainer container;
@@ -870,13 +907,19 @@ public class DiskRunManager implements AutoCloseable {
      * DiskRunIterator never succeeded. Using RollbackCloseable in the caller will also not
      * help for the same reason that failure happened during instantiation.
      */
-    private DiskRunIterator(int batchCount, SpillFile spillFile, ExpandableHyperContainer hyperContainer, BufferAllocator parentAllocator, long memCapacity) throws Exception {
+    private DiskRunIterator(int batchCount, SpillFile spillFile, ExpandableHyperContainer hyperContainer, BufferAllocator parentAllocator,
+                            long memCapacity, int readAheadBatches) throws Exception {
       try (RollbackCloseable rollback = new RollbackCloseable()){
         this.allocator = rollback.add(parentAllocator.newChildAllocator("diskrun", 0, memCapacity));
         this.container = rollback.add(VectorContainer.create(allocator, dataSchema));
         this.inputStream = rollback.add(spillFile.open(useArrowEncoding && compressSpilledBatch));
         this.batchIndexMax = batchCount;
+        this.readAheadBatches = readAheadBatches;
+        if (readAheadBatches > 0) {
+          inputStream.setReadInBackground();
+        }
         loadNextBatch(true);
+        readAhead();
         hyperContainer.addBatch(this.container);
         rollback.commit();
       } catch (Exception e) {
@@ -894,8 +937,18 @@ public class DiskRunManager implements AutoCloseable {
 
 
       if(useArrowEncoding) {
-        inputStream.load(container, allocator);
-        recordIndexMax = container.getRecordCount();
+        if (first || readAheadBatches == 0) {
+          inputStream.load(container, allocator);
+          recordIndexMax = container.getRecordCount();
+          batchesRead++;
+        } else {
+          try (VectorContainer batch = waitForReadAhead()) {
+            batch.transferOut(container);
+            container.setRecordCount(batch.getRecordCount());
+            recordIndexMax = batch.getRecordCount();
+          }
+          readAhead();
+        }
         batchIndex++;
         recordIndex = -1;
         return;
@@ -932,8 +985,58 @@ public class DiskRunManager implements AutoCloseable {
       recordIndex = -1;
     }
 
+    /**
+     * Starts reading the next batches in the background, until {@code readAheadBatches} are being read or all the
+     * batches of the run have been.
+     */
+    private void readAhead() {
+      while (readAhead.size() < readAheadBatches && batchesRead < batchIndexMax) {
+        final CompletableFuture<VectorContainer> previous = readAhead.isEmpty()
+          ? CompletableFuture.completedFuture(null) : readAhead.peekLast();
+        readAhead.add(previous.thenApplyAsync(ignored -> readBatch(), readAheadExecutor));
+        batchesRead++;
+      }
+    }
+
+    private VectorContainer readBatch() {
+      final VectorContainer batch = VectorContainer.create(allocator, dataSchema);
+      try {
+        inputStream.load(batch, allocator);
+        return batch;
+      } catch (Exception e) {
+        batch.close();
+        throw new CompletionException(e);
+      }
+    }
+
+    private VectorContainer waitForReadAhead() throws IOException {
+      final CompletableFuture<VectorContainer> next = readAhead.poll();
+      Preconditions.checkState(next != null, "No batch being read ahead.");
+      final Stopwatch watch = Stopwatch.createStarted();
+      try (OperatorStats.WaitRecorder recorder = OperatorStats.getWaitRecorder(operatorStats)) {
+        return next.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading spilled batch.", e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException(e.getCause());
+      } finally {
+        readAheadWaitNanos += watch.elapsed(TimeUnit.NANOSECONDS);
+      }
+    }
+
     @Override
     public void close() throws Exception {
+      // the stream and the allocator can only be released once no read is running anymore
+      for (CompletableFuture<VectorContainer> batch : readAhead) {
+        try {
+          batch.join().close();
+        } catch (CompletionException | CancellationException e) {
+          // failed read, it released its batch already
+        }
+      }
+      readAhead.clear();
       AutoCloseables.close(container, allocator, inputStream);
     }
 
@@ -968,6 +1071,14 @@ public class DiskRunManager implements AutoCloseable {
     return spillManager.getIOWriteBytes();
   }
 
+  public long getReadAheadWaitNanos() {
+    return readAheadWaitNanos;
+  }
+
+  public long getCompressionRatioPercent() {
+    return spillManager.getCompressionRatioPercent();
+  }
+
   public long getCompressionNanos() {
     return useArrowEncoding ? spillManager.getCompressionNanos() : compressionNanos;
   }
@@ -16,6 +16,7 @@
 package com.dremio.sabot.op.sort.external;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
@@ -54,6 +55,7 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.op.filter.VectorContainerWithSV;
 import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
@@ -176,6 +178,9 @@ public class ExternalSortOperator implements SingleInputOperator {
 
     OOM_ALLOCATE_COUNT,
     OOM_COPY_COUNT,
+
+    COMPRESSION_RATIO_PERCENT, // size of spilled data on disk as a percentage of its uncompressed size
+    READ_AHEAD_WAIT_NANOS, // time spent waiting for batches read ahead from disk runs while merging
     ;
 
     @Override
@@ -193,6 +198,22 @@ public class ExternalSortOperator implements SingleInputOperator {
     SPILL_IN_PROGRESS
   }
 
+  /**
+   * @return the executor reading spilled runs ahead, or null if they are to be read on demand
+   */
+  @VisibleForTesting
+  static ExecutorService getReadAheadExecutor(OperatorContext context, OptionManager options) {
+    if (options.getOption(ExecConstants.EXTERNAL_SORT_READ_AHEAD_BATCHES) == 0) {
+      return null;
+    }
+    try {
+      return context.getExecutor();
+    } catch (UnsupportedOperationException e) {
+      // spilled runs get read on demand
+      return null;
+    }
+  }
+
   @Override
   public State getState(){
     return state;
@@ -238,7 +259,8 @@ public class ExternalSortOperator implements SingleInputOperator {
       this.diskRuns = new DiskRunManager(context.getConfig(), context.getOptions(), targetBatchSize, targetBatchSizeInBytes,
                                          context.getFragmentHandle(), config.getProps().getLocalOperatorId(), context.getClassProducer(), allocator,
                                          config.getOrderings(), incoming.getSchema(), compressSpilledBatch, tracer,
-                                         context.getSpillService(), context.getStats(), context.getExecutionControls());
+                                         context.getSpillService(), context.getStats(), context.getExecutionControls(),
+                                         getReadAheadExecutor(context, options));
       rollback.add(this.diskRuns);
 
       tracer.setTargetBatchSize(targetBatchSize);
@@ -416,6 +438,8 @@ public class ExternalSortOperator implements SingleInputOperator {
       stats.setLongStat(Metric.IO_BYTES_WRITTEN, diskRuns.getIOWriteBytes() == 0 ? diskRuns.getTotalDataSpilled() : diskRuns.getIOWriteBytes());
       stats.setLongStat(Metric.COMPRESSION_NANOS, diskRuns.getCompressionNanos());
       stats.setLongStat(Metric.DECOMPRESSION_NANOS, diskRuns.getDecompressionNanos());
+      stats.setLongStat(Metric.COMPRESSION_RATIO_PERCENT, diskRuns.getCompressionRatioPercent());
+      stats.setLongStat(Metric.READ_AHEAD_WAIT_NANOS, diskRuns.getReadAheadWaitNanos());
       stats.setLongStat(Metric.IO_READ_WAIT_NANOS, diskRuns.getIOReadWait());
       stats.setLongStat(Metric.IO_WRITE_WAIT_NANOS, diskRuns.getIOWriteWait());
       stats.setLongStat(Metric.OOM_ALLOCATE_COUNT, diskRuns.getOOMAllocateCount());
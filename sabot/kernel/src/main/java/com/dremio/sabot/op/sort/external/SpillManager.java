@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
@@ -43,11 +44,10 @@ import com.dremio.exec.store.LocalSyncableFileSystem.WritesArrowBuf;
 import com.dremio.exec.store.OutputStreamWithStats;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.service.spill.SpillCompressionCodec;
 import com.dremio.service.spill.SpillDirectory;
 import com.dremio.service.spill.SpillService;
-
-import net.jpountz.lz4.LZ4BlockInputStream;
-import net.jpountz.lz4.LZ4BlockOutputStream;
+import com.google.common.annotations.VisibleForTesting;
 
 /**
  * Distribute spills across given list of directories.
@@ -64,6 +64,8 @@ public class SpillManager implements AutoCloseable {
   private final String caller;
   private final OperatorStats stats;
   private final boolean useDirectWritePathIfPossible;
+  private final SpillCompressionCodec compressionCodec;
+  private final int compressionLevel;
   private long appWriteBytes;
   private long appReadBytes;
   private long ioReadBytes;
@@ -87,8 +89,13 @@ public class SpillManager implements AutoCloseable {
     // load options
     if (optionManager != null) {
       this.useDirectWritePathIfPossible = optionManager.getOption(ExecConstants.EXTERNAL_SORT_DIRECT_WRITE);
+      this.compressionCodec = SpillCompressionCodec.valueOf(optionManager.getOption(ExecConstants.SPILL_COMPRESSION_CODEC).toUpperCase(Locale.ROOT));
+      this.compressionLevel = (int) optionManager.getOption(ExecConstants.SPILL_COMPRESSION_ZSTD_LEVEL);
     } else {
       this.useDirectWritePathIfPossible = ExecConstants.EXTERNAL_SORT_DIRECT_WRITE.getDefault().getBoolVal();
+      this.compressionCodec = SpillCompressionCodec.valueOf(
+        ExecConstants.SPILL_COMPRESSION_CODEC.getDefault().getStringVal().toUpperCase(Locale.ROOT));
+      this.compressionLevel = ExecConstants.SPILL_COMPRESSION_ZSTD_LEVEL.getDefault().getNumVal().intValue();
     }
 
     try {
@@ -112,6 +119,11 @@ public class SpillManager implements AutoCloseable {
     }
   }
 
+  @VisibleForTesting
+  SpillCompressionCodec getCompressionCodec() {
+    return compressionCodec;
+  }
+
   @Override
   public void close() throws Exception {
     spillService.deleteSpillSubdirs(id);
@@ -126,12 +138,20 @@ public class SpillManager implements AutoCloseable {
       this.path = path;
     }
 
+    /**
+     * Creates the spill file.
+     *
+     * @param compressed whether to compress the file with the configured spill codec
+     */
     public SpillOutputStream create(boolean compressed) throws IOException {
-      return createSpillOutputStream(this, compressed);
+      return createSpillOutputStream(this, compressed && compressionCodec.isCompressed());
     }
 
+    /**
+     * Opens the spill file, {@code compressed} must be the same as when the file was created.
+     */
     public SpillInputStream open(boolean compressed) throws IOException {
-      return createSpillInputStream(this, compressed);
+      return createSpillInputStream(this, compressed && compressionCodec.isCompressed());
     }
 
     public FSDataOutputStream create() throws IOException {
@@ -194,7 +214,7 @@ public class SpillManager implements AutoCloseable {
       logger.debug("Failed to get inner wrapped stream, using fallback.", ex);
     }
     ABOutputStreamWithStats base = new ABOutputStreamWithStats(actualOutput);
-    ABOutputStreamWithStats top = compressed ? new ABOutputStreamWithStats(new LZ4BlockOutputStream(base)) : base;
+    ABOutputStreamWithStats top = compressed ? new ABOutputStreamWithStats(compressionCodec.compress(base, compressionLevel)) : base;
     boolean useDirectWrite = useDirectWritePathIfPossible && !compressed && actualOutput instanceof WritesArrowBuf;
     return new SpillOutputStream(top, base, file, compressed, useDirectWrite);
   }
@@ -250,6 +270,12 @@ public class SpillManager implements AutoCloseable {
       return top.getWriteNanos() + top.getCloseNanos() - getIOTime();
     }
 
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      // FilterOutputStream would write one byte at a time
+      out.write(b, off, len);
+    }
+
     public long writeBatch(VectorContainer outgoing) throws IOException {
       VectorAccessibleFlatBufSerializable serializable = new VectorAccessibleFlatBufSerializable(outgoing, null);
       serializable.setWriteDirect(writeDirect);
@@ -274,7 +300,7 @@ public class SpillManager implements AutoCloseable {
   private SpillInputStream createSpillInputStream(SpillFile file, boolean compressed) throws IOException {
     InputStream output = file.fs.open(file.path);
     InputStreamWithStats base = new InputStreamWithStats(output);
-    InputStreamWithStats top = compressed ? new InputStreamWithStats(new LZ4BlockInputStream(base)) : base;
+    InputStreamWithStats top = compressed ? new InputStreamWithStats(compressionCodec.decompress(base)) : base;
     return new SpillInputStream(top, base, file, compressed);
   }
 
@@ -284,6 +310,7 @@ public class SpillManager implements AutoCloseable {
     private final InputStreamWithStats base;
     private final SpillFile file;
     private boolean compressed;
+    private boolean readInBackground;
 
     private SpillInputStream(
         InputStreamWithStats top,
@@ -325,6 +352,13 @@ public class SpillManager implements AutoCloseable {
       return top.getReadNanos() - getIOTime();
     }
 
+    /**
+     * The stream is read by another thread than the operator's, so its io time isn't operator wait time.
+     */
+    public void setReadInBackground() {
+      this.readInBackground = true;
+    }
+
     public void load(VectorContainer container, BufferAllocator allocator) throws IOException {
       VectorAccessibleFlatBufSerializable serializable = new VectorAccessibleFlatBufSerializable(container, allocator);
       serializable.readFromStream(top);
@@ -333,7 +367,7 @@ public class SpillManager implements AutoCloseable {
     @Override
     public void close() throws IOException {
       super.close();
-      if(stats != null) {
+      if(stats != null && !readInBackground) {
         stats.moveProcessingToWait(getIOTime());
       }
       ioReadWaitNanos += getIOTime();
@@ -359,6 +393,13 @@ public class SpillManager implements AutoCloseable {
     return ioWriteBytes;
   }
 
+  /**
+   * Size of the spilled data on disk as a percentage of its uncompressed size, 0 if nothing was spilled yet.
+   */
+  public long getCompressionRatioPercent() {
+    return appWriteBytes == 0 ? 0 : ioWriteBytes * 100 / appWriteBytes;
+  }
+
   public long getCompressionNanos() {
     return compressionNanos;
   }
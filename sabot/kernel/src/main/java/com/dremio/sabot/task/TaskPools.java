@@ -24,6 +24,7 @@ import com.dremio.sabot.task.single.DedicatedTaskPool;
 public final class TaskPools {
 
   public static final String DREMIO_TASK_POOL_FACTORY_CLASS = "dremio.task.pool.factory.class";
+  public static final String DREMIO_TASK_POOL_THREADS = "dremio.task.pool.threads";
 
   private TaskPools() {}
 
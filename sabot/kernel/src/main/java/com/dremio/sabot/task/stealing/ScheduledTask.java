@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.stealing;
+
+import java.util.Comparator;
+
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.TaskManager.TaskHandle;
+
+/**
+ * A task known to the {@link WorkStealingTaskPool}. Run queues are ordered by virtual runtime: the cpu time
+ * the task consumed, divided by its share, so tasks of heavier groups get picked proportionally more often.
+ */
+class ScheduledTask implements TaskHandle<AsyncTaskWrapper> {
+
+  static final Comparator<ScheduledTask> BY_VRUNTIME = Comparator
+    .comparingLong((ScheduledTask t) -> t.vRuntime)
+    .thenComparingLong(t -> t.sequence);
+
+  private final AsyncTaskWrapper task;
+  private final double share;
+  private final WorkStealingTaskPool pool;
+
+  // updated by the thread running the task, or under the lock of the run queue holding it
+  private long vRuntime;
+  // breaks ties in run queue order, FIFO among tasks with the same virtual runtime
+  private long sequence;
+  // slicing thread the task last ran on, or is queued on
+  private volatile int thread = -1;
+
+  ScheduledTask(AsyncTaskWrapper task, double share, WorkStealingTaskPool pool) {
+    this.task = task;
+    this.share = share;
+    this.pool = pool;
+  }
+
+  @Override
+  public AsyncTaskWrapper getTask() {
+    return task;
+  }
+
+  @Override
+  public void reEnqueue() {
+    pool.reEnqueue(this);
+  }
+
+  @Override
+  public int getThread() {
+    return thread;
+  }
+
+  void setThread(int thread) {
+    this.thread = thread;
+  }
+
+  long getVRuntime() {
+    return vRuntime;
+  }
+
+  /**
+   * Makes sure a task that was blocked or just added doesn't get to monopolize the thread to catch up.
+   */
+  void placeAt(long minVRuntime, long sequence) {
+    this.vRuntime = Math.max(vRuntime, minVRuntime);
+    this.sequence = sequence;
+  }
+
+  void charge(long runTimeNanos) {
+    vRuntime += (long) (runTimeNanos / share);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s (thread %d)", task.getState(), thread);
+  }
+}
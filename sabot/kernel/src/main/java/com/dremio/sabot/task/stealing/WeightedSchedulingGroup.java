@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.stealing;
+
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.TaskManager;
+import com.dremio.sabot.task.TaskManager.TaskHandle;
+import com.google.common.base.Preconditions;
+
+/**
+ * Scheduling group of the {@link WorkStealingTaskPool}. A group doesn't queue anything by itself, it only
+ * scales how fast the virtual runtime of its tasks advances: the share of a task is the product of the
+ * weights along its group chain, normalized by {@link TaskManager#MAX_WEIGHT} at every level.
+ */
+class WeightedSchedulingGroup implements SchedulingGroup<AsyncTaskWrapper> {
+
+  private final WorkStealingTaskPool pool;
+  // share of the cpu relative to a top level task of MAX_WEIGHT, in (0, 1]
+  private final double share;
+
+  WeightedSchedulingGroup(WorkStealingTaskPool pool, WeightedSchedulingGroup parent, long weight) {
+    this.pool = pool;
+    this.share = (parent != null ? parent.share : 1.0d) * normalize(weight);
+  }
+
+  @Override
+  public SchedulingGroup<AsyncTaskWrapper> addGroup(long weight) {
+    return new WeightedSchedulingGroup(pool, this, weight);
+  }
+
+  @Override
+  public TaskHandle<AsyncTaskWrapper> addTask(AsyncTaskWrapper task, long weight) {
+    final ScheduledTask scheduledTask = new ScheduledTask(task, share * normalize(weight), pool);
+    task.setTaskHandle(scheduledTask);
+    pool.submit(scheduledTask);
+    return scheduledTask;
+  }
+
+  double getShare() {
+    return share;
+  }
+
+  private static double normalize(long weight) {
+    Preconditions.checkArgument(weight > 0, "weight must be positive, was %s", weight);
+    return (double) Math.min(weight, TaskManager.MAX_WEIGHT) / TaskManager.MAX_WEIGHT;
+  }
+}
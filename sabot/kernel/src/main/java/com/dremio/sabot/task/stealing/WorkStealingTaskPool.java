@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.stealing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.dremio.common.config.SabotConfig;
+import com.dremio.common.perf.StatsCollectionEligibilityRegistrar;
+import com.dremio.config.DremioConfig;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.BlockRun;
+import com.dremio.sabot.task.GroupManager;
+import com.dremio.sabot.task.TaskManager;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.task.TaskPoolFactory;
+import com.dremio.sabot.task.TaskPools;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * A task pool that runs all tasks on a fixed number of slicing threads. Each thread has its own run queue,
+ * ordered by the virtual runtime of the tasks (see {@link ScheduledTask}), and threads without runnable
+ * tasks steal from the others. Blocked tasks don't hold on to a thread: they are put back in the run queue
+ * of the thread they last ran on once {@link BlockRun} wakes them up.
+ *
+ * To use it, set {@value TaskPools#DREMIO_TASK_POOL_FACTORY_CLASS} to
+ * {@code com.dremio.sabot.task.stealing.WorkStealingTaskPool$Factory}. The number of threads defaults to the
+ * number of available processors and can be set with {@value TaskPools#DREMIO_TASK_POOL_THREADS}.
+ */
+public class WorkStealingTaskPool implements TaskPool {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(WorkStealingTaskPool.class);
+
+  // upper bound on how long an idle thread waits before looking for work to steal again
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+  /**
+   * Factory for {@code WorkStealingTaskPool}
+   */
+  public static final class Factory implements TaskPoolFactory {
+    @Override
+    public TaskPool newInstance(OptionManager options, DremioConfig config) {
+      final SabotConfig sabotConfig = config.getSabotConfig();
+      final int numThreads = sabotConfig.hasPath(TaskPools.DREMIO_TASK_POOL_THREADS)
+        ? sabotConfig.getInt(TaskPools.DREMIO_TASK_POOL_THREADS)
+        : Runtime.getRuntime().availableProcessors();
+      return new WorkStealingTaskPool(numThreads);
+    }
+  }
+
+  private final SlicingThread[] threads;
+  private final WeightedSchedulingGroup rootGroup;
+  private final GroupManager<AsyncTaskWrapper> groupManager;
+  private volatile boolean running = true;
+
+  public WorkStealingTaskPool(int numThreads) {
+    Preconditions.checkArgument(numThreads > 0, "number of slicing threads must be positive, was %s", numThreads);
+    this.rootGroup = new WeightedSchedulingGroup(this, null, TaskManager.MAX_WEIGHT);
+    this.groupManager = weight -> new WeightedSchedulingGroup(this, null, weight);
+    this.threads = new SlicingThread[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      threads[i] = new SlicingThread(i);
+    }
+    for (SlicingThread thread : threads) {
+      thread.start();
+    }
+  }
+
+  @Override
+  public void execute(AsyncTaskWrapper task) {
+    Preconditions.checkState(running, "Task pool is closed");
+    // fragments are weighted by their group, they all get the same weight within it
+    if (task.getSchedulingGroup() instanceof WeightedSchedulingGroup) {
+      task.getSchedulingGroup().addTask(task, TaskManager.MAX_WEIGHT);
+    } else {
+      rootGroup.addTask(task, TaskManager.MAX_WEIGHT);
+    }
+  }
+
+  @Override
+  public GroupManager<AsyncTaskWrapper> getGroupManager() {
+    return groupManager;
+  }
+
+  @Override
+  public Iterable<ThreadInfo> getSlicingThreads() {
+    final List<ThreadInfo> infos = new ArrayList<>(threads.length);
+    for (SlicingThread thread : threads) {
+      infos.add(thread.getThreadInfo());
+    }
+    return infos;
+  }
+
+  @Override
+  public boolean areAllThreadsAlive() {
+    for (SlicingThread thread : threads) {
+      if (!thread.isAlive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws Exception {
+    running = false;
+    for (SlicingThread thread : threads) {
+      thread.interrupt();
+    }
+    for (SlicingThread thread : threads) {
+      thread.join(CLOSE_TIMEOUT_MS);
+    }
+  }
+
+  /**
+   * Adds a new task to the least loaded of two randomly picked threads.
+   */
+  void submit(ScheduledTask task) {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final SlicingThread first = threads[random.nextInt(threads.length)];
+    final SlicingThread second = threads[random.nextInt(threads.length)];
+    enqueue(first.getNumStaged() <= second.getNumStaged() ? first : second, task);
+  }
+
+  /**
+   * Puts a task that was blocked back on the thread it last ran on, its data is most likely still cached there.
+   */
+  void reEnqueue(ScheduledTask task) {
+    final int thread = task.getThread();
+    enqueue(threads[thread >= 0 && thread < threads.length ? thread : 0], task);
+  }
+
+  private void enqueue(SlicingThread thread, ScheduledTask task) {
+    thread.offer(task);
+    if (!thread.wakeUpIfIdle()) {
+      // the thread is busy, let an idle one steal the task
+      for (SlicingThread other : threads) {
+        if (other != thread && other.wakeUpIfIdle()) {
+          break;
+        }
+      }
+    }
+  }
+
+  private ScheduledTask steal(SlicingThread thief) {
+    final int start = ThreadLocalRandom.current().nextInt(threads.length);
+    for (int i = 0; i < threads.length; i++) {
+      final SlicingThread victim = threads[(start + i) % threads.length];
+      if (victim != thief) {
+        final ScheduledTask task = victim.trySteal();
+        if (task != null) {
+          return task;
+        }
+      }
+    }
+    return null;
+  }
+
+  @VisibleForTesting
+  int getNumThreads() {
+    return threads.length;
+  }
+
+  private final class SlicingThread extends Thread {
+    private final int slicingThreadId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<ScheduledTask> runQueue = new PriorityQueue<>(ScheduledTask.BY_VRUNTIME);
+    private final AtomicInteger numRequestedWork = new AtomicInteger();
+
+    // guarded by lock
+    private long minVRuntime;
+    private long sequence;
+
+    private volatile int numStaged;
+    private volatile boolean idle;
+    private volatile boolean busy;
+
+    SlicingThread(int slicingThreadId) {
+      super("e" + slicingThreadId + " - slicing");
+      this.slicingThreadId = slicingThreadId;
+      setDaemon(true);
+    }
+
+    void offer(ScheduledTask task) {
+      lock.lock();
+      try {
+        task.setThread(slicingThreadId);
+        task.placeAt(minVRuntime, sequence++);
+        runQueue.offer(task);
+        numStaged = runQueue.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    boolean wakeUpIfIdle() {
+      if (idle) {
+        LockSupport.unpark(this);
+        return true;
+      }
+      return false;
+    }
+
+    int getNumStaged() {
+      return numStaged;
+    }
+
+    private ScheduledTask poll() {
+      lock.lock();
+      try {
+        return pollLocked();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private ScheduledTask trySteal() {
+      // never wait on a busy queue, there are other victims to try
+      if (numStaged == 0 || !lock.tryLock()) {
+        return null;
+      }
+      try {
+        return pollLocked();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private ScheduledTask pollLocked() {
+      final ScheduledTask task = runQueue.poll();
+      if (task != null) {
+        minVRuntime = Math.max(minVRuntime, task.getVRuntime());
+      }
+      numStaged = runQueue.size();
+      return task;
+    }
+
+    ThreadInfo getThreadInfo() {
+      final int staged = numStaged;
+      return new ThreadInfo(getName(), slicingThreadId, -1, -1, staged + (busy ? 1 : 0), staged,
+        numRequestedWork.get(), getId());
+    }
+
+    @Override
+    public void run() {
+      StatsCollectionEligibilityRegistrar.addSelf();
+      while (running) {
+        ScheduledTask task = poll();
+        if (task == null) {
+          numRequestedWork.incrementAndGet();
+          task = steal(this);
+        }
+        if (task == null) {
+          idle = true;
+          // recheck after publishing idle, an enqueue in between would not have woken us up
+          if (numStaged == 0) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+          }
+          idle = false;
+          Thread.interrupted();
+          continue;
+        }
+        runTask(task);
+      }
+    }
+
+    private void runTask(ScheduledTask scheduledTask) {
+      final AsyncTaskWrapper task = scheduledTask.getTask();
+      scheduledTask.setThread(slicingThreadId);
+      busy = true;
+      final long start = System.nanoTime();
+      try {
+        task.run();
+      } catch (Throwable t) {
+        // same as a dedicated fragment thread dying, the task is dropped but the slicing thread goes on
+        logger.error("Unhandled Exception in Fragment Thread.", t);
+        return;
+      } finally {
+        scheduledTask.charge(System.nanoTime() - start);
+        busy = false;
+      }
+
+      switch (task.getState()) {
+        case BLOCKED_ON_DOWNSTREAM:
+        case BLOCKED_ON_UPSTREAM:
+        case BLOCKED_ON_SHARED_RESOURCE:
+          // may re-enqueue right away if the task got unblocked in the meantime
+          task.setAvailabilityCallback(new BlockRun(scheduledTask));
+          break;
+        case DONE:
+          try {
+            task.getCleaner().close();
+          } catch (Exception e) {
+            logger.error("Failure while cleaning up task {}.", task, e);
+          }
+          break;
+        case RUNNABLE:
+        default:
+          offer(scheduledTask);
+          break;
+      }
+    }
+  }
+}
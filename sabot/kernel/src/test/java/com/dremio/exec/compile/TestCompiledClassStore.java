@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link CompiledClassStore}
+ */
+public class TestCompiledClassStore {
+  private static final String TEMPLATE = "com.dremio.exec.compile.SomeTemplate";
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static ClassBytes[] classes(String name) {
+    return new ClassBytes[] {
+      new ClassBytes(name, new byte[] {1, 2, 3}),
+      new ClassBytes(name + "$Inner", new byte[] {4, 5})
+    };
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final Path dir = folder.newFolder().toPath();
+    final CompiledClassStore store = new CompiledClassStore(dir, "1.0", 10);
+    final String key = store.getKey(TEMPLATE, "class GenericGenerated {}");
+    assertNull(store.get(key));
+
+    final ClassBytes[] classes = classes("com.dremio.s.SomeGen1");
+    store.put(key, "com.dremio.s.SomeGen1", classes);
+
+    // survives a restart
+    final CompiledClassStore reopened = new CompiledClassStore(dir, "1.0", 10);
+    assertEquals(1, reopened.getNumEntries());
+    final CompiledClassStore.Entry entry = reopened.get(key);
+    assertEquals("com.dremio.s.SomeGen1", entry.getClassName());
+    assertEquals(classes.length, entry.getClasses().length);
+    for (int i = 0; i < classes.length; i++) {
+      assertEquals(classes[i].getName(), entry.getClasses()[i].getName());
+      assertArrayEquals(classes[i].getBytes(), entry.getClasses()[i].getBytes());
+    }
+  }
+
+  @Test
+  public void testKeys() throws Exception {
+    final Path dir = folder.newFolder().toPath();
+    final CompiledClassStore store = new CompiledClassStore(dir, "1.0", 10);
+    final String key = store.getKey(TEMPLATE, "class GenericGenerated {}");
+    assertEquals(key, store.getKey(TEMPLATE, "class GenericGenerated {}"));
+    assertNotEquals(key, store.getKey(TEMPLATE, "class GenericGenerated { int i; }"));
+    assertNotEquals(key, store.getKey("com.dremio.exec.compile.OtherTemplate", "class GenericGenerated {}"));
+    // classes compiled by another version are never reused
+    assertNotEquals(key, new CompiledClassStore(dir, "2.0", 10).getKey(TEMPLATE, "class GenericGenerated {}"));
+  }
+
+  @Test
+  public void testCorruptedEntry() throws Exception {
+    final Path dir = folder.newFolder().toPath();
+    final CompiledClassStore store = new CompiledClassStore(dir, "1.0", 10);
+    final String key = store.getKey(TEMPLATE, "class GenericGenerated {}");
+    store.put(key, "com.dremio.s.SomeGen1", classes("com.dremio.s.SomeGen1"));
+
+    final Path path = dir.resolve(key + ".classes");
+    final byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+    assertNull(store.get(key));
+    assertFalse(Files.exists(path));
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final Path dir = folder.newFolder().toPath();
+    final CompiledClassStore store = new CompiledClassStore(dir, "1.0", 10);
+    for (int i = 0; i < 11; i++) {
+      final String key = store.getKey(TEMPLATE, "class GenericGenerated { int i" + i + "; }");
+      store.put(key, "com.dremio.s.SomeGen" + i, classes("com.dremio.s.SomeGen" + i));
+    }
+    assertEquals(9, store.getNumEntries());
+    assertEquals(9, new CompiledClassStore(dir, "1.0", 10).getNumEntries());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * Tests for {@link PlanCache}
+ */
+public class TestPlanCache {
+  private PlanCache planCache;
+  private Cache<Long, CachedPlan> cachedPlans;
+  private Catalog catalog;
+
+  @Before
+  public void setup() {
+    cachedPlans = CacheBuilder.newBuilder()
+      .removalListener((RemovalListener<Long, CachedPlan>) notification -> planCache.onCachedPlanRemoval(notification))
+      .build();
+    planCache = new PlanCache(cachedPlans);
+    catalog = mock(Catalog.class);
+    when(catalog.getAllRequestedTables()).thenReturn(Collections.<DremioTable>emptyList());
+  }
+
+  private long cache(String normalizedQuery, String... datasetIds) {
+    final long key = PlanCache.generateCacheKey(normalizedQuery);
+    for (String datasetId : datasetIds) {
+      planCache.addCacheToDatasetMap(datasetId, key);
+    }
+    cachedPlans.put(key, CachedPlan.createCachedPlan("sql", normalizedQuery, null, "", 1));
+    return key;
+  }
+
+  @Test
+  public void testKeyCoversWorkloadAndSchema() {
+    final long key = PlanCache.generateCacheKey("SELECT 1", "UI_RUN", "a");
+    assertEquals(key, PlanCache.generateCacheKey("SELECT 1", "UI_RUN", "a"));
+    assertNotEquals(key, PlanCache.generateCacheKey("SELECT 1", "JDBC", "a"));
+    assertNotEquals(key, PlanCache.generateCacheKey("SELECT 1", "UI_RUN", "b"));
+    // parts must not be able to shift into each other
+    assertNotEquals(PlanCache.generateCacheKey("SELECT 1", "UI_RUN", "a"), PlanCache.generateCacheKey("SELECT 1UI_RUN", "", "a"));
+  }
+
+  @Test
+  public void testHitVerifiesQueryText() {
+    final String query = PlanCache.normalizeQuery("SELECT * FROM t", "UI_RUN", "");
+    final long key = cache(query, "t");
+    final CachedPlan cachedPlan = cachedPlans.getIfPresent(key);
+
+    assertSame(cachedPlan, planCache.getIfPresentAndValid(catalog, key, query));
+    // a different query hashing to the same key does not get the plan, nor evicts it
+    assertNull(planCache.getIfPresentAndValid(catalog, key, PlanCache.normalizeQuery("SELECT * FROM u", "UI_RUN", "")));
+    assertSame(cachedPlan, cachedPlans.getIfPresent(key));
+  }
+
+  @Test
+  public void testInvalidateOnDataset() {
+    final long first = cache(PlanCache.normalizeQuery("SELECT * FROM t", "UI_RUN", ""), "t");
+    final long second = cache(PlanCache.normalizeQuery("SELECT * FROM t JOIN u", "UI_RUN", ""), "t", "u");
+    final long third = cache(PlanCache.normalizeQuery("SELECT * FROM u", "UI_RUN", ""), "u");
+
+    planCache.invalidateCacheOnDataset("t");
+    assertNull(cachedPlans.getIfPresent(first));
+    assertNull(cachedPlans.getIfPresent(second));
+    assertEquals(Collections.singleton(third), cachedPlans.asMap().keySet());
+    assertEquals(Collections.singleton(third), planCache.getDatasetMap().get("u"));
+    assertTrue(planCache.getDatasetMap().get("t").isEmpty());
+  }
+
+  @Test
+  public void testReplacedPlanKeepsDatasets() {
+    final String query = PlanCache.normalizeQuery("SELECT * FROM t", "UI_RUN", "");
+    final long key = cache(query, "t");
+    cache(query, "t");
+
+    assertEquals(Collections.singleton(key), planCache.getDatasetMap().get("t"));
+  }
+}
@@ -18,10 +18,16 @@ package com.dremio.exec.planner.acceleration;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.calcite.rel.RelNode;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -82,6 +88,23 @@ public class TestMaterializationList {
     verify(included, atLeastOnce()).getMaterializationFor(converter);
   }
 
+  @Test
+  public void testApplicableMaterializationsSkipPrunedCandidates() {
+    when(excluded.getMaterializationFor(converter)).thenReturn(relOptMat1);
+    when(excluded.getMaterializationId()).thenReturn("mid-1");
+    when(included.getMaterializationFor(converter)).thenReturn(relOptMat2);
+    when(included.getMaterializationId()).thenReturn("mid-2");
 
+    when(session.getSubstitutionSettings()).thenReturn(SubstitutionSettings.of());
+    when(provider.get()).thenReturn(ImmutableList.of(excluded, included));
+    final Predicate<MaterializationDescriptor> filter = descriptor -> descriptor == included;
+    when(provider.getCandidateFilter(any())).thenReturn(filter);
 
+    final MaterializationList materializations = new MaterializationList(converter, session, provider);
+    final List<DremioMaterialization> applicable = materializations.getApplicableMaterializations(mock(RelNode.class));
+
+    Assert.assertEquals(ImmutableList.of(relOptMat2), applicable);
+    Assert.assertEquals(ImmutableList.of(relOptMat2), materializations.getExpandedMaterializations());
+    verify(excluded, never()).getMaterializationFor(any(SqlConverter.class));
+  }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+import io.netty.buffer.NettyArrowBuf;
+
+/**
+ * Tests for loading batches from several buffers with {@link RecordBatchLoader}
+ */
+public class TestRecordBatchLoader extends DremioTest {
+  private static final int COUNT = 100;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private static WritableBatch newBatch(BufferAllocator allocator) {
+    final IntVector ints = new IntVector("ints", allocator);
+    final VarCharVector strings = new VarCharVector("strings", allocator);
+    ints.allocateNew(COUNT);
+    strings.allocateNew(COUNT);
+    for (int i = 0; i < COUNT; i++) {
+      ints.setSafe(i, i);
+      if (i % 3 != 0) {
+        strings.setSafe(i, ("value" + i).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    final VectorContainer container = new VectorContainer(allocator);
+    container.add(ints);
+    container.add(strings);
+    container.setAllCount(COUNT);
+    container.buildSchema();
+    return WritableBatch.getBatchNoHVWrap(COUNT, container, false);
+  }
+
+  private static ArrowBuf[] getBuffers(WritableBatch batch) {
+    final NettyArrowBuf[] nettyBufs = batch.getBuffers();
+    final ArrowBuf[] buffers = new ArrowBuf[nettyBufs.length];
+    for (int i = 0; i < nettyBufs.length; i++) {
+      buffers[i] = nettyBufs[i].arrowBuf();
+    }
+    return buffers;
+  }
+
+  private static void checkValues(RecordBatchLoader loader) {
+    assertEquals(COUNT, loader.getRecordCount());
+    final IntVector ints = (IntVector) loader.getValueAccessorById(IntVector.class, 0).getValueVector();
+    final VarCharVector strings = (VarCharVector) loader.getValueAccessorById(VarCharVector.class, 1).getValueVector();
+    for (int i = 0; i < COUNT; i++) {
+      assertEquals(i, ints.get(i));
+      if (i % 3 != 0) {
+        assertEquals("value" + i, strings.getObject(i).toString());
+      } else {
+        assertNull(strings.getObject(i));
+      }
+    }
+  }
+
+  @Test
+  public void testLoadWithoutCopy() throws Exception {
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-record-batch-loader", 0, Long.MAX_VALUE);
+         RecordBatchLoader loader = new RecordBatchLoader(allocator)) {
+      final WritableBatch batch = newBatch(allocator);
+      try {
+        loader.load(batch.getDef(), getBuffers(batch));
+      } finally {
+        batch.clear();
+      }
+      checkValues(loader);
+      assertEquals(0, loader.getBytesCopied());
+      assertTrue(loader.getBytesReferenced() > 0);
+    }
+  }
+
+  @Test
+  public void testLoadStraddlingBuffers() throws Exception {
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-record-batch-loader", 0, Long.MAX_VALUE);
+         RecordBatchLoader loader = new RecordBatchLoader(allocator)) {
+      final WritableBatch batch = newBatch(allocator);
+      // same bytes, split at boundaries that don't match the vector buffers
+      long length = 0;
+      for (ArrowBuf buffer : getBuffers(batch)) {
+        length += buffer.capacity();
+      }
+      try (ArrowBuf whole = allocator.buffer(length)) {
+        long offset = 0;
+        for (ArrowBuf buffer : getBuffers(batch)) {
+          whole.setBytes(offset, buffer, 0, buffer.capacity());
+          offset += buffer.capacity();
+        }
+        batch.clear();
+
+        final long split = length / 2 + 1;
+        loader.load(batch.getDef(), new ArrowBuf[] {whole.slice(0, split), whole.slice(split, length - split)});
+      }
+      checkValues(loader);
+      assertTrue(loader.getBytesCopied() > 0);
+      assertEquals(length, loader.getBytesCopied() + loader.getBytesReferenced());
+    }
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.RocksIterator;
+
+import com.dremio.exec.store.cache.BlockCache.BlockKey;
+import com.dremio.exec.store.cache.BlockCache.CachedBlock;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tests for {@link BlockCache}
+ */
+public class TestBlockCache {
+  private static final int BLOCK_SIZE = 16;
+  private static final List<String> DATASET = Arrays.asList("source", "table");
+
+  @Rule
+  public final TemporaryFolder tempDir = new TemporaryFolder();
+
+  private BlockCache open(Path dbDirectory, Path mountPoint) throws Exception {
+    return BlockCache.open("localhost", dbDirectory,
+      Collections.singletonList(new BlockCache.MountPointConf(mountPoint, 100, 0)), BLOCK_SIZE);
+  }
+
+  private BlockCache open(Path dbDirectory, Path mountPoint, int maxBlocks) throws Exception {
+    return BlockCache.open("localhost", dbDirectory,
+      Collections.singletonList(BlockCache.MountPointConf.withMaxSpace(mountPoint, maxBlocks * BLOCK_SIZE)), BLOCK_SIZE);
+  }
+
+  private static BlockKey newKey(String plugin, long index) {
+    return new BlockKey(plugin, "/file", "1", index);
+  }
+
+  /**
+   * Block files are named after ids given in sequence, from 0.
+   */
+  private static Path blockFile(Path mountPoint, long fileId) {
+    return mountPoint.resolve(String.format("%02x", fileId)).resolve(Long.toString(fileId));
+  }
+
+  private static int getIndexedBlockCount(BlockCache cache) {
+    try (RocksIterator iterator = cache.getCachedFilesIterator()) {
+      return cache.getCachedFilesStats(iterator).size();
+    }
+  }
+
+  private static byte[] newBlock(int seed) {
+    final byte[] data = new byte[BLOCK_SIZE];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (seed + i);
+    }
+    return data;
+  }
+
+  private static byte[] read(BlockCache cache, CachedBlock block, int offset, int len) {
+    final ByteBuf dst = Unpooled.buffer(len, len);
+    assertTrue(cache.read(block, offset, dst, 0, len));
+    final byte[] bytes = new byte[len];
+    dst.getBytes(0, bytes);
+    return bytes;
+  }
+
+  @Test
+  public void testPutAndRead() throws Exception {
+    try (BlockCache cache = open(tempDir.newFolder().toPath(), tempDir.newFolder().toPath())) {
+      final BlockKey key = new BlockKey("plugin", "/file", "1", 0);
+      assertNull(cache.get(key));
+
+      final byte[] data = newBlock(1);
+      cache.put(key, DATASET, Unpooled.wrappedBuffer(data));
+      final CachedBlock block = cache.get(key);
+      assertNotNull(block);
+      assertArrayEquals(Arrays.copyOfRange(data, 4, 12), read(cache, block, 4, 8));
+
+      // another version of the file is a different block
+      assertNull(cache.get(new BlockKey("plugin", "/file", "2", 0)));
+      assertEquals(1, cache.getHitCount());
+      assertEquals(2, cache.getMissCount());
+    }
+  }
+
+  @Test
+  public void testPluginSpaceLimit() throws Exception {
+    try (BlockCache cache = open(tempDir.newFolder().toPath(), tempDir.newFolder().toPath())) {
+      cache.setPluginSpaceLimit("limited", 0);
+      final BlockKey limited = new BlockKey("limited", "/file", "1", 0);
+      final BlockKey unlimited = new BlockKey("unlimited", "/file", "1", 0);
+      cache.put(limited, DATASET, Unpooled.wrappedBuffer(newBlock(1)));
+      cache.put(unlimited, DATASET, Unpooled.wrappedBuffer(newBlock(2)));
+
+      assertNull(cache.get(limited));
+      assertNotNull(cache.get(unlimited));
+    }
+  }
+
+  @Test
+  public void testReopen() throws Exception {
+    final Path dbDirectory = tempDir.newFolder().toPath();
+    final Path mountPoint = tempDir.newFolder().toPath();
+    final BlockKey key = new BlockKey("plugin", "/file", "1", 3);
+    final byte[] data = newBlock(7);
+    try (BlockCache cache = open(dbDirectory, mountPoint)) {
+      cache.put(key, DATASET, Unpooled.wrappedBuffer(data));
+    }
+
+    try (BlockCache cache = open(dbDirectory, mountPoint)) {
+      final CachedBlock block = cache.get(key);
+      assertNotNull(block);
+      assertArrayEquals(data, read(cache, block, 0, BLOCK_SIZE));
+      assertEquals(1, cache.getStoragePluginStats().size());
+    }
+  }
+
+  @Test
+  public void testLeastRecentlyReadBlockEvicted() throws Exception {
+    final Path mountPoint = tempDir.newFolder().toPath();
+    try (BlockCache cache = open(tempDir.newFolder().toPath(), mountPoint, 3)) {
+      for (int i = 0; i < 3; i++) {
+        cache.put(newKey("plugin", i), DATASET, Unpooled.wrappedBuffer(newBlock(i)));
+      }
+      // the first block is read, the second one becomes the least recently used
+      assertNotNull(cache.get(newKey("plugin", 0)));
+      cache.put(newKey("plugin", 3), DATASET, Unpooled.wrappedBuffer(newBlock(3)));
+
+      assertNull(cache.get(newKey("plugin", 1)));
+      assertFalse(Files.exists(blockFile(mountPoint, 1)));
+      assertNotNull(cache.get(newKey("plugin", 0)));
+      assertNotNull(cache.get(newKey("plugin", 2)));
+      assertNotNull(cache.get(newKey("plugin", 3)));
+      assertEquals(3, getIndexedBlockCount(cache));
+    }
+  }
+
+  @Test
+  public void testPluginSpaceLimitEvictsPluginBlocks() throws Exception {
+    try (BlockCache cache = open(tempDir.newFolder().toPath(), tempDir.newFolder().toPath(), 4)) {
+      // two blocks
+      cache.setPluginSpaceLimit("limited", 50);
+      cache.put(newKey("other", 0), DATASET, Unpooled.wrappedBuffer(newBlock(0)));
+      cache.put(newKey("limited", 0), DATASET, Unpooled.wrappedBuffer(newBlock(1)));
+      cache.put(newKey("limited", 1), DATASET, Unpooled.wrappedBuffer(newBlock(2)));
+      assertNotNull(cache.get(newKey("limited", 0)));
+      cache.put(newKey("limited", 2), DATASET, Unpooled.wrappedBuffer(newBlock(3)));
+
+      // the least recently read block of the plugin is evicted, even if the other plugin's block is older
+      assertNull(cache.get(newKey("limited", 1)));
+      assertNotNull(cache.get(newKey("limited", 0)));
+      assertNotNull(cache.get(newKey("limited", 2)));
+      assertNotNull(cache.get(newKey("other", 0)));
+    }
+  }
+
+  @Test
+  public void testReopenDropsIncompleteBlocks() throws Exception {
+    final Path dbDirectory = tempDir.newFolder().toPath();
+    final Path mountPoint = tempDir.newFolder().toPath();
+    try (BlockCache cache = open(dbDirectory, mountPoint)) {
+      for (int i = 0; i < 3; i++) {
+        cache.put(newKey("plugin", i), DATASET, Unpooled.wrappedBuffer(newBlock(i)));
+      }
+    }
+    // the file of the second block is lost, the one of the third block is truncated
+    Files.delete(blockFile(mountPoint, 1));
+    Files.write(blockFile(mountPoint, 2), Arrays.copyOf(newBlock(2), BLOCK_SIZE / 2));
+
+    try (BlockCache cache = open(dbDirectory, mountPoint)) {
+      assertNull(cache.get(newKey("plugin", 1)));
+      assertNull(cache.get(newKey("plugin", 2)));
+      assertFalse(Files.exists(blockFile(mountPoint, 2)));
+      assertEquals(1, getIndexedBlockCount(cache));
+
+      final CachedBlock block = cache.get(newKey("plugin", 0));
+      assertNotNull(block);
+      assertArrayEquals(newBlock(0), read(cache, block, 0, BLOCK_SIZE));
+
+      // new blocks don't reuse the files of the loaded blocks
+      cache.put(newKey("plugin", 1), DATASET, Unpooled.wrappedBuffer(newBlock(5)));
+      assertArrayEquals(newBlock(5), read(cache, cache.get(newKey("plugin", 1)), 0, BLOCK_SIZE));
+      assertArrayEquals(newBlock(0), read(cache, block, 0, BLOCK_SIZE));
+    }
+  }
+
+  @Test
+  public void testReopenDeletesUnindexedFiles() throws Exception {
+    final Path dbDirectory = tempDir.newFolder().toPath();
+    final Path mountPoint = tempDir.newFolder().toPath();
+    try (BlockCache cache = open(dbDirectory, mountPoint)) {
+      cache.put(newKey("plugin", 0), DATASET, Unpooled.wrappedBuffer(newBlock(0)));
+    }
+    // a block written but not indexed, and a block left over while being written
+    final Path unindexed = blockFile(mountPoint, 5);
+    Files.createDirectories(unindexed.getParent());
+    Files.write(unindexed, newBlock(5));
+    final Path tmp = mountPoint.resolve("tmp").resolve("6");
+    Files.write(tmp, newBlock(6));
+
+    try (BlockCache cache = open(dbDirectory, mountPoint)) {
+      assertFalse(Files.exists(unindexed));
+      assertFalse(Files.exists(tmp));
+      assertEquals(1, getIndexedBlockCount(cache));
+      assertArrayEquals(newBlock(0), read(cache, cache.get(newKey("plugin", 0)), 0, BLOCK_SIZE));
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.store.cache.BlockCache.BlockKey;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.AsyncByteReader.FileKey;
+import com.dremio.io.AsyncByteReader.ReadRange;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tests for {@link CachingAsyncByteReader}
+ */
+public class TestCachingAsyncByteReader {
+  private static final int BLOCK_SIZE = 16;
+  private static final List<String> DATASET = Arrays.asList("source", "table");
+  private static final Path PATH = Path.of("/file");
+  private static final byte[] DATA = new byte[100];
+  static {
+    for (int i = 0; i < DATA.length; i++) {
+      DATA[i] = (byte) i;
+    }
+  }
+
+  /**
+   * Reads from {@link #DATA}, recording the calls made with several ranges.
+   */
+  private static final class RecordingReader implements AsyncByteReader {
+    private final List<List<ReadRange>> listReads = new ArrayList<>();
+
+    @Override
+    public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+      dst.setBytes(dstOffset, DATA, (int) offset, len);
+      return completedFuture;
+    }
+
+    @Override
+    public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+      listReads.add(ranges);
+      return AsyncByteReader.super.readFully(ranges);
+    }
+  }
+
+  @Rule
+  public final TemporaryFolder tempDir = new TemporaryFolder();
+
+  private FileSystem fs;
+
+  @Before
+  public void setup() throws Exception {
+    final FileAttributes attributes = mock(FileAttributes.class);
+    when(attributes.size()).thenReturn((long) DATA.length);
+    fs = mock(FileSystem.class);
+    when(fs.getFileAttributes(PATH)).thenReturn(attributes);
+  }
+
+  private BlockCache open() throws Exception {
+    return BlockCache.open("localhost", tempDir.newFolder().toPath(),
+      Collections.singletonList(new BlockCache.MountPointConf(tempDir.newFolder().toPath(), 100, 0)), BLOCK_SIZE);
+  }
+
+  private CachingAsyncByteReader newReader(RecordingReader delegate, BlockCache cache) {
+    return new CachingAsyncByteReader(delegate, cache, fs, "plugin",
+      FileKey.of(PATH, "1", FileKey.FileType.PARQUET, DATASET));
+  }
+
+  private static void assertContent(ByteBuf buf, int bufOffset, long offset, int len) {
+    for (int i = 0; i < len; i++) {
+      assertEquals(DATA[(int) offset + i], buf.getByte(bufOffset + i));
+    }
+  }
+
+  @Test
+  public void testMissingBlocksReadWithSingleCall() throws Exception {
+    try (BlockCache cache = open()) {
+      final RecordingReader delegate = new RecordingReader();
+      final ByteBuf dst = Unpooled.buffer(30);
+      // the second range spans two blocks
+      final List<ReadRange> ranges = Arrays.asList(
+        new ReadRange(2, dst, 0, 10),
+        new ReadRange(40, dst, 10, 20));
+
+      newReader(delegate, cache).readFully(ranges).join();
+
+      assertEquals(1, delegate.listReads.size());
+      final List<ReadRange> reads = delegate.listReads.get(0);
+      assertEquals(3, reads.size());
+      for (ReadRange read : reads) {
+        // whole blocks, so that they can be cached
+        assertEquals(0, read.getOffset() % BLOCK_SIZE);
+        assertEquals(BLOCK_SIZE, read.getLength());
+      }
+      assertContent(dst, 0, 2, 10);
+      assertContent(dst, 10, 40, 20);
+    }
+  }
+
+  @Test
+  public void testCachedBlocksNotRead() throws Exception {
+    try (BlockCache cache = open()) {
+      cache.put(new BlockKey("plugin", PATH.toString(), "1", 0), DATASET, Unpooled.wrappedBuffer(DATA, 0, BLOCK_SIZE));
+
+      final RecordingReader delegate = new RecordingReader();
+      final ByteBuf dst = Unpooled.buffer(30);
+      final List<ReadRange> ranges = Arrays.asList(
+        new ReadRange(4, dst, 0, 8),
+        new ReadRange(20, dst, 8, 8),
+        new ReadRange(66, dst, 16, 14));
+
+      newReader(delegate, cache).readFully(ranges).join();
+
+      assertEquals(1, delegate.listReads.size());
+      final List<ReadRange> reads = delegate.listReads.get(0);
+      assertEquals(2, reads.size());
+      assertEquals(BLOCK_SIZE, reads.get(0).getOffset());
+      assertEquals(4 * BLOCK_SIZE, reads.get(1).getOffset());
+      assertContent(dst, 0, 4, 8);
+      assertContent(dst, 8, 20, 8);
+      assertContent(dst, 16, 66, 14);
+    }
+  }
+
+  @Test
+  public void testAllBlocksCached() throws Exception {
+    try (BlockCache cache = open()) {
+      cache.put(new BlockKey("plugin", PATH.toString(), "1", 0), DATASET, Unpooled.wrappedBuffer(DATA, 0, BLOCK_SIZE));
+      cache.put(new BlockKey("plugin", PATH.toString(), "1", 1), DATASET,
+        Unpooled.wrappedBuffer(DATA, BLOCK_SIZE, BLOCK_SIZE));
+
+      final RecordingReader delegate = new RecordingReader();
+      final ByteBuf dst = Unpooled.buffer(20);
+      final List<ReadRange> ranges = Arrays.asList(
+        new ReadRange(0, dst, 0, 10),
+        new ReadRange(12, dst, 10, 10));
+
+      newReader(delegate, cache).readFully(ranges).join();
+
+      assertEquals(0, delegate.listReads.size());
+      assertContent(dst, 0, 0, 10);
+      assertContent(dst, 10, 12, 10);
+    }
+  }
+
+  @Test
+  public void testLastBlock() throws Exception {
+    try (BlockCache cache = open()) {
+      final RecordingReader delegate = new RecordingReader();
+      final ByteBuf dst = Unpooled.buffer(10);
+      // the last block only holds 4 bytes
+      newReader(delegate, cache).readFully(Collections.singletonList(new ReadRange(90, dst, 0, 10))).join();
+
+      assertEquals(1, delegate.listReads.size());
+      final List<ReadRange> reads = delegate.listReads.get(0);
+      assertEquals(2, reads.size());
+      assertEquals(5 * BLOCK_SIZE, reads.get(0).getOffset());
+      assertEquals(BLOCK_SIZE, reads.get(0).getLength());
+      assertEquals(6 * BLOCK_SIZE, reads.get(1).getOffset());
+      assertEquals(4, reads.get(1).getLength());
+      assertContent(dst, 0, 90, 10);
+    }
+  }
+
+  @Test
+  public void testMissingBlocksStagedInDestinationAllocator() throws Exception {
+    try (BlockCache cache = open();
+         BufferAllocator allocator = new RootAllocator()) {
+      final RecordingReader delegate = new RecordingReader();
+      final CachingAsyncByteReader reader = newReader(delegate, cache);
+      try (ArrowBuf buf = allocator.buffer(30)) {
+        final ByteBuf dst = NettyArrowBuf.unwrapBuffer(buf);
+        final long dstMemory = allocator.getAllocatedMemory();
+
+        reader.readFully(Arrays.asList(
+          new ReadRange(2, dst, 0, 10),
+          new ReadRange(40, dst, 10, 20))).join();
+        reader.readFully(70, dst, 0, 4).join();
+
+        // the blocks are staged off heap, and released once written to the cache
+        assertTrue(allocator.getPeakMemoryAllocation() > dstMemory);
+        assertEquals(dstMemory, allocator.getAllocatedMemory());
+        for (long block : new long[] {0, 2, 3, 4}) {
+          assertNotNull(cache.get(new BlockKey("plugin", PATH.toString(), "1", block)));
+        }
+        assertContent(dst, 0, 70, 4);
+        assertContent(dst, 4, 6, 6);
+        assertContent(dst, 10, 40, 20);
+      }
+    }
+  }
+}
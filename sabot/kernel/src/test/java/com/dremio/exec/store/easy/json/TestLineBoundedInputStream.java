@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.io.ArrowBufFSInputStream;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Tests for {@link LineBoundedInputStream}
+ */
+public class TestLineBoundedInputStream extends DremioTest {
+  private static final String CONTENT =
+    "{\"a\": 1}\n" +
+    "{\"a\": 22, \"b\": \"some longer value\"}\n" +
+    "\n" +
+    "{\"a\": 333}\r\n" +
+    "{\"a\": 4444, \"b\": [1, 2, 3]}";
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private static String read(ArrowBuf buf, long start, long end) throws IOException {
+    buf.readerIndex(0);
+    try (LineBoundedInputStream stream = new LineBoundedInputStream(new ArrowBufFSInputStream(buf), start, end)) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      IOUtils.copy(stream, out);
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testSplitsCoverAllLinesOnce() throws Exception {
+    final byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-line-bounded-input-stream", 0, Long.MAX_VALUE);
+         ArrowBuf buf = allocator.buffer(bytes.length)) {
+      buf.setBytes(0, bytes);
+      buf.writerIndex(bytes.length);
+
+      for (int splitSize = 1; splitSize <= bytes.length; splitSize++) {
+        final StringBuilder all = new StringBuilder();
+        for (long start = 0; start < bytes.length; start += splitSize) {
+          final String split = read(buf, start, Math.min(bytes.length, start + splitSize));
+          // every split holds whole lines only
+          if (!split.isEmpty() && all.length() > 0) {
+            assertEquals('\n', all.charAt(all.length() - 1));
+          }
+          all.append(split);
+        }
+        assertEquals("split size " + splitSize, CONTENT, all.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testSplitStartingAtLineStart() throws Exception {
+    final byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-line-bounded-input-stream", 0, Long.MAX_VALUE);
+         ArrowBuf buf = allocator.buffer(bytes.length)) {
+      buf.setBytes(0, bytes);
+      buf.writerIndex(bytes.length);
+
+      final int secondLine = CONTENT.indexOf('\n') + 1;
+      assertEquals("{\"a\": 1}\n", read(buf, 0, secondLine));
+      assertEquals("{\"a\": 22, \"b\": \"some longer value\"}\n", read(buf, secondLine, secondLine + 1));
+      assertEquals("", read(buf, secondLine + 1, secondLine + 2));
+    }
+  }
+}
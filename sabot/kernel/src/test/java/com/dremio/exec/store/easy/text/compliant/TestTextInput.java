@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.text.compliant;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Tests for the word at a time delimiter search in {@link TextInput}
+ */
+public class TestTextInput extends DremioTest {
+  private static final byte[] ALPHABET = "abc,\"\r\n".getBytes();
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private static long naiveFindAny(ArrowBuf buf, int start, int end, byte b1, byte b2, byte b3) {
+    for (int i = start; i < end; i++) {
+      final byte b = buf.getByte(i);
+      if (b == b1 || b == b2 || b == b3) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  @Test
+  public void testFindAny() throws Exception {
+    final Random random = new Random(42);
+    final int size = 1024;
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-text-input", 0, Long.MAX_VALUE);
+         ArrowBuf buf = allocator.buffer(size)) {
+      for (int round = 0; round < 100; round++) {
+        // sparse matches so that most words have none, a few have several
+        for (int i = 0; i < size; i++) {
+          buf.setByte(i, random.nextInt(16) == 0 ? ALPHABET[3 + random.nextInt(4)] : ALPHABET[random.nextInt(3)]);
+        }
+        for (int check = 0; check < 20; check++) {
+          final int start = random.nextInt(size);
+          final int end = start + random.nextInt(size - start + 1);
+          final long expected = naiveFindAny(buf, start, end, (byte) ',', (byte) '\n', (byte) '\r');
+          final long actual = TextInput.findAny(buf.memoryAddress() + start, buf.memoryAddress() + end,
+            (byte) ',', (byte) '\n', (byte) '\r') - buf.memoryAddress();
+          assertEquals(expected, actual);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFindAnyHighBytes() throws Exception {
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-text-input", 0, Long.MAX_VALUE);
+         ArrowBuf buf = allocator.buffer(32)) {
+      // bytes with the high bit set (UTF-8 continuation bytes) must not be mistaken for delimiters
+      for (int i = 0; i < 32; i++) {
+        buf.setByte(i, 0x80 | i);
+      }
+      assertEquals(32, TextInput.findAny(buf.memoryAddress(), buf.memoryAddress() + 32,
+        (byte) ',', (byte) '\n', (byte) '\r') - buf.memoryAddress());
+
+      buf.setByte(19, '\n');
+      assertEquals(19, TextInput.findAny(buf.memoryAddress(), buf.memoryAddress() + 32,
+        (byte) ',', (byte) '\n', (byte) '\r') - buf.memoryAddress());
+
+      // a delimiter with the high bit set
+      buf.setByte(11, 0xFE);
+      assertEquals(11, TextInput.findAny(buf.memoryAddress(), buf.memoryAddress() + 32,
+        (byte) 0xFE, (byte) '\n', (byte) '\r') - buf.memoryAddress());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParquetFooterCache}
+ */
+public class TestParquetFooterCache {
+
+  private static ParquetFooterCache.FooterLoader loader(byte[] footer, AtomicInteger loads) {
+    return () -> {
+      loads.incrementAndGet();
+      return footer;
+    };
+  }
+
+  @Test
+  public void testHitAndMiss() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    final AtomicInteger loads = new AtomicInteger();
+    final byte[] footer = new byte[] {1, 2, 3};
+
+    final byte[] first = cache.get(new ParquetFooterCache.FooterKey("/a/b.parquet", 100, 10), loader(footer, loads), null);
+    final byte[] second = cache.get(new ParquetFooterCache.FooterKey("/a/b.parquet", 100, 10), loader(footer, loads), null);
+    assertArrayEquals(footer, first);
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testChangedFileIsReloaded() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    final AtomicInteger loads = new AtomicInteger();
+
+    cache.get(new ParquetFooterCache.FooterKey("/a/b.parquet", 100, 10), loader(new byte[] {1}, loads), null);
+    // rewritten with the same length
+    final byte[] rewritten = cache.get(new ParquetFooterCache.FooterKey("/a/b.parquet", 100, 11), loader(new byte[] {2}, loads), null);
+    // rewritten with the same modification time
+    final byte[] resized = cache.get(new ParquetFooterCache.FooterKey("/a/b.parquet", 101, 10), loader(new byte[] {3}, loads), null);
+    assertArrayEquals(new byte[] {2}, rewritten);
+    assertArrayEquals(new byte[] {3}, resized);
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  public void testEvictionBySize() throws Exception {
+    final int footerSize = 1024;
+    final ParquetFooterCache cache = new ParquetFooterCache(4 * footerSize);
+    final AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 16; i++) {
+      cache.get(new ParquetFooterCache.FooterKey("/a/" + i + ".parquet", 100, 10), loader(new byte[footerSize], loads), null);
+    }
+    assertEquals(16, loads.get());
+    assertTrue(cache.getEvictionCount() >= 12);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.AsyncByteReader.FileKey;
+import com.dremio.io.AsyncByteReader.ReadRange;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests for the column chunk prefetching of {@link StreamPerColumnProvider}
+ */
+public class TestStreamPerColumnProvider {
+  private static final Path PATH = Path.of("/file.parquet");
+  private static final byte[] DATA = new byte[200];
+  static {
+    for (int i = 0; i < DATA.length; i++) {
+      DATA[i] = (byte) i;
+    }
+  }
+
+  /**
+   * Reads from {@link #DATA}, recording the calls made with several ranges.
+   */
+  private static final class RecordingReader implements AsyncByteReader {
+    private final List<List<ReadRange>> listReads = new ArrayList<>();
+
+    @Override
+    public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+      dst.setBytes(dstOffset, DATA, (int) offset, len);
+      return completedFuture;
+    }
+
+    @Override
+    public CompletableFuture<Void> readFully(List<ReadRange> ranges) {
+      listReads.add(ranges);
+      return AsyncByteReader.super.readFully(ranges);
+    }
+  }
+
+  private BufferAllocator allocator;
+  private OperatorContext context;
+  private FileSystem fs;
+  private RecordingReader reader;
+
+  @Before
+  public void setup() throws Exception {
+    allocator = new RootAllocator();
+    context = mock(OperatorContext.class);
+    when(context.getAllocator()).thenReturn(allocator);
+    reader = new RecordingReader();
+    fs = mock(FileSystem.class);
+    when(fs.supportsAsync()).thenReturn(true);
+    when(fs.getAsyncByteReader(any(FileKey.class), anyMapOf(String.class, String.class))).thenReturn(reader);
+  }
+
+  @After
+  public void tearDown() {
+    // closing fails on leaked buffers
+    allocator.close();
+  }
+
+  private StreamPerColumnProvider newProvider(boolean prefetch) {
+    return new StreamPerColumnProvider(fs, PATH, DATA.length, 1L, 1024, null, context, false,
+      Arrays.asList("source", "table"), prefetch);
+  }
+
+  private static ColumnChunkMetaData newColumn(String name, long startingPos, long totalSize) {
+    final ColumnChunkMetaData column = mock(ColumnChunkMetaData.class);
+    when(column.getPath()).thenReturn(ColumnPath.get(name));
+    when(column.getStartingPos()).thenReturn(startingPos);
+    when(column.getTotalSize()).thenReturn(totalSize);
+    return column;
+  }
+
+  private static void assertContent(BulkInputStream stream, long offset, int len) throws Exception {
+    final byte[] bytes = new byte[len];
+    stream.seek(offset);
+    stream.readFully(bytes, 0, len);
+    for (int i = 0; i < len; i++) {
+      assertEquals(DATA[(int) offset + i], bytes[i]);
+    }
+  }
+
+  @Test
+  public void testColumnChunksReadTogether() throws Exception {
+    final ColumnChunkMetaData a = newColumn("a", 4, 40);
+    final ColumnChunkMetaData b = newColumn("b", 60, 100);
+
+    try (StreamPerColumnProvider provider = newProvider(true)) {
+      provider.prefetch(Arrays.asList(a, b));
+
+      assertEquals(1, reader.listReads.size());
+      final List<ReadRange> reads = reader.listReads.get(0);
+      assertEquals(2, reads.size());
+      assertEquals(4, reads.get(0).getOffset());
+      assertEquals(40, reads.get(0).getLength());
+      assertEquals(60, reads.get(1).getOffset());
+      assertEquals(100, reads.get(1).getLength());
+
+      // the streams are positioned as the file
+      final BulkInputStream streamB = provider.getStream(b);
+      assertContent(streamB, 60, 10);
+      assertEquals(70, streamB.getPos());
+      assertContent(streamB, 150, 10);
+      assertContent(provider.getStream(a), 4, 40);
+      verify(fs, never()).open(any(Path.class));
+    }
+  }
+
+  @Test
+  public void testUnreadColumnsClosed() throws Exception {
+    try (StreamPerColumnProvider provider = newProvider(true)) {
+      provider.prefetch(Arrays.asList(newColumn("a", 0, 50), newColumn("b", 50, 50)));
+      assertEquals(100, allocator.getAllocatedMemory());
+    }
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testNoPrefetchWhenDisabled() throws Exception {
+    try (StreamPerColumnProvider provider = newProvider(false)) {
+      provider.prefetch(Arrays.asList(newColumn("a", 0, 50)));
+    }
+    verify(fs, never()).getAsyncByteReader(any(FileKey.class), anyMapOf(String.class, String.class));
+  }
+
+  @Test
+  public void testNoPrefetchWithoutAsync() throws Exception {
+    when(fs.supportsAsync()).thenReturn(false);
+    try (StreamPerColumnProvider provider = newProvider(true)) {
+      provider.prefetch(Arrays.asList(newColumn("a", 0, 50)));
+    }
+    verify(fs, never()).getAsyncByteReader(any(FileKey.class), anyMapOf(String.class, String.class));
+  }
+}
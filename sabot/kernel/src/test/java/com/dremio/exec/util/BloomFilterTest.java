@@ -336,6 +336,106 @@ public class BloomFilterTest {
         }
     }
 
+    @Test
+    public void testBlockedFilterStrings() {
+        try (final ArrowBuf keyBuf = bfTestAllocator.buffer(36);
+             final BloomFilter bloomFilter = new BloomFilter(bfTestAllocator, TEST_NAME, 1056, true)) {
+            bloomFilter.setup();
+            assertTrue(bloomFilter.isBlocked());
+
+            Set<String> keySet1 = randomStrings(100);
+            putAllStringKeys(bloomFilter, keyBuf, keySet1);
+
+            Set<String> keySet2 = randomStrings(1000);
+            keySet2.removeAll(keySet1); // ensure all are non-existing keys
+
+            // Assert FPP < 5%
+            int maxPermissibleErrors = (int) (0.05 * keySet2.size());
+            long errCount = keySet2.stream().map(k -> writeKey(keyBuf, k)).filter(key -> bloomFilter.mightContain(key, 36)).count();
+            assertTrue("False positivity is higher than expected. Total errors: " + errCount, errCount <= maxPermissibleErrors);
+
+            // Assert no false negatives
+            keySet1.stream().map(k -> writeKey(keyBuf, k)).forEach(key -> assertTrue(bloomFilter.mightContain(key, 36)));
+            keySet1.stream().map(k -> writeKey(keyBuf, k)).forEach(key -> assertFalse(bloomFilter.put(key, 36)));
+        }
+    }
+
+    @Test
+    public void testBlockedSerDeAndMerge() {
+        try (final ArrowBuf keyBuf = bfTestAllocator.buffer(4);
+             final BloomFilter bloomFilter1 = new BloomFilter(bfTestAllocator, TEST_NAME, 1056, true);
+             final BloomFilter bloomFilter2 = new BloomFilter(bfTestAllocator, TEST_NAME, 1056, true)) {
+            bloomFilter1.setup();
+            bloomFilter2.setup();
+            Set<Integer> keySet1 = randomIntegers(50);
+            putAllIntKeys(bloomFilter1, keyBuf, keySet1);
+            Set<Integer> keySet2 = randomIntegers(50);
+            putAllIntKeys(bloomFilter2, keyBuf, keySet2);
+
+            try (final BloomFilter copyFilter = bloomFilter1.createCopy(bfTestAllocator)) {
+                assertTrue(copyFilter.isBlocked());
+                assertEquals(bloomFilter1.getNumBitsSet(), copyFilter.getNumBitsSet());
+                copyFilter.merge(bloomFilter2);
+                keySet1.stream().map(k -> writeKey(keyBuf, k)).forEach(key -> assertTrue(copyFilter.mightContain(key, 4)));
+                keySet2.stream().map(k -> writeKey(keyBuf, k)).forEach(key -> assertTrue(copyFilter.mightContain(key, 4)));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentLayouts() {
+        try (final BloomFilter bloomFilter1 = new BloomFilter(bfTestAllocator, TEST_NAME, 544);
+             final BloomFilter bloomFilter2 = new BloomFilter(bfTestAllocator, TEST_NAME, 544, true)) {
+            bloomFilter1.setup();
+            bloomFilter2.setup();
+            bloomFilter1.merge(bloomFilter2);
+            fail("Expected failure during bloomfilter merge");
+        }
+    }
+
+    @Test
+    public void testBatchMightContain() {
+        testBatchMightContain(false);
+        testBatchMightContain(true);
+    }
+
+    private void testBatchMightContain(boolean blocked) {
+        final int count = 300;
+        try (final ArrowBuf keyBuf = bfTestAllocator.buffer(4);
+             final ArrowBuf keys = bfTestAllocator.buffer(count * 4);
+             final ArrowBuf bitmap = bfTestAllocator.buffer((count + 7) / 8);
+             final BloomFilter bloomFilter = new BloomFilter(bfTestAllocator, TEST_NAME, 2080, blocked)) {
+            bloomFilter.setup();
+            // insert the even keys only
+            for (int i = 0; i < count; i += 2) {
+                bloomFilter.put(writeKey(keyBuf, i), 4);
+            }
+            for (int i = 0; i < count; i++) {
+                keys.setInt(i * 4, i);
+            }
+
+            final int matches = bloomFilter.mightContain(keys, 4, count, bitmap);
+            int expectedMatches = 0;
+            for (int i = 0; i < count; i++) {
+                final boolean single = bloomFilter.mightContain(writeKey(keyBuf, i), 4);
+                final boolean batch = ((bitmap.getByte(i / 8) >> (i % 8)) & 1) == 1;
+                assertEquals("Mismatch for key " + i, single, batch);
+                if (i % 2 == 0) {
+                    assertTrue(batch);
+                }
+                expectedMatches += single ? 1 : 0;
+            }
+            assertEquals(expectedMatches, matches);
+        }
+    }
+
+    @Test
+    public void testGetOptimalSizeBlocked() {
+        assertEquals(96, BloomFilter.getOptimalSize(1, true));
+        assertEquals(160, BloomFilter.getOptimalSize(100, true));
+        assertEquals(1_248, BloomFilter.getOptimalSize(1_000, true));
+    }
+
     private Set<Integer> randomIntegers(int count) {
         Random random = new Random(System.nanoTime());
         Set<Integer> randomIntegerSet = new HashSet<>(count);
@@ -155,6 +155,32 @@ public class TestSpillingHashAgg extends BaseTestOperator {
     }
   }
 
+  /**
+   * Tests with records always inserted one partition at a time, with and without spilling
+   * @throws Exception
+   */
+  @Test
+  public void testPartitionedInsert() throws Exception {
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable distinctRatio = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_PARTITIONED_INSERT_DISTINCT_RATIO, 0.0D);
+         AutoCloseable minEntries = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_PARTITIONED_INSERT_MIN_ENTRIES, 1L)) {
+      final HashAggregate agg = getHashAggregate(1_000_000, 12_000_000);
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(2000, getTestAllocator(), true)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(agg, VectorizedHashAggOperator.class, generator, table, 2000);
+        assertEquals(0, agg.getSpillStats().getSpills());
+      }
+
+      final HashAggregate spillingAgg = getHashAggregate(1_000_000, 4_000_000, 990);
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(3000, getTestAllocator(), true);
+           AutoCloseable maxHashTableBatchSizeBytes = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_MAX_BATCHSIZE_BYTES, 128 * 1024)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(spillingAgg, VectorizedHashAggOperator.class, generator, table, 3000);
+        assertTrue(spillingAgg.getSpillStats().getSpills() > 0);
+      }
+    }
+  }
+
   /**
    * Tests with varchar key of length > 32k
    * @throws Exception
@@ -17,13 +17,17 @@ package com.dremio.sabot.exec.fragment;
 
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.List;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
@@ -38,8 +42,11 @@ import com.dremio.exec.planner.fragment.EndpointsIndex;
 import com.dremio.exec.planner.fragment.PlanFragmentFull;
 import com.dremio.exec.planner.fragment.PlanFragmentsIndex;
 import com.dremio.exec.proto.CoordExecRPC;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.record.FragmentWritableBatch;
+import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.testing.ExecutionControls;
 import com.dremio.options.OptionManager;
@@ -47,13 +54,17 @@ import com.dremio.sabot.driver.OperatorCreatorRegistry;
 import com.dremio.sabot.driver.Pipeline;
 import com.dremio.sabot.exec.EventProvider;
 import com.dremio.sabot.exec.FragmentTicket;
+import com.dremio.sabot.exec.FragmentWorkManager.ExecConnectionCreator;
 import com.dremio.sabot.exec.context.ContextInformation;
 import com.dremio.sabot.exec.context.FragmentStats;
+import com.dremio.sabot.exec.rpc.ExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.task.AsyncTask;
+import com.dremio.sabot.threads.SendingAccountor;
 import com.dremio.sabot.threads.sharedres.SharedResourceManager;
 import com.dremio.service.coordinator.ClusterCoordinator;
 import com.dremio.service.spill.SpillService;
+import com.dremio.services.jobresults.common.JobResultsTunnel;
 import com.google.common.collect.Lists;
 
 /**
@@ -92,7 +103,60 @@ public class TestFragmentExecutor {
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchesCoalescedAcrossPumps() throws Exception {
+        final ExecTunnel execTunnel = mock(ExecTunnel.class);
+        final ExecConnectionCreator connectionCreator = mock(ExecConnectionCreator.class);
+        when(connectionCreator.getTunnel(any(NodeEndpoint.class))).thenReturn(execTunnel);
+        final TunnelProviderImpl tunnelProvider = new TunnelProviderImpl(new SendingAccountor(),
+            mock(JobResultsTunnel.class), connectionCreator, mock(RpcOutcomeListener.class),
+            SharedResourceManager.newBuilder().addGroup("test").build().getGroup("test"), 1024, 60_000);
+
+        final NodeEndpoint endpoint = NodeEndpoint.newBuilder().setAddress("receiver").build();
+        final List<FragmentWritableBatch> batches = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            final FragmentWritableBatch batch = mock(FragmentWritableBatch.class);
+            when(batch.getByteCount()).thenReturn(10L);
+            batches.add(batch);
+        }
+
+        // each pump sends one narrow batch, the last one ends blocked on upstream
+        final Pipeline pipeline = mock(Pipeline.class);
+        final AsyncTask.State[] states = {AsyncTask.State.RUNNABLE, AsyncTask.State.RUNNABLE,
+            AsyncTask.State.RUNNABLE, AsyncTask.State.BLOCKED_ON_UPSTREAM};
+        final int[] pumps = {0};
+        when(pipeline.pumpOnce()).thenAnswer(invocation -> {
+            final int pump = pumps[0]++;
+            tunnelProvider.getExecTunnel(endpoint).sendRecordBatch(batches.get(pump));
+            return states[pump];
+        });
+
+        final FragmentExecutor exec = spy(getTestFragmentExecutor(tunnelProvider));
+        doNothing().when(exec).setupExecution();
+        final FragmentExecutor.FragmentExecutorListener listener = exec.getListener();
+        final AsyncTask asyncTask = exec.asAsyncTask();
+        asyncTask.run();
+        exec.transitionToRunning();
+        exec.overrideIsSetup(true);
+        listener.overridePipeline(pipeline);
+        listener.overrideIsSetup(true);
+
+        for (int i = 0; i < 3; i++) {
+            asyncTask.run();
+            verify(execTunnel, never()).sendRecordBatches(any(RpcOutcomeListener.class), anyList());
+        }
+        asyncTask.run();
+
+        verify(execTunnel).sendRecordBatches(any(RpcOutcomeListener.class), eq(batches));
+        verify(execTunnel, never()).sendRecordBatch(any(RpcOutcomeListener.class), any(FragmentWritableBatch.class));
+    }
+
     private FragmentExecutor getTestFragmentExecutor() {
+        return getTestFragmentExecutor(mock(TunnelProvider.class));
+    }
+
+    private FragmentExecutor getTestFragmentExecutor(TunnelProvider tunnelProvider) {
         FragmentStatusReporter statusReporter = mock(FragmentStatusReporter.class);
         SabotConfig config = SabotConfig.create();
         ExecutionControls executionControls = mock(ExecutionControls.class);
@@ -111,7 +175,6 @@ public class TestFragmentExecutor {
         OperatorContextCreator contextCreator = mock(OperatorContextCreator.class);
         FunctionLookupContext functionLookupContext = mock(FunctionLookupContext.class);
         FunctionLookupContext decimalFunctionLookupContext = mock(FunctionLookupContext.class);
-        TunnelProvider tunnelProvider = mock(TunnelProvider.class);
         FlushableSendingAccountor flushable = mock(FlushableSendingAccountor.class);
         OptionManager fragmentOptions = mock(OptionManager.class);
         FragmentStats stats = mock(FragmentStats.class);
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.rpc;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
+import com.dremio.exec.proto.GeneralRPCProtos.Ack;
+import com.dremio.exec.record.FragmentWritableBatch;
+import com.dremio.exec.rpc.RpcOutcomeListener;
+import com.dremio.sabot.threads.SendingMonitor;
+import com.google.common.base.Ticker;
+
+/**
+ * Tests for {@link AccountingExecTunnel}
+ */
+public class TestAccountingExecTunnel {
+  private ExecTunnel tunnel;
+  private SendingMonitor monitor;
+  private RpcOutcomeListener<Ack> listener;
+  private long nanos;
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos;
+    }
+  };
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    tunnel = mock(ExecTunnel.class);
+    monitor = mock(SendingMonitor.class);
+    listener = mock(RpcOutcomeListener.class);
+  }
+
+  private static FragmentWritableBatch newBatch(long bytes) {
+    final FragmentWritableBatch batch = mock(FragmentWritableBatch.class);
+    when(batch.getByteCount()).thenReturn(bytes);
+    return batch;
+  }
+
+  @Test
+  public void testNoCoalescing() {
+    final AccountingExecTunnel execTunnel = new AccountingExecTunnel(tunnel, monitor, listener);
+    final FragmentWritableBatch batch = newBatch(10);
+    execTunnel.sendRecordBatch(batch);
+
+    verify(tunnel).sendRecordBatch(listener, batch);
+    verify(monitor).increment();
+  }
+
+  @Test
+  public void testCoalescing() {
+    final AccountingExecTunnel execTunnel = new AccountingExecTunnel(tunnel, monitor, listener, 100, 10, ticker);
+    final FragmentWritableBatch batch1 = newBatch(30);
+    final FragmentWritableBatch batch2 = newBatch(30);
+    execTunnel.sendRecordBatch(batch1);
+    execTunnel.sendRecordBatch(batch2);
+    verify(tunnel, never()).sendRecordBatches(any(RpcOutcomeListener.class), anyList());
+    verify(monitor, never()).increment();
+
+    // reaching the threshold sends the held back batches in one message
+    final FragmentWritableBatch batch3 = newBatch(50);
+    execTunnel.sendRecordBatch(batch3);
+    verify(tunnel).sendRecordBatches(listener, Arrays.asList(batch1, batch2, batch3));
+    verify(monitor).increment();
+
+    // nothing left to send
+    execTunnel.flush();
+    verify(monitor).increment();
+  }
+
+  @Test
+  public void testFlush() {
+    final AccountingExecTunnel execTunnel = new AccountingExecTunnel(tunnel, monitor, listener, 100, 10, ticker);
+    final FragmentWritableBatch batch = newBatch(10);
+    execTunnel.sendRecordBatch(batch);
+    execTunnel.flush();
+
+    // a single batch is sent on its own
+    verify(tunnel).sendRecordBatch(listener, batch);
+    verify(tunnel, never()).sendRecordBatches(any(RpcOutcomeListener.class), anyList());
+  }
+
+  @Test
+  public void testBatchesSentBeforeOtherMessages() {
+    final AccountingExecTunnel execTunnel = new AccountingExecTunnel(tunnel, monitor, listener, 100, 10, ticker);
+    final FragmentWritableBatch batch1 = newBatch(10);
+    final FragmentWritableBatch batch2 = newBatch(10);
+    final FragmentStreamComplete complete = FragmentStreamComplete.getDefaultInstance();
+    execTunnel.sendRecordBatch(batch1);
+    execTunnel.sendRecordBatch(batch2);
+    execTunnel.sendStreamComplete(complete);
+
+    final InOrder inOrder = inOrder(tunnel);
+    inOrder.verify(tunnel).sendRecordBatches(listener, Arrays.asList(batch1, batch2));
+    inOrder.verify(tunnel).sendStreamComplete(eq(listener), eq(complete));
+    verify(monitor, times(2)).increment();
+  }
+
+  @Test
+  public void testMaxDelay() {
+    final AccountingExecTunnel execTunnel = new AccountingExecTunnel(tunnel, monitor, listener, 100, 10, ticker);
+    final FragmentWritableBatch batch1 = newBatch(10);
+    final FragmentWritableBatch batch2 = newBatch(10);
+    final FragmentWritableBatch batch3 = newBatch(10);
+    execTunnel.sendRecordBatch(batch1);
+    nanos += TimeUnit.MILLISECONDS.toNanos(5);
+    execTunnel.sendRecordBatch(batch2);
+    execTunnel.flushExpired();
+    verify(monitor, never()).increment();
+
+    // the delay is counted from the oldest held back batch
+    nanos += TimeUnit.MILLISECONDS.toNanos(5);
+    execTunnel.flushExpired();
+    verify(tunnel).sendRecordBatches(listener, Arrays.asList(batch1, batch2));
+    verify(monitor).increment();
+
+    // a send past the delay goes out right away
+    execTunnel.sendRecordBatch(batch3);
+    nanos += TimeUnit.MILLISECONDS.toNanos(10);
+    final FragmentWritableBatch batch4 = newBatch(10);
+    execTunnel.sendRecordBatch(batch4);
+    verify(tunnel).sendRecordBatches(listener, Arrays.asList(batch3, batch4));
+    verify(monitor, times(2)).increment();
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.dremio.common.config.SabotConfig;
+import com.dremio.exec.exception.FragmentSetupException;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatch;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatches;
+import com.dremio.exec.proto.ExecRPC.RpcType;
+import com.dremio.exec.rpc.Acks;
+import com.dremio.exec.rpc.Response;
+import com.dremio.exec.rpc.ResponseSender;
+import com.dremio.sabot.exec.FragmentExecutors;
+import com.dremio.sabot.op.receiver.RawFragmentBatch;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+
+/**
+ * Tests for the handling of coalesced record batches by {@link ExecProtocol}
+ */
+public class TestExecProtocol {
+  private BufferAllocator rootAllocator;
+  private BufferAllocator rpcAllocator;
+  private BufferAllocator receiverAllocator;
+  private FragmentExecutors fragmentsManager;
+  private ResponseSender sender;
+  private ExecProtocol protocol;
+
+  private final List<FragmentHandle> handles = new ArrayList<>();
+  private final List<RawFragmentBatch> received = new ArrayList<>();
+
+  @Before
+  public void setup() throws Exception {
+    rootAllocator = new RootAllocator();
+    rpcAllocator = rootAllocator.newChildAllocator("rpc", 0, Long.MAX_VALUE);
+    receiverAllocator = rootAllocator.newChildAllocator("receiver", 0, Long.MAX_VALUE);
+    fragmentsManager = mock(FragmentExecutors.class);
+    sender = mock(ResponseSender.class);
+    protocol = new ExecProtocol(SabotConfig.create(), rpcAllocator, fragmentsManager);
+
+    // receivers take their own reference to the batches, like the incoming buffers do
+    doAnswer(invocation -> {
+      handles.add((FragmentHandle) invocation.getArguments()[0]);
+      received.add(((IncomingDataBatch) invocation.getArguments()[1]).newRawFragmentBatch(receiverAllocator));
+      return null;
+    }).when(fragmentsManager).handle(any(FragmentHandle.class), any(IncomingDataBatch.class));
+  }
+
+  @After
+  public void tearDown() {
+    for (RawFragmentBatch batch : received) {
+      if (batch.getBody() != null) {
+        // the transferred reference, then the one held by the batch
+        batch.getBody().release();
+      }
+      batch.close();
+    }
+    // closing fails on leaked buffers
+    receiverAllocator.close();
+    rpcAllocator.close();
+    rootAllocator.close();
+  }
+
+  private ByteBuf newBody(int length) {
+    final ArrowBuf buf = rpcAllocator.buffer(length);
+    for (int i = 0; i < length; i++) {
+      buf.setByte(i, i);
+    }
+    buf.writerIndex(length);
+    return NettyArrowBuf.unwrapBuffer(buf);
+  }
+
+  private static FragmentRecordBatch newHeader(int... minorFragmentIds) {
+    final FragmentRecordBatch.Builder builder = FragmentRecordBatch.newBuilder()
+      .setReceivingMajorFragmentId(1)
+      .setSendingMajorFragmentId(2)
+      .setSendingMinorFragmentId(0);
+    for (int minorFragmentId : minorFragmentIds) {
+      builder.addReceivingMinorFragmentId(minorFragmentId);
+    }
+    return builder.build();
+  }
+
+  private Response getResponse() {
+    final ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+    verify(sender).send(response.capture());
+    return response.getValue();
+  }
+
+  @Test
+  public void testSplitCoalescedBatches() throws Exception {
+    final FragmentRecordBatches batches = FragmentRecordBatches.newBuilder()
+      .addBatch(newHeader(0)).addBodyLength(10)
+      .addBatch(newHeader(1)).addBodyLength(20)
+      .addBatch(newHeader(2)).addBodyLength(0)
+      .build();
+    final ByteBuf body = newBody(30);
+
+    protocol.handle(null, RpcType.REQ_RECORD_BATCHES_VALUE, batches.toByteString(), body, sender);
+    // the rpc layer releases the message body once handled
+    body.release();
+
+    assertEquals(3, received.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(1, handles.get(i).getMajorFragmentId());
+      assertEquals(i, handles.get(i).getMinorFragmentId());
+      assertEquals(batches.getBatch(i), received.get(i).getHeader());
+    }
+
+    // each batch only sees its own slice of the body
+    assertEquals(10, received.get(0).getByteCount());
+    assertEquals(20, received.get(1).getByteCount());
+    assertNull(received.get(2).getBody());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, received.get(0).getBody().getByte(i));
+    }
+    for (int i = 0; i < 20; i++) {
+      assertEquals(10 + i, received.get(1).getBody().getByte(i));
+    }
+
+    // a single ack, once every receiver consumed its batch
+    received.get(0).sendOk();
+    received.get(2).sendOk();
+    verify(sender, never()).send(any(Response.class));
+    received.get(1).sendOk();
+    assertSame(Acks.OK, getResponse().pBody);
+  }
+
+  @Test
+  public void testBatchForSeveralReceivers() throws Exception {
+    final FragmentRecordBatches batches = FragmentRecordBatches.newBuilder()
+      .addBatch(newHeader(0, 1)).addBodyLength(8)
+      .addBatch(newHeader(1)).addBodyLength(8)
+      .build();
+    final ByteBuf body = newBody(16);
+
+    protocol.handle(null, RpcType.REQ_RECORD_BATCHES_VALUE, batches.toByteString(), body, sender);
+    body.release();
+
+    assertEquals(3, received.size());
+    for (RawFragmentBatch batch : received) {
+      batch.sendOk();
+    }
+    assertSame(Acks.OK, getResponse().pBody);
+  }
+
+  @Test
+  public void testWrongBodyLength() throws Exception {
+    final FragmentRecordBatches batches = FragmentRecordBatches.newBuilder()
+      .addBatch(newHeader(0)).addBodyLength(10)
+      .addBatch(newHeader(1)).addBodyLength(30)
+      .build();
+    final ByteBuf body = newBody(30);
+
+    protocol.handle(null, RpcType.REQ_RECORD_BATCHES_VALUE, batches.toByteString(), body, sender);
+    body.release();
+
+    verify(fragmentsManager, never()).handle(any(FragmentHandle.class), any(IncomingDataBatch.class));
+    assertSame(Acks.FAIL, getResponse().pBody);
+    assertEquals(0, rpcAllocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testMissingBodyLength() throws Exception {
+    final FragmentRecordBatches batches = FragmentRecordBatches.newBuilder()
+      .addBatch(newHeader(0)).addBodyLength(10)
+      .addBatch(newHeader(1))
+      .build();
+    final ByteBuf body = newBody(10);
+
+    protocol.handle(null, RpcType.REQ_RECORD_BATCHES_VALUE, batches.toByteString(), body, sender);
+    body.release();
+
+    verify(fragmentsManager, never()).handle(any(FragmentHandle.class), any(IncomingDataBatch.class));
+    assertSame(Acks.FAIL, getResponse().pBody);
+  }
+
+  @Test
+  public void testReceiverFailure() throws Exception {
+    final FragmentRecordBatches batches = FragmentRecordBatches.newBuilder()
+      .addBatch(newHeader(0)).addBodyLength(10)
+      .addBatch(newHeader(1)).addBodyLength(10)
+      .build();
+    final ByteBuf body = newBody(20);
+
+    // the second receiver is gone
+    doThrow(new FragmentSetupException("no receiver")).when(fragmentsManager)
+      .handle(eq(FragmentHandle.newBuilder()
+        .setQueryId(batches.getBatch(1).getQueryId())
+        .setMajorFragmentId(1)
+        .setMinorFragmentId(1)
+        .build()), any(IncomingDataBatch.class));
+
+    protocol.handle(null, RpcType.REQ_RECORD_BATCHES_VALUE, batches.toByteString(), body, sender);
+    body.release();
+
+    assertSame(Acks.FAIL, getResponse().pBody);
+    // the first receiver consuming its batch doesn't send another ack
+    assertEquals(1, received.size());
+    received.get(0).sendOk();
+    verify(sender, times(1)).send(any(Response.class));
+  }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.util.Arrays;
@@ -50,6 +51,7 @@ import org.mockito.stubbing.Answer;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.utils.protos.AttemptId;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.options.OptionManager;
@@ -538,6 +540,8 @@ public class TestVectorizedHashAggPartitionSerializable extends DremioTest {
         VectorizedHashAggPartition hashAggPartition =  new VectorizedHashAggPartition
           (accumulator, sourceHashTable, pivot.getBlockWidth(), "P0", offsets, false);
         OptionManager optionManager = mock(OptionManager.class);
+        when(optionManager.getOption(ExecConstants.SPILL_COMPRESSION_CODEC)).thenReturn("ZSTD");
+        when(optionManager.getOption(ExecConstants.SPILL_COMPRESSION_ZSTD_LEVEL)).thenReturn(3L);
         final VectorizedHashAggPartitionSpillHandler partitionSpillHandler = new VectorizedHashAggPartitionSpillHandler(hashAggPartitions, fragmentHandle, optionManager, sabotConfig, 1, partitionToLoadSpilledData, spillService, true, null);
         hashAggPartitions[0] = hashAggPartition;
 
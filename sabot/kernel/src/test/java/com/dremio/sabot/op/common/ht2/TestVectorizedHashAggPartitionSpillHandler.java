@@ -25,6 +25,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.util.Iterator;
@@ -51,6 +52,7 @@ import org.mockito.stubbing.Answer;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.utils.protos.AttemptId;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.options.OptionManager;
@@ -391,6 +393,7 @@ public class TestVectorizedHashAggPartitionSpillHandler extends DremioTest {
         }).when(spillService).getSpillSubdir(any(String.class));
 
         OptionManager optionManager = mock(OptionManager.class);
+        when(optionManager.getOption(ExecConstants.SPILL_COMPRESSION_CODEC)).thenReturn("LZ4");
         partitionSpillHandler = new VectorizedHashAggPartitionSpillHandler(partitions,
           fragmentHandle, optionManager, sabotConfig, 1, partitionToLoadSpilledData, spillService, true, null);
 
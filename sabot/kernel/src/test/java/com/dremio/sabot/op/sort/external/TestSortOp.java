@@ -20,8 +20,13 @@ import static java.util.Collections.singletonList;
 import static org.apache.calcite.rel.RelFieldCollation.Direction.ASCENDING;
 import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.BufferAllocator;
@@ -42,7 +47,9 @@ import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.CustomGenerator;
 import com.dremio.sabot.Fixtures;
 import com.dremio.sabot.exec.context.BufferManagerImpl;
+import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.spi.SingleInputOperator.State;
 
 public class TestSortOp extends BaseTestOperator {
 
@@ -644,4 +651,75 @@ public class TestSortOp extends BaseTestOperator {
       validateSingle(sort, ExternalSortOperator.class, generator, table, 1000);
     }
   }
+
+  private OperatorStats validateReadAhead(long readAheadBatches) throws Exception {
+    try (AutoCloseable readAhead = with(ExecConstants.EXTERNAL_SORT_READ_AHEAD_BATCHES, readAheadBatches)) {
+      ExternalSort sort = new ExternalSort(PROPS.cloneWithNewReserve(1_000_000), null, singletonList(ordering(ID.getName(), ASCENDING, FIRST)), false);
+      sort.getProps().setMemLimit(2_000_000); // this can't go below sort's initialAllocation (20K)
+
+      final CustomGenerator localGen = new CustomGenerator(50_000, getTestAllocator());
+      Fixtures.Table table = localGen.getExpectedSortedTable();
+      OperatorStats stats = validateSingle(sort, ExternalSortOperator.class, localGen, table, 1000);
+      assertTrue(stats.getLongStat(ExternalSortOperator.Metric.SPILL_COUNT) > 2);
+      return stats;
+    }
+  }
+
+  @Test
+  public void testReadAhead() throws Exception {
+    // the merged output is checked against the same sorted table, with and without reading ahead
+    assertEquals(0, validateReadAhead(0).getLongStat(ExternalSortOperator.Metric.READ_AHEAD_WAIT_NANOS));
+    assertTrue(validateReadAhead(1).getLongStat(ExternalSortOperator.Metric.READ_AHEAD_WAIT_NANOS) > 0);
+    assertTrue(validateReadAhead(2).getLongStat(ExternalSortOperator.Metric.READ_AHEAD_WAIT_NANOS) > 0);
+  }
+
+  @Test
+  public void testReadAheadReservationFailure() throws Exception {
+    // reserving 16 batches ahead for each run exceeds the sort's memory limit, the runs are read on demand
+    assertEquals(0, validateReadAhead(16).getLongStat(ExternalSortOperator.Metric.READ_AHEAD_WAIT_NANOS));
+  }
+
+  @Test
+  public void testReadAheadExecutor() throws Exception {
+    final OperatorContext context = mock(OperatorContext.class);
+    final ExecutorService executor = mock(ExecutorService.class);
+    when(context.getExecutor()).thenReturn(executor);
+    assertSame(executor, ExternalSortOperator.getReadAheadExecutor(context, testContext.getOptions()));
+
+    // runs are read on demand by contexts without an executor
+    when(context.getExecutor()).thenThrow(new UnsupportedOperationException());
+    assertNull(ExternalSortOperator.getReadAheadExecutor(context, testContext.getOptions()));
+
+    try (AutoCloseable readAhead = with(ExecConstants.EXTERNAL_SORT_READ_AHEAD_BATCHES, 0)) {
+      assertNull(ExternalSortOperator.getReadAheadExecutor(context, testContext.getOptions()));
+    }
+  }
+
+  @Test
+  public void testCloseWhileReadingAhead() throws Exception {
+    try (AutoCloseable readAhead = with(ExecConstants.EXTERNAL_SORT_READ_AHEAD_BATCHES, 2)) {
+      ExternalSort sort = new ExternalSort(PROPS.cloneWithNewReserve(1_000_000), null, singletonList(ordering(ID.getName(), ASCENDING, FIRST)), false);
+      sort.getProps().setMemLimit(2_000_000); // this can't go below sort's initialAllocation (20K)
+
+      try (CustomGenerator localGen = new CustomGenerator(50_000, getTestAllocator());
+           ExternalSortOperator op = newOperator(ExternalSortOperator.class, sort, 1000)) {
+        op.setup(localGen.getOutput());
+        int count;
+        while ((count = localGen.next(1000)) != 0) {
+          assertState(op, State.CAN_CONSUME);
+          op.consumeData(count);
+        }
+        op.noMoreToConsume();
+
+        // output a first merged batch, the next batches of the runs are being read
+        int output = 0;
+        while (output == 0 && op.getState() == State.CAN_PRODUCE) {
+          output = op.outputData();
+        }
+        assertTrue(output > 0);
+        assertState(op, State.CAN_PRODUCE);
+      }
+      // the operator allocator is closed with the test, which fails on leaked buffers
+    }
+  }
 }
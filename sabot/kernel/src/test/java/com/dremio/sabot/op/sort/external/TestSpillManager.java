@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.dremio.common.config.SabotConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.options.OptionManager;
+import com.dremio.service.spill.SpillCompressionCodec;
+import com.dremio.service.spill.SpillService;
+
+/**
+ * Tests for {@link SpillManager}
+ */
+public class TestSpillManager {
+
+  @Test
+  public void testDefaultCodecWithoutOptions() throws Exception {
+    // spooling exchanges create their spill manager without options
+    try (SpillManager manager = new SpillManager(SabotConfig.create(), null, "spill-id", null,
+        mock(SpillService.class), "test", null)) {
+      assertEquals(SpillCompressionCodec.LZ4, manager.getCompressionCodec());
+    }
+  }
+
+  @Test
+  public void testCodecFromOptions() throws Exception {
+    final OptionManager options = mock(OptionManager.class);
+    when(options.getOption(ExecConstants.SPILL_COMPRESSION_CODEC)).thenReturn("lz4");
+    when(options.getOption(ExecConstants.EXTERNAL_SORT_DIRECT_WRITE)).thenReturn(true);
+    when(options.getOption(ExecConstants.SPILL_COMPRESSION_ZSTD_LEVEL)).thenReturn(3L);
+    try (SpillManager manager = new SpillManager(SabotConfig.create(), options, "spill-id", null,
+        mock(SpillService.class), "test", null)) {
+      assertEquals(SpillCompressionCodec.LZ4, manager.getCompressionCodec());
+    }
+  }
+}
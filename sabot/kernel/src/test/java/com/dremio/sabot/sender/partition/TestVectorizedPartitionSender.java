@@ -15,15 +15,26 @@
  */
 package com.dremio.sabot.sender.partition;
 
+import static com.dremio.sabot.Fixtures.NULL_BOOLEAN;
+import static com.dremio.sabot.Fixtures.NULL_VARCHAR;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -31,16 +42,25 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.planner.fragment.EndpointsIndex;
 import com.dremio.exec.proto.CoordExecRPC.MinorFragmentIndexEndpoint;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.record.ArrowRecordBatchLoader;
+import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.FragmentWritableBatch;
+import com.dremio.exec.record.VectorWrapper;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.CustomGenerator;
+import com.dremio.sabot.Fixtures;
+import com.dremio.sabot.Fixtures.DataRow;
+import com.dremio.sabot.Generator;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
+import com.dremio.sabot.op.receiver.RawFragmentBatch;
 import com.dremio.sabot.op.sender.partition.vectorized.VectorizedPartitionSenderOperator;
+import com.google.common.base.Strings;
 
 import io.netty.buffer.ByteBuf;
 
@@ -66,20 +86,162 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
 
   @Test
   public void testNumPartitions() throws Exception {
-    HashPartitionSender sender = new HashPartitionSender(PROPS, generator.getSchema(), null, 1, getIndexEndpoints(), f(CustomGenerator.ID.getName()));
+    checkRowCounts(sendAll());
+  }
+
+  @Test
+  public void testPartitionedCopy() throws Exception {
+    final Fixtures.Table input = newInput();
+
+    // the same rows, sent with and without partitioned copy, must reach the same receivers
+    final List<List<String>> expected;
+    try (AutoCloseable partitionedCopy = with(ExecConstants.PARTITIONER_PARTITIONED_COPY_MIN_RECEIVERS,
+      NUM_FRAGMENTS + 1)) {
+      expected = sendRows(input);
+    }
+
+    final List<List<String>> actual;
+    // smallest batch bytes, so that outgoing batches get flushed on bytes too
+    try (AutoCloseable partitionedCopy = with(ExecConstants.PARTITIONER_PARTITIONED_COPY_MIN_RECEIVERS, 1);
+         AutoCloseable batchBytes = with(ExecConstants.PARTITIONER_PARTITIONED_COPY_BATCH_BYTES, 1024)) {
+      checkRowCounts(sendAll());
+      actual = sendRows(input);
+    }
+    assertEquals(expected, actual);
+
+    // and every row is received once, with its values intact
+    final List<String> received = new ArrayList<>();
+    for (List<String> rows : actual) {
+      received.addAll(rows);
+    }
+    Collections.sort(received);
+    final List<String> sent = new ArrayList<>();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      sent.add(Arrays.asList(i, getBigInt(i), getDecimal(i), getBit(i), getVarChar(i)).toString());
+    }
+    Collections.sort(sent);
+    assertEquals(sent, received);
+  }
+
+  /**
+   * A row for each copier: four bytes (hashed), eight bytes, sixteen bytes, bit and variable width
+   */
+  private static Fixtures.Table newInput() {
+    final DataRow[] rows = new DataRow[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      rows[i] = tr(i, getBigInt(i), getDecimal(i),
+        getBit(i) == null ? NULL_BOOLEAN : getBit(i),
+        getVarChar(i) == null ? NULL_VARCHAR : getVarChar(i));
+    }
+    return t(th(CustomGenerator.ID.getName(), "BIGINT_COL", "DECIMAL_COL", "BIT_COL", "VARCHAR_COL"), rows);
+  }
+
+  private static long getBigInt(int i) {
+    return i * 1_000_000_007L;
+  }
+
+  private static BigDecimal getDecimal(int i) {
+    return BigDecimal.valueOf(i * 1_000_003L, 2);
+  }
+
+  private static Boolean getBit(int i) {
+    return i % 3 == 0 ? null : i % 2 == 0;
+  }
+
+  private static String getVarChar(int i) {
+    return i % 5 == 0 ? null : Strings.repeat("v", i % 40) + i;
+  }
 
+  private void checkRowCounts(int[] rowCountPerFragment) {
+    int sum = 0;
+    assertEquals(8, VectorizedPartitionSenderOperator.PARTITION_MULTIPLE ); // Min/Max computed for 8 partitions. Higher multiples have tighter bounds, and vice versa
+    for (int i = 0; i < NUM_FRAGMENTS; i++) {
+      assert (rowCountPerFragment[i] >= MIN_NUM_PER_FRAGMENT);
+      assert (rowCountPerFragment[i] <= MAX_NUM_PER_FRAGMENT);
+      sum += rowCountPerFragment[i];
+    }
+    assertEquals(NUM_ROWS, sum);
+  }
+
+  private int[] sendAll() throws Exception {
     final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    send(generator, batch -> {
+      for (int fragId : batch.getHeader().getReceivingMinorFragmentIdList()) {
+        rowCountPerFragment[fragId] += batch.getRecordCount();
+      }
+    });
+    return rowCountPerFragment;
+  }
+
+  /**
+   * @return the rows received by each fragment, sorted
+   */
+  private List<List<String>> sendRows(Fixtures.Table table) throws Exception {
+    final List<List<String>> rowsPerFragment = new ArrayList<>();
+    for (int i = 0; i < NUM_FRAGMENTS; i++) {
+      rowsPerFragment.add(new ArrayList<>());
+    }
+
+    try (Generator input = table.toGenerator(getTestAllocator())) {
+      final BatchSchema schema = input.getOutput().getSchema();
+      send(input, batch -> {
+        final List<String> rows = readRows(batch, schema);
+        for (int fragId : batch.getHeader().getReceivingMinorFragmentIdList()) {
+          rowsPerFragment.get(fragId).addAll(rows);
+        }
+      });
+    }
+
+    for (List<String> rows : rowsPerFragment) {
+      Collections.sort(rows);
+    }
+    return rowsPerFragment;
+  }
+
+  /**
+   * Load a sent batch the way receivers do, from a single body buffer
+   */
+  private List<String> readRows(FragmentWritableBatch batch, BatchSchema schema) {
+    final BufferAllocator allocator = getTestAllocator();
+    final List<String> rows = new ArrayList<>();
+    try (ArrowBuf body = allocator.buffer(batch.getByteCount())) {
+      long offset = 0;
+      for (ByteBuf b : batch.getBuffers()) {
+        body.setBytes(offset, b.nioBuffer());
+        offset += b.readableBytes();
+      }
+      body.writerIndex(offset);
+
+      try (RawFragmentBatch rawBatch = new RawFragmentBatch(batch.getHeader(), body, null);
+           ArrowRecordBatchLoader loader = new ArrowRecordBatchLoader(allocator, schema)) {
+        loader.load(rawBatch);
+        for (int i = 0; i < loader.getRecordCount(); i++) {
+          final List<Object> values = new ArrayList<>();
+          for (VectorWrapper<?> wrapper : loader) {
+            values.add(wrapper.getValueVector().getObject(i));
+          }
+          rows.add(values.toString());
+        }
+      }
+    }
+    return rows;
+  }
+
+  private void send(Generator input, Consumer<FragmentWritableBatch> receiver) throws Exception {
+    HashPartitionSender sender = new HashPartitionSender(PROPS, input.getOutput().getSchema(), null, 1,
+      getIndexEndpoints(), f(CustomGenerator.ID.getName()));
 
     final AccountingExecTunnel tunnel = mock(AccountingExecTunnel.class);
     doAnswer(new Answer<Void>(){
       @Override
       public Void answer(InvocationOnMock invocation) throws Throwable {
         final FragmentWritableBatch batch = (FragmentWritableBatch) invocation.getArguments()[0];
-        for (int fragId : batch.getHeader().getReceivingMinorFragmentIdList()) {
-          rowCountPerFragment[fragId] += batch.getRecordCount();
-        }
-        for(ByteBuf b : batch.getBuffers()){
-          b.release();
+        try {
+          receiver.accept(batch);
+        } finally {
+          for(ByteBuf b : batch.getBuffers()){
+            b.release();
+          }
         }
         return null;
       }}).when(tunnel).sendRecordBatch(any(FragmentWritableBatch.class));
@@ -89,18 +251,10 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
 
     VectorizedPartitionSenderOperator op = newOperator(VectorizedPartitionSenderOperator.class, sender, DEFAULT_BATCH,
       new EndpointsIndex(getEndpoints()), provider);
-    op.setup(generator.getOutput());
+    op.setup(input.getOutput());
     op.getOperatorContext().getStats().startProcessing();
-    op.consumeData(generator.next(DEFAULT_BATCH));
+    op.consumeData(input.next(DEFAULT_BATCH));
     op.noMoreToConsume();
-    int sum = 0;
-    assertEquals(8, VectorizedPartitionSenderOperator.PARTITION_MULTIPLE ); // Min/Max computed for 8 partitions. Higher multiples have tighter bounds, and vice versa
-    for (int i = 0; i < NUM_FRAGMENTS; i++) {
-      assert (rowCountPerFragment[i] >= MIN_NUM_PER_FRAGMENT);
-      assert (rowCountPerFragment[i] <= MAX_NUM_PER_FRAGMENT);
-      sum += rowCountPerFragment[i];
-    }
-    assertEquals(NUM_ROWS, sum);
   }
 
   public List<MinorFragmentIndexEndpoint> getIndexEndpoints() {
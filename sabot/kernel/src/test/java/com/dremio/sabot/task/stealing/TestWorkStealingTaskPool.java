@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.stealing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.dremio.sabot.task.AsyncTask;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.Task.State;
+import com.dremio.sabot.task.TaskDescriptor;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.threads.AvailabilityCallback;
+import com.dremio.sabot.threads.sharedres.SharedResourceType;
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests for {@link WorkStealingTaskPool}
+ */
+public class TestWorkStealingTaskPool {
+
+  /**
+   * Task that runs a given number of times, optionally blocking (and being woken up right away) on every other run.
+   */
+  private static class CountingTask implements AsyncTask {
+    private final int runs;
+    private final boolean block;
+    private final AtomicInteger runCount = new AtomicInteger();
+    private volatile State state = State.RUNNABLE;
+
+    CountingTask(int runs, boolean block) {
+      this.runs = runs;
+      this.block = block;
+    }
+
+    @Override
+    public void run() {
+      final int count = runCount.incrementAndGet();
+      if (count >= runs) {
+        state = State.DONE;
+      } else if (block && count % 2 == 1) {
+        state = State.BLOCKED_ON_UPSTREAM;
+      }
+    }
+
+    @Override
+    public void refreshState() {
+      if (state == State.BLOCKED_ON_UPSTREAM) {
+        state = State.RUNNABLE;
+      }
+    }
+
+    @Override
+    public State getState() {
+      return state;
+    }
+
+    @Override
+    public SharedResourceType getFirstBlockedResource() {
+      return null;
+    }
+
+    @Override
+    public void updateSleepDuration(long duration) {
+    }
+
+    @Override
+    public void updateBlockedOnDownstreamDuration(long duration) {
+    }
+
+    @Override
+    public void updateBlockedOnUpstreamDuration(long duration) {
+    }
+
+    @Override
+    public void addBlockedOnSharedResourceDuration(SharedResourceType resource, long duration) {
+    }
+
+    @Override
+    public void setWakeupCallback(AvailabilityCallback callback) {
+      // the upstream data is already there
+      callback.nowAvailable();
+    }
+
+    @Override
+    public void setTaskDescriptor(TaskDescriptor descriptor) {
+    }
+  }
+
+  private static void runTasks(TaskPool pool, int numTasks, int runs, boolean block) throws Exception {
+    final SchedulingGroup<AsyncTaskWrapper> group = pool.getGroupManager().newGroup(100);
+    final CountDownLatch done = new CountDownLatch(numTasks);
+    final CountingTask[] tasks = new CountingTask[numTasks];
+    for (int i = 0; i < numTasks; i++) {
+      tasks[i] = new CountingTask(runs, block);
+      pool.execute(new AsyncTaskWrapper(group, tasks[i], done::countDown, 10_000));
+    }
+    assertTrue("tasks did not complete", done.await(30, TimeUnit.SECONDS));
+    for (CountingTask task : tasks) {
+      assertEquals(runs, task.runCount.get());
+    }
+  }
+
+  @Test
+  public void testRunsAllTasks() throws Exception {
+    try (WorkStealingTaskPool pool = new WorkStealingTaskPool(4)) {
+      runTasks(pool, 200, 50, false);
+    }
+  }
+
+  @Test
+  public void testBlockedTasksAreReEnqueued() throws Exception {
+    try (WorkStealingTaskPool pool = new WorkStealingTaskPool(2)) {
+      runTasks(pool, 100, 20, true);
+    }
+  }
+
+  @Test
+  public void testThreadInfo() throws Exception {
+    try (WorkStealingTaskPool pool = new WorkStealingTaskPool(3)) {
+      assertTrue(pool.areAllThreadsAlive());
+      assertEquals(pool.getNumThreads(), Iterables.size(pool.getSlicingThreads()));
+      for (TaskPool.ThreadInfo info : pool.getSlicingThreads()) {
+        assertTrue(info.threadName.contains("slicing"));
+        assertTrue(info.threadId > 0);
+      }
+    }
+  }
+}
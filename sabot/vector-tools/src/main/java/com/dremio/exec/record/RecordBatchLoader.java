@@ -22,6 +22,8 @@ import java.util.Map;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.AllocationHelper;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.types.SerializedFieldHelper;
 import org.apache.arrow.vector.types.pojo.Field;
@@ -49,6 +51,8 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
   private VectorContainer container;
   private int valueCount;
   private BatchSchema schema;
+  private long bytesCopied;
+  private long bytesReferenced;
 
   /**
    * Constructs a loader using the given allocator for vector buffer allocation.
@@ -86,6 +90,34 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
       logger.trace("Load, ThreadID: {}\n{}", Thread.currentThread().getId(), new StackTrace());
     }
 
+    return load(def, (vector, field, offset) -> TypeHelper.load(vector, field, buf.slice(offset, field.getBufferLength())));
+  }
+
+  /**
+   * Load a record batch from the buffers it was serialized into (see {@link WritableBatch}), laid out one after the
+   * other, without first copying them into a single buffer. Vectors reference slices of the given buffers, only the
+   * fields whose buffers straddle two of the given buffers get copied.
+   *
+   * @param def
+   *          The definition for the record batch.
+   * @param buffers
+   *          The buffers that hold the data associated with the record batch, each of them as long as its capacity.
+   * @return Whether the schema changed since the previous load.
+   */
+  public boolean load(RecordBatchDef def, ArrowBuf[] buffers) {
+    if (logger.isTraceEnabled()) {
+      logger.trace("Loading record batch with def {} and {} buffers", def, buffers.length);
+      logger.trace("Load, ThreadID: {}\n{}", Thread.currentThread().getId(), new StackTrace());
+    }
+
+    final long[] bufferOffsets = new long[buffers.length];
+    for (int i = 1; i < buffers.length; i++) {
+      bufferOffsets[i] = bufferOffsets[i - 1] + buffers[i - 1].capacity();
+    }
+    return load(def, (vector, field, offset) -> loadField(vector, field, offset, buffers, bufferOffsets));
+  }
+
+  private boolean load(RecordBatchDef def, FieldLoader fieldLoader) {
     final BatchSchema initialSchema = schema;
     container.zeroVectors();
     valueCount = def.getRecordCount();
@@ -126,7 +158,7 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
         if (field.getValueCount() == 0) {
           AllocationHelper.allocate(vector, 0, 0, 0);
         } else {
-          TypeHelper.load(vector, field, buf.slice(bufOffset, field.getBufferLength()));
+          fieldLoader.load(vector, field, bufOffset);
         }
         bufOffset += field.getBufferLength();
         newVectors.add(vector);
@@ -165,6 +197,113 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
     return schemaChanged;
   }
 
+  /**
+   * Loads the given field from the given buffers, starting at the given offset.
+   */
+  private void loadField(ValueVector vector, SerializedField field, long offset, ArrowBuf[] buffers,
+                         long[] bufferOffsets) {
+    final int length = field.getBufferLength();
+    final ArrowBuf slice = slice(buffers, bufferOffsets, offset, length);
+    if (slice != null) {
+      TypeHelper.load(vector, field, slice);
+      bytesReferenced += length;
+      return;
+    }
+
+    // the field straddles several buffers, which is expected as each buffer of a vector is serialized separately:
+    // its validity, offset and data buffers can still be referenced individually.
+    if (vector instanceof BaseFixedWidthVector) {
+      final int validityLength = field.getChild(0).getBufferLength();
+      final ArrowBuf validity = slice(buffers, bufferOffsets, offset, validityLength);
+      final ArrowBuf data = slice(buffers, bufferOffsets, offset + validityLength, length - validityLength);
+      if (validity != null && data != null) {
+        TypeHelper.loadFromValidityAndDataBuffers(vector, field, data, validity);
+        bytesReferenced += length;
+        return;
+      }
+    } else if (vector instanceof BaseVariableWidthVector) {
+      final int validityLength = field.getChild(0).getBufferLength();
+      final int offsetLength = field.getChild(1).getChild(0).getBufferLength();
+      final ArrowBuf validity = slice(buffers, bufferOffsets, offset, validityLength);
+      final ArrowBuf offsets = slice(buffers, bufferOffsets, offset + validityLength, offsetLength);
+      final ArrowBuf data = slice(buffers, bufferOffsets, offset + validityLength + offsetLength,
+        length - validityLength - offsetLength);
+      if (validity != null && offsets != null && data != null) {
+        TypeHelper.loadFromValidityOffsetAndDataBuffers(vector, field, validity, offsets, data);
+        bytesReferenced += length;
+        return;
+      }
+    }
+
+    // other vectors are loaded from a copy of their buffers
+    try (final ArrowBuf copy = allocator.buffer(length)) {
+      long copied = 0;
+      for (int i = findBuffer(bufferOffsets, offset); copied < length; i++) {
+        final long srcIndex = offset + copied - bufferOffsets[i];
+        final long toCopy = Math.min(length - copied, buffers[i].capacity() - srcIndex);
+        copy.setBytes(copied, buffers[i], srcIndex, toCopy);
+        copied += toCopy;
+      }
+      TypeHelper.load(vector, field, copy);
+      bytesCopied += length;
+    }
+  }
+
+  /**
+   * @return a slice of the given range, null if it isn't contained in a single buffer
+   */
+  private static ArrowBuf slice(ArrowBuf[] buffers, long[] bufferOffsets, long offset, long length) {
+    final int index = findBuffer(bufferOffsets, offset);
+    if (index < 0) {
+      return null;
+    }
+    final long start = offset - bufferOffsets[index];
+    if (start + length > buffers[index].capacity()) {
+      return null;
+    }
+    return buffers[index].slice(start, length);
+  }
+
+  /**
+   * @return index of the last buffer starting at or before the given offset, which is the only one that may contain
+   * it: buffers before it are either empty or end before it starts. -1 if there is none.
+   */
+  private static int findBuffer(long[] bufferOffsets, long offset) {
+    int low = 0;
+    int high = bufferOffsets.length - 1;
+    int index = -1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (bufferOffsets[mid] <= offset) {
+        index = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return index;
+  }
+
+  /**
+   * @return number of bytes copied by {@link #load(RecordBatchDef, ArrowBuf[])}, since this loader was created
+   */
+  public long getBytesCopied() {
+    return bytesCopied;
+  }
+
+  /**
+   * @return number of bytes referenced without a copy by {@link #load(RecordBatchDef, ArrowBuf[])}, since this loader
+   * was created
+   */
+  public long getBytesReferenced() {
+    return bytesReferenced;
+  }
+
+  @FunctionalInterface
+  private interface FieldLoader {
+    void load(ValueVector vector, SerializedField field, long offset);
+  }
+
   @Override
   public TypedFieldId getValueVectorId(BasePath path) {
     return container.getValueVectorId(path);
@@ -34,11 +34,16 @@ public class FieldSelection {
   public static final FieldSelection INVALID_NODE = new FieldSelection(null, ValidityMode.NEVER_VALID);
   public static final FieldSelection ALL_VALID = new FieldSelection(null, ValidityMode.ALWAYS_VALID);
 
+  // Upper bound on the number of unselected names remembered per node, so that documents with arbitrary keys
+  // don't grow the lookup map without limit.
+  private static final int MAX_CACHED_MISSES = 1024;
+
   private enum ValidityMode {CHECK_CHILDREN, NEVER_VALID, ALWAYS_VALID}
 
   private final Map<String, FieldSelection> children;
   private final Map<String, FieldSelection> childrenInsensitive;
   private ValidityMode mode;
+  private int cachedMisses;
 
   private FieldSelection(){
     this(new HashMap<String, FieldSelection>(), ValidityMode.CHECK_CHILDREN);
@@ -123,10 +128,15 @@ public class FieldSelection {
       FieldSelection n = children.get(name);
 
       // if we don't find, check to see if the lower case version of this path is available, if so, we'll add it with the new case to the original map.
+      // names which are not selected are remembered as invalid, so that unprojected fields repeated in every record
+      // are rejected with a single hash lookup.
       if(n == null){
         n = childrenInsensitive.get(name);
         if(n != null){
           children.put(name, n);
+        }else if(cachedMisses < MAX_CACHED_MISSES){
+          children.put(name, INVALID_NODE);
+          cachedMisses++;
         }
       }
       if(n == null){
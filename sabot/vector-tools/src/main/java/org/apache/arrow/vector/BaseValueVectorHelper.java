@@ -119,6 +119,29 @@ public abstract class BaseValueVectorHelper<T extends FieldVector> implements Va
     countSetter.accept(metadata.getValueCount());
   }
 
+  /**
+   * Loads a variable width vector from separate validity, offset and data buffers, referencing slices of them
+   * rather than copying them.
+   */
+  public void loadFromValidityOffsetAndDataBuffers(SerializedField metadata, ArrowBuf validityBuffer,
+      ArrowBuf offsetBuffer, ArrowBuf dataBuffer) {
+    if(checkFixedOrVariable()) {
+      throw new UnsupportedOperationException("this loader is only supported for variable width vectors");
+    }
+
+    /* clear the current buffers (if any) */
+    vector.clear();
+    /* get the metadata children */
+    final SerializedField bitsField = metadata.getChild(0);
+    final SerializedField valuesField = metadata.getChild(1);
+    /* load inner validity buffer */
+    loadValidityBuffer(bitsField, validityBuffer);
+    /* load inner offset and value buffers */
+    loadOffsetAndDataBuffers(valuesField, offsetBuffer, dataBuffer);
+    variableVector.setLastSet(metadata.getValueCount() - 1);
+    countSetter.accept(metadata.getValueCount());
+  }
+
   private void loadValidityBuffer(SerializedField metadata, ArrowBuf buffer) {
     final int valueCount = metadata.getValueCount();
     final int actualLength = metadata.getBufferLength();
@@ -189,6 +212,10 @@ public abstract class BaseValueVectorHelper<T extends FieldVector> implements Va
 
   protected abstract void loadDataAndPossiblyOffsetBuffer(SerializedField field, ArrowBuf buf);
 
+  protected void loadOffsetAndDataBuffers(SerializedField field, ArrowBuf offsetBuffer, ArrowBuf dataBuffer) {
+    throw new UnsupportedOperationException();
+  }
+
   private void setValidityBuffer(SerializedField metadata) {
     final int valueCount = metadata.getValueCount();
     final int actualLength = metadata.getBufferLength();
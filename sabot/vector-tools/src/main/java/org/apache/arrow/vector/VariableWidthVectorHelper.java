@@ -55,6 +55,13 @@ public class VariableWidthVectorHelper<T extends BaseVariableWidthVector> extend
 
   @Override
   public void loadDataAndPossiblyOffsetBuffer(SerializedField metadata, ArrowBuf buffer) {
+    final int offsetLength = metadata.getChild(0).getBufferLength();
+    loadOffsetAndDataBuffers(metadata, buffer.slice(0, offsetLength),
+      buffer.slice(offsetLength, buffer.capacity() - offsetLength));
+  }
+
+  @Override
+  protected void loadOffsetAndDataBuffers(SerializedField metadata, ArrowBuf offsetBuffer, ArrowBuf dataBuffer) {
     final SerializedField offsetField = metadata.getChild(0);
     final int offsetActualLength = offsetField.getBufferLength();
     final int valueCount = offsetField.getValueCount();
@@ -63,14 +70,13 @@ public class VariableWidthVectorHelper<T extends BaseVariableWidthVector> extend
       String.format("Expected to load %d bytes but actually loaded %d bytes in offset buffer", offsetExpectedLength,
       offsetActualLength);
 
-    vector.offsetBuffer = buffer.slice(0, offsetActualLength);
+    vector.offsetBuffer = offsetBuffer.slice(0, offsetActualLength);
     vector.offsetBuffer.getReferenceManager().retain();
     vector.offsetBuffer.writerIndex(offsetActualLength);
 
-    final long capacity = buffer.capacity();
-    final long dataLength = capacity - offsetActualLength;
+    final long dataLength = dataBuffer.capacity();
 
-    vector.valueBuffer = buffer.slice(offsetActualLength, dataLength);
+    vector.valueBuffer = dataBuffer.slice(0, dataLength);
     vector.valueBuffer.getReferenceManager().retain();
     vector.valueBuffer.writerIndex(dataLength);
   }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.vector.complex.fn;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.dremio.common.expression.BasePath;
+import com.dremio.common.expression.PathSegment.NameSegment;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link FieldSelection}
+ */
+public class TestFieldSelection {
+
+  @Test
+  public void testChildLookups() {
+    final FieldSelection root = FieldSelection.getFieldSelection(ImmutableList.of(
+      BasePath.getSimple("a"),
+      new BasePath(new NameSegment("b", new NameSegment("c"))) {}));
+
+    assertTrue(root.getChild("a").isAlwaysValid());
+    // names are matched case insensitively
+    assertTrue(root.getChild("A").isAlwaysValid());
+
+    final FieldSelection b = root.getChild("b");
+    assertFalse(b.isAlwaysValid());
+    assertTrue(b.getChild("c").isAlwaysValid());
+    assertTrue(b.getChild("d").isNeverValid());
+
+    // unselected names stay invalid on repeated lookups
+    for (int i = 0; i < 3; i++) {
+      assertSame(FieldSelection.INVALID_NODE, root.getChild("unselected"));
+    }
+  }
+
+  @Test
+  public void testManyUnselectedNames() {
+    final FieldSelection root = FieldSelection.getFieldSelection(ImmutableList.of(BasePath.getSimple("a")));
+    for (int i = 0; i < 5000; i++) {
+      assertTrue(root.getChild("field" + i).isNeverValid());
+    }
+    assertTrue(root.getChild("a").isAlwaysValid());
+  }
+}
@@ -17,8 +17,12 @@ package com.dremio.service.reflection;
 
 import static com.dremio.service.reflection.ExternalReflectionStatus.STATUS.OUT_OF_SYNC;
 
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelShuttleImpl;
@@ -40,9 +44,9 @@ import com.dremio.service.reflection.proto.Materialization;
 import com.dremio.service.reflection.proto.MaterializationId;
 import com.dremio.service.reflection.proto.ReflectionId;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 
 import io.protostuff.ByteString;
 
@@ -53,9 +57,33 @@ import io.protostuff.ByteString;
 class MaterializationCache {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MaterializationCache.class);
 
-  private static final Map<String, CachedMaterializationDescriptor> EMPTY_MAP = ImmutableMap.of();
+  // stores a descriptor whatever the generation of the cached entry
+  private static final long ANY_GENERATION = -1;
 
-  private final AtomicReference<Map<String, CachedMaterializationDescriptor>> cached = new AtomicReference<>(EMPTY_MAP);
+  // cached descriptors by materialization id, or by reflection id for the external reflections, along with the
+  // tombstones of the invalidated ones
+  private final ConcurrentMap<String, Entry> cached = new ConcurrentHashMap<>();
+  // ids of the cached descriptors by the datasets they read, used to find the descriptors which may accelerate a
+  // query without expanding all of them
+  private final ConcurrentMap<List<String>, Set<String>> byDataset = new ConcurrentHashMap<>();
+  // ids of the cached descriptors whose datasets are unknown, always candidates
+  private final Set<String> unindexed = ConcurrentHashMap.newKeySet();
+  // incremented on every change of an entry, so a refresh can tell apart the entries changed while it ran
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * A cached descriptor along with the generation of the cache it was stored at. An entry without descriptor is the
+   * tombstone of an invalidated descriptor, which keeps a refresh started before the invalidation from adding it back.
+   */
+  private static final class Entry {
+    private final CachedMaterializationDescriptor descriptor;
+    private final long generation;
+
+    private Entry(CachedMaterializationDescriptor descriptor, long generation) {
+      this.descriptor = descriptor;
+      this.generation = generation;
+    }
+  }
 
   interface CacheHelper {
     Iterable<Materialization> getValidMaterializations();
@@ -98,69 +126,72 @@ class MaterializationCache {
     }
   }
 
-  void refresh() {
-    compareAndSetCache();
-  }
-
-  private void compareAndSetCache() {
-    boolean exchanged;
-    do {
-      Map<String, CachedMaterializationDescriptor> old = cached.get();
-      Map<String, CachedMaterializationDescriptor> updated = updateCache(old);
-      exchanged = cached.compareAndSet(old, updated);
-    } while(!exchanged);
-  }
-
-  void resetCache() {
-    boolean exchanged;
-    do {
-      Map<String, CachedMaterializationDescriptor> old = cached.get();
-      exchanged = cached.compareAndSet(old, EMPTY_MAP);
-    } while(!exchanged);
-  }
-
   /**
-   * Updates the cache map taking into account the existing cache.<br>
-   * Will only "expand" descriptors that are new in the cache.<br>
-   * Because, in debug mode, this can be called from multiple threads, it must be thread-safe
-   *
-   * @param old existing cache
-   * @return updated cache
+   * Updates the cache taking into account the existing cache.<br>
+   * Will only "expand" descriptors that are new or changed, and remove the ones that no longer exist.<br>
+   * Entries changed after the refresh started are left as they are, as they are more recent than the materializations
+   * the refresh works from.<br>
+   * Because, in debug mode, this can be called from multiple threads, refreshes are serialized
    */
-  private Map<String, CachedMaterializationDescriptor> updateCache(Map<String, CachedMaterializationDescriptor> old) {
-    // new list of descriptors
-    final Iterable<Materialization> provided = provider.getValidMaterializations();
-    // this will hold the updated cache
-    final Map<String, CachedMaterializationDescriptor> updated = Maps.newHashMap();
-
-    // cache is enabled so we want to reuse as much of the existing cache as possible. Make sure to:
-    // remove all cached descriptors that no longer exist
-    // reuse all descriptors that are already in the cache
-    // add any descriptor that are not already cached
-    for (Materialization materialization : provided) {
-      final CachedMaterializationDescriptor cachedDescriptor = old.get(materialization.getId().getId());
+  synchronized void refresh() {
+    final long startGeneration = generation.get();
+    // ids of the entries to keep in the cache
+    final Set<String> kept = Sets.newHashSet();
+
+    for (Materialization materialization : provider.getValidMaterializations()) {
+      final String id = materialization.getId().getId();
+      final Entry entry = cached.get(id);
+      if (entry != null && entry.generation > startGeneration) {
+        // updated or invalidated since this refresh started
+        kept.add(id);
+        continue;
+      }
+      final CachedMaterializationDescriptor cachedDescriptor = entry == null ? null : entry.descriptor;
       if (cachedDescriptor == null ||
           !materialization.getTag().equals(cachedDescriptor.getVersion()) ||
           schemaChanged(cachedDescriptor, materialization)) {
-        safeUpdateEntry(updated, materialization);
+        if (safeUpdateEntry(materialization, getGeneration(entry))) {
+          kept.add(id);
+        }
       } else {
         // descriptor already in the cache, we can just reuse it
-        updated.put(materialization.getId().getId(), cachedDescriptor);
+        kept.add(id);
       }
     }
 
     for (ExternalReflection externalReflection : provider.getExternalReflections()) {
-      final CachedMaterializationDescriptor cachedDescriptor = old.get(externalReflection.getId());
+      final String id = externalReflection.getId();
+      final Entry entry = cached.get(id);
+      if (entry != null && entry.generation > startGeneration) {
+        kept.add(id);
+        continue;
+      }
+      final CachedMaterializationDescriptor cachedDescriptor = entry == null ? null : entry.descriptor;
       if (cachedDescriptor == null
-          || isExternalReflectionOutOfSync(externalReflection.getId())
+          || isExternalReflectionOutOfSync(id)
           || isExternalReflectionMetadataUpdated(cachedDescriptor)) {
-        updateEntry(updated, externalReflection);
+        if (updateEntry(externalReflection, getGeneration(entry))) {
+          kept.add(id);
+        }
       } else {
         // descriptor already in the cache, we can just reuse it
-        updated.put(externalReflection.getId(), cachedDescriptor);
+        kept.add(id);
+      }
+    }
+
+    // remove the descriptors that no longer exist or failed to expand, and the tombstones older than this refresh,
+    // unless they changed after this refresh started
+    for (String id : cached.keySet()) {
+      if (!kept.contains(id)) {
+        remove(id, startGeneration);
       }
     }
-    return updated;
+  }
+
+  void resetCache() {
+    for (String id : cached.keySet()) {
+      remove(id, Long.MAX_VALUE);
+    }
   }
 
   private boolean isExternalReflectionMetadataUpdated(CachedMaterializationDescriptor descriptor) {
@@ -193,36 +224,139 @@ class MaterializationCache {
     return reflectionStatusService.getExternalReflectionStatus(new ReflectionId(id)).getConfigStatus() == OUT_OF_SYNC;
   }
 
-  private void updateEntry(Map<String, CachedMaterializationDescriptor> cache, ExternalReflection entry) {
+  private boolean updateEntry(ExternalReflection entry, long expectedGeneration) {
     try {
       final MaterializationDescriptor descriptor = provider.getDescriptor(entry);
       if (descriptor != null) {
         final DremioMaterialization expanded = provider.expand(descriptor);
         if (expanded != null) {
-          cache.put(entry.getId(), new CachedMaterializationDescriptor(descriptor, expanded, catalogService));
+          return put(entry.getId(), new CachedMaterializationDescriptor(descriptor, expanded, catalogService),
+            expectedGeneration);
         }
       }
     } catch (Exception e) {
       logger.debug("couldn't expand materialization {}", entry.getId(), e);
     }
+    return false;
   }
 
-  private void safeUpdateEntry(Map<String, CachedMaterializationDescriptor> cache, Materialization entry) {
+  private boolean safeUpdateEntry(Materialization entry, long expectedGeneration) {
     try {
-      updateEntry(cache, entry);
+      return updateEntry(entry, expectedGeneration);
     } catch (AssertionError e) {
       // Calcite can throw assertion errors even when assertions are disabled :( that's why we need to make sure we catch them here
       logger.debug("couldn't expand materialization {}", entry.getId(), e);
     } catch (Exception ignored) {
       // Other exceptions are already logged through updateEntry function.
     }
+    return false;
   }
 
-  private void updateEntry(Map<String, CachedMaterializationDescriptor> cache, Materialization entry) throws CacheException {
+  private boolean updateEntry(Materialization entry, long expectedGeneration) throws CacheException {
     final CachedMaterializationDescriptor descriptor = provider.expand(entry);
     if (descriptor != null) {
-      cache.put(entry.getId().getId(), descriptor);
+      return put(entry.getId().getId(), descriptor, expectedGeneration);
     }
+    return false;
+  }
+
+  /**
+   * Stores a descriptor and updates the dataset index accordingly, unless the cached entry changed since it was
+   * read at the expected generation.
+   *
+   * @param expectedGeneration generation of the cached entry, 0 if there was none, or {@link #ANY_GENERATION}
+   * @return true if the descriptor was stored
+   */
+  private boolean put(String id, CachedMaterializationDescriptor descriptor, long expectedGeneration) {
+    final Pointer<Boolean> stored = new Pointer<>(false);
+    // changes to the entry and its index are serialized by the map
+    cached.compute(id, (k, old) -> {
+      if (expectedGeneration != ANY_GENERATION && getGeneration(old) != expectedGeneration) {
+        return old;
+      }
+      // index the new datasets before removing the old ones, so a dataset read by both versions keeps the id
+      index(id, descriptor);
+      if (old != null && old.descriptor != null) {
+        unindex(id, old.descriptor, descriptor);
+      }
+      stored.value = true;
+      return new Entry(descriptor, generation.incrementAndGet());
+    });
+    return stored.value;
+  }
+
+  /**
+   * Replaces an entry with a tombstone.
+   */
+  private void tombstone(String id) {
+    cached.compute(id, (k, old) -> {
+      if (old != null && old.descriptor != null) {
+        unindex(id, old.descriptor, null);
+      }
+      return new Entry(null, generation.incrementAndGet());
+    });
+  }
+
+  /**
+   * Removes an entry, unless it changed after the given generation.
+   */
+  private void remove(String id, long maxGeneration) {
+    cached.computeIfPresent(id, (k, old) -> {
+      if (old.generation > maxGeneration) {
+        return old;
+      }
+      if (old.descriptor != null) {
+        unindex(id, old.descriptor, null);
+      }
+      return null;
+    });
+  }
+
+  private static long getGeneration(Entry entry) {
+    return entry == null ? 0 : entry.generation;
+  }
+
+  private void index(String id, CachedMaterializationDescriptor descriptor) {
+    final Optional<Set<List<String>>> datasets = descriptor.getDatasets();
+    if (!datasets.isPresent()) {
+      unindexed.add(id);
+      return;
+    }
+    for (List<String> dataset : datasets.get()) {
+      byDataset.compute(dataset, (k, ids) -> {
+        final Set<String> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+        updated.add(id);
+        return updated;
+      });
+    }
+  }
+
+  /**
+   * Removes the index entries of a descriptor which are not used by its replacement, if any.
+   */
+  private void unindex(String id, CachedMaterializationDescriptor old, CachedMaterializationDescriptor replacement) {
+    final Set<List<String>> kept = replacement == null
+      ? ImmutableSet.of() : replacement.getDatasets().orElse(ImmutableSet.of());
+    final Optional<Set<List<String>>> datasets = old.getDatasets();
+    if (!datasets.isPresent()) {
+      if (replacement == null || replacement.getDatasets().isPresent()) {
+        unindexed.remove(id);
+      }
+      return;
+    }
+    for (List<String> dataset : datasets.get()) {
+      if (!kept.contains(dataset)) {
+        byDataset.computeIfPresent(dataset, (k, ids) -> {
+          ids.remove(id);
+          return ids.isEmpty() ? null : ids;
+        });
+      }
+    }
+  }
+
+  private CachedMaterializationDescriptor getDescriptor(String id) {
+    final Entry entry = cached.get(id);
+    return entry == null ? null : entry.descriptor;
   }
 
   private boolean schemaChanged(MaterializationDescriptor old, Materialization materialization) {
@@ -246,40 +380,44 @@ class MaterializationCache {
    * @param mId entry to be removed
    */
   void invalidate(MaterializationId mId) {
-    boolean exchanged;
-    do {
-      Map<String, CachedMaterializationDescriptor> old = cached.get();
-      if (!old.containsKey(mId.getId())) {
-        break; // entry not present in the cache, nothing more to do
-      }
-      //copy over everything
-      Map<String, CachedMaterializationDescriptor> updated =  Maps.newHashMap(old);
-      //remove the specific materialization.
-      updated.remove(mId.getId());
-      //update the cache.
-      exchanged = cached.compareAndSet(old, updated);
-    } while(!exchanged);
+    tombstone(mId.getId());
   }
 
   void update(Materialization m) throws CacheException {
-    boolean exchanged;
-    do {
-      Map<String, CachedMaterializationDescriptor> old = cached.get();
-      Map<String, CachedMaterializationDescriptor> updated =  Maps.newHashMap(old); //copy over everything
-      updateEntry(updated, m);
-      exchanged = cached.compareAndSet(old, updated); //update the cache.
-    } while(!exchanged);
+    updateEntry(m, ANY_GENERATION);
   }
 
   Iterable<MaterializationDescriptor> getAll() {
-    return Iterables.unmodifiableIterable(cached.get().values());
+    final ImmutableList.Builder<MaterializationDescriptor> descriptors = ImmutableList.builder();
+    for (Entry entry : cached.values()) {
+      if (entry.descriptor != null) {
+        descriptors.add(entry.descriptor);
+      }
+    }
+    return descriptors.build();
+  }
+
+  /**
+   * Returns the ids of the cached descriptors which may accelerate a query reading the given datasets: the ones
+   * reading at least one of them, and the ones whose datasets are unknown.
+   */
+  Set<String> getCandidates(Set<List<String>> datasets) {
+    final ImmutableSet.Builder<String> candidates = ImmutableSet.builder();
+    candidates.addAll(unindexed);
+    for (List<String> dataset : datasets) {
+      final Set<String> ids = byDataset.get(dataset);
+      if (ids != null) {
+        candidates.addAll(ids);
+      }
+    }
+    return candidates.build();
   }
 
   MaterializationDescriptor get(MaterializationId mId) {
-    return cached.get().get(mId.getId());
+    return getDescriptor(mId.getId());
   }
 
   boolean contains(MaterializationId mId) {
-    return cached.get().containsKey(mId.getId());
+    return getDescriptor(mId.getId()) != null;
   }
 }
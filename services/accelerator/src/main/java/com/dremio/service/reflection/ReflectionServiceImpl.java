@@ -1011,6 +1011,16 @@ public class ReflectionServiceImpl extends BaseReflectionService {
         .toList();
     }
 
+    @Override
+    public java.util.function.Predicate<MaterializationDescriptor> getCandidateFilter(Set<List<String>> datasets) {
+      if (!isCacheEnabled()) {
+        return descriptor -> true;
+      }
+      // the cache is keyed by materialization id, the same as the descriptors it provides
+      final Set<String> candidates = materializationCache.getCandidates(datasets);
+      return descriptor -> candidates.contains(descriptor.getMaterializationId());
+    }
+
     private boolean isDefaultReflectionEnabled(NamespaceKey path) {
       try {
         DatasetConfig datasetConfig = namespaceService.get().getDataset(path);
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.planner.acceleration.CachedMaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.DremioMaterialization;
+import com.dremio.exec.planner.acceleration.MaterializationDescriptor;
+import com.dremio.exec.store.CatalogService;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.reflection.proto.ExternalReflection;
+import com.dremio.service.reflection.proto.Materialization;
+import com.dremio.service.reflection.proto.MaterializationId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests for {@link MaterializationCache}
+ */
+public class TestMaterializationCache {
+  private static final List<String> TABLE_A = Arrays.asList("source", "a");
+  private static final List<String> TABLE_B = Arrays.asList("source", "b");
+
+  private StubHelper helper;
+  private MaterializationCache cache;
+
+  /**
+   * Expands the materializations into descriptors reading the datasets registered for them.
+   */
+  private static class StubHelper implements MaterializationCache.CacheHelper {
+    private Iterable<Materialization> valid = Collections.emptyList();
+    private Runnable onGetValid = () -> {};
+    private Runnable onExpand = () -> {};
+    private Set<List<String>> datasets = ImmutableSet.of(TABLE_A);
+
+    @Override
+    public Iterable<Materialization> getValidMaterializations() {
+      onGetValid.run();
+      return valid;
+    }
+
+    @Override
+    public Iterable<ExternalReflection> getExternalReflections() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public MaterializationDescriptor getDescriptor(ExternalReflection externalReflection) {
+      return null;
+    }
+
+    @Override
+    public DremioMaterialization expand(MaterializationDescriptor descriptor) {
+      return null;
+    }
+
+    @Override
+    public CachedMaterializationDescriptor expand(Materialization materialization) {
+      onExpand.run();
+      final CachedMaterializationDescriptor descriptor = mock(CachedMaterializationDescriptor.class);
+      when(descriptor.getMaterializationId()).thenReturn(materialization.getId().getId());
+      when(descriptor.getVersion()).thenReturn(materialization.getTag());
+      when(descriptor.getDatasets()).thenReturn(Optional.of(datasets));
+      return descriptor;
+    }
+  }
+
+  private static Materialization newMaterialization(String id) {
+    return new Materialization()
+      .setId(new MaterializationId(id))
+      .setTag("1");
+  }
+
+  @Before
+  public void setup() {
+    helper = new StubHelper();
+    cache = new MaterializationCache(helper, mock(NamespaceService.class), mock(ReflectionStatusService.class),
+      mock(CatalogService.class));
+  }
+
+  @Test
+  public void testUpdateThenInvalidate() throws Exception {
+    final Materialization m = newMaterialization("m1");
+    cache.update(m);
+    assertTrue(cache.contains(m.getId()));
+    assertEquals(ImmutableSet.of("m1"), cache.getCandidates(ImmutableSet.of(TABLE_A)));
+
+    cache.invalidate(m.getId());
+    assertFalse(cache.contains(m.getId()));
+    assertTrue(cache.getCandidates(ImmutableSet.of(TABLE_A)).isEmpty());
+    assertTrue(ImmutableList.copyOf(cache.getAll()).isEmpty());
+  }
+
+  @Test
+  public void testReplacementWithOtherDatasets() throws Exception {
+    final Materialization m = newMaterialization("m1");
+    cache.update(m);
+
+    helper.datasets = ImmutableSet.of(TABLE_B);
+    cache.update(m.setTag("2"));
+
+    assertTrue(cache.getCandidates(ImmutableSet.of(TABLE_A)).isEmpty());
+    assertEquals(ImmutableSet.of("m1"), cache.getCandidates(ImmutableSet.of(TABLE_B)));
+  }
+
+  @Test
+  public void testRefreshRemovesInvalidEntries() throws Exception {
+    final Materialization m = newMaterialization("m1");
+    helper.valid = ImmutableList.of(m);
+    cache.refresh();
+    assertTrue(cache.contains(m.getId()));
+
+    helper.valid = Collections.emptyList();
+    cache.refresh();
+    assertFalse(cache.contains(m.getId()));
+    assertTrue(cache.getCandidates(ImmutableSet.of(TABLE_A)).isEmpty());
+  }
+
+  @Test
+  public void testRefreshKeepsEntriesStoredAfterItStarted() throws Exception {
+    final Materialization m = newMaterialization("m1");
+    // the materialization is stored while the refresh reads the valid materializations, so it is not part of them
+    helper.onGetValid = () -> {
+      try {
+        cache.update(m);
+      } catch (MaterializationCache.CacheException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    cache.refresh();
+
+    assertTrue(cache.contains(m.getId()));
+    assertEquals(ImmutableSet.of("m1"), cache.getCandidates(ImmutableSet.of(TABLE_A)));
+  }
+
+  @Test
+  public void testInvalidateDuringRefresh() throws Exception {
+    final Materialization m = newMaterialization("m1");
+    helper.valid = ImmutableList.of(m);
+    // the materialization is invalidated while the refresh expands it
+    helper.onExpand = () -> cache.invalidate(m.getId());
+    cache.refresh();
+
+    assertFalse(cache.contains(m.getId()));
+    assertTrue(cache.getCandidates(ImmutableSet.of(TABLE_A)).isEmpty());
+
+    // a refresh started after the invalidation stores the materialization if it is still valid
+    helper.onExpand = () -> {};
+    cache.refresh();
+    assertTrue(cache.contains(m.getId()));
+  }
+}
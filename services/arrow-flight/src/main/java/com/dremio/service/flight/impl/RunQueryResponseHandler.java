@@ -18,6 +18,7 @@ package com.dremio.service.flight.impl;
 import static org.apache.arrow.flight.BackpressureStrategy.CallbackBackpressureStrategy;
 import static org.apache.arrow.flight.BackpressureStrategy.WaitResult;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -47,6 +48,9 @@ import com.dremio.options.OptionManager;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.dremio.service.flight.DremioFlightServiceOptions;
 import com.dremio.service.flight.error.mapping.DremioFlightErrorMapper;
+import com.dremio.telemetry.api.metrics.Counter;
+import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 
@@ -57,6 +61,11 @@ import io.netty.buffer.NettyArrowBuf;
  * The UserResponseHandler that streams results to a FlightProducer listener.
  */
 public abstract class RunQueryResponseHandler implements UserResponseHandler {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RunQueryResponseHandler.class);
+
+  /* result bytes copied before being streamed, and streamed straight from the buffers they were produced in */
+  private static final Counter BYTES_COPIED = Metrics.newCounter(Metrics.join("flight", "bytes_copied"), ResetType.NEVER);
+  private static final Counter BYTES_PASSED_THROUGH = Metrics.newCounter(Metrics.join("flight", "bytes_passed_through"), ResetType.NEVER);
 
   private final UserBitShared.ExternalId runExternalId;
   private final UserSession userSession;
@@ -67,6 +76,8 @@ public abstract class RunQueryResponseHandler implements UserResponseHandler {
   private volatile VectorSchemaRoot vectorSchemaRoot;
 
   private volatile boolean completed;
+  private long bytesCopied;
+  private long bytesPassedThrough;
 
   RunQueryResponseHandler(UserBitShared.ExternalId runExternalId,
                           UserSession userSession,
@@ -93,37 +104,10 @@ public abstract class RunQueryResponseHandler implements UserResponseHandler {
 
     final ByteBuf[] buffers = result.getBuffers();
 
-    /**
-     * RecordBatchLoader cannot reassemble ValueVectors for types which propagate more than one NettyArrowBuffer
-     * (such as DataBuffers [1] and OffsetBuffers [2]) in calls to UserResponseHandler#sendData.
-     * Because of this limitation, when {@link com.dremio.service.flight.impl.RunQueryResponseHandler#sendData}
-     * receives more than 1 buffer instance, it must consolidate all buffers into a single buffer before
-     * calling RecordBatchReader before returning data to the user.
-     *
-     * TODO: https://dremio.atlassian.net/browse/DX-25624
-     * This task is to improve RecordBatchLoader or find some other way to handle more than one buffer
-     * instance being provided for any given ValueVector, and then update this.
-     *
-     * [1] https://github.com/apache/arrow/blob/7b2d68570b4336308c52081a0349675e488caf11/java/vector/src/main/java/org/apache/arrow/vector/ValueVector.java#L197
-     * [2] https://github.com/apache/arrow/blob/7b2d68570b4336308c52081a0349675e488caf11/java/vector/src/main/java/org/apache/arrow/vector/ValueVector.java#L204
-     */
     if (null == buffers || buffers.length == 0) {
       loadEmptyBuffer(def, result.getByteCount());
-    } else if (buffers.length > 1) {
-      loadFromCopyOfEntireResult(result, def);
     } else {
-      final ByteBuf byteBuf = buffers[0];
-      /**
-       * The most optimistic approach from a buffer copying perspective is to use buffers as they
-       * are provided to this method directly. When a NettyArrowBuf is provided, the underlying
-       * Arrow Buffer gets used directly. Other implementations will require copying the data into
-       * a new Arrow Buffer first.
-       */
-      if (byteBuf instanceof NettyArrowBuf) {
-        loadDirectlyFromNettyArrowBuf(def, (NettyArrowBuf) byteBuf);
-      } else {
-        loadFromCopyOfSingleBuffer(def, byteBuf);
-      }
+      loadFromBuffers(def, buffers);
     }
 
     prepareVectorSchemaRoot(result.getHeader().getRowCount());
@@ -136,36 +120,59 @@ public abstract class RunQueryResponseHandler implements UserResponseHandler {
     }
   }
 
+  /**
+   * Loads the batch from the buffers it was sent with. Vectors reference the underlying Arrow buffers whenever
+   * they are NettyArrowBufs, which is the common case, other buffers are copied into Arrow buffers first.
+   */
   @VisibleForTesting
-  void loadFromCopyOfEntireResult(QueryWritableBatch result, RecordBatchDef def) {
-    try (final ArrowBuf arrowBuf = allocator.buffer((int) result.getByteCount())) {
-      long arrowBufIndex = 0;
-      for (ByteBuf byteBuf : result.getBuffers()) {
+  void loadFromBuffers(RecordBatchDef def, ByteBuf[] buffers) {
+    final ArrowBuf[] arrowBufs = new ArrowBuf[buffers.length];
+    final List<ArrowBuf> copies = new ArrayList<>();
+    try {
+      long totalBytes = 0;
+      long copiedBytes = 0;
+      for (int i = 0; i < buffers.length; i++) {
+        final ByteBuf byteBuf = buffers[i];
         final int readableBytes = byteBuf.readableBytes();
-        arrowBuf.setBytes(arrowBufIndex, byteBuf.nioBuffer());
-        arrowBufIndex += readableBytes;
+        totalBytes += readableBytes;
+        if (byteBuf instanceof NettyArrowBuf) {
+          arrowBufs[i] = ((NettyArrowBuf) byteBuf).arrowBuf().slice(byteBuf.readerIndex(), readableBytes);
+        } else {
+          final ArrowBuf copy = allocator.buffer(readableBytes);
+          copies.add(copy);
+          copy.setBytes(0, byteBuf.nioBuffer());
+          arrowBufs[i] = copy.slice(0, readableBytes);
+          copiedBytes += readableBytes;
+        }
+      }
+
+      final long loaderBytesCopied = recordBatchLoader.getBytesCopied();
+      recordBatchLoader.load(def, arrowBufs);
+      copiedBytes = Math.min(totalBytes, copiedBytes + recordBatchLoader.getBytesCopied() - loaderBytesCopied);
+
+      bytesCopied += copiedBytes;
+      bytesPassedThrough += totalBytes - copiedBytes;
+      BYTES_COPIED.increment(copiedBytes);
+      BYTES_PASSED_THROUGH.increment(totalBytes - copiedBytes);
+    } finally {
+      // vectors retain the slices they reference
+      for (ArrowBuf copy : copies) {
+        copy.close();
+      }
+      for (ByteBuf byteBuf : buffers) {
         byteBuf.release();
       }
-      recordBatchLoader.load(def, arrowBuf);
     }
   }
 
-  private void loadFromCopyOfSingleBuffer(RecordBatchDef def, ByteBuf byteBuf) {
-    try (final ArrowBuf arrowBuf = allocator.buffer(byteBuf.readableBytes())) {
-      arrowBuf.setBytes(0, byteBuf.nioBuffer());
-      recordBatchLoader.load(def, arrowBuf);
-    } finally {
-      byteBuf.release();
-    }
+  @VisibleForTesting
+  long getBytesCopied() {
+    return bytesCopied;
   }
 
   @VisibleForTesting
-  void loadDirectlyFromNettyArrowBuf(RecordBatchDef def, NettyArrowBuf byteBuf) {
-    try {
-      recordBatchLoader.load(def, byteBuf.arrowBuf());
-    } finally {
-      byteBuf.release();
-    }
+  long getBytesPassedThrough() {
+    return bytesPassedThrough;
   }
 
   /**
@@ -215,6 +222,7 @@ public abstract class RunQueryResponseHandler implements UserResponseHandler {
   @Override
   public void completed(UserResult result) {
     completed = true;
+    logger.debug("Streamed {} bytes without copy, copied {} bytes.", bytesPassedThrough, bytesCopied);
 
     try {
       handleUserResultState(result);
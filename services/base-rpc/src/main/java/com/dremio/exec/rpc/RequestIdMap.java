@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.rpc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -30,9 +32,10 @@ import io.netty.channel.ChannelFuture;
 /**
  * Manages the creation of rpc futures for a particular socket <--> socket
  * connection. Generally speaking, there will be two threads working with this
- * class (the socket thread and the Request generating thread). Synchronization
- * is simple with the map being the only thing that is protected. Everything
- * else works via Atomic variables.
+ * class (the socket thread and the Request generating threads). The outstanding
+ * requests are split in stripes by coordination id, each protected by its own
+ * lock, so that senders and the socket thread rarely contend. Everything else
+ * works via Atomic variables.
  */
 class RequestIdMap {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RequestIdMap.class);
@@ -41,18 +44,26 @@ class RequestIdMap {
   private final AtomicInteger pendingRequests = new AtomicInteger(0);
   private final AtomicBoolean isOpen = new AtomicBoolean(true);
 
+  // coordination ids are sequential, so consecutive requests land in different stripes
+  private static final int STRIPE_COUNT = 16;
+  private static final int STRIPE_MASK = STRIPE_COUNT - 1;
+
   /**
-   * Access to map must be protected.
+   * Access to each stripe must be protected by synchronizing on the stripe.
    **/
-  private final IntObjectHashMap<RpcOutcome<?>> map;
+  private final IntObjectHashMap<RpcOutcome<?>>[] stripes;
 
   private final String connectionName;
 
   private volatile RpcException cachedException;
   private volatile boolean lazyNotify;
 
+  @SuppressWarnings("unchecked")
   public RequestIdMap(String connectionName) {
-    map = new IntObjectHashMap<>();
+    stripes = new IntObjectHashMap[STRIPE_COUNT];
+    for (int i = 0; i < STRIPE_COUNT; i++) {
+      stripes[i] = new IntObjectHashMap<>();
+    }
     this.connectionName = connectionName;
     this.lazyNotify = false;
   }
@@ -77,31 +88,51 @@ class RequestIdMap {
     if (cachedException == null) {
       return true;
     }
-    if (!force && pendingRequests.get() > 0) {
-      boolean empty;
-      synchronized (map) {
-        empty = map.isEmpty();
-      }
-      if (!empty) {
-        return false;
-      }
+    if (!force && pendingRequests.get() > 0 && !isEmpty()) {
+      return false;
     }
     doNotify(cachedException, force);
     return true;
   }
 
+  private IntObjectHashMap<RpcOutcome<?>> stripe(int coordinationId) {
+    return stripes[coordinationId & STRIPE_MASK];
+  }
+
+  private boolean isEmpty() {
+    for (IntObjectHashMap<RpcOutcome<?>> stripe : stripes) {
+      synchronized (stripe) {
+        if (!stripe.isEmpty()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   private void doNotify(RpcException ex, boolean force) {
-    IntObjectHashMap<RpcOutcome<?>> clonedMap;
-    synchronized (map) {
-      clonedMap = map.clone();
-      map.clear();
+    // isOpen is cleared before draining, so a request added to a stripe after it is drained is rejected
+    final List<IntObjectHashMap<RpcOutcome<?>>> clonedStripes = new ArrayList<>(STRIPE_COUNT);
+    int count = 0;
+    for (IntObjectHashMap<RpcOutcome<?>> stripe : stripes) {
+      synchronized (stripe) {
+        if (stripe.isEmpty()) {
+          continue;
+        }
+        clonedStripes.add(stripe.clone());
+        stripe.clear();
+      }
+      count += clonedStripes.get(clonedStripes.size() - 1).size();
     }
     if (force) {
       logger.info("Forcefully notifying closed channel; " +
         "{} requests still awaiting completion notification; Notifying {} errors",
-        pendingRequests.get(), clonedMap.size());
+        pendingRequests.get(), count);
+    }
+    final SetExceptionProcedure procedure = new SetExceptionProcedure(ex);
+    for (IntObjectHashMap<RpcOutcome<?>> clonedStripe : clonedStripes) {
+      clonedStripe.forEach(procedure);
     }
-    clonedMap.forEach(new SetExceptionProcedure(ex));
     cachedException = null;
   }
 
@@ -139,10 +170,11 @@ class RequestIdMap {
     pendingRequests.incrementAndGet();
     final RpcListener<V> future = new RpcListener<V>(handler, clazz, i, connection);
     final Object old;
-    synchronized (map) {
+    final IntObjectHashMap<RpcOutcome<?>> stripe = stripe(i);
+    synchronized (stripe) {
       Preconditions.checkState(isOpen.get(),
         "Attempted to send a message when connection is no longer valid. %s", connectionName);
-      old = map.put(i, future);
+      old = stripe.put(i, future);
     }
     Preconditions.checkArgument(old == null,
       "You attempted to reuse a coordination id when the previous coordination id has not been removed.  "
@@ -212,8 +244,9 @@ class RequestIdMap {
 
   private RpcOutcome<?> removeFromMap(int coordinationId) {
     final RpcOutcome<?> rpc;
-    synchronized (map) {
-      rpc = map.remove(coordinationId);
+    final IntObjectHashMap<RpcOutcome<?>> stripe = stripe(coordinationId);
+    synchronized (stripe) {
+      rpc = stripe.remove(coordinationId);
     }
     if (rpc == null) {
       throw new IllegalStateException(
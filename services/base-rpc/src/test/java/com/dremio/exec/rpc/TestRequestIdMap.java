@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.rpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests for {@link RequestIdMap}
+ */
+public class TestRequestIdMap {
+
+  /**
+   * Listener counting the outcomes it is notified of.
+   */
+  private static final class CountingListener implements RpcOutcomeListener<String> {
+    private final AtomicInteger successes = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    @Override
+    public void failed(RpcException ex) {
+      failures.incrementAndGet();
+    }
+
+    @Override
+    public void success(String value, ByteBuf buffer) {
+      successes.incrementAndGet();
+    }
+
+    @Override
+    public void interrupted(InterruptedException e) {
+      fail("unexpected interruption");
+    }
+  }
+
+  @Test
+  public void testResponses() {
+    final RequestIdMap map = new RequestIdMap("test");
+    final CountingListener listener = new CountingListener();
+    final List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      ids.add(map.createNewRpcListener(listener, String.class, null).getCoordinationId());
+    }
+
+    for (int id : ids) {
+      map.getAndRemoveRpcOutcome(0, id, String.class).set("done", null);
+    }
+    assertEquals(100, listener.successes.get());
+
+    try {
+      map.getAndRemoveRpcOutcome(0, ids.get(0), String.class);
+      fail("response for an already completed request should fail");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testChannelClosedFailsOutstandingRequests() throws Exception {
+    final RequestIdMap map = new RequestIdMap("test");
+    final CountingListener listener = new CountingListener();
+    final int senders = 8;
+    final int requestsPerSender = 1000;
+
+    final ExecutorService executor = Executors.newFixedThreadPool(senders);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < senders; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < requestsPerSender; j++) {
+            final int id = map.createNewRpcListener(listener, String.class, null).getCoordinationId();
+            // complete every other request
+            if (j % 2 == 0) {
+              map.getAndRemoveRpcOutcome(0, id, String.class).set("done", null);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    map.channelClosed(new IOException("closed"));
+    assertEquals(senders * requestsPerSender / 2, listener.successes.get());
+    assertEquals(senders * requestsPerSender / 2, listener.failures.get());
+
+    try {
+      map.createNewRpcListener(listener, String.class, null);
+      fail("new requests should be rejected once the channel is closed");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testLazyNotification() {
+    final RequestIdMap map = new RequestIdMap("test");
+    map.setupLazyNotification();
+    final CountingListener listener = new CountingListener();
+    final ChannelListenerWithCoordinationId outstanding = map.createNewRpcListener(listener, String.class, null);
+
+    map.channelClosed(new IOException("closed"));
+    assertEquals(0, listener.failures.get());
+
+    // the request was not sent yet, so the exception is held back until forced
+    assertFalse(map.notifyExceptionIfAny(false));
+    assertTrue(map.notifyExceptionIfAny(true));
+    assertEquals(1, listener.failures.get());
+    assertTrue(outstanding.getCoordinationId() > 0);
+  }
+}
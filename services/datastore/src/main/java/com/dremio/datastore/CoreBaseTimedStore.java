@@ -78,6 +78,14 @@ abstract class CoreBaseTimedStore<K, V> implements CoreKVStore<K, V> {
     }
   }
 
+  @Override
+  public Iterable<Document<KVStoreTuple<K>, KVStoreTuple<V>>> putAll(List<KVStoreTuple<K>> keys,
+      List<KVStoreTuple<V>> values, PutOption... options) {
+    try (TimedBlock b = time(name + ".putAll")) {
+      return kvStore.putAll(keys, values, options);
+    }
+  }
+
   @Override
   public boolean contains(KVStoreTuple<K> key, ContainsOption... options) {
     try (TimedBlock b = time(name + ".contains")) {
@@ -38,6 +38,7 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
   private final Serializer<VALUE, byte[]> valueSerializer;
 
   private final Function<KVStoreTuple<KEY>, byte[]> keyToBytes = KVStoreTuple::getSerializedBytes;
+  private final Function<KVStoreTuple<VALUE>, byte[]> valueToBytes = KVStoreTuple::getSerializedBytes;
 
   public CoreKVStoreImpl(ByteStore rawStore,
                          Serializer<KEY, byte[]> keySerializer,
@@ -89,6 +90,19 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
     return fromDocument(result);
   }
 
+  @Override
+  public Iterable<Document<KVStoreTuple<KEY>, KVStoreTuple<VALUE>>> putAll(List<KVStoreTuple<KEY>> keys,
+      List<KVStoreTuple<VALUE>> values, PutOption... options) {
+    if (VersionOption.getTagInfo(options).hasVersionOption()) {
+      // versions are validated one document at a time
+      return CoreKVStore.super.putAll(keys, values, options);
+    }
+
+    final Iterable<Document<byte[], byte[]>> results =
+      rawStore.putAll(Lists.transform(keys, keyToBytes), Lists.transform(values, valueToBytes));
+    return Iterables.transform(results, this::fromDocument);
+  }
+
   @Override
   public boolean contains(KVStoreTuple<KEY> key, ContainsOption... options) {
     return rawStore.contains(key.getSerializedBytes(), options);
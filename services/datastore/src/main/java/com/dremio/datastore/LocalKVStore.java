@@ -78,6 +78,18 @@ public class LocalKVStore<K, V> implements KVStore<K, V> {
     return fromDocument(coreKVStore.put(buildKey(key), buildValue(value), options));
   }
 
+  @Override
+  public Iterable<Document<K, V>> putAll(List<K> keys, List<V> values, PutOption... options) {
+    final List<KVStoreTuple<K>> convertedKeys = keys.stream()
+      .map(this::buildKey)
+      .collect(Collectors.toList());
+    final List<KVStoreTuple<V>> convertedValues = values.stream()
+      .map(this::buildValue)
+      .collect(Collectors.toList());
+
+    return Iterables.transform(coreKVStore.putAll(convertedKeys, convertedValues, options), this::fromDocument);
+  }
+
   @Override
   public boolean contains(K key, ContainsOption... options) {
     return coreKVStore.contains(buildKey(key), options);
@@ -21,14 +21,21 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -45,12 +52,15 @@ import org.rocksdb.FlushOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.DeferredException;
 import com.dremio.common.concurrent.AutoCloseableLock;
+import com.dremio.common.util.Closeable;
 import com.dremio.datastore.api.Document;
 import com.dremio.datastore.api.FindByRange;
 import com.dremio.datastore.api.ImmutableDocument;
@@ -303,22 +313,59 @@ class RocksDBStore implements ByteStore {
 
   }
 
-  private AutoCloseableLock sharedLock(byte[] key) {
+  private int stripe(byte[] key) {
     Preconditions.checkNotNull(key);
     final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = sharedLocks[Math.abs(hash % parallel)];
+    return Math.abs(hash % parallel);
+  }
+
+  private AutoCloseableLock sharedLock(byte[] key) {
+    AutoCloseableLock lock = sharedLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
   private AutoCloseableLock exclusiveLock(byte[] key) {
-    Preconditions.checkNotNull(key);
-    final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = exclusiveLocks[Math.abs(hash % parallel)];
+    AutoCloseableLock lock = exclusiveLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
+  /**
+   * Opens the shared locks of the stripes of all the given keys. Locks are always opened in stripe order, the same
+   * order as {@link #exclusively(ExclusiveOperation)}, so that concurrent bulk operations can't deadlock.
+   */
+  private Closeable sharedLocks(List<byte[]> keys) {
+    final BitSet stripes = new BitSet(parallel);
+    for (byte[] key : keys) {
+      stripes.set(stripe(key));
+    }
+
+    final Deque<AutoCloseableLock> opened = new ArrayDeque<>(stripes.cardinality());
+    final Closeable locks = () -> {
+      while (!opened.isEmpty()) {
+        opened.pop().close();
+      }
+    };
+    try {
+      for (int i = stripes.nextSetBit(0); i >= 0; i = stripes.nextSetBit(i + 1)) {
+        opened.push(sharedLocks[i].open());
+      }
+    } catch (RuntimeException e) {
+      locks.close();
+      throw e;
+    }
+    return locks;
+  }
+
+  /**
+   * Gets the values or blob pointers of the given keys in a single call to RocksDB. The returned map is keyed by
+   * the given key arrays themselves.
+   */
+  private Map<byte[], byte[]> multiGet(List<byte[]> keys) throws RocksDBException {
+    return db.multiGet(Collections.nCopies(keys.size(), handle), keys);
+  }
+
   /**
    * Delete all values. Deletes only values inside the store, leaving behind any leftover blobs that have been placed
    * directly in the file system.
@@ -483,10 +530,83 @@ class RocksDBStore implements ByteStore {
 
   @Override
   public Iterable<Document<byte[], byte[]>> get(List<byte[]> keys, GetOption... options) {
-    final List<Document<byte[], byte[]>> results = new ArrayList<>();
-    for (byte[] key : keys) {
-      results.add(get(key, options));
+    if (keys.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    try (Closeable ac = sharedLocks(keys)) {
+      throwIfClosed();
+      final Map<byte[], byte[]> valuesOrPtrs = multiGet(keys);
+      final List<Document<byte[], byte[]>> results = new ArrayList<>(keys.size());
+      for (byte[] key : keys) {
+        final RocksEntry result = resolvePtrOrValue(valuesOrPtrs.get(key));
+        if (result == null) {
+          results.add(null);
+          continue;
+        }
+        final byte[] value = result.getData();
+        results.add(toDocument(key, value, toTag(result.getMeta(), value)));
+      }
+      return results;
+    } catch (RocksDBException | BlobNotFoundException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public Iterable<Document<byte[], byte[]>> putAll(List<byte[]> keys, List<byte[]> newValues, PutOption... options) {
+    Preconditions.checkArgument(keys.size() == newValues.size(), "Got %s keys but %s values", keys.size(),
+      newValues.size());
+    if (keys.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // a key given several times ends up with its last value, only that one is written
+    final Map<ByteBuffer, Integer> lastIndexes = new HashMap<>();
+    final List<Document<byte[], byte[]>> results = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      final byte[] newValue = newValues.get(i);
+      if (newValue == null) {
+        throw new NullPointerException("null values are not allowed in kvstore");
+      }
+      lastIndexes.put(ByteBuffer.wrap(keys.get(i)), i);
+      results.add(toDocument(keys.get(i), newValue, ByteStore.generateTagFromBytes(newValue)));
+    }
+    final List<byte[]> uniqueKeys = new ArrayList<>(lastIndexes.size());
+    for (int index : lastIndexes.values()) {
+      uniqueKeys.add(keys.get(index));
+    }
+
+    try (Closeable ac = sharedLocks(uniqueKeys)) {
+      throwIfClosed();
+
+      final Map<byte[], byte[]> oldValuesOrPtrs = multiGet(uniqueKeys);
+      final List<BlobHolder> blobs = new ArrayList<>(uniqueKeys.size());
+      try (WriteBatch batch = new WriteBatch();
+           WriteOptions writeOptions = new WriteOptions()) {
+        for (int index : lastIndexes.values()) {
+          final BlobHolder blob = metaManager.filterPut(newValues.get(index), results.get(index).getTag());
+          blobs.add(blob);
+          batch.put(handle, keys.get(index), blob.ptrOrValue());
+        }
+        db.write(writeOptions, batch);
+        for (byte[] key : uniqueKeys) {
+          metaManager.deleteTranslation(meta(oldValuesOrPtrs.get(key)));
+        }
+        for (BlobHolder blob : blobs) {
+          blob.commit();
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        for (BlobHolder blob : blobs) {
+          blob.close();
+        }
+      }
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
     }
+
     return results;
   }
 
@@ -86,6 +86,11 @@ class TracingKVStore<K, V> implements KVStore<K, V> {
     return trace("put", () -> delegate.put(key, value, options));
   }
 
+  @Override
+  public Iterable<Document<K, V>> putAll(List<K> keys, List<V> values, PutOption... options) {
+    return trace("putAll", () -> delegate.putAll(keys, values, options));
+  }
+
   @Override
   public Iterable<Document<K, V>> find(FindOption... options) {
     return trace("find", () -> delegate.find(options));
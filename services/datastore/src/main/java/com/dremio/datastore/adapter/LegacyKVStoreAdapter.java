@@ -84,6 +84,16 @@ public class LegacyKVStoreAdapter<K, V> implements LegacyKVStore<K, V> {
     }
   }
 
+  @Override
+  public void putAll(List<K> keys, List<V> values) {
+    if (versionExtractor != null) {
+      // each value carries its own version, which has to be validated separately
+      LegacyKVStore.super.putAll(keys, values);
+    } else {
+      underlyingStore.putAll(keys, values);
+    }
+  }
+
   @Override
   public boolean contains(K key) {
     return underlyingStore.contains(key);
@@ -15,6 +15,7 @@
  */
 package com.dremio.datastore.api;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
@@ -117,6 +118,31 @@ public interface KVStore<K, V> {
    */
   Document<K, V> put(K key, V value, PutOption ... options);
 
+  /**
+   * Saves the provided values under the corresponding keys, as if {@link #put(Object, Object, PutOption...)} was
+   * called for each of them in order. Possibly more efficient than looping over the keys in application code
+   * depending on the underlying storage system.
+   *
+   * @param keys the keys to save the values.
+   * @param values the values to save, with parallel indices to the keys.
+   * @param options extra options for PUT operations, applied to each of them.
+   * @return the documents that are updated or created, with parallel indices to the keys.
+   * @throws com.dremio.datastore.DatastoreException when one or more runtime failures are encountered.
+   * @throws java.util.ConcurrentModificationException when VersionOption is passed in as a PutOption and that the
+   *         version tag provided by VersionOption is outdated. Documents before the one that failed validation
+   *         may have been saved.
+   */
+  default Iterable<Document<K, V>> putAll(List<K> keys, List<V> values, PutOption ... options) {
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException(String.format("Got %d keys but %d values", keys.size(), values.size()));
+    }
+    final List<Document<K, V>> results = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      results.add(put(keys.get(i), values.get(i), options));
+    }
+    return results;
+  }
+
   /**
    * Removes a document with the provided key value.
    *
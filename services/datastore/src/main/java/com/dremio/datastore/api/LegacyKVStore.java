@@ -61,6 +61,24 @@ public interface LegacyKVStore<K, V> {
    */
   void put(K key, V v);
 
+  /**
+   * Save the provided values under the corresponding keys, as if {@link #put(Object, Object)} was called for each
+   * of them in order. Possibly more efficient than looping over the keys in application code depending on the
+   * underlying storage system.
+   *
+   * @param keys the keys to save the values under
+   * @param values the values to save, with parallel indices to the keys, can not be null.
+   * @throws NullPointerException when a value is null.
+   */
+  default void putAll(List<K> keys, List<V> values) {
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException(String.format("Got %d keys but %d values", keys.size(), values.size()));
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      put(keys.get(i), values.get(i));
+    }
+  }
+
   /**
    * Indicate if the store contains an entry associated with the key. Return {@code true}
    * if such a key exist, {@code false} otherwise.
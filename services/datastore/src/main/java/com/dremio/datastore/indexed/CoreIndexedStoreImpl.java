@@ -234,6 +234,34 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     return doc;
   }
 
+  @Override
+  public Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> putAll(List<KVStoreTuple<K>> keys,
+      List<KVStoreTuple<V>> values, PutOption... options) {
+    if (indexesViaPutOption) {
+      // index fields are carried by the put options of each individual request
+      return CoreIndexedStore.super.putAll(keys, values, options);
+    }
+
+    KVStoreOptionUtility.checkIndexPutOptionIsNotUsed(options);
+    final Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> docs =
+      base.putAll(keys, values, options);
+
+    // hand all documents to the index writer as a single batch
+    final List<Term> terms = new ArrayList<>(keys.size());
+    final List<Document> documents = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      final Document document = toDoc(keys.get(i), values.get(i));
+      if (document != null) {
+        terms.add(keyAsTerm(keys.get(i)));
+        documents.add(document);
+      }
+    }
+    if (!documents.isEmpty()) {
+      index.updateMany(terms, documents);
+    }
+    return docs;
+  }
+
   private void index(KVStoreTuple<K> key, PutOption... options) {
     for (PutOption option : options) {
       switch (option.getPutOptionInfo().getType()) {
@@ -454,6 +482,16 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
       sb.append(index.getLiveRecords());
       sb.append("\n\t\t* deleted records: ");
       sb.append(index.getDeletedRecords());
+      sb.append("\n\t\t* pending commit writes: ");
+      sb.append(index.getPendingCommitWrites());
+      sb.append("\n\t\t* unrefreshed writes: ");
+      sb.append(index.getUnrefreshedWrites());
+      sb.append("\n\t\t* index lag (ms): ");
+      sb.append(index.getIndexLagMillis());
+      sb.append("\n\t\t* commits: ");
+      sb.append(index.getCommitCount());
+      sb.append("\n\t\t* last commit latency (ms): ");
+      sb.append(index.getLastCommitLatencyMillis());
       sb.append("\n");
       return sb.toString();
     }
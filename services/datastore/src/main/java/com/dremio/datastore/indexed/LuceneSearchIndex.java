@@ -24,7 +24,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.lucene.analysis.core.KeywordAnalyzer;
 import org.apache.lucene.document.Document;
@@ -51,6 +53,8 @@ import com.dremio.datastore.CoreIndexedStore;
 import com.dremio.datastore.WarningTimer;
 import com.dremio.datastore.indexed.CommitWrapper.CommitCloser;
 import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
+import com.dremio.telemetry.api.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
@@ -95,6 +99,21 @@ public class LuceneSearchIndex implements AutoCloseable {
    */
   public static final String COMMIT_FREQUENCY_MILLIS_PROPERTY = "dremio.lucene.commit_frequency";
 
+  /**
+   * Property name for the number of writes after which a commit is triggered without waiting for the
+   * commit frequency to elapse
+   *
+   * Default is 10000
+   */
+  public static final String COMMIT_WRITE_THRESHOLD_PROPERTY = "dremio.lucene.commit_write_threshold";
+
+  /**
+   * Property name for the number of writes after which the searcher is refreshed in the background
+   *
+   * Default is 100
+   */
+  public static final String REFRESH_WRITE_THRESHOLD_PROPERTY = "dremio.lucene.refresh_write_threshold";
+
   /**
    * Spinning disks override property
    *
@@ -109,6 +128,12 @@ public class LuceneSearchIndex implements AutoCloseable {
   //delay between end of a commit and next commit
   private static final long COMMIT_FREQUENCY = Integer.getInteger(COMMIT_FREQUENCY_MILLIS_PROPERTY, 60_000);
 
+  // number of uncommitted writes which triggers an early commit
+  private static final long COMMIT_WRITE_THRESHOLD = Integer.getInteger(COMMIT_WRITE_THRESHOLD_PROPERTY, 10_000);
+
+  // number of writes not visible to searchers which triggers a background refresh
+  private static final long REFRESH_WRITE_THRESHOLD = Integer.getInteger(REFRESH_WRITE_THRESHOLD_PROPERTY, 100);
+
   // Amount of RAM that may be used for buffering added documents and deletions before they are flushed
   // during normal processing
   private static final int RAM_BUFFER_SIZE_MB = Integer.getInteger(RAM_BUFFER_SIZE_MB_PROPERTY, 32);
@@ -126,12 +151,14 @@ public class LuceneSearchIndex implements AutoCloseable {
   private static final int SEARCHER_CACHE_TTL_MILLIS = 3600 * 1000;
 
   /**
-   * Starts a thread that will commit the writer every 60s (by default), if any exception is thrown during commit it will
-   * be recorded and calling throwExceptionIfAny() will throw it back
+   * Starts a thread that will commit the writer every 60s (by default), or sooner once enough writes are pending, and
+   * that refreshes the searcher as writes accumulate. If any exception is thrown during commit it will be recorded and
+   * calling throwExceptionIfAny() will throw it back
    */
   private final class CommitterThread implements AutoCloseable {
     private volatile Throwable commitException;
     private final Thread commitThread;
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
     private volatile boolean closed;
 
     CommitterThread() {
@@ -152,12 +179,27 @@ public class LuceneSearchIndex implements AutoCloseable {
       }
     }
 
+    /**
+     * Wakes up the committer thread before the commit frequency has elapsed.
+     */
+    void wakeUp() {
+      if (wakeUpRequested.compareAndSet(false, true)) {
+        synchronized (this) {
+          this.notify();
+        }
+      }
+    }
+
     private void commitLoop() {
+      long nextCommit = System.currentTimeMillis() + COMMIT_FREQUENCY;
       while (!closed) {
 
         synchronized(this) {
           try {
-            this.wait(COMMIT_FREQUENCY);
+            final long waitMillis = nextCommit - System.currentTimeMillis();
+            if (!wakeUpRequested.get() && waitMillis > 0) {
+              this.wait(waitMillis);
+            }
             if (closed) {
               return;
             }
@@ -166,18 +208,33 @@ public class LuceneSearchIndex implements AutoCloseable {
             return;
           }
         }
+        wakeUpRequested.set(false);
 
         // Do not commit while reindexing
         if (reindexing) {
+          nextCommit = System.currentTimeMillis() + COMMIT_FREQUENCY;
           continue;
         }
 
-        try (WarningTimer watch = new WarningTimer("LuceneSearchIndex commit", 5000)) {
+        try {
+          if (System.currentTimeMillis() >= nextCommit || getPendingCommitWrites() >= COMMIT_WRITE_THRESHOLD) {
+            try (WarningTimer watch = new WarningTimer("LuceneSearchIndex commit", 5000)) {
+              commit();
+            }
+            nextCommit = System.currentTimeMillis() + COMMIT_FREQUENCY;
+          }
+
+        } catch (Throwable e) {
+          commitException = e;
+          return; // stop commit thread, next call to any other method will throw an exception
+        }
+
+        if (getUnrefreshedWrites() > 0) {
           try {
-            commit();
-          } catch (Throwable e) {
-            commitException = e;
-            return; // stop commit thread, next call to any other method will throw an exception
+            refreshSearcher(false);
+          } catch (Exception e) {
+            // searches will retry the refresh themselves
+            logger.warn("Failed to refresh searcher for index {}.", name, e);
           }
         }
       }
@@ -214,9 +271,24 @@ public class LuceneSearchIndex implements AutoCloseable {
   private final String name;
   private final String liveRecordsMetricName;
   private final String deletedRecordsMetricsName;
+  private final String pendingWritesMetricName;
+  private final String indexLagMetricName;
+  private final String commitMetricName;
+  private final Timer commitTimer;
 
   private volatile boolean reindexing = false;
 
+  // number of writes (adds, updates and deletes) applied to the writer since the index was opened.
+  private final AtomicLong writeCount = new AtomicLong();
+  // value of writeCount when the last commit started.
+  private final AtomicLong committedWriteCount = new AtomicLong();
+  // value of writeCount when the searcher was last refreshed.
+  private final AtomicLong refreshedWriteCount = new AtomicLong();
+  // time (in millis) of the oldest write not covered by a commit, 0 if there is none.
+  private final AtomicLong oldestUncommittedWrite = new AtomicLong();
+  private final AtomicLong commitCount = new AtomicLong();
+  private volatile long lastCommitLatencyMillis;
+
   // the search version number is composed of 32-bit fixed random number and a 32-bit monotonic counter.
   private final int searchVersionBase = new Random().nextInt();
   private AtomicInteger searchVersionCounter = new AtomicInteger();
@@ -244,6 +316,8 @@ public class LuceneSearchIndex implements AutoCloseable {
   ) {
     this.name = name;
     this.commitWrapper = commitWrapper;
+    this.commitMetricName = Metrics.join(METRIC_PREFIX, name, "commit");
+    this.commitTimer = Metrics.newTimer(commitMetricName, ResetType.NEVER);
 
     final ConcurrentMergeScheduler cms = new ConcurrentMergeScheduler();
     String overrideSpins = System.getProperty(OVERRIDE_SPINS_PROPERTY);
@@ -288,6 +362,10 @@ public class LuceneSearchIndex implements AutoCloseable {
     deletedRecordsMetricsName = Metrics.join(METRIC_PREFIX, name, "deleted-records");
     Metrics.newGauge(liveRecordsMetricName, this::getLiveRecords);
     Metrics.newGauge(deletedRecordsMetricsName, this::getDeletedRecords);
+    pendingWritesMetricName = Metrics.join(METRIC_PREFIX, name, "pending-writes");
+    indexLagMetricName = Metrics.join(METRIC_PREFIX, name, "index-lag-millis");
+    Metrics.newGauge(pendingWritesMetricName, this::getPendingCommitWrites);
+    Metrics.newGauge(indexLagMetricName, this::getIndexLagMillis);
 
     searcherCache = CacheBuilder.newBuilder()
       .removalListener(x -> ((Searcher)x.getValue()).close())
@@ -298,14 +376,28 @@ public class LuceneSearchIndex implements AutoCloseable {
   private void checkIfChanged() {
     try{
       if (!searcherManager.isSearcherCurrent()) {
-        searcherManager.maybeRefreshBlocking();
+        refreshSearcher(true);
       }
     }catch(IOException ex){
       throw Throwables.propagate(ex);
     }
   }
 
+  private void refreshSearcher(boolean blocking) throws IOException {
+    final long writes = writeCount.get();
+    if (blocking) {
+      searcherManager.maybeRefreshBlocking();
+    } else if (!searcherManager.maybeRefresh()) {
+      // another thread is already refreshing
+      return;
+    }
+    refreshedWriteCount.accumulateAndGet(writes, Math::max);
+  }
+
   private void commit() throws IOException {
+    final long writes = writeCount.get();
+    final long startMillis = System.currentTimeMillis();
+    final long start = System.nanoTime();
     try (CommitCloser committer = commitWrapper.open(name)) {
       writer.commit();
       committer.succeeded();
@@ -313,6 +405,27 @@ public class LuceneSearchIndex implements AutoCloseable {
       logger.error("Failed to commit.", e);
       throw e;
     }
+
+    final long elapsed = System.nanoTime() - start;
+    commitTimer.update(elapsed, TimeUnit.NANOSECONDS);
+    lastCommitLatencyMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+    commitCount.incrementAndGet();
+    committedWriteCount.accumulateAndGet(writes, Math::max);
+    // writes which raced with the commit are at most as old as the commit itself
+    oldestUncommittedWrite.set(writeCount.get() > writes ? startMillis : 0);
+  }
+
+  private void onWrites(int count) {
+    final long writes = writeCount.addAndGet(count);
+    oldestUncommittedWrite.compareAndSet(0, System.currentTimeMillis());
+    if (reindexing) {
+      return;
+    }
+
+    if (writes - refreshedWriteCount.get() >= REFRESH_WRITE_THRESHOLD
+        || writes - committedWriteCount.get() >= COMMIT_WRITE_THRESHOLD) {
+      committerThread.wakeUp();
+    }
   }
 
   public void add(Document document) {
@@ -323,6 +436,7 @@ public class LuceneSearchIndex implements AutoCloseable {
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
+    onWrites(1);
   }
 
   public void addMany(Document... documents) {
@@ -334,6 +448,7 @@ public class LuceneSearchIndex implements AutoCloseable {
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
+    onWrites(documents.length);
   }
 
   public void update(Term term, Document document) {
@@ -343,6 +458,27 @@ public class LuceneSearchIndex implements AutoCloseable {
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
+    onWrites(1);
+  }
+
+  /**
+   * Updates a batch of documents, each one replacing the documents matching the term at the same position.
+   *
+   * @param terms the terms identifying the documents to replace
+   * @param documents the new documents
+   */
+  public void updateMany(List<Term> terms, List<Document> documents) {
+    Preconditions.checkArgument(terms.size() == documents.size(),
+      "Got %s terms but %s documents", terms.size(), documents.size());
+    committerThread.throwExceptionIfAny();
+    try {
+      for (int i = 0; i < documents.size(); i++) {
+        writer.updateDocument(terms.get(i), documents.get(i));
+      }
+    } catch(IOException ex) {
+      throw Throwables.propagate(ex);
+    }
+    onWrites(documents.size());
   }
 
   public int count(final Query query){
@@ -506,6 +642,9 @@ public class LuceneSearchIndex implements AutoCloseable {
     committerThread.close();
     Metrics.unregister(deletedRecordsMetricsName);
     Metrics.unregister(liveRecordsMetricName);
+    Metrics.unregister(pendingWritesMetricName);
+    Metrics.unregister(indexLagMetricName);
+    Metrics.unregister(commitMetricName);
     // commit will fail if writer is closed
     if (writer.isOpen()) {
       // flush first
@@ -533,6 +672,36 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
   }
 
+  /**
+   * @return number of writes not covered by a commit yet.
+   */
+  public long getPendingCommitWrites() {
+    return writeCount.get() - committedWriteCount.get();
+  }
+
+  /**
+   * @return number of writes not visible to searchers yet.
+   */
+  public long getUnrefreshedWrites() {
+    return writeCount.get() - refreshedWriteCount.get();
+  }
+
+  /**
+   * @return age in millis of the oldest write not covered by a commit, 0 if everything is committed.
+   */
+  public long getIndexLagMillis() {
+    final long oldest = oldestUncommittedWrite.get();
+    return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+  }
+
+  public long getCommitCount() {
+    return commitCount.get();
+  }
+
+  public long getLastCommitLatencyMillis() {
+    return lastCommitLatencyMillis;
+  }
+
   public void deleteDocuments(Term key) {
     committerThread.throwExceptionIfAny();
     try {
@@ -540,6 +709,7 @@ public class LuceneSearchIndex implements AutoCloseable {
     } catch (IOException ex) {
       throw Throwables.propagate(ex);
     }
+    onWrites(1);
   }
 
   public void delete() {
@@ -28,6 +28,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -289,6 +290,22 @@ public abstract class AbstractTestKVStore<K, V> {
     assertFalse(TAG_ASSERT_FAILURE_MSG, Strings.isNullOrEmpty(doc3.getTag()));
   }
 
+  @Test
+  public void testPutAll() {
+    final List<K> keys = ImmutableList.of(gen.newKey(), gen.newKey(), gen.newKey());
+    final List<V> values = ImmutableList.of(gen.newVal(), gen.newVal(), gen.newVal());
+
+    final Iterable<Document<K, V>> written = kvStore.putAll(keys, values);
+    assertEquals(keys.size(), Iterables.size(written));
+
+    final List<Document<K, V>> read = ImmutableList.copyOf(kvStore.get(keys));
+    for (int i = 0; i < keys.size(); i++) {
+      gen.assertKeyEquals(keys.get(i), read.get(i).getKey());
+      gen.assertValueEquals(values.get(i), read.get(i).getValue());
+      assertEquals(Iterables.get(written, i).getTag(), read.get(i).getTag());
+    }
+  }
+
   @Test(expected = NullPointerException.class)
   public void testPutWithNullValue() {
     kvStore.put(gen.newKey(), null);
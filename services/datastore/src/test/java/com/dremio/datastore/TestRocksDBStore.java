@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -246,6 +247,52 @@ public class TestRocksDBStore {
     assertEquals(null, store.get(randomKey));
   }
 
+  @Test
+  public void checkBulkOps() throws IOException {
+    final Random r = new Random(456);
+    final byte[] blobKey = new byte[5];
+    final byte[] smallKey = new byte[6];
+    final byte[] missingKey = new byte[7];
+    final byte[] blobValue1 = new byte[(int) BLOB_FILTER_SIZE + 1];
+    final byte[] blobValue2 = new byte[(int) BLOB_FILTER_SIZE + 1];
+    r.nextBytes(blobKey);
+    r.nextBytes(smallKey);
+    r.nextBytes(missingKey);
+    r.nextBytes(blobValue1);
+    r.nextBytes(blobValue2);
+    final byte[] smallValue = newRandomValue(r);
+
+    // a key given twice keeps its last value
+    final List<Document<byte[], byte[]>> putResults = toList(store.putAll(
+      Arrays.asList(blobKey, smallKey, blobKey), Arrays.asList(blobValue1, smallValue, blobValue2)));
+    assertEquals(3, putResults.size());
+    assertArrayEquals(blobValue2, putResults.get(2).getValue());
+
+    final List<Document<byte[], byte[]>> getResults = toList(store.get(Arrays.asList(smallKey, missingKey, blobKey, specialKey)));
+    assertEquals(4, getResults.size());
+    assertArrayEquals(smallValue, getResults.get(0).getValue());
+    assertEquals(putResults.get(1).getTag(), getResults.get(0).getTag());
+    assertEquals(null, getResults.get(1));
+    assertArrayEquals(blobValue2, getResults.get(2).getValue());
+    assertEquals(putResults.get(2).getTag(), getResults.get(2).getTag());
+    assertArrayEquals(store.get(specialKey).getValue(), getResults.get(3).getValue());
+
+    // overwriting the blob in bulk should not leave orphan blobs
+    store.putAll(Collections.singletonList(blobKey), Collections.singletonList(blobValue1));
+    assertArrayEquals(blobValue1, store.get(blobKey).getValue());
+    store.delete(blobKey);
+
+    Path blobDir = Paths.get(rocksDBResource.getDbDir(), "blob", "test");
+    List<Path> remainingBlobFiles = Files.list(blobDir).collect(Collectors.toList());
+    assertEquals("Expected zero remaining files.", Collections.EMPTY_LIST, remainingBlobFiles);
+  }
+
+  private static List<Document<byte[], byte[]>> toList(Iterable<Document<byte[], byte[]>> documents) {
+    final List<Document<byte[], byte[]>> list = new ArrayList<>();
+    documents.forEach(list::add);
+    return list;
+  }
+
   @Test()
   public void testNotClosed() throws InterruptedException, ExecutionException {
     ExecutorService executor = Executors.newFixedThreadPool(4);
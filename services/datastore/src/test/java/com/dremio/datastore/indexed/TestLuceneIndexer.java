@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -194,6 +195,41 @@ public class TestLuceneIndexer {
     }
   }
 
+  @Test
+  public void testUpdateManyAndWriteStats() throws Exception {
+    try (LuceneSearchIndex index = new LuceneSearchIndex(null, "update-many", true, CommitWrapper.NO_OP)) {
+      final long initialCommits = index.getCommitCount();
+      final List<Term> terms = new ArrayList<>();
+      final List<Document> documents = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        final BytesRef id = new BytesRef(Integer.toString(i));
+        final Document doc = new Document();
+        doc.add(new StringField(CoreIndexedStore.ID_FIELD_NAME, id, Store.YES));
+        doc.add(new StringField("user", "u1", Field.Store.YES));
+        terms.add(new Term(CoreIndexedStore.ID_FIELD_NAME, id));
+        documents.add(doc);
+      }
+
+      index.updateMany(terms, documents);
+      assertEquals(3, index.getPendingCommitWrites());
+      assertTrue(index.getIndexLagMillis() >= 0);
+
+      // searching refreshes the searcher
+      assertEquals(3, index.count(new TermQuery(new Term("user", "u1"))));
+      assertEquals(0, index.getUnrefreshedWrites());
+
+      // updating the same ids replaces the documents
+      index.updateMany(terms, documents);
+      assertEquals(3, index.count(new TermQuery(new Term("user", "u1"))));
+      assertEquals(6, index.getPendingCommitWrites());
+
+      index.deleteEverything();
+      assertEquals(0, index.getPendingCommitWrites());
+      assertEquals(0, index.getIndexLagMillis());
+      assertEquals(initialCommits + 1, index.getCommitCount());
+    }
+  }
+
   private void addSimpleDocument(LuceneSearchIndex index, String docName, String id) {
     final Document document = new Document();
     document.add(new StringField(CoreIndexedStore.ID_FIELD_NAME, new BytesRef(id), Store.YES));
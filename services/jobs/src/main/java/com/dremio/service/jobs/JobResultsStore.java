@@ -21,8 +21,11 @@ import static com.dremio.exec.store.easy.arrow.ArrowFileReader.fromBean;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.BufferAllocator;
 
@@ -45,6 +48,10 @@ import com.dremio.service.job.proto.JobInfo;
 import com.dremio.service.job.proto.JobResult;
 import com.dremio.service.job.proto.JobState;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -56,11 +63,23 @@ import com.google.common.collect.Sets;
 public class JobResultsStore implements Service {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsStore.class);
 
+  // Readers are kept open between pages of the same job so that paging through results doesn't reopen the files
+  @VisibleForTesting
+  static final int MAX_OPEN_READERS = 64;
+  private static final long READER_EXPIRATION_MINUTES = 5;
+
   private final String storageName;
   private final Path jobStoreLocation;
   private final FileSystem dfs;
   private final BufferAllocator allocator;
   private final LegacyIndexedStore<JobId, JobResult> store;
+  // a single segment so that the size limit and the eviction order apply to all the readers, not per segment
+  private final Cache<ReaderKey, CachedReader> readers = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumSize(MAX_OPEN_READERS)
+      .expireAfterAccess(READER_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+      .removalListener((RemovalListener<ReaderKey, CachedReader>) notification -> notification.getValue().evict())
+      .build();
 
   public JobResultsStore(
       final JobResultsStoreConfig resultsStoreConfig,
@@ -96,6 +115,7 @@ public class JobResultsStore implements Service {
 
   public boolean cleanup(JobId jobId) {
     final Path jobOutputDir = getJobOutputDir(jobId);
+    invalidateReaders(jobOutputDir);
     try {
       if (doesQueryResultsDirExists(jobOutputDir, jobId)) {
         deleteQueryResults(jobOutputDir, true, jobId);
@@ -242,11 +262,45 @@ public class JobResultsStore implements Service {
                                                     BufferAllocator allocator,
                                                     long fileOffset,
                                                     long fileLimit) throws IOException {
-    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator)) {
+    final ReaderKey key = new ReaderKey(jobOutputDir, arrowFileMetadata.getPath(), allocator);
+    final CachedReader cachedReader;
+    try {
+      cachedReader = readers.get(key,
+        () -> new CachedReader(newReader(jobOutputDir, arrowFileMetadata, allocator)));
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IOException(e.getCause());
+    }
+
+    final List<RecordBatchHolder> batches = cachedReader.read(fileOffset, fileLimit);
+    if (batches != null) {
+      return batches;
+    }
+
+    // the reader was evicted while we were getting it, read with a reader of our own
+    try(ArrowFileReader fileReader = newReader(jobOutputDir, arrowFileMetadata, allocator)) {
       return fileReader.read(fileOffset, fileLimit);
     }
   }
 
+  @VisibleForTesting
+  ArrowFileReader newReader(Path jobOutputDir, ArrowFileMetadata arrowFileMetadata, BufferAllocator allocator) {
+    return new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator);
+  }
+
+  /**
+   * Close the cached readers of the result files in the given job output directory
+   */
+  private void invalidateReaders(Path jobOutputDir) {
+    readers.asMap().keySet().removeIf(key -> key.jobOutputDir.equals(jobOutputDir));
+  }
+
+  @VisibleForTesting
+  long getOpenReaderCount() {
+    return readers.size();
+  }
+
   /**
    * Check if query results directory exists, optionally using jobId
    *
@@ -344,6 +398,8 @@ public class JobResultsStore implements Service {
 
   @Override
   public void close() throws Exception {
+    readers.invalidateAll();
+    readers.cleanUp();
   }
 
   protected Set<NodeEndpoint> getNodeEndpoints(JobId jobId) {
@@ -365,4 +421,69 @@ public class JobResultsStore implements Service {
     }
     return nodeEndpoints;
   }
+
+  /**
+   * Cache key of a result file reader. Readers are specific to the allocator the batches are read into.
+   */
+  private static final class ReaderKey {
+    private final Path jobOutputDir;
+    private final String file;
+    private final BufferAllocator allocator;
+
+    private ReaderKey(Path jobOutputDir, String file, BufferAllocator allocator) {
+      this.jobOutputDir = jobOutputDir;
+      this.file = file;
+      this.allocator = allocator;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ReaderKey)) {
+        return false;
+      }
+      final ReaderKey that = (ReaderKey) o;
+      return jobOutputDir.equals(that.jobOutputDir)
+        && Objects.equals(file, that.file)
+        && allocator == that.allocator;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(jobOutputDir, file, System.identityHashCode(allocator));
+    }
+  }
+
+  /**
+   * A reader kept open in the cache. Once evicted, the reader is closed and can't be used anymore.
+   */
+  private static final class CachedReader {
+    private final ArrowFileReader reader;
+    private boolean evicted;
+
+    private CachedReader(ArrowFileReader reader) {
+      this.reader = reader;
+    }
+
+    /**
+     * @return the batches read, or null if the reader was evicted
+     */
+    private synchronized List<RecordBatchHolder> read(long offset, long limit) throws IOException {
+      if (evicted) {
+        return null;
+      }
+      return reader.read(offset, limit);
+    }
+
+    private synchronized void evict() {
+      evicted = true;
+      try {
+        reader.close();
+      } catch (IOException e) {
+        logger.warn("Failed to close job results reader", e);
+      }
+    }
+  }
 }
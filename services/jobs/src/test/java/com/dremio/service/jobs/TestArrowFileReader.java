@@ -344,6 +344,55 @@ public class TestArrowFileReader extends DremioTest {
     }
   }
 
+  @Test
+  public void readingFileWithEmptyBatches() throws Exception {
+    List<VectorContainer> containers = Lists.newArrayList();
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      // generate a test file where empty batches are interleaved with batches of 5 records.
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(0, new BitVector("colBit", allocator), new VarCharVector("colVarChar", allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(0, new BitVector("colBit", allocator), new VarCharVector("colVarChar", allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+
+      Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      ArrowFileMetadata metadata = writeArrowFile(containers.toArray(new VectorContainer[5]));
+      try(ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF), com.dremio.io.file.Path.of(basePath.toUri()), metadata, allocator)) {
+        {
+          // Start in the last batch
+          List<RecordBatchHolder> batchHolders = getRecords(reader, 12, 3, allocator);
+          assertEquals(1, batchHolders.size());
+
+          verifyBatchHolder(batchHolders.get(0), 2, 5);
+          VectorContainer batchContainer = batchHolders.get(0).getData().getContainer();
+          assertEquals(TEST_BIT_VALUES.subList(2, 5), getBitValues(batchContainer, 2, 5));
+          assertEquals(TEST_VARCHAR_VALUES.subList(2, 5), getVarCharValues(batchContainer, 2, 5));
+
+          releaseBatches(batchHolders);
+        }
+        {
+          // Start at the first record after an empty batch and span over the next empty batch
+          List<RecordBatchHolder> batchHolders = getRecords(reader, 5, 7, allocator);
+          assertEquals(2, batchHolders.size());
+
+          verifyBatchHolder(batchHolders.get(0), 0, 5);
+          verifyBatchHolder(batchHolders.get(1), 0, 2);
+          VectorContainer batchContainer = batchHolders.get(1).getData().getContainer();
+          assertEquals(TEST_BIT_VALUES.subList(0, 2), getBitValues(batchContainer, 0, 2));
+          assertEquals(TEST_VARCHAR_VALUES.subList(0, 2), getVarCharValues(batchContainer, 0, 2));
+
+          releaseBatches(batchHolders);
+        }
+      }
+    } finally {
+      for(VectorContainer container : containers) {
+        if (container != null) {
+          container.clear();
+        }
+      }
+    }
+  }
+
   @Test
   public void writeAndReadEmptyListVectors() throws Exception {
     try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE);
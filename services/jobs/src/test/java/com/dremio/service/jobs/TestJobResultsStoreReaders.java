@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.datastore.api.LegacyIndexedStore;
+import com.dremio.exec.store.JobResultsStoreConfig;
+import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.easy.arrow.ArrowFileReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.service.job.proto.JobAttempt;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobInfo;
+import com.dremio.service.job.proto.JobResult;
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests for the result file readers kept open by {@link JobResultsStore}
+ */
+public class TestJobResultsStoreReaders {
+  private static final Path STORAGE_PATH = Path.of("/results");
+
+  private LegacyIndexedStore<JobId, JobResult> store;
+  private BufferAllocator allocator;
+  private JobResultsStore resultsStore;
+
+  // readers opened by the results store, in order
+  private final List<ArrowFileReader> openedReaders = new ArrayList<>();
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    store = mock(LegacyIndexedStore.class);
+    allocator = mock(BufferAllocator.class);
+    resultsStore = new JobResultsStore(new JobResultsStoreConfig("__jobResultsStore", STORAGE_PATH,
+      mock(FileSystem.class)), store, allocator) {
+      @Override
+      ArrowFileReader newReader(Path jobOutputDir, ArrowFileMetadata arrowFileMetadata, BufferAllocator allocator) {
+        final ArrowFileReader reader = mock(ArrowFileReader.class);
+        openedReaders.add(reader);
+        return reader;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    resultsStore.close();
+  }
+
+  private Path newJob(String id) {
+    final JobId jobId = new JobId(id);
+    // a job without result files, so that cleaning it up doesn't touch the file system
+    when(store.get(jobId)).thenReturn(new JobResult()
+      .setAttemptsList(Collections.singletonList(new JobAttempt().setInfo(new JobInfo()))));
+    return STORAGE_PATH.resolve(Iterables.getLast(resultsStore.getOutputTablePath(jobId)));
+  }
+
+  private void read(Path jobOutputDir, int file) throws Exception {
+    resultsStore.getQueryResults(jobOutputDir, new ArrowFileMetadata().setPath(file + ".dremarrow1"), allocator, 0, 10);
+  }
+
+  @Test
+  public void testReaderKeptOpenBetweenPages() throws Exception {
+    final Path jobOutputDir = newJob("job");
+
+    read(jobOutputDir, 0);
+    read(jobOutputDir, 0);
+
+    assertEquals(1, openedReaders.size());
+    assertEquals(1, resultsStore.getOpenReaderCount());
+    verify(openedReaders.get(0), times(2)).read(0, 10);
+    verify(openedReaders.get(0), never()).close();
+  }
+
+  @Test
+  public void testLeastRecentlyUsedReaderClosed() throws Exception {
+    final Path jobOutputDir = newJob("job");
+    for (int i = 0; i < JobResultsStore.MAX_OPEN_READERS; i++) {
+      read(jobOutputDir, i);
+    }
+    assertEquals(JobResultsStore.MAX_OPEN_READERS, resultsStore.getOpenReaderCount());
+
+    // the first file is read again, so the second one is now the least recently used
+    read(jobOutputDir, 0);
+    read(jobOutputDir, JobResultsStore.MAX_OPEN_READERS);
+
+    assertEquals(JobResultsStore.MAX_OPEN_READERS, resultsStore.getOpenReaderCount());
+    verify(openedReaders.get(1)).close();
+    for (int i = 0; i < openedReaders.size(); i++) {
+      if (i != 1) {
+        verify(openedReaders.get(i), never()).close();
+      }
+    }
+  }
+
+  @Test
+  public void testEvictedReaderReopened() throws Exception {
+    final Path jobOutputDir = newJob("job");
+    for (int i = 0; i <= JobResultsStore.MAX_OPEN_READERS; i++) {
+      read(jobOutputDir, i);
+    }
+    final ArrowFileReader evicted = openedReaders.get(0);
+    verify(evicted).close();
+
+    read(jobOutputDir, 0);
+
+    assertEquals(JobResultsStore.MAX_OPEN_READERS + 2, openedReaders.size());
+    final ArrowFileReader reopened = Iterables.getLast(openedReaders);
+    assertNotSame(evicted, reopened);
+    verify(evicted, times(1)).read(0, 10);
+    verify(reopened).read(0, 10);
+    verify(reopened, never()).close();
+    assertEquals(JobResultsStore.MAX_OPEN_READERS, resultsStore.getOpenReaderCount());
+  }
+
+  @Test
+  public void testCleanupClosesJobReaders() throws Exception {
+    final Path cleanedOutputDir = newJob("cleaned");
+    final Path keptOutputDir = newJob("kept");
+    read(cleanedOutputDir, 0);
+    read(cleanedOutputDir, 1);
+    read(keptOutputDir, 0);
+
+    assertTrue(resultsStore.cleanup(new JobId("cleaned")));
+
+    assertEquals(1, resultsStore.getOpenReaderCount());
+    verify(openedReaders.get(0)).close();
+    verify(openedReaders.get(1)).close();
+    verify(openedReaders.get(2), never()).close();
+
+    // results read after the cleanup use a new reader
+    read(cleanedOutputDir, 0);
+    assertEquals(4, openedReaders.size());
+  }
+
+  @Test
+  public void testCloseClosesAllReaders() throws Exception {
+    read(newJob("job1"), 0);
+    read(newJob("job2"), 0);
+
+    resultsStore.close();
+
+    assertEquals(0, resultsStore.getOpenReaderCount());
+    for (ArrowFileReader reader : openedReaders) {
+      verify(reader).close();
+    }
+  }
+}
@@ -15,21 +15,52 @@
  */
 package com.dremio.service.jobtelemetry.server;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import com.dremio.exec.proto.CoordExecRPC.QueryProgressMetrics;
 
 /**
  * Combiner for all individual executor metrics.
+ *
+ * An instance keeps the latest metrics of each executor along with their running combination, so that an update
+ * from one executor only adjusts the combined value instead of going over all executors again.
  */
-final class MetricsCombiner {
-  private final Stream<QueryProgressMetrics> executorMetrics;
+public final class MetricsCombiner {
+  private final Map<String, QueryProgressMetrics> executorMetrics = new HashMap<>();
+  private long rowsProcessed;
+
+  /**
+   * Replace the metrics previously reported by an executor.
+   * @param nodeAddress address of the executor
+   * @param metrics latest metrics of the executor
+   */
+  public synchronized void update(String nodeAddress, QueryProgressMetrics metrics) {
+    final QueryProgressMetrics previous = executorMetrics.put(nodeAddress, metrics);
+    if (previous != null) {
+      rowsProcessed -= previous.getRowsProcessed();
+    }
+    rowsProcessed += metrics.getRowsProcessed();
+  }
+
+  /**
+   * @return metrics combined across all executors.
+   */
+  public synchronized QueryProgressMetrics getCombined() {
+    return QueryProgressMetrics.newBuilder()
+      .setRowsProcessed(rowsProcessed)
+      .build();
+  }
 
-  private MetricsCombiner(Stream<QueryProgressMetrics> executorMetrics) {
-    this.executorMetrics = executorMetrics;
+  /**
+   * @return a copy of the latest metrics of each executor, keyed by executor address.
+   */
+  public synchronized Map<String, QueryProgressMetrics> getExecutorMetrics() {
+    return new HashMap<>(executorMetrics);
   }
 
-  private QueryProgressMetrics combine() {
+  public static QueryProgressMetrics combine(Stream<QueryProgressMetrics> executorMetrics) {
     long rowsProcessed =
         executorMetrics
           .mapToLong(QueryProgressMetrics::getRowsProcessed)
@@ -39,8 +70,4 @@ final class MetricsCombiner {
       .setRowsProcessed(rowsProcessed)
       .build();
   }
-
-  static QueryProgressMetrics combine(Stream<QueryProgressMetrics> executorMetrics) {
-    return new MetricsCombiner(executorMetrics).combine();
-  }
 }
@@ -104,8 +104,7 @@ public class ProgressMetricsPublisher implements AutoCloseable {
   }
 
   private QueryProgressMetrics fetchMetricsAndCombine(UserBitShared.QueryId queryId) {
-    return metricsStore.get(queryId)
-      .map(map -> MetricsCombiner.combine(map.getMetricsMapMap().values().stream()))
+    return metricsStore.getCombined(queryId)
       .orElse(QueryProgressMetrics.getDefaultInstance());
   }
 
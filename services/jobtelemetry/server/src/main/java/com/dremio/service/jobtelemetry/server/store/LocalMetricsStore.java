@@ -28,6 +28,7 @@ import com.dremio.exec.proto.CoordExecRPC;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.service.Service;
 import com.dremio.service.jobtelemetry.QueryProgressMetricsMap;
+import com.dremio.service.jobtelemetry.server.MetricsCombiner;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
@@ -36,7 +37,7 @@ import com.google.common.cache.CacheBuilder;
  */
 public class LocalMetricsStore implements MetricsStore, Service {
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalMetricsStore.class);
-  private Map<String, QueryProgressMetricsMap> map = new ConcurrentHashMap<>();
+  private Map<String, MetricsCombiner> map = new ConcurrentHashMap<>();
   private Cache<UserBitShared.QueryId, Boolean> deletedQueryIds = CacheBuilder.newBuilder()
     .expireAfterWrite(5, TimeUnit.MINUTES)
     .build();
@@ -61,17 +62,22 @@ public class LocalMetricsStore implements MetricsStore, Service {
       return;
     }
 
-    QueryProgressMetricsMap metrics =
-      QueryProgressMetricsMap.newBuilder()
-        .mergeFrom(get(queryId).orElse(QueryProgressMetricsMap.getDefaultInstance()))
-        .putMetricsMap(nodeEndPoint, queryNodeProgressMetrics)
-        .build();
-    map.put(queryIdToString(queryId), metrics);
+    map.computeIfAbsent(queryIdToString(queryId), k -> new MetricsCombiner())
+      .update(nodeEndPoint, queryNodeProgressMetrics);
   }
 
   @Override
   public Optional<QueryProgressMetricsMap> get(UserBitShared.QueryId queryId) {
-    return Optional.ofNullable(map.get(queryIdToString(queryId)));
+    return Optional.ofNullable(map.get(queryIdToString(queryId)))
+      .map(combiner -> QueryProgressMetricsMap.newBuilder()
+        .putAllMetricsMap(combiner.getExecutorMetrics())
+        .build());
+  }
+
+  @Override
+  public Optional<CoordExecRPC.QueryProgressMetrics> getCombined(UserBitShared.QueryId queryId) {
+    return Optional.ofNullable(map.get(queryIdToString(queryId)))
+      .map(MetricsCombiner::getCombined);
   }
 
   @Override
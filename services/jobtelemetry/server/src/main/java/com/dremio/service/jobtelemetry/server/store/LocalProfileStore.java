@@ -189,7 +189,8 @@ public class LocalProfileStore implements ProfileStore {
         .keyFormat(Format.wrapped(AttemptId.class, AttemptIdUtils::toString,
           AttemptIdUtils::fromString,
           Format.ofString()))
-        .valueFormat(Format.ofProtobuf(UserBitShared.QueryProfile.class))
+        .valueFormat(Format.wrapped(UserBitShared.QueryProfile.class, ProfileCodec::encode, ProfileCodec::decode,
+          Format.ofBytes()))
         .build();
     }
   }
@@ -21,6 +21,7 @@ import com.dremio.exec.proto.CoordExecRPC.QueryProgressMetrics;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.service.Service;
 import com.dremio.service.jobtelemetry.QueryProgressMetricsMap;
+import com.dremio.service.jobtelemetry.server.MetricsCombiner;
 
 /**
  * Store used to store and retrieve query progress metrics.
@@ -40,6 +41,15 @@ public interface MetricsStore extends Service {
    */
   Optional<QueryProgressMetricsMap> get(UserBitShared.QueryId queryId);
 
+  /**
+   * get query progression metrics combined across all executor nodes.
+   * @param queryId queryId
+   * @return combined QueryProgressMetrics
+   */
+  default Optional<QueryProgressMetrics> getCombined(UserBitShared.QueryId queryId) {
+    return get(queryId).map(map -> MetricsCombiner.combine(map.getMetricsMapMap().values().stream()));
+  }
+
   /**
    * Delete the metrics entry for given queryId.
    * @param queryId
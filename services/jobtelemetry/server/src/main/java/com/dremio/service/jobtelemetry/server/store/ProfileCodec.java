@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobtelemetry.server.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dremio.exec.proto.UserBitShared.MajorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.MetricValue;
+import com.dremio.exec.proto.UserBitShared.MinorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Serialization of full query profiles in the profiles store.
+ *
+ * Operator metrics make up most of a large profile. They are pulled out of the protobuf and written as a columnar
+ * section (all metric counts, then all flags, ids, long values and double values), and the whole payload is zstd
+ * compressed. Values written before this format existed are plain protobuf profiles, which never start with a zero
+ * byte since field number 0 is invalid.
+ */
+final class ProfileCodec {
+  private static final byte MARKER = 0;
+  private static final byte VERSION = 1;
+  private static final int COMPRESSION_LEVEL = 3;
+
+  private static final int HAS_ID = 1;
+  private static final int HAS_LONG = 2;
+  private static final int HAS_DOUBLE = 4;
+
+  private ProfileCodec() {
+  }
+
+  static byte[] encode(QueryProfile profile) {
+    final QueryProfile.Builder builder = profile.toBuilder();
+    final List<Integer> counts = new ArrayList<>();
+    final List<MetricValue> metrics = new ArrayList<>();
+    for (MajorFragmentProfile.Builder major : builder.getFragmentProfileBuilderList()) {
+      for (MinorFragmentProfile.Builder minor : major.getMinorFragmentProfileBuilderList()) {
+        for (OperatorProfile.Builder operator : minor.getOperatorProfileBuilderList()) {
+          counts.add(operator.getMetricCount());
+          metrics.addAll(operator.getMetricList());
+          operator.clearMetric();
+        }
+      }
+    }
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(MARKER);
+    bytes.write(VERSION);
+    try (DataOutputStream out = new DataOutputStream(new ZstdOutputStream(bytes, COMPRESSION_LEVEL))) {
+      final byte[] stripped = builder.build().toByteArray();
+      out.writeInt(stripped.length);
+      out.write(stripped);
+
+      out.writeInt(counts.size());
+      for (int count : counts) {
+        out.writeInt(count);
+      }
+
+      out.writeInt(metrics.size());
+      for (MetricValue metric : metrics) {
+        out.writeByte((metric.hasMetricId() ? HAS_ID : 0)
+          | (metric.hasLongValue() ? HAS_LONG : 0)
+          | (metric.hasDoubleValue() ? HAS_DOUBLE : 0));
+      }
+      for (MetricValue metric : metrics) {
+        if (metric.hasMetricId()) {
+          out.writeInt(metric.getMetricId());
+        }
+      }
+      for (MetricValue metric : metrics) {
+        if (metric.hasLongValue()) {
+          out.writeLong(metric.getLongValue());
+        }
+      }
+      for (MetricValue metric : metrics) {
+        if (metric.hasDoubleValue()) {
+          out.writeDouble(metric.getDoubleValue());
+        }
+      }
+    } catch (IOException e) {
+      throw new ProfileStoreException("Failed to encode profile", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static QueryProfile decode(byte[] bytes) {
+    try {
+      if (bytes.length == 0 || bytes[0] != MARKER) {
+        return QueryProfile.parseFrom(bytes);
+      }
+      if (bytes.length < 2 || bytes[1] != VERSION) {
+        throw new ProfileStoreException(String.format("Unknown profile format version %d",
+          bytes.length < 2 ? -1 : bytes[1]));
+      }
+
+      try (DataInputStream in = new DataInputStream(
+        new ZstdInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2)))) {
+        final byte[] stripped = new byte[in.readInt()];
+        in.readFully(stripped);
+        final QueryProfile.Builder builder = QueryProfile.newBuilder().mergeFrom(stripped);
+
+        final int[] counts = new int[in.readInt()];
+        for (int i = 0; i < counts.length; i++) {
+          counts[i] = in.readInt();
+        }
+
+        final MetricValue.Builder[] metrics = new MetricValue.Builder[in.readInt()];
+        final byte[] flags = new byte[metrics.length];
+        in.readFully(flags);
+        for (int i = 0; i < metrics.length; i++) {
+          metrics[i] = MetricValue.newBuilder();
+          if ((flags[i] & HAS_ID) != 0) {
+            metrics[i].setMetricId(in.readInt());
+          }
+        }
+        for (int i = 0; i < metrics.length; i++) {
+          if ((flags[i] & HAS_LONG) != 0) {
+            metrics[i].setLongValue(in.readLong());
+          }
+        }
+        for (int i = 0; i < metrics.length; i++) {
+          if ((flags[i] & HAS_DOUBLE) != 0) {
+            metrics[i].setDoubleValue(in.readDouble());
+          }
+        }
+
+        int operatorIndex = 0;
+        int metricIndex = 0;
+        for (MajorFragmentProfile.Builder major : builder.getFragmentProfileBuilderList()) {
+          for (MinorFragmentProfile.Builder minor : major.getMinorFragmentProfileBuilderList()) {
+            for (OperatorProfile.Builder operator : minor.getOperatorProfileBuilderList()) {
+              if (operatorIndex == counts.length || metricIndex + counts[operatorIndex] > metrics.length) {
+                throw new ProfileStoreException("Profile metrics do not match its operators");
+              }
+              for (int i = 0; i < counts[operatorIndex]; i++) {
+                operator.addMetric(metrics[metricIndex++]);
+              }
+              operatorIndex++;
+            }
+          }
+        }
+        if (operatorIndex != counts.length || metricIndex != metrics.length) {
+          throw new ProfileStoreException("Profile metrics do not match its operators");
+        }
+        return builder.build();
+      }
+    } catch (InvalidProtocolBufferException e) {
+      throw new ProfileStoreException("Failed to parse profile", e);
+    } catch (IOException e) {
+      throw new ProfileStoreException("Failed to decode profile", e);
+    }
+  }
+}
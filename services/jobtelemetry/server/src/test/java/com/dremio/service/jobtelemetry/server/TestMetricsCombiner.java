@@ -45,4 +45,20 @@ public class TestMetricsCombiner {
     assertEquals(220,
       MetricsCombiner.combine(Stream.of(metrics1, metrics2)).getRowsProcessed());
   }
+
+  @Test
+  public void testIncrementalUpdates() {
+    MetricsCombiner combiner = new MetricsCombiner();
+    assertEquals(0, combiner.getCombined().getRowsProcessed());
+
+    combiner.update("node1", CoordExecRPC.QueryProgressMetrics.newBuilder().setRowsProcessed(100).build());
+    combiner.update("node2", CoordExecRPC.QueryProgressMetrics.newBuilder().setRowsProcessed(120).build());
+    assertEquals(220, combiner.getCombined().getRowsProcessed());
+
+    // a new report from an executor replaces its previous one
+    combiner.update("node1", CoordExecRPC.QueryProgressMetrics.newBuilder().setRowsProcessed(150).build());
+    assertEquals(270, combiner.getCombined().getRowsProcessed());
+    assertEquals(2, combiner.getExecutorMetrics().size());
+    assertEquals(150, combiner.getExecutorMetrics().get("node1").getRowsProcessed());
+  }
 }
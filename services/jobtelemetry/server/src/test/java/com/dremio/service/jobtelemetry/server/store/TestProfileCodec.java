@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobtelemetry.server.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.dremio.exec.proto.UserBitShared;
+
+/**
+ * Tests for {@link ProfileCodec}.
+ */
+public class TestProfileCodec {
+
+  private static UserBitShared.QueryProfile newProfile(int fragments, int operators) {
+    final UserBitShared.QueryProfile.Builder profile = UserBitShared.QueryProfile.newBuilder()
+      .setQuery("select * from t")
+      .setState(UserBitShared.QueryResult.QueryState.COMPLETED);
+
+    for (int major = 0; major < fragments; major++) {
+      final UserBitShared.MajorFragmentProfile.Builder majorProfile =
+        UserBitShared.MajorFragmentProfile.newBuilder().setMajorFragmentId(major);
+      final UserBitShared.MinorFragmentProfile.Builder minorProfile =
+        UserBitShared.MinorFragmentProfile.newBuilder().setMinorFragmentId(0);
+      for (int op = 0; op < operators; op++) {
+        final UserBitShared.OperatorProfile.Builder operator = UserBitShared.OperatorProfile.newBuilder()
+          .setOperatorId(op)
+          .setProcessNanos(op * 1000L);
+        // some operators have no metrics, some metrics only carry one of the values
+        for (int m = 0; m < op % 4; m++) {
+          final UserBitShared.MetricValue.Builder metric = UserBitShared.MetricValue.newBuilder().setMetricId(m);
+          if (m % 2 == 0) {
+            metric.setLongValue(major * 100L + op);
+          } else {
+            metric.setDoubleValue(op / 3.0);
+          }
+          operator.addMetric(metric);
+        }
+        minorProfile.addOperatorProfile(operator);
+      }
+      profile.addFragmentProfile(majorProfile.addMinorFragmentProfile(minorProfile));
+    }
+    return profile.build();
+  }
+
+  @Test
+  public void testRoundTrip() {
+    final UserBitShared.QueryProfile profile = newProfile(10, 50);
+    final byte[] encoded = ProfileCodec.encode(profile);
+    assertEquals(profile, ProfileCodec.decode(encoded));
+    assertTrue(encoded.length < profile.getSerializedSize());
+  }
+
+  @Test
+  public void testRoundTripWithoutOperators() {
+    final UserBitShared.QueryProfile profile = newProfile(0, 0);
+    assertEquals(profile, ProfileCodec.decode(ProfileCodec.encode(profile)));
+  }
+
+  @Test
+  public void testDecodeLegacyProfile() {
+    final UserBitShared.QueryProfile profile = newProfile(2, 5);
+    assertEquals(profile, ProfileCodec.decode(profile.toByteArray()));
+    assertEquals(UserBitShared.QueryProfile.getDefaultInstance(), ProfileCodec.decode(new byte[0]));
+  }
+
+  @Test(expected = ProfileStoreException.class)
+  public void testUnknownVersion() {
+    final byte[] encoded = ProfileCodec.encode(newProfile(1, 1));
+    encoded[1] = 42;
+    ProfileCodec.decode(encoded);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.spill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+
+/**
+ * Compression codecs for spill files. Spill files are written and read back by the same operator, so the codec
+ * doesn't need to be recorded in the file: the reader just has to use the codec the file was written with.
+ */
+public enum SpillCompressionCodec {
+  /**
+   * Spill files are written as is.
+   */
+  NONE {
+    @Override
+    public OutputStream compress(OutputStream out, int level) {
+      return out;
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) {
+      return in;
+    }
+  },
+
+  /**
+   * LZ4 block compression. Cheap enough to be a win as soon as the spill disks are not much faster than memory.
+   * The level is ignored.
+   */
+  LZ4 {
+    @Override
+    public OutputStream compress(OutputStream out, int level) {
+      return new LZ4BlockOutputStream(out);
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) {
+      return new LZ4BlockInputStream(in);
+    }
+  },
+
+  /**
+   * Zstandard compression at the given level. Compresses better than LZ4 at a higher cpu cost, useful when
+   * spill disks are slow or small.
+   */
+  ZSTD {
+    @Override
+    public OutputStream compress(OutputStream out, int level) throws IOException {
+      return new ZstdOutputStream(out, level);
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) throws IOException {
+      return new ZstdInputStream(in);
+    }
+  };
+
+  /**
+   * Wraps the given stream so that everything written to it gets compressed. Closing the returned stream closes
+   * the given one.
+   *
+   * @param out stream to write compressed bytes to
+   * @param level compression level, only used by codecs that support levels
+   * @return stream to write uncompressed bytes to
+   */
+  public abstract OutputStream compress(OutputStream out, int level) throws IOException;
+
+  /**
+   * Wraps the given stream of compressed bytes so that reads return the decompressed bytes. Closing the returned
+   * stream closes the given one.
+   *
+   * @param in stream to read compressed bytes from
+   * @return stream of decompressed bytes
+   */
+  public abstract InputStream decompress(InputStream in) throws IOException;
+
+  public boolean isCompressed() {
+    return this != NONE;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.spill;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Tests for {@link SpillCompressionCodec}
+ */
+public class TestSpillCompressionCodec {
+
+  private static byte[] roundTrip(SpillCompressionCodec codec, byte[] data, ByteArrayOutputStream compressed) throws Exception {
+    try (OutputStream out = codec.compress(compressed, 3)) {
+      // written in two chunks with a flush in between, like a spill stream appended to by several spills
+      out.write(data, 0, data.length / 2);
+      out.flush();
+      out.write(data, data.length / 2, data.length - data.length / 2);
+    }
+    try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed.toByteArray()))) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final byte[] data = new byte[1 << 20];
+    new Random(0).nextBytes(data);
+    for (SpillCompressionCodec codec : SpillCompressionCodec.values()) {
+      assertArrayEquals(codec.name(), data, roundTrip(codec, data, new ByteArrayOutputStream()));
+    }
+  }
+
+  @Test
+  public void testCompresses() throws Exception {
+    // repetitive data, as found in spilled key and accumulator vectors
+    final byte[] data = new byte[1 << 20];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 64);
+    }
+    for (SpillCompressionCodec codec : SpillCompressionCodec.values()) {
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      roundTrip(codec, data, compressed);
+      if (codec.isCompressed()) {
+        assertTrue(codec.name(), compressed.size() < data.length / 10);
+      } else {
+        assertEquals(data.length, compressed.size());
+      }
+    }
+  }
+}